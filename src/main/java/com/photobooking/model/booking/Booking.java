@@ -1,5 +1,6 @@
 package com.photobooking.model.booking;
 
+import com.photobooking.util.RecordTokenizer;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -10,6 +11,9 @@ import java.util.UUID;
 public class Booking implements Serializable {
     private static final long serialVersionUID = 1L;
 
+    // Duration assumed for bookings stored before the duration was recorded
+    public static final int DEFAULT_DURATION_HOURS = 3;
+
     // Booking status enum
     public enum BookingStatus {
         PENDING, CONFIRMED, COMPLETED, CANCELLED
@@ -32,11 +36,13 @@ public class Booking implements Serializable {
     private BookingType eventType;
     private BookingStatus status;
     private double totalPrice;
+    private int durationHours;
 
     // Constructors
     public Booking() {
         this.bookingId = UUID.randomUUID().toString();
         this.status = BookingStatus.PENDING;
+        this.durationHours = DEFAULT_DURATION_HOURS;
     }
 
     public Booking(String clientId, String photographerId, String serviceId,
@@ -52,6 +58,7 @@ public class Booking implements Serializable {
         this.eventType = eventType;
         this.totalPrice = totalPrice;
         this.status = BookingStatus.PENDING;
+        this.durationHours = DEFAULT_DURATION_HOURS;
     }
 
     // Getters and Setters
@@ -143,6 +150,22 @@ public class Booking implements Serializable {
         this.totalPrice = totalPrice;
     }
 
+    public int getDurationHours() {
+        return durationHours;
+    }
+
+    public void setDurationHours(int durationHours) {
+        this.durationHours = durationHours;
+    }
+
+    /**
+     * Get the time the event ends, based on the booked duration
+     * @return The end date and time, or null if the event date is not set
+     */
+    public LocalDateTime getEventEndDateTime() {
+        return eventDateTime != null ? eventDateTime.plusHours(durationHours) : null;
+    }
+
     // Convert booking to file string representation
     public String toFileString() {
         return String.join(",",
@@ -152,30 +175,33 @@ public class Booking implements Serializable {
                 serviceId,
                 bookingDateTime.toString(),
                 eventDateTime.toString(),
-                eventLocation,
-                eventNotes != null ? eventNotes : "",
+                RecordTokenizer.field(eventLocation),
+                RecordTokenizer.field(eventNotes),
                 eventType.name(),
                 status.name(),
-                String.valueOf(totalPrice)
+                String.valueOf(totalPrice),
+                String.valueOf(durationHours)
         );
     }
 
     // Create booking from file string
     public static Booking fromFileString(String fileString) {
-        String[] parts = fileString.split(",");
-        if (parts.length >= 11) {
+        RecordTokenizer tokenizer = new RecordTokenizer(fileString);
+        int fieldCount = tokenizer.countFields();
+        if (fieldCount >= 11) {
             Booking booking = new Booking();
-            booking.setBookingId(parts[0]);
-            booking.setClientId(parts[1]);
-            booking.setPhotographerId(parts[2]);
-            booking.setServiceId(parts[3]);
-            booking.setBookingDateTime(LocalDateTime.parse(parts[4]));
-            booking.setEventDateTime(LocalDateTime.parse(parts[5]));
-            booking.setEventLocation(parts[6]);
-            booking.setEventNotes(parts[7].isEmpty() ? null : parts[7]);
-            booking.setEventType(BookingType.valueOf(parts[8]));
-            booking.setStatus(BookingStatus.valueOf(parts[9]));
-            booking.setTotalPrice(Double.parseDouble(parts[10]));
+            booking.setBookingId(tokenizer.next());
+            booking.setClientId(tokenizer.next());
+            booking.setPhotographerId(tokenizer.next());
+            booking.setServiceId(tokenizer.next());
+            booking.setBookingDateTime(tokenizer.nextDateTime());
+            booking.setEventDateTime(tokenizer.nextDateTime());
+            booking.setEventLocation(tokenizer.nextText());
+            booking.setEventNotes(tokenizer.nextTextOrNull());
+            booking.setEventType(tokenizer.nextEnum(BookingType.class));
+            booking.setStatus(tokenizer.nextEnum(BookingStatus.class));
+            booking.setTotalPrice(tokenizer.nextDouble());
+            if (fieldCount > 11) booking.setDurationHours(tokenizer.nextInt());
             return booking;
         }
         return null;
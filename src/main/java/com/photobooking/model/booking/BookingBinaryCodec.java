@@ -0,0 +1,62 @@
+package com.photobooking.model.booking;
+
+import com.photobooking.util.BinaryCodec;
+import com.photobooking.util.BinaryFields;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Binary codec for bookings.
+ * Schema version 1: IDs as UUIDs, date-times as epoch seconds, enums as ordinals.
+ * Schema version 2: adds the booked duration in hours.
+ */
+public class BookingBinaryCodec implements BinaryCodec<Booking> {
+    public static final BookingBinaryCodec INSTANCE = new BookingBinaryCodec();
+
+    private static final int SCHEMA_VERSION = 2;
+
+    private static final Booking.BookingType[] BOOKING_TYPES = Booking.BookingType.values();
+    private static final Booking.BookingStatus[] BOOKING_STATUSES = Booking.BookingStatus.values();
+
+    @Override
+    public int getSchemaVersion() {
+        return SCHEMA_VERSION;
+    }
+
+    @Override
+    public void write(Booking booking, DataOutput out) throws IOException {
+        BinaryFields.writeId(out, booking.getBookingId());
+        BinaryFields.writeId(out, booking.getClientId());
+        BinaryFields.writeId(out, booking.getPhotographerId());
+        BinaryFields.writeId(out, booking.getServiceId());
+        BinaryFields.writeDateTime(out, booking.getBookingDateTime());
+        BinaryFields.writeDateTime(out, booking.getEventDateTime());
+        BinaryFields.writeString(out, booking.getEventLocation());
+        BinaryFields.writeString(out, booking.getEventNotes());
+        BinaryFields.writeEnum(out, booking.getEventType());
+        BinaryFields.writeEnum(out, booking.getStatus());
+        out.writeDouble(booking.getTotalPrice());
+        out.writeInt(booking.getDurationHours());
+    }
+
+    @Override
+    public Booking read(ByteBuffer in, int schemaVersion) {
+        Booking booking = new Booking();
+        booking.setBookingId(BinaryFields.readId(in));
+        booking.setClientId(BinaryFields.readId(in));
+        booking.setPhotographerId(BinaryFields.readId(in));
+        booking.setServiceId(BinaryFields.readId(in));
+        booking.setBookingDateTime(BinaryFields.readDateTime(in));
+        booking.setEventDateTime(BinaryFields.readDateTime(in));
+        booking.setEventLocation(BinaryFields.readString(in));
+        booking.setEventNotes(BinaryFields.readString(in));
+        booking.setEventType(BinaryFields.readEnum(in, BOOKING_TYPES));
+        booking.setStatus(BinaryFields.readEnum(in, BOOKING_STATUSES));
+        booking.setTotalPrice(in.getDouble());
+        if (schemaVersion >= 2) {
+            booking.setDurationHours(in.getInt());
+        }
+        return booking;
+    }
+}
@@ -0,0 +1,378 @@
+package com.photobooking.model.booking;
+
+import com.photobooking.model.photographer.AvailabilityCalendar;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * In-memory indexes over the bookings held by BookingManager.
+ * Bookings are kept in file order by ID, with hash indexes by client, photographer and status.
+ * Each index bucket keeps its bookings in insertion order, so lookups return bookings in the
+ * same order a scan of the file would.
+ *
+ * Temporal indexes order all bookings, and each photographer's and client's bookings, by
+ * event date-time, so upcoming, past and date-range queries read an already sorted sub-map.
+ *
+ * Each photographer's active (non-cancelled) bookings are also held in an interval tree over
+ * their event start and end times, so conflict checks do not scan the photographer's bookings.
+ * The same time ranges are mirrored into the shared AvailabilityCalendar when one is attached.
+ *
+ * Not thread-safe; BookingManager guards every access. The one exception is hasConflict, which
+ * BookingManager may call holding only the photographer's lock stripe: every change to a
+ * photographer's interval tree is made under that stripe, and the trees are looked up in a
+ * concurrent map.
+ */
+class BookingIndex {
+    private final Map<String, Booking> byId = new LinkedHashMap<>();
+    private final Map<String, Map<String, Booking>> byClient = new HashMap<>();
+    private final Map<String, Map<String, Booking>> byPhotographer = new HashMap<>();
+    private final Map<Booking.BookingStatus, Map<String, Booking>> byStatus =
+            new EnumMap<>(Booking.BookingStatus.class);
+
+    private final NavigableMap<TimeKey, Booking> byTime = new TreeMap<>();
+    private final Map<String, NavigableMap<TimeKey, Booking>> byClientTime = new HashMap<>();
+    private final Map<String, NavigableMap<TimeKey, Booking>> byPhotographerTime = new HashMap<>();
+    private final Map<String, BookingIntervalTree> byPhotographerInterval = new ConcurrentHashMap<>();
+
+    // Slot bitmaps kept in step with the active bookings, null until attached
+    private AvailabilityCalendar calendar;
+
+    // Keys each booking was indexed under; callers may change a booking before passing it to update
+    private final Map<String, IndexedKeys> indexedKeys = new HashMap<>();
+
+    private static final class IndexedKeys {
+        private final String clientId;
+        private final String photographerId;
+        private final Booking.BookingStatus status;
+        private final TimeKey timeKey;
+        // Occupied time range, null for cancelled bookings and bookings without a date
+        private final LocalDateTime intervalStart;
+        private final LocalDateTime intervalEnd;
+
+        IndexedKeys(Booking booking) {
+            this.clientId = booking.getClientId();
+            this.photographerId = booking.getPhotographerId();
+            this.status = booking.getStatus();
+            this.timeKey = booking.getEventDateTime() != null
+                    ? new TimeKey(booking.getEventDateTime(), booking.getBookingId()) : null;
+
+            boolean occupies = booking.getEventDateTime() != null
+                    && booking.getStatus() != Booking.BookingStatus.CANCELLED;
+            this.intervalStart = occupies ? booking.getEventDateTime() : null;
+            this.intervalEnd = occupies ? booking.getEventEndDateTime() : null;
+        }
+    }
+
+    /**
+     * Position of a booking on a timeline: its event date-time, with ties broken by booking ID
+     */
+    static final class TimeKey implements Comparable<TimeKey> {
+        // Booking IDs that sort before and after every real ID, for range bounds
+        private static final String FIRST_ID = "";
+        private static final String LAST_ID = "\uffff";
+
+        private final LocalDateTime time;
+        private final String bookingId;
+
+        TimeKey(LocalDateTime time, String bookingId) {
+            this.time = time;
+            this.bookingId = bookingId;
+        }
+
+        static TimeKey before(LocalDateTime time) {
+            return new TimeKey(time, FIRST_ID);
+        }
+
+        static TimeKey after(LocalDateTime time) {
+            return new TimeKey(time, LAST_ID);
+        }
+
+        /**
+         * Parse a key written by toString
+         * @return The key, or null if the text is not a valid key
+         */
+        static TimeKey parse(String text) {
+            int separator = text != null ? text.lastIndexOf('|') : -1;
+            if (separator <= 0) {
+                return null;
+            }
+            try {
+                return new TimeKey(LocalDateTime.parse(text.substring(0, separator)), text.substring(separator + 1));
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public int compareTo(TimeKey other) {
+            int result = time.compareTo(other.time);
+            return result != 0 ? result : bookingId.compareTo(other.bookingId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TimeKey)) return false;
+            TimeKey other = (TimeKey) o;
+            return time.equals(other.time) && bookingId.equals(other.bookingId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * time.hashCode() + bookingId.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return time + "|" + bookingId;
+        }
+    }
+
+    /**
+     * Add or replace a booking
+     * @param booking The booking
+     */
+    void put(Booking booking) {
+        String bookingId = booking.getBookingId();
+        if (indexedKeys.containsKey(bookingId)) {
+            unindex(bookingId);
+        }
+
+        byId.put(bookingId, booking);
+        IndexedKeys keys = new IndexedKeys(booking);
+        indexedKeys.put(bookingId, keys);
+
+        bucket(byClient, keys.clientId).put(bookingId, booking);
+        bucket(byPhotographer, keys.photographerId).put(bookingId, booking);
+        if (keys.status != null) {
+            bucket(byStatus, keys.status).put(bookingId, booking);
+        }
+        if (keys.timeKey != null) {
+            byTime.put(keys.timeKey, booking);
+            timeline(byClientTime, keys.clientId).put(keys.timeKey, booking);
+            timeline(byPhotographerTime, keys.photographerId).put(keys.timeKey, booking);
+        }
+        if (keys.intervalStart != null) {
+            byPhotographerInterval.computeIfAbsent(keys.photographerId, k -> new BookingIntervalTree())
+                    .insert(keys.intervalStart, keys.intervalEnd, booking);
+            if (calendar != null) {
+                calendar.putBooking(bookingId, keys.photographerId, keys.intervalStart, keys.intervalEnd);
+            }
+        }
+    }
+
+    /**
+     * Remove a booking
+     * @param bookingId The booking ID
+     * @return The removed booking, or null if there was none
+     */
+    Booking remove(String bookingId) {
+        if (!indexedKeys.containsKey(bookingId)) {
+            return null;
+        }
+
+        unindex(bookingId);
+        return byId.remove(bookingId);
+    }
+
+    Booking get(String bookingId) {
+        return byId.get(bookingId);
+    }
+
+    /**
+     * Get the photographer a booking is indexed under, which may differ from the booking's
+     * current photographer if the caller changed it and has not re-indexed the booking yet
+     * @param bookingId The booking ID
+     * @return Photographer user ID, or null if the booking is not indexed
+     */
+    String getIndexedPhotographer(String bookingId) {
+        IndexedKeys keys = indexedKeys.get(bookingId);
+        return keys != null ? keys.photographerId : null;
+    }
+
+    Collection<Booking> all() {
+        return Collections.unmodifiableCollection(byId.values());
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    /**
+     * Attach the slot bitmaps to keep in step with the active bookings, and record the current ones
+     * @param calendar The availability calendar
+     */
+    void setCalendar(AvailabilityCalendar calendar) {
+        this.calendar = calendar;
+        for (Map.Entry<String, IndexedKeys> entry : indexedKeys.entrySet()) {
+            IndexedKeys keys = entry.getValue();
+            if (keys.intervalStart != null) {
+                calendar.putBooking(entry.getKey(), keys.photographerId, keys.intervalStart, keys.intervalEnd);
+            }
+        }
+    }
+
+    void clear() {
+        if (calendar != null) {
+            for (String bookingId : indexedKeys.keySet()) {
+                calendar.remove(bookingId);
+            }
+        }
+        byId.clear();
+        byClient.clear();
+        byPhotographer.clear();
+        byStatus.clear();
+        byTime.clear();
+        byClientTime.clear();
+        byPhotographerTime.clear();
+        byPhotographerInterval.clear();
+        indexedKeys.clear();
+    }
+
+    List<Booking> getByClient(String clientId) {
+        return copy(byClient.get(clientId));
+    }
+
+    List<Booking> getByPhotographer(String photographerId) {
+        return copy(byPhotographer.get(photographerId));
+    }
+
+    List<Booking> getByStatus(Booking.BookingStatus status) {
+        return copy(byStatus.get(status));
+    }
+
+    /**
+     * Check whether a photographer has an active booking overlapping a time range
+     * @param photographerId Photographer user ID
+     * @param start Start of the range
+     * @param end End of the range (exclusive)
+     * @return true if an active booking overlaps the range
+     */
+    boolean hasConflict(String photographerId, LocalDateTime start, LocalDateTime end) {
+        BookingIntervalTree intervals = byPhotographerInterval.get(photographerId);
+        return intervals != null && intervals.overlaps(start, end);
+    }
+
+    /**
+     * Get a booking timeline in event order
+     * @param userId Photographer or client user ID, or null for all bookings
+     * @param isPhotographer true for a photographer's timeline, false for a client's
+     * @return Read-only view of the timeline
+     */
+    NavigableMap<TimeKey, Booking> getTimeline(String userId, boolean isPhotographer) {
+        if (userId == null) {
+            return Collections.unmodifiableNavigableMap(byTime);
+        }
+        NavigableMap<TimeKey, Booking> timeline = (isPhotographer ? byPhotographerTime : byClientTime).get(userId);
+        return timeline != null ? Collections.unmodifiableNavigableMap(timeline) : Collections.emptyNavigableMap();
+    }
+
+    /**
+     * Collect bookings from a timeline view, in the view's order
+     * @param view Timeline view, ascending or descending
+     * @param cursor Key of the last booking of the previous page, or null to start at the beginning
+     * @param limit Maximum number of bookings, 0 for no limit
+     * @param filter Bookings to include
+     * @return The matching bookings
+     */
+    static List<Booking> collect(NavigableMap<TimeKey, Booking> view, TimeKey cursor, int limit,
+                                 Predicate<Booking> filter) {
+        if (cursor != null && !view.isEmpty()) {
+            Comparator<? super TimeKey> order = view.comparator() != null
+                    ? view.comparator() : Comparator.<TimeKey>naturalOrder();
+            if (order.compare(cursor, view.lastKey()) >= 0) {
+                return new ArrayList<>();
+            }
+            if (order.compare(cursor, view.firstKey()) >= 0) {
+                view = view.tailMap(cursor, false);
+            }
+        }
+
+        List<Booking> result = new ArrayList<>();
+        for (Booking booking : view.values()) {
+            if (filter.test(booking)) {
+                result.add(booking);
+                if (limit > 0 && result.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Remove a booking from the secondary indexes, using the keys it was indexed under
+     */
+    private void unindex(String bookingId) {
+        IndexedKeys keys = indexedKeys.remove(bookingId);
+        removeFromBucket(byClient, keys.clientId, bookingId);
+        removeFromBucket(byPhotographer, keys.photographerId, bookingId);
+        if (keys.status != null) {
+            removeFromBucket(byStatus, keys.status, bookingId);
+        }
+        if (keys.timeKey != null) {
+            byTime.remove(keys.timeKey);
+            removeFromTimeline(byClientTime, keys.clientId, keys.timeKey);
+            removeFromTimeline(byPhotographerTime, keys.photographerId, keys.timeKey);
+        }
+        if (keys.intervalStart != null) {
+            BookingIntervalTree intervals = byPhotographerInterval.get(keys.photographerId);
+            if (intervals != null) {
+                intervals.remove(keys.intervalStart, bookingId);
+                if (intervals.isEmpty()) {
+                    byPhotographerInterval.remove(keys.photographerId);
+                }
+            }
+            if (calendar != null) {
+                calendar.remove(bookingId);
+            }
+        }
+    }
+
+    private static NavigableMap<TimeKey, Booking> timeline(Map<String, NavigableMap<TimeKey, Booking>> index,
+                                                           String key) {
+        return index.computeIfAbsent(key, k -> new TreeMap<>());
+    }
+
+    private static void removeFromTimeline(Map<String, NavigableMap<TimeKey, Booking>> index, String key,
+                                           TimeKey timeKey) {
+        NavigableMap<TimeKey, Booking> timeline = index.get(key);
+        if (timeline != null) {
+            timeline.remove(timeKey);
+            if (timeline.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static <K> Map<String, Booking> bucket(Map<K, Map<String, Booking>> index, K key) {
+        return index.computeIfAbsent(key, k -> new LinkedHashMap<>());
+    }
+
+    private static <K> void removeFromBucket(Map<K, Map<String, Booking>> index, K key, String bookingId) {
+        Map<String, Booking> bucket = index.get(key);
+        if (bucket != null) {
+            bucket.remove(bookingId);
+            if (bucket.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static List<Booking> copy(Map<String, Booking> bucket) {
+        return bucket != null ? new ArrayList<>(bucket.values()) : new ArrayList<>();
+    }
+}
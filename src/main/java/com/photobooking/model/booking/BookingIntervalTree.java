@@ -0,0 +1,181 @@
+package com.photobooking.model.booking;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Interval tree over the time ranges booked for one photographer.
+ * A randomized balanced search tree (treap) ordered by start time, where every node also
+ * records the latest end time in its subtree, so overlap checks take logarithmic time.
+ *
+ * Intervals are half-open: [start, end). Not thread-safe; BookingManager guards every access.
+ */
+class BookingIntervalTree {
+    private Node root;
+    private int size;
+
+    private static final class Node {
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final String bookingId;
+        private final int priority;
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(LocalDateTime start, LocalDateTime end, Booking booking) {
+            this.start = start;
+            this.end = end;
+            this.bookingId = booking.getBookingId();
+            this.priority = ThreadLocalRandom.current().nextInt();
+            this.maxEnd = end;
+        }
+
+        int compareTo(LocalDateTime otherStart, String otherId) {
+            int result = start.compareTo(otherStart);
+            return result != 0 ? result : bookingId.compareTo(otherId);
+        }
+
+        void update() {
+            LocalDateTime max = end;
+            if (left != null && left.maxEnd.isAfter(max)) {
+                max = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(max)) {
+                max = right.maxEnd;
+            }
+            maxEnd = max;
+        }
+    }
+
+    /**
+     * Add a booked time range
+     * @param start Start of the range
+     * @param end End of the range
+     * @param booking The booking that occupies it
+     */
+    void insert(LocalDateTime start, LocalDateTime end, Booking booking) {
+        root = insert(root, new Node(start, end, booking));
+        size++;
+    }
+
+    /**
+     * Remove a booked time range
+     * @param start Start of the range, as it was inserted
+     * @param bookingId The booking that occupies it
+     * @return true if the range was found and removed
+     */
+    boolean remove(LocalDateTime start, String bookingId) {
+        int before = size;
+        root = remove(root, start, bookingId);
+        return size < before;
+    }
+
+    boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Check whether any booked range overlaps [start, end)
+     * @param start Start of the queried range
+     * @param end End of the queried range
+     * @return true if there is an overlap
+     */
+    boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start.isBefore(end) && node.end.isAfter(start)) {
+                return true;
+            }
+
+            // If anything on the left ends after the start, the left side holds the only candidates:
+            // a left range that ends in time but does not overlap starts at or after end, and so
+            // does everything on the right
+            if (node.left != null && node.left.maxEnd.isAfter(start)) {
+                node = node.left;
+            } else if (node.start.isBefore(end)) {
+                node = node.right;
+            } else {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+
+        if (node.compareTo(added.start, added.bookingId) > 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private Node remove(Node node, LocalDateTime start, String bookingId) {
+        if (node == null) {
+            return null;
+        }
+
+        int comparison = node.compareTo(start, bookingId);
+        if (comparison > 0) {
+            node.left = remove(node.left, start, bookingId);
+        } else if (comparison < 0) {
+            node.right = remove(node.right, start, bookingId);
+        } else {
+            size--;
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    /**
+     * Join two subtrees where every start on the left precedes every start on the right
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+}
@@ -1,22 +1,56 @@
 package com.photobooking.model.booking;
 
+import com.photobooking.model.photographer.AvailabilityCalendar;
+import com.photobooking.util.BinaryRecordFile;
 import com.photobooking.util.FileHandler;
+import com.photobooking.util.MappedRecordReader;
+import com.photobooking.util.GroupCommitter;
+import com.photobooking.util.HashedTimingWheel;
+import com.photobooking.util.RecordLog;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
-import java.util.logging.Level;
 import javax.servlet.ServletContext;
 
 /**
  * Manages all booking-related operations for the Event Photography System
+ *
+ * Changes to a photographer's bookings are serialized by a striped lock chosen by the
+ * photographer's ID, so reserving a slot can check for conflicts and record the booking
+ * atomically without holding the manager's lock. Stripe locks are always taken in stripe order
+ * and before the manager's lock.
  */
 public class BookingManager {
     private static final Logger LOGGER = Logger.getLogger(BookingManager.class.getName());
     private static final String BOOKING_FILE = "bookings.txt";
-    private List<Booking> bookings;
+    private final BookingIndex bookings = new BookingIndex();
     private ServletContext servletContext;
+    private RecordLog recordLog;
+    private BinaryRecordFile<Booking> binaryFile;
+    private GroupCommitter committer;
+
+    // Lock stripes serializing changes per photographer; a power of two
+    private static final int LOCK_STRIPES = 64;
+    private final ReentrantLock[] photographerLocks = new ReentrantLock[LOCK_STRIPES];
+
+    // Tentative slot holds, kept in memory only; a photographer's holds change only under its stripe
+    private final Map<String, List<SlotHold>> holdsByPhotographer = new ConcurrentHashMap<>();
+    private final Map<String, SlotHold> holdsById = new ConcurrentHashMap<>();
+    private final HashedTimingWheel holdExpiry = new HashedTimingWheel("booking-hold-expiry", 1000, 512);
+    private final long holdMillis;
+    private volatile AvailabilityCalendar calendar;
 
     public BookingManager() {
         this(null);
@@ -30,7 +64,24 @@ public class BookingManager {
             FileHandler.setServletContext(servletContext);
         }
 
-        this.bookings = loadBookings();
+        // Store the snapshot in the compact binary format when it is selected for this file
+        this.binaryFile = BinaryRecordFile.forDataFile(BOOKING_FILE, BookingBinaryCodec.INSTANCE);
+
+        // Use the append-only record log when log-structured storage is enabled
+        if (RecordLog.isEnabled()) {
+            this.recordLog = new RecordLog(BOOKING_FILE);
+        }
+
+        // Coalesce concurrent writes into a single flush
+        this.committer = new GroupCommitter(BOOKING_FILE, this::flushBookings);
+
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            photographerLocks[i] = new ReentrantLock();
+        }
+
+        this.holdMillis = Math.max(1, FileHandler.getConfigParameter("booking.holdMinutes", 10L)) * 60_000L;
+
+        indexBookings(loadBookings());
     }
 
     /**
@@ -41,62 +92,106 @@ public class BookingManager {
         // Ensure file exists before loading
         FileHandler.ensureFileExists(BOOKING_FILE);
 
-        List<String> lines = FileHandler.readLines(BOOKING_FILE);
-        List<Booking> loadedBookings = new ArrayList<>();
+        // Read the binary snapshot if there is one, otherwise parse the memory-mapped text file.
+        // An unreadable snapshot throws instead, so the stale text file never replaces it.
+        List<Booking> loadedBookings = binaryFile != null ? binaryFile.load() : null;
+        if (loadedBookings == null) {
+            loadedBookings = MappedRecordReader.load(BOOKING_FILE, Booking::fromFileString);
+        }
 
-        for (String line : lines) {
-            if (!line.trim().isEmpty()) {
-                Booking booking = Booking.fromFileString(line);
-                if (booking != null) {
-                    loadedBookings.add(booking);
-                }
-            }
+        // Apply changes appended to the record log since the last snapshot
+        if (recordLog != null) {
+            loadedBookings = recordLog.replay(loadedBookings, Booking::fromFileString, Booking::getBookingId);
         }
 
         LOGGER.info("Loaded " + loadedBookings.size() + " bookings from file");
         return loadedBookings;
     }
 
+    /**
+     * Replace the indexed bookings with the loaded ones
+     * @param loadedBookings Bookings in file order
+     */
+    private void indexBookings(List<Booking> loadedBookings) {
+        bookings.clear();
+        for (Booking booking : loadedBookings) {
+            bookings.put(booking);
+        }
+    }
+
     /**
      * Save all bookings to file
      * @return true if successful, false otherwise
      */
     private boolean saveBookings() {
-        try {
-            // Create a backup first
-            if (FileHandler.fileExists(BOOKING_FILE)) {
-                FileHandler.copyFile(BOOKING_FILE, BOOKING_FILE + ".bak");
-            }
+        // Atomically replace the file: stream to a temp file, force it to disk and rename
+        boolean result = binaryFile != null
+                ? binaryFile.commit(bookings.all())
+                : FileHandler.commitRecords(BOOKING_FILE, bookings.all(), Booking::toFileString);
+
+        if (result) {
+            LOGGER.info("Successfully saved " + bookings.size() + " bookings");
+        } else {
+            LOGGER.warning("Failed to save bookings");
+        }
 
-            // Delete existing file content
-            FileHandler.deleteFile(BOOKING_FILE);
+        return result;
+    }
 
-            // Ensure file exists
-            FileHandler.ensureFileExists(BOOKING_FILE);
+    /**
+     * Queue a created or updated booking for the next group commit; call under the manager's lock
+     * and await the batch after releasing it, so concurrent changes share one write
+     * @param booking The booking that changed
+     * @return The batch to await
+     */
+    private GroupCommitter.Batch enqueueBooking(Booking booking) {
+        return committer.enqueue(recordLog != null ? RecordLog.putEntry(booking.toFileString()) : null);
+    }
 
-            // Write all bookings at once for better performance
-            StringBuilder contentToWrite = new StringBuilder();
-            for (Booking booking : bookings) {
-                contentToWrite.append(booking.toFileString()).append(System.lineSeparator());
-            }
+    /**
+     * Queue the removal of a booking for the next group commit, like {@link #enqueueBooking(Booking)}
+     * @param bookingId The ID of the removed booking
+     * @return The batch to await
+     */
+    private GroupCommitter.Batch enqueueBookingRemoval(String bookingId) {
+        return committer.enqueue(recordLog != null ? RecordLog.deleteEntry(bookingId) : null);
+    }
 
-            boolean result = FileHandler.writeToFile(BOOKING_FILE, contentToWrite.toString(), false);
+    /**
+     * Write one group commit batch to disk
+     * @param entries Record log entries in the batch, empty when the snapshot is rewritten
+     * @return true if successful, false otherwise
+     */
+    private boolean flushBookings(List<String> entries) {
+        if (recordLog != null) {
+            return recordLog.appendEntries(entries);
+        }
+        synchronized (this) {
+            return saveBookings();
+        }
+    }
 
-            if (result) {
-                LOGGER.info("Successfully saved " + bookings.size() + " bookings");
-            } else {
-                LOGGER.warning("Failed to save bookings");
-                // Restore from backup
-                if (FileHandler.fileExists(BOOKING_FILE + ".bak")) {
-                    FileHandler.copyFile(BOOKING_FILE + ".bak", BOOKING_FILE);
-                }
-            }
+    /**
+     * Keep the shared slot bitmaps in step with the active bookings
+     * @param calendar The availability calendar
+     */
+    public synchronized void attachCalendar(AvailabilityCalendar calendar) {
+        this.calendar = calendar;
+        bookings.setCalendar(calendar);
+        for (SlotHold hold : holdsById.values()) {
+            calendar.putBooking(hold.getHoldId(), hold.getPhotographerId(), hold.getStart(), hold.getEnd());
+        }
+    }
 
-            return result;
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error saving bookings: " + e.getMessage(), e);
+    /**
+     * Write a fresh snapshot of all bookings and truncate the record log
+     * @return true if the log was compacted, false if there was nothing to do
+     */
+    public synchronized boolean compactLog() {
+        if (recordLog == null || !recordLog.needsCompaction()) {
             return false;
         }
+        return saveBookings() && recordLog.truncate();
     }
 
     /**
@@ -120,9 +215,293 @@ public class BookingManager {
             booking.setStatus(Booking.BookingStatus.PENDING);
         }
 
-        // Add to list and save
-        bookings.add(booking);
-        return saveBookings();
+        // Add to list, then wait for the save outside the locks so concurrent creates share one write
+        GroupCommitter.Batch batch = updateUnderLocks(booking.getBookingId(), booking.getPhotographerId(), () -> {
+            bookings.put(booking);
+            return enqueueBooking(booking);
+        });
+        return committer.await(batch);
+    }
+
+    /**
+     * Atomically check that the photographer is free for a new booking and record it.
+     * Requests for the same photographer are serialized, so two of them can never both reserve
+     * overlapping time; requests for other photographers do not wait for each other.
+     * @param booking The booking to create, with its event date-time and duration set
+     * @return true if the slot was free and the booking was saved, false otherwise
+     */
+    public boolean reserveSlot(Booking booking) {
+        if (booking == null || booking.getClientId() == null || booking.getPhotographerId() == null
+                || booking.getEventDateTime() == null) {
+            return false;
+        }
+
+        if (booking.getBookingDateTime() == null) {
+            booking.setBookingDateTime(LocalDateTime.now());
+        }
+        if (booking.getStatus() == null) {
+            booking.setStatus(Booking.BookingStatus.PENDING);
+        }
+
+        String photographerId = booking.getPhotographerId();
+        ReentrantLock lock = lockFor(photographerId);
+        GroupCommitter.Batch batch;
+        lock.lock();
+        try {
+            // Only this photographer's interval tree is read, which no one else changes while the stripe is held
+            if (booking.getStatus() != Booking.BookingStatus.CANCELLED
+                    && (bookings.hasConflict(photographerId, booking.getEventDateTime(), booking.getEventEndDateTime())
+                    || isHeld(photographerId, booking.getEventDateTime(), booking.getEventEndDateTime(),
+                            booking.getClientId()))) {
+                LOGGER.info("Slot already taken for photographer " + photographerId + " at " + booking.getEventDateTime());
+                return false;
+            }
+
+            synchronized (this) {
+                if (bookings.get(booking.getBookingId()) != null) {
+                    return false; // Already reserved
+                }
+                bookings.put(booking);
+                batch = committer.enqueue(recordLog != null ? RecordLog.putEntry(booking.toFileString()) : null);
+            }
+
+            releaseHoldsFor(booking);
+        } finally {
+            lock.unlock();
+        }
+        return committer.await(batch);
+    }
+
+    /**
+     * Reserve slots for several bookings at once and save them all with a single write.
+     * Each booking is checked against the existing bookings, other clients' holds and the bookings
+     * accepted before it in the list, so two bookings in one batch never overlap. A booking whose
+     * slot is taken is saved CANCELLED in the same write, so the client still sees the request.
+     * @param candidates Bookings to create, in priority order
+     * @return The bookings that were reserved and saved; the others were invalid, already saved,
+     *         or saved cancelled
+     */
+    public List<Booking> reserveSlots(List<Booking> candidates) {
+        List<Booking> reserved = new ArrayList<>();
+        if (candidates == null || candidates.isEmpty()) {
+            return reserved;
+        }
+
+        // Validate the batch before taking any lock; every booking needs the fields its record is written from
+        Map<String, Booking> valid = new LinkedHashMap<>();
+        TreeMap<Integer, ReentrantLock> locks = new TreeMap<>();
+        for (Booking booking : candidates) {
+            if (booking == null || booking.getClientId() == null || booking.getPhotographerId() == null
+                    || booking.getEventDateTime() == null || booking.getEventType() == null
+                    || valid.containsKey(booking.getBookingId())) {
+                continue;
+            }
+            if (booking.getBookingDateTime() == null) {
+                booking.setBookingDateTime(LocalDateTime.now());
+            }
+            if (booking.getStatus() == null) {
+                booking.setStatus(Booking.BookingStatus.PENDING);
+            }
+            valid.put(booking.getBookingId(), booking);
+            locks.put(stripe(booking.getPhotographerId()), lockFor(booking.getPhotographerId()));
+        }
+
+        // Take the stripes in order, like updateUnderLocks, so batches never wait for each other's stripes
+        for (ReentrantLock lock : locks.values()) {
+            lock.lock();
+        }
+
+        GroupCommitter.Batch batch = null;
+        int saved = 0;
+        try {
+            List<String> entries = new ArrayList<>();
+            synchronized (this) {
+                for (Booking booking : valid.values()) {
+                    if (bookings.get(booking.getBookingId()) != null) {
+                        continue; // Already reserved
+                    }
+
+                    // Accepted bookings are indexed at once, so later ones in the batch conflict with them
+                    if (booking.getStatus() != Booking.BookingStatus.CANCELLED
+                            && (bookings.hasConflict(booking.getPhotographerId(), booking.getEventDateTime(),
+                                    booking.getEventEndDateTime())
+                            || isHeld(booking.getPhotographerId(), booking.getEventDateTime(),
+                                    booking.getEventEndDateTime(), booking.getClientId()))) {
+                        booking.setStatus(Booking.BookingStatus.CANCELLED);
+                    } else {
+                        reserved.add(booking);
+                    }
+
+                    bookings.put(booking);
+                    saved++;
+                    if (recordLog != null) {
+                        entries.add(RecordLog.putEntry(booking.toFileString()));
+                    }
+                }
+
+                if (saved > 0) {
+                    batch = recordLog != null ? committer.enqueueAll(entries) : committer.enqueue(null);
+                }
+            }
+
+            for (Booking booking : reserved) {
+                releaseHoldsFor(booking);
+            }
+        } finally {
+            for (ReentrantLock lock : locks.descendingMap().values()) {
+                lock.unlock();
+            }
+        }
+
+        if (batch != null && !committer.await(batch)) {
+            LOGGER.warning("Failed to save a batch of " + saved + " bookings");
+        }
+        LOGGER.info("Reserved " + reserved.size() + " of " + candidates.size() + " bookings in one batch");
+        return reserved;
+    }
+
+    /**
+     * Hold a slot for a client while they complete a booking. The hold keeps other clients from
+     * taking the slot until it expires, is released, or the client's booking is reserved.
+     * A client holds at most one slot per photographer; a new hold replaces the previous one.
+     * @param photographerId The photographer ID
+     * @param clientId The client ID
+     * @param start The event date and time
+     * @param durationHours The duration in hours
+     * @return The hold, or null if the slot is booked or held by another client
+     */
+    public SlotHold holdSlot(String photographerId, String clientId, LocalDateTime start, int durationHours) {
+        if (photographerId == null || clientId == null || start == null || durationHours <= 0) {
+            return null;
+        }
+
+        LocalDateTime end = start.plusHours(durationHours);
+        ReentrantLock lock = lockFor(photographerId);
+        lock.lock();
+        try {
+            if (bookings.hasConflict(photographerId, start, end) || isHeld(photographerId, start, end, clientId)) {
+                return null;
+            }
+
+            for (SlotHold existing : holdsFor(photographerId)) {
+                if (existing.getClientId().equals(clientId)) {
+                    removeHold(existing);
+                }
+            }
+
+            SlotHold hold = new SlotHold(photographerId, clientId, start, end,
+                    LocalDateTime.now().plus(holdMillis, ChronoUnit.MILLIS));
+            holdsByPhotographer.computeIfAbsent(photographerId, id -> new CopyOnWriteArrayList<>()).add(hold);
+            holdsById.put(hold.getHoldId(), hold);
+
+            AvailabilityCalendar attached = calendar;
+            if (attached != null) {
+                attached.putBooking(hold.getHoldId(), photographerId, start, end);
+            }
+
+            String holdId = hold.getHoldId();
+            hold.expiry = holdExpiry.schedule(() -> releaseHold(holdId), holdMillis);
+            return hold;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get a slot hold by ID
+     * @param holdId The hold ID
+     * @return The hold, or null if it has expired or been released
+     */
+    public SlotHold getHold(String holdId) {
+        return holdId != null ? holdsById.get(holdId) : null;
+    }
+
+    /**
+     * Release a slot hold before it expires
+     * @param holdId The hold ID
+     * @return true if the hold was released, false if it had already expired or been released
+     */
+    public boolean releaseHold(String holdId) {
+        SlotHold hold = getHold(holdId);
+        if (hold == null) {
+            return false;
+        }
+
+        ReentrantLock lock = lockFor(hold.getPhotographerId());
+        lock.lock();
+        try {
+            if (holdsById.get(holdId) != hold) {
+                return false;
+            }
+            removeHold(hold);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop expiring slot holds; called when the application is stopped
+     */
+    public void shutdown() {
+        holdExpiry.shutdown();
+    }
+
+    /**
+     * Remove a hold; the caller holds the photographer's stripe
+     */
+    private void removeHold(SlotHold hold) {
+        List<SlotHold> holds = holdsByPhotographer.get(hold.getPhotographerId());
+        if (holds != null) {
+            holds.remove(hold);
+            holdsByPhotographer.computeIfPresent(hold.getPhotographerId(), (id, list) -> list.isEmpty() ? null : list);
+        }
+        holdsById.remove(hold.getHoldId());
+        if (hold.expiry != null) {
+            hold.expiry.cancel();
+        }
+
+        AvailabilityCalendar attached = calendar;
+        if (attached != null) {
+            attached.remove(hold.getHoldId());
+        }
+    }
+
+    /**
+     * Release the client's holds on the slot a reserved booking now occupies; the caller holds the stripe
+     */
+    private void releaseHoldsFor(Booking booking) {
+        if (booking.getEventDateTime() == null) {
+            return;
+        }
+        for (SlotHold hold : holdsFor(booking.getPhotographerId())) {
+            if (hold.getClientId().equals(booking.getClientId())
+                    && hold.overlaps(booking.getEventDateTime(), booking.getEventEndDateTime())) {
+                removeHold(hold);
+            }
+        }
+    }
+
+    private List<SlotHold> holdsFor(String photographerId) {
+        List<SlotHold> holds = holdsByPhotographer.get(photographerId);
+        return holds != null ? holds : Collections.<SlotHold>emptyList();
+    }
+
+    /**
+     * Check whether another client holds time overlapping a range
+     * @param photographerId The photographer ID
+     * @param start Start of the range
+     * @param end End of the range (exclusive)
+     * @param clientId Client whose own holds are ignored, or null to count every hold
+     * @return true if the range is held
+     */
+    private boolean isHeld(String photographerId, LocalDateTime start, LocalDateTime end, String clientId) {
+        for (SlotHold hold : holdsFor(photographerId)) {
+            if (!hold.getClientId().equals(clientId) && hold.overlaps(start, end)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -130,13 +509,10 @@ public class BookingManager {
      * @param bookingId The booking ID
      * @return The booking or null if not found
      */
-    public Booking getBookingById(String bookingId) {
+    public synchronized Booking getBookingById(String bookingId) {
         if (bookingId == null) return null;
 
-        return bookings.stream()
-                .filter(b -> b.getBookingId().equals(bookingId))
-                .findFirst()
-                .orElse(null);
+        return bookings.get(bookingId);
     }
 
     /**
@@ -144,12 +520,10 @@ public class BookingManager {
      * @param clientId The client ID
      * @return List of bookings for the client
      */
-    public List<Booking> getBookingsByClient(String clientId) {
+    public synchronized List<Booking> getBookingsByClient(String clientId) {
         if (clientId == null) return new ArrayList<>();
 
-        return bookings.stream()
-                .filter(b -> b.getClientId().equals(clientId))
-                .collect(Collectors.toList());
+        return bookings.getByClient(clientId);
     }
 
     /**
@@ -157,12 +531,10 @@ public class BookingManager {
      * @param photographerId The photographer ID
      * @return List of bookings for the photographer
      */
-    public List<Booking> getBookingsByPhotographer(String photographerId) {
+    public synchronized List<Booking> getBookingsByPhotographer(String photographerId) {
         if (photographerId == null) return new ArrayList<>();
 
-        return bookings.stream()
-                .filter(b -> b.getPhotographerId().equals(photographerId))
-                .collect(Collectors.toList());
+        return bookings.getByPhotographer(photographerId);
     }
 
     /**
@@ -170,12 +542,10 @@ public class BookingManager {
      * @param status The booking status
      * @return List of bookings with the specified status
      */
-    public List<Booking> getBookingsByStatus(Booking.BookingStatus status) {
+    public synchronized List<Booking> getBookingsByStatus(Booking.BookingStatus status) {
         if (status == null) return new ArrayList<>();
 
-        return bookings.stream()
-                .filter(b -> b.getStatus() == status)
-                .collect(Collectors.toList());
+        return bookings.getByStatus(status);
     }
 
     /**
@@ -184,20 +554,36 @@ public class BookingManager {
      * @param endDate The end date (inclusive)
      * @return List of bookings in the date range
      */
-    public List<Booking> getBookingsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        if (startDate == null || endDate == null) return new ArrayList<>();
+    public synchronized List<Booking> getBookingsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        return getBookingsByDateRange(null, false, startDate, endDate, 0, null);
+    }
 
-        return bookings.stream()
-                .filter(b -> !b.getEventDateTime().isBefore(startDate) && !b.getEventDateTime().isAfter(endDate))
-                .collect(Collectors.toList());
+    /**
+     * Get a page of a user's bookings for a date range, ordered by event date and time
+     * @param userId The photographer's or client's user ID, or null for all bookings
+     * @param isPhotographer true if user is a photographer, false if client
+     * @param startDate The start date (inclusive)
+     * @param endDate The end date (inclusive)
+     * @param limit Maximum number of bookings to return, 0 for no limit
+     * @param cursor Cursor of the last booking of the previous page, or null for the first page
+     * @return List of bookings in the date range
+     */
+    public synchronized List<Booking> getBookingsByDateRange(String userId, boolean isPhotographer,
+                                                             LocalDateTime startDate, LocalDateTime endDate,
+                                                             int limit, String cursor) {
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) return new ArrayList<>();
+
+        NavigableMap<BookingIndex.TimeKey, Booking> range = bookings.getTimeline(userId, isPhotographer)
+                .subMap(BookingIndex.TimeKey.before(startDate), true, BookingIndex.TimeKey.after(endDate), true);
+        return BookingIndex.collect(range, parseCursor(cursor), limit, b -> true);
     }
 
     /**
      * Get all bookings
      * @return List of all bookings
      */
-    public List<Booking> getAllBookings() {
-        return new ArrayList<>(bookings);
+    public synchronized List<Booking> getAllBookings() {
+        return new ArrayList<>(bookings.all());
     }
 
     /**
@@ -210,14 +596,18 @@ public class BookingManager {
             return false;
         }
 
-        for (int i = 0; i < bookings.size(); i++) {
-            if (bookings.get(i).getBookingId().equals(updatedBooking.getBookingId())) {
-                bookings.set(i, updatedBooking);
-                return saveBookings();
+        // Wait for the save outside the locks, like createBooking
+        GroupCommitter.Batch batch = updateUnderLocks(updatedBooking.getBookingId(),
+                updatedBooking.getPhotographerId(), () -> {
+            if (bookings.get(updatedBooking.getBookingId()) == null) {
+                return null; // Booking not found
             }
-        }
 
-        return false; // Booking not found
+            // Re-index under the booking's current keys
+            bookings.put(updatedBooking);
+            return enqueueBooking(updatedBooking);
+        });
+        return batch != null && committer.await(batch);
     }
 
     /**
@@ -231,14 +621,17 @@ public class BookingManager {
             return false;
         }
 
-        for (Booking booking : bookings) {
-            if (booking.getBookingId().equals(bookingId)) {
-                booking.setStatus(newStatus);
-                return saveBookings();
+        GroupCommitter.Batch batch = updateUnderLocks(bookingId, null, () -> {
+            Booking booking = bookings.get(bookingId);
+            if (booking == null) {
+                return null; // Booking not found
             }
-        }
 
-        return false; // Booking not found
+            booking.setStatus(newStatus);
+            bookings.put(booking);
+            return enqueueBooking(booking);
+        });
+        return batch != null && committer.await(batch);
     }
 
     /**
@@ -260,12 +653,70 @@ public class BookingManager {
             return false;
         }
 
-        boolean removed = bookings.removeIf(b -> b.getBookingId().equals(bookingId));
-        if (removed) {
-            return saveBookings();
-        }
+        GroupCommitter.Batch batch = updateUnderLocks(bookingId, null, () -> {
+            boolean removed = bookings.remove(bookingId) != null;
+            if (removed) {
+                return enqueueBookingRemoval(bookingId);
+            }
+
+            return null; // Booking not found
+        });
+        return batch != null && committer.await(batch);
+    }
+
+    /**
+     * Get the lock stripe of a photographer
+     */
+    private ReentrantLock lockFor(String photographerId) {
+        return photographerLocks[stripe(photographerId)];
+    }
+
+    private static int stripe(String photographerId) {
+        int hash = photographerId.hashCode();
+        return (hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1);
+    }
+
+    /**
+     * Change a booking while holding the lock stripes of the photographer it is indexed under and
+     * of the photographer it will be indexed under, then the manager's lock
+     * @param bookingId The booking ID
+     * @param newPhotographerId Photographer the booking will belong to, or null if unchanged
+     * @param update The change, run under all the locks
+     * @param <T> Result type
+     * @return The result of the change
+     */
+    private <T> T updateUnderLocks(String bookingId, String newPhotographerId, Supplier<T> update) {
+        while (true) {
+            String indexedPhotographerId;
+            synchronized (this) {
+                indexedPhotographerId = bookings.getIndexedPhotographer(bookingId);
+            }
 
-        return false; // Booking not found
+            // Take the stripes in order so two updates never wait for each other's stripe
+            TreeMap<Integer, ReentrantLock> locks = new TreeMap<>();
+            if (indexedPhotographerId != null) {
+                locks.put(stripe(indexedPhotographerId), lockFor(indexedPhotographerId));
+            }
+            if (newPhotographerId != null) {
+                locks.put(stripe(newPhotographerId), lockFor(newPhotographerId));
+            }
+            for (ReentrantLock lock : locks.values()) {
+                lock.lock();
+            }
+
+            try {
+                synchronized (this) {
+                    // Retry if the booking moved to another photographer before the stripes were taken
+                    if (Objects.equals(indexedPhotographerId, bookings.getIndexedPhotographer(bookingId))) {
+                        return update.get();
+                    }
+                }
+            } finally {
+                for (ReentrantLock lock : locks.descendingMap().values()) {
+                    lock.unlock();
+                }
+            }
+        }
     }
 
     /**
@@ -275,32 +726,52 @@ public class BookingManager {
      * @param durationHours The duration in hours
      * @return true if available, false otherwise
      */
-    public boolean isPhotographerAvailable(String photographerId, LocalDateTime eventDateTime, int durationHours) {
+    public synchronized boolean isPhotographerAvailable(String photographerId, LocalDateTime eventDateTime, int durationHours) {
+        return isPhotographerAvailable(photographerId, eventDateTime, durationHours, null);
+    }
+
+    /**
+     * Check if a photographer is available to a client for a given date and time
+     * @param photographerId The photographer ID
+     * @param eventDateTime The event date and time
+     * @param durationHours The duration in hours
+     * @param clientId Client whose own slot holds do not count as conflicts, or null
+     * @return true if available, false otherwise
+     */
+    public synchronized boolean isPhotographerAvailable(String photographerId, LocalDateTime eventDateTime,
+                                                        int durationHours, String clientId) {
         if (photographerId == null || eventDateTime == null) {
             return false;
         }
 
-        LocalDateTime eventEndTime = eventDateTime.plusHours(durationHours);
-
-        // Check existing bookings for conflicts
-        for (Booking booking : bookings) {
-            if (booking.getPhotographerId().equals(photographerId) &&
-                    booking.getStatus() != Booking.BookingStatus.CANCELLED) {
-
-                // Estimate booking duration as 3 hours if not specified
-                int existingBookingDuration = 3;
+        // Check existing bookings for conflicts, using each booking's own duration, then other clients' holds
+        LocalDateTime eventEnd = eventDateTime.plusHours(durationHours);
+        return !bookings.hasConflict(photographerId, eventDateTime, eventEnd)
+                && !isHeld(photographerId, eventDateTime, eventEnd, clientId);
+    }
 
-                LocalDateTime existingStart = booking.getEventDateTime();
-                LocalDateTime existingEnd = existingStart.plusHours(existingBookingDuration);
+    /**
+     * Check which of a set of time slots a photographer is available for
+     * @param photographerId The photographer ID
+     * @param slotStarts Start times of the slots
+     * @param durationHours The duration of each slot in hours
+     * @return The available slot start times, in the given order
+     */
+    public synchronized List<LocalDateTime> getAvailableSlots(String photographerId, List<LocalDateTime> slotStarts,
+                                                              int durationHours) {
+        List<LocalDateTime> available = new ArrayList<>();
+        if (photographerId == null || slotStarts == null) {
+            return available;
+        }
 
-                // Check for overlap
-                if ((eventDateTime.isBefore(existingEnd) && eventEndTime.isAfter(existingStart))) {
-                    return false; // Conflict found
-                }
+        for (LocalDateTime slotStart : slotStarts) {
+            if (slotStart != null
+                    && !bookings.hasConflict(photographerId, slotStart, slotStart.plusHours(durationHours))
+                    && !isHeld(photographerId, slotStart, slotStart.plusHours(durationHours), null)) {
+                available.add(slotStart);
             }
         }
-
-        return true; // No conflicts found
+        return available;
     }
 
     /**
@@ -309,23 +780,26 @@ public class BookingManager {
      * @param isPhotographer true if user is a photographer, false if client
      * @return List of upcoming bookings
      */
-    public List<Booking> getUpcomingBookings(String userId, boolean isPhotographer) {
-        if (userId == null) return new ArrayList<>();
+    public synchronized List<Booking> getUpcomingBookings(String userId, boolean isPhotographer) {
+        return getUpcomingBookings(userId, isPhotographer, 0, null);
+    }
 
-        LocalDateTime now = LocalDateTime.now();
+    /**
+     * Get a page of upcoming bookings for a user, soonest first
+     * @param userId The user ID
+     * @param isPhotographer true if user is a photographer, false if client
+     * @param limit Maximum number of bookings to return, 0 for no limit
+     * @param cursor Cursor of the last booking of the previous page, or null for the first page
+     * @return List of upcoming bookings
+     */
+    public synchronized List<Booking> getUpcomingBookings(String userId, boolean isPhotographer,
+                                                          int limit, String cursor) {
+        if (userId == null) return new ArrayList<>();
 
-        return bookings.stream()
-                .filter(b -> {
-                    if (isPhotographer) {
-                        return b.getPhotographerId().equals(userId);
-                    } else {
-                        return b.getClientId().equals(userId);
-                    }
-                })
-                .filter(b -> b.getEventDateTime().isAfter(now))
-                .filter(b -> b.getStatus() != Booking.BookingStatus.CANCELLED)
-                .sorted((b1, b2) -> b1.getEventDateTime().compareTo(b2.getEventDateTime()))
-                .collect(Collectors.toList());
+        NavigableMap<BookingIndex.TimeKey, Booking> upcoming = bookings.getTimeline(userId, isPhotographer)
+                .tailMap(BookingIndex.TimeKey.after(LocalDateTime.now()), false);
+        return BookingIndex.collect(upcoming, parseCursor(cursor), limit,
+                b -> b.getStatus() != Booking.BookingStatus.CANCELLED);
     }
 
     /**
@@ -334,22 +808,47 @@ public class BookingManager {
      * @param isPhotographer true if user is a photographer, false if client
      * @return List of past bookings
      */
-    public List<Booking> getPastBookings(String userId, boolean isPhotographer) {
+    public synchronized List<Booking> getPastBookings(String userId, boolean isPhotographer) {
+        return getPastBookings(userId, isPhotographer, 0, null);
+    }
+
+    /**
+     * Get a page of past bookings for a user, newest first
+     * @param userId The user ID
+     * @param isPhotographer true if user is a photographer, false if client
+     * @param limit Maximum number of bookings to return, 0 for no limit
+     * @param cursor Cursor of the last booking of the previous page, or null for the first page
+     * @return List of past bookings
+     */
+    public synchronized List<Booking> getPastBookings(String userId, boolean isPhotographer,
+                                                      int limit, String cursor) {
         if (userId == null) return new ArrayList<>();
 
-        LocalDateTime now = LocalDateTime.now();
+        NavigableMap<BookingIndex.TimeKey, Booking> past = bookings.getTimeline(userId, isPhotographer)
+                .headMap(BookingIndex.TimeKey.before(LocalDateTime.now()), false)
+                .descendingMap();
+        return BookingIndex.collect(past, parseCursor(cursor), limit, b -> true);
+    }
 
-        return bookings.stream()
-                .filter(b -> {
-                    if (isPhotographer) {
-                        return b.getPhotographerId().equals(userId);
-                    } else {
-                        return b.getClientId().equals(userId);
-                    }
-                })
-                .filter(b -> b.getEventDateTime().isBefore(now))
-                .sorted((b1, b2) -> b2.getEventDateTime().compareTo(b1.getEventDateTime())) // Newest first
-                .collect(Collectors.toList());
+    /**
+     * Get the cursor to pass when requesting the page after this booking
+     * @param booking The last booking of a page
+     * @return The cursor
+     */
+    public static String getCursor(Booking booking) {
+        return new BookingIndex.TimeKey(booking.getEventDateTime(), booking.getBookingId()).toString();
+    }
+
+    private static BookingIndex.TimeKey parseCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+
+        BookingIndex.TimeKey key = BookingIndex.TimeKey.parse(cursor);
+        if (key == null) {
+            LOGGER.warning("Ignoring invalid booking cursor: " + cursor);
+        }
+        return key;
     }
 
     /**
@@ -357,13 +856,24 @@ public class BookingManager {
      * @param servletContext the servlet context
      */
     public void setServletContext(ServletContext servletContext) {
-        this.servletContext = servletContext;
+        // Every photographer's bookings are replaced, so take every stripe
+        for (ReentrantLock lock : photographerLocks) {
+            lock.lock();
+        }
+        try {
+            synchronized (this) {
+                this.servletContext = servletContext;
 
-        // Update FileHandler with the new ServletContext
-        FileHandler.setServletContext(servletContext);
+                // Update FileHandler with the new ServletContext
+                FileHandler.setServletContext(servletContext);
 
-        // Reload bookings with the new file path
-        bookings.clear();
-        bookings = loadBookings();
+                // Reload bookings with the new file path
+                indexBookings(loadBookings());
+            }
+        } finally {
+            for (int i = LOCK_STRIPES - 1; i >= 0; i--) {
+                photographerLocks[i].unlock();
+            }
+        }
     }
 }
\ No newline at end of file
@@ -1,64 +1,187 @@
 package com.photobooking.model.booking;
 
+import com.photobooking.util.FileHandler;
+import com.photobooking.util.GroupCommitter;
+import com.photobooking.util.MappedRecordReader;
+import com.photobooking.util.RecordLog;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 /**
  * A queue-based implementation to manage photography bookings.
- * This class implements a FIFO (First-In-First-Out) queue using a custom singly linked list
- * with explicit front and rear pointers to process booking requests.
+ * This class implements a FIFO (First-In-First-Out) queue using a custom doubly linked list.
+ * Each node is also linked into its photographer's own FIFO chain, and nodes are indexed by
+ * booking ID, so enqueueing, dequeueing from either order and removing a booking by ID all take
+ * constant time. The queue is safe for concurrent use.
+ *
+ * A queue created with a journal file survives restarts: every enqueue and removal is appended
+ * to the journal's record log, the queue is rebuilt from the last checkpoint and the log on
+ * startup, and {@link #checkpoint()} rewrites the checkpoint and truncates the log.
  */
 public class BookingQueue {
+    private static final Logger LOGGER = Logger.getLogger(BookingQueue.class.getName());
+
     private static class Node {
-        Booking booking;
+        final Booking booking;
+        final String photographerId;
+        Node prev;
         Node next;
+        Node prevForPhotographer;
+        Node nextForPhotographer;
 
         Node(Booking booking) {
             this.booking = booking;
-            this.next = null;
+            this.photographerId = booking.getPhotographerId();
         }
     }
 
+    /**
+     * Head and tail of one photographer's chain of nodes
+     */
+    private static class PhotographerChain {
+        Node front;
+        Node rear;
+        int size;
+    }
+
+    private final Object lock = new Object();
     private Node front; // Points to the head of the queue (dequeue point)
     private Node rear;  // Points to the tail of the queue (enqueue point)
-    private int size;   // Tracks the number of bookings in the queue
+    private final Map<String, PhotographerChain> chains = new HashMap<>();
+
+    // Read without the lock by lookups and size checks
+    private final Map<String, Node> nodesById = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
     private BookingManager bookingManager;
 
+    // Durable journal, or null for an in-memory queue
+    private final String journalFile;
+    private final RecordLog journal;
+    private final GroupCommitter committer;
+
+    // Bookings taken off the queue whose reservation has not finished; still part of every checkpoint
+    private final Map<String, Booking> inFlight = new LinkedHashMap<>();
+
     /**
      * Constructor initializes an empty booking queue.
      * @param bookingManager The booking manager to save processed bookings
      */
     public BookingQueue(BookingManager bookingManager) {
-        this.front = null;
-        this.rear = null;
-        this.size = 0;
+        this(bookingManager, null);
+    }
+
+    /**
+     * Constructor for a queue journaled to a file, restoring the bookings queued before a restart.
+     * @param bookingManager The booking manager to save processed bookings
+     * @param journalFile The checkpoint file, e.g. booking_queue.txt, or null for an in-memory queue
+     */
+    public BookingQueue(BookingManager bookingManager, String journalFile) {
         this.bookingManager = bookingManager;
+        this.journalFile = journalFile;
+        if (journalFile == null) {
+            this.journal = null;
+            this.committer = null;
+            return;
+        }
+
+        FileHandler.ensureFileExists(journalFile);
+        this.journal = new RecordLog(journalFile);
+        this.committer = new GroupCommitter(journalFile, journal::appendEntries);
+        restore();
+    }
+
+    /**
+     * Rebuild the queue from the checkpoint and the journal
+     */
+    private void restore() {
+        List<Booking> queued = journal.replay(MappedRecordReader.load(journalFile, Booking::fromFileString),
+                Booking::fromFileString, Booking::getBookingId);
+
+        int restored = 0;
+        synchronized (lock) {
+            for (Booking booking : queued) {
+                // A booking saved just before a restart may not have had its removal journaled yet
+                if (booking.getBookingId() == null || bookingManager.getBookingById(booking.getBookingId()) != null) {
+                    continue;
+                }
+                Node node = new Node(booking);
+                if (nodesById.putIfAbsent(booking.getBookingId(), node) == null) {
+                    link(node);
+                    restored++;
+                }
+            }
+        }
+
+        LOGGER.info("Restored " + restored + " queued bookings from " + journalFile);
     }
 
     /**
      * Add a new booking to the end of the queue.
      * @param booking The booking to add to the queue
-     * @return true if the booking was added successfully
+     * @return true if the booking was added successfully, false if it is null or already queued
      */
     public boolean enqueue(Booking booking) {
-        if (booking == null) {
+        if (booking == null || booking.getBookingId() == null) {
             return false;
         }
 
         // Set booking status to PENDING by default
         booking.setStatus(Booking.BookingStatus.PENDING);
+        if (booking.getBookingDateTime() == null) {
+            booking.setBookingDateTime(LocalDateTime.now());
+        }
 
         Node newNode = new Node(booking);
-        if (isEmpty()) {
+        GroupCommitter.Batch batch = null;
+        synchronized (lock) {
+            if (nodesById.putIfAbsent(booking.getBookingId(), newNode) != null) {
+                return false;
+            }
+            link(newNode);
+            if (committer != null) {
+                batch = committer.enqueue(RecordLog.putEntry(booking.toFileString()));
+            }
+        }
+
+        // Wait for the journal outside the lock so concurrent enqueues share one append
+        return batch == null || committer.await(batch);
+    }
+
+    /**
+     * Link a node at the rear of the queue and of its photographer's chain; the caller holds the lock
+     */
+    private void link(Node newNode) {
+        newNode.prev = rear;
+        if (rear == null) {
             front = newNode;
-            rear = newNode;
         } else {
             rear.next = newNode;
-            rear = newNode;
         }
-        size++;
-        return true;
+        rear = newNode;
+
+        if (newNode.photographerId != null) {
+            PhotographerChain chain = chains.computeIfAbsent(newNode.photographerId, id -> new PhotographerChain());
+            newNode.prevForPhotographer = chain.rear;
+            if (chain.rear == null) {
+                chain.front = newNode;
+            } else {
+                chain.rear.nextForPhotographer = newNode;
+            }
+            chain.rear = newNode;
+            chain.size++;
+        }
+        size.incrementAndGet();
     }
 
     /**
@@ -66,22 +189,44 @@ public class BookingQueue {
      * @return The processed booking, or null if the queue is empty
      */
     public Booking dequeue() {
-        if (isEmpty()) {
-            return null;
+        Node node;
+        synchronized (lock) {
+            node = front;
+            if (node == null) {
+                return null;
+            }
+            unlink(node);
+            inFlight.put(node.booking.getBookingId(), node.booking);
         }
 
-        // Remove the booking at the front
-        Booking booking = front.booking;
-        front = front.next;
-        size--;
+        // Reserve the slot and save the booking outside the lock; it is cancelled if the slot was taken meanwhile
+        reserve(node.booking);
+        return node.booking;
+    }
+
+    /**
+     * Process and remove the oldest queued booking for a photographer.
+     * @param photographerId The photographer's ID
+     * @return The processed booking, or null if the photographer has no queued bookings
+     */
+    public Booking dequeueForPhotographer(String photographerId) {
+        if (photographerId == null) {
+            return null;
+        }
 
-        if (isEmpty()) {
-            rear = null; // Reset rear when queue becomes empty
+        Node node;
+        synchronized (lock) {
+            PhotographerChain chain = chains.get(photographerId);
+            if (chain == null) {
+                return null;
+            }
+            node = chain.front;
+            unlink(node);
+            inFlight.put(node.booking.getBookingId(), node.booking);
         }
 
-        // Save the booking to the database/file
-        bookingManager.createBooking(booking);
-        return booking;
+        reserve(node.booking);
+        return node.booking;
     }
 
     /**
@@ -91,41 +236,158 @@ public class BookingQueue {
      * @return The processed booking, or null if not found
      */
     public Booking processBookingById(String bookingId, boolean persist) {
-        if (bookingId == null || isEmpty()) {
+        if (bookingId == null) {
             return null;
         }
 
-        Node current = front;
-        Node prev = null;
+        Node node;
+        GroupCommitter.Batch batch = null;
+        synchronized (lock) {
+            node = nodesById.get(bookingId);
+            if (node == null) {
+                return null; // Booking not found
+            }
+            unlink(node);
+            if (persist) {
+                inFlight.put(bookingId, node.booking);
+            } else if (committer != null) {
+                batch = committer.enqueue(RecordLog.deleteEntry(bookingId));
+            }
+        }
 
-        // Search for the booking
-        while (current != null && !current.booking.getBookingId().equals(bookingId)) {
-            prev = current;
-            current = current.next;
+        // Save the booking to the database/file only if persist is true
+        if (persist) {
+            reserve(node.booking);
+        } else if (batch != null) {
+            committer.await(batch);
         }
+        return node.booking;
+    }
 
-        if (current == null) {
-            return null; // Booking not found
+    /**
+     * Unlink a node from the queue, its photographer's chain and the index; the caller holds the lock
+     */
+    private void unlink(Node node) {
+        if (node.prev == null) {
+            front = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next == null) {
+            rear = node.prev;
+        } else {
+            node.next.prev = node.prev;
         }
 
-        // Remove the booking
-        if (prev == null) {
-            front = front.next; // Removing the front node
+        if (node.photographerId != null) {
+            PhotographerChain chain = chains.get(node.photographerId);
+            if (node.prevForPhotographer == null) {
+                chain.front = node.nextForPhotographer;
+            } else {
+                node.prevForPhotographer.nextForPhotographer = node.nextForPhotographer;
+            }
+            if (node.nextForPhotographer == null) {
+                chain.rear = node.prevForPhotographer;
+            } else {
+                node.nextForPhotographer.prevForPhotographer = node.prevForPhotographer;
+            }
+            if (--chain.size == 0) {
+                chains.remove(node.photographerId);
+            }
+        }
+
+        node.prev = null;
+        node.next = null;
+        node.prevForPhotographer = null;
+        node.nextForPhotographer = null;
+        nodesById.remove(node.booking.getBookingId());
+        size.decrementAndGet();
+    }
+
+    /**
+     * Reserve a processed booking's slot and save it, or save it cancelled if the slot was taken
+     * by another booking after this one was queued
+     * @param booking The processed booking
+     * @return true if the slot was reserved
+     */
+    private boolean reserve(Booking booking) {
+        boolean reserved;
+        if (booking.getEventDateTime() == null) {
+            reserved = bookingManager.createBooking(booking);
         } else {
-            prev.next = current.next; // Bypass the current node
+            reserved = bookingManager.reserveSlot(booking);
+            if (!reserved && bookingManager.getBookingById(booking.getBookingId()) == null) {
+                // Keep the declined request, so the client sees it among their bookings
+                booking.setStatus(Booking.BookingStatus.CANCELLED);
+                if (!bookingManager.createBooking(booking)) {
+                    LOGGER.warning("Failed to save cancelled booking " + booking.getBookingId());
+                }
+            }
+        }
+
+        // Journal the removal only once the booking is saved, so a crash in between replays it rather than losing it
+        finishProcessing(Collections.singletonList(booking));
+        return reserved;
+    }
+
+    /**
+     * Remove a booking from the queue to be saved by the caller, as part of a batch.
+     * The booking stays in checkpoints until {@link #finishProcessing(Collection)} is called.
+     * @param bookingId The booking ID
+     * @return The booking, or null if it is not in the queue
+     */
+    Booking takeForProcessing(String bookingId) {
+        if (bookingId == null) {
+            return null;
         }
 
-        if (current == rear) {
-            rear = prev; // Update rear if removing the last node
+        synchronized (lock) {
+            Node node = nodesById.get(bookingId);
+            if (node == null) {
+                return null;
+            }
+            unlink(node);
+            inFlight.put(bookingId, node.booking);
+            return node.booking;
         }
+    }
 
-        size--;
+    /**
+     * Put a booking taken for processing back at the rear of the queue, when it could not be saved.
+     * Its removal was never journaled, so the journal needs no change.
+     * @param booking The booking taken by {@link #takeForProcessing(String)}
+     */
+    void returnToQueue(Booking booking) {
+        synchronized (lock) {
+            if (inFlight.remove(booking.getBookingId()) == null) {
+                return;
+            }
+            Node node = new Node(booking);
+            if (nodesById.putIfAbsent(booking.getBookingId(), node) == null) {
+                link(node);
+            }
+        }
+    }
 
-        // Save the booking to the database/file only if persist is true
-        if (persist) {
-            bookingManager.createBooking(current.booking);
+    /**
+     * Journal the removal of bookings taken for processing, once they have been saved
+     * @param bookings The processed bookings
+     */
+    void finishProcessing(Collection<Booking> bookings) {
+        List<String> entries = new ArrayList<>(bookings.size());
+        GroupCommitter.Batch batch = null;
+        synchronized (lock) {
+            for (Booking booking : bookings) {
+                inFlight.remove(booking.getBookingId());
+                entries.add(RecordLog.deleteEntry(booking.getBookingId()));
+            }
+            if (committer != null && !entries.isEmpty()) {
+                batch = committer.enqueueAll(entries);
+            }
+        }
+        if (batch != null) {
+            committer.await(batch);
         }
-        return current.booking;
     }
 
     /**
@@ -137,12 +399,40 @@ public class BookingQueue {
         return processBookingById(bookingId, true);
     }
 
+    /**
+     * Get a queued booking by ID without removing it.
+     * @param bookingId The booking ID
+     * @return The queued booking, or null if it is not in the queue
+     */
+    public Booking getQueuedBooking(String bookingId) {
+        Node node = bookingId != null ? nodesById.get(bookingId) : null;
+        return node != null ? node.booking : null;
+    }
+
     /**
      * View the booking at the front of the queue without removing it.
      * @return The next booking in the queue, or null if the queue is empty
      */
     public Booking peek() {
-        return isEmpty() ? null : front.booking;
+        synchronized (lock) {
+            return front != null ? front.booking : null;
+        }
+    }
+
+    /**
+     * View the oldest queued booking for a photographer without removing it.
+     * @param photographerId The photographer's ID
+     * @return The photographer's next booking, or null if none are queued
+     */
+    public Booking peekForPhotographer(String photographerId) {
+        if (photographerId == null) {
+            return null;
+        }
+
+        synchronized (lock) {
+            PhotographerChain chain = chains.get(photographerId);
+            return chain != null ? chain.front.booking : null;
+        }
     }
 
     /**
@@ -150,11 +440,11 @@ public class BookingQueue {
      * @return List of bookings currently in the queue
      */
     public List<Booking> getAllQueuedBookings() {
-        List<Booking> bookings = new ArrayList<>();
-        Node current = front;
-        while (current != null) {
-            bookings.add(current.booking);
-            current = current.next;
+        List<Booking> bookings = new ArrayList<>(size());
+        synchronized (lock) {
+            for (Node current = front; current != null; current = current.next) {
+                bookings.add(current.booking);
+            }
         }
         return bookings;
     }
@@ -165,13 +455,18 @@ public class BookingQueue {
      * @return List of bookings for the specified photographer
      */
     public List<Booking> getQueuedBookingsForPhotographer(String photographerId) {
+        List<Booking> bookings = new ArrayList<>();
         if (photographerId == null) {
-            return new ArrayList<>();
+            return bookings;
         }
 
-        return getAllQueuedBookings().stream()
-                .filter(booking -> booking.getPhotographerId().equals(photographerId))
-                .collect(Collectors.toList());
+        synchronized (lock) {
+            PhotographerChain chain = chains.get(photographerId);
+            for (Node current = chain != null ? chain.front : null; current != null; current = current.nextForPhotographer) {
+                bookings.add(current.booking);
+            }
+        }
+        return bookings;
     }
 
     /**
@@ -185,7 +480,7 @@ public class BookingQueue {
         }
 
         return getAllQueuedBookings().stream()
-                .filter(booking -> booking.getClientId().equals(clientId))
+                .filter(booking -> clientId.equals(booking.getClientId()))
                 .collect(Collectors.toList());
     }
 
@@ -194,7 +489,7 @@ public class BookingQueue {
      * @return true if the queue is empty, false otherwise
      */
     public boolean isEmpty() {
-        return size == 0;
+        return size.get() == 0;
     }
 
     /**
@@ -202,16 +497,71 @@ public class BookingQueue {
      * @return The size of the queue
      */
     public int size() {
-        return size;
+        return size.get();
+    }
+
+    /**
+     * Get the number of queued bookings for a specific photographer.
+     * @param photographerId The photographer's ID
+     * @return The number of bookings queued for the photographer
+     */
+    public int sizeForPhotographer(String photographerId) {
+        if (photographerId == null) {
+            return 0;
+        }
+
+        synchronized (lock) {
+            PhotographerChain chain = chains.get(photographerId);
+            return chain != null ? chain.size : 0;
+        }
     }
 
     /**
      * Clear all bookings from the queue.
      */
     public void clear() {
-        front = null;
-        rear = null;
-        size = 0;
+        GroupCommitter.Batch batch = null;
+        synchronized (lock) {
+            if (committer != null) {
+                for (String bookingId : nodesById.keySet()) {
+                    batch = committer.enqueue(RecordLog.deleteEntry(bookingId));
+                }
+            }
+
+            front = null;
+            rear = null;
+            chains.clear();
+            nodesById.clear();
+            size.set(0);
+        }
+
+        if (batch != null) {
+            committer.await(batch);
+        }
+    }
+
+    /**
+     * Write a fresh checkpoint of the queue and truncate the journal, once enough operations have
+     * been journaled since the last checkpoint
+     * @return true if a checkpoint was written, false if there was nothing to do
+     */
+    public boolean checkpoint() {
+        if (journal == null || !journal.needsCompaction()) {
+            return false;
+        }
+
+        // Enqueues wait for the rewrite, so nothing is journaled between the checkpoint and the truncate
+        synchronized (lock) {
+            return writeCheckpoint();
+        }
+    }
+
+    private boolean writeCheckpoint() {
+        List<Booking> queued = new ArrayList<>(inFlight.values());
+        for (Node current = front; current != null; current = current.next) {
+            queued.add(current.booking);
+        }
+        return FileHandler.commitRecords(journalFile, queued, Booking::toFileString) && journal.truncate();
     }
 
     /**
@@ -220,12 +570,9 @@ public class BookingQueue {
      */
     public int processAllBookings() {
         int processedCount = 0;
-        while (!isEmpty()) {
-            Booking booking = dequeue();
-            if (booking != null) {
-                processedCount++;
-            }
+        while (dequeue() != null) {
+            processedCount++;
         }
         return processedCount;
     }
-}
\ No newline at end of file
+}
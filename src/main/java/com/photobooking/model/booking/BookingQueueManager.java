@@ -1,10 +1,20 @@
 package com.photobooking.model.booking;
 
+import com.photobooking.util.FileHandler;
+import com.photobooking.util.ManagerRegistry;
+import com.photobooking.util.RecordLog;
+import com.photobooking.util.RecordLogCompactor;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.HashMap;
 import java.util.Map;
-import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.servlet.ServletContext;
 import java.util.logging.Logger;
 import java.util.logging.Level;
@@ -15,16 +25,30 @@ import java.util.logging.Level;
  */
 public class BookingQueueManager {
     private static final Logger LOGGER = Logger.getLogger(BookingQueueManager.class.getName());
+    private static final String QUEUE_FILE = "booking_queue.txt";
 
-    // Main booking queue for all bookings
-    private BookingQueue mainQueue;
+    // Largest number of bookings saved together when the whole queue is drained
+    private static final int DRAIN_BATCH_SIZE = 500;
+    public static final String POLICY_PARAM = "booking.queue.policy";
+    public static final List<String> POLICY_NAMES = Arrays.asList(FifoSchedulingPolicy.NAME,
+            EarliestEventSchedulingPolicy.NAME, RoundRobinSchedulingPolicy.NAME);
 
-    // Separate queues for each photographer to handle photographer-specific prioritization
-    private Map<String, BookingQueue> photographerQueues;
+    // Wait times of bookings picked by hand, by photographer or by ID, rather than by the policy
+    public static final String MANUAL_STATS = "MANUAL";
+
+    // Booking queue for all bookings; each booking is also linked into its photographer's order
+    private BookingQueue mainQueue;
 
     // The booking manager for persistent storage
     private BookingManager bookingManager;
 
+    // Checkpoints the queue journal in the background
+    private RecordLogCompactor checkpointer;
+
+    // Chooses the booking processNextBooking takes, and the wait times recorded under each policy
+    private volatile BookingSchedulingPolicy schedulingPolicy;
+    private final Map<String, QueueWaitStats> waitStats = new ConcurrentHashMap<>();
+
     // Singleton instance
     private static BookingQueueManager instance;
 
@@ -37,9 +61,16 @@ public class BookingQueueManager {
             LOGGER.info("Initializing BookingQueueManager with context: " +
                     (servletContext != null ? servletContext.getContextPath() : "null"));
 
-            bookingManager = new BookingManager(servletContext);
-            mainQueue = new BookingQueue(bookingManager);
-            photographerQueues = new HashMap<>();
+            bookingManager = ManagerRegistry.getInstance(servletContext).getBookingManager();
+            // Journal the queue so queued bookings survive a restart
+            mainQueue = new BookingQueue(bookingManager, QUEUE_FILE);
+            checkpointer = new RecordLogCompactor(RecordLog.getCompactionIntervalSeconds());
+            checkpointer.register(mainQueue::checkpoint);
+            checkpointer.start();
+
+            BookingSchedulingPolicy configuredPolicy = BookingSchedulingPolicy.forName(
+                    FileHandler.getConfigParameter(POLICY_PARAM, FifoSchedulingPolicy.NAME));
+            setSchedulingPolicy(configuredPolicy != null ? configuredPolicy : new FifoSchedulingPolicy());
 
             LOGGER.info("BookingQueueManager initialized successfully");
         } catch (Exception e) {
@@ -78,21 +109,12 @@ public class BookingQueueManager {
         }
 
         try {
-            // Add to main queue
-            boolean addedToMain = mainQueue.enqueue(booking);
-
-            // Add to photographer-specific queue
-            String photographerId = booking.getPhotographerId();
-            if (photographerId != null) {
-                BookingQueue photographerQueue = getPhotographerQueue(photographerId);
-                boolean addedToPhotographer = photographerQueue.enqueue(booking);
-
-                LOGGER.info("Booking " + booking.getBookingId() + " queued for photographer " + photographerId);
-
-                return addedToMain && addedToPhotographer;
+            boolean added = mainQueue.enqueue(booking);
+            if (added) {
+                schedulingPolicy.onEnqueue(booking);
+                LOGGER.info("Booking " + booking.getBookingId() + " queued for photographer " + booking.getPhotographerId());
             }
-
-            return addedToMain;
+            return added;
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error queuing booking: " + e.getMessage(), e);
             return false;
@@ -100,36 +122,129 @@ public class BookingQueueManager {
     }
 
     /**
-     * Get or create a queue for a specific photographer
-     * @param photographerId The photographer ID
-     * @return The photographer's booking queue
+     * Select the scheduling policy used by processNextBooking
+     * @param policy The policy
      */
-    private BookingQueue getPhotographerQueue(String photographerId) {
-        if (!photographerQueues.containsKey(photographerId)) {
-            photographerQueues.put(photographerId, new BookingQueue(bookingManager));
+    public synchronized void setSchedulingPolicy(BookingSchedulingPolicy policy) {
+        if (policy == null) {
+            return;
+        }
+
+        // Install the policy first, so bookings queued while it catches up are passed to it too;
+        // a booking it is told about twice is skipped the second time it is selected
+        schedulingPolicy = policy;
+        for (Booking booking : mainQueue.getAllQueuedBookings()) {
+            policy.onEnqueue(booking);
         }
-        return photographerQueues.get(photographerId);
+
+        LOGGER.info("Booking queue scheduling policy set to " + policy.getName());
     }
 
     /**
-     * Process the next booking in the main queue
+     * Get the scheduling policy used by processNextBooking
+     * @return The policy
+     */
+    public BookingSchedulingPolicy getSchedulingPolicy() {
+        return schedulingPolicy;
+    }
+
+    /**
+     * Get the queue wait times recorded under each scheduling policy
+     * @return Statistics by policy name
+     */
+    public Map<String, QueueWaitStats> getWaitTimeStats() {
+        return new TreeMap<>(waitStats);
+    }
+
+    /**
+     * Process the next booking chosen by the scheduling policy
      * @return The processed booking, or null if the queue is empty
      */
     public Booking processNextBooking() {
-        Booking booking = mainQueue.dequeue();
+        BookingSchedulingPolicy policy = schedulingPolicy;
+        while (true) {
+            String bookingId = policy.selectNext(mainQueue);
+            if (bookingId == null) {
+                return null;
+            }
 
-        if (booking != null) {
-            // Also remove from photographer queue WITHOUT persisting again
-            String photographerId = booking.getPhotographerId();
-            if (photographerId != null && photographerQueues.containsKey(photographerId)) {
-                BookingQueue photographerQueue = photographerQueues.get(photographerId);
-                photographerQueue.processBookingById(booking.getBookingId(), false);
+            // Null if another request processed the booking after it was selected; select again
+            Booking booking = mainQueue.processBookingById(bookingId);
+            if (booking != null) {
+                recordWait(policy.getName(), booking);
+                LOGGER.info("Booking " + booking.getBookingId() + " processed from queue by " + policy.getName());
+                return booking;
             }
+        }
+    }
 
-            LOGGER.info("Booking " + booking.getBookingId() + " processed from queue");
+    /**
+     * Process up to a number of bookings chosen by the scheduling policy, saving them together
+     * @param limit Maximum number of bookings to process
+     * @return The processed bookings; those whose slot was taken are saved CANCELLED
+     */
+    public List<Booking> processBatch(int limit) {
+        BookingSchedulingPolicy policy = schedulingPolicy;
+        List<Booking> batch = new ArrayList<>();
+        while (batch.size() < limit) {
+            String bookingId = policy.selectNext(mainQueue);
+            if (bookingId == null) {
+                break;
+            }
+            Booking booking = mainQueue.takeForProcessing(bookingId);
+            if (booking != null) {
+                batch.add(booking);
+            }
         }
 
-        return booking;
+        List<Booking> processed = reserveBatch(batch);
+        for (Booking booking : processed) {
+            recordWait(policy.getName(), booking);
+        }
+        return processed;
+    }
+
+    /**
+     * Save bookings taken from the queue with a single write, those that conflict with existing
+     * bookings or with each other as cancelled, then remove them from the queue journal.
+     * A booking that could not be saved at all, because its record is missing required fields,
+     * is put back in the queue rather than dropped.
+     * @param batch Bookings taken from the queue, in processing order
+     * @return The bookings that were processed and are now saved
+     */
+    private List<Booking> reserveBatch(List<Booking> batch) {
+        List<Booking> processed = new ArrayList<>(batch.size());
+        if (batch.isEmpty()) {
+            return processed;
+        }
+
+        Set<Booking> reserved = Collections.newSetFromMap(new IdentityHashMap<>());
+        reserved.addAll(bookingManager.reserveSlots(batch));
+        for (Booking booking : batch) {
+            // Reserved, saved cancelled, or saved before it was taken from the queue
+            if (reserved.contains(booking) || bookingManager.getBookingById(booking.getBookingId()) != null) {
+                processed.add(booking);
+            } else {
+                LOGGER.warning("Queued booking " + booking.getBookingId() + " could not be saved; left in the queue");
+                mainQueue.returnToQueue(booking);
+            }
+        }
+
+        mainQueue.finishProcessing(processed);
+        LOGGER.info(processed.size() + " bookings processed from queue in one batch, " + reserved.size() + " reserved");
+        return processed;
+    }
+
+    /**
+     * Record how long a processed booking waited in the queue
+     * @param statsName Policy name, or MANUAL_STATS for bookings picked by hand
+     */
+    private void recordWait(String statsName, Booking booking) {
+        if (booking.getBookingDateTime() == null) {
+            return;
+        }
+        long waitMillis = Duration.between(booking.getBookingDateTime(), LocalDateTime.now()).toMillis();
+        waitStats.computeIfAbsent(statsName, QueueWaitStats::new).record(waitMillis);
     }
 
     /**
@@ -138,23 +253,41 @@ public class BookingQueueManager {
      * @return The processed booking, or null if the queue is empty
      */
     public Booking processNextBookingForPhotographer(String photographerId) {
-        if (photographerId == null || !photographerQueues.containsKey(photographerId)) {
-            return null;
+        Booking booking = mainQueue.dequeueForPhotographer(photographerId);
+
+        if (booking != null) {
+            recordWait(MANUAL_STATS, booking);
+            LOGGER.info("Booking " + booking.getBookingId() + " processed for photographer " + photographerId);
         }
 
-        BookingQueue photographerQueue = photographerQueues.get(photographerId);
-        Booking booking = photographerQueue.dequeue();
+        return booking;
+    }
 
-        if (booking != null) {
-            // Also remove from main queue WITHOUT persisting again
-            mainQueue.processBookingById(booking.getBookingId(), false);
+    /**
+     * Process a specific queued booking
+     * @param bookingId The booking ID
+     * @return The processed booking, or null if it is not in the queue
+     */
+    public Booking processBookingById(String bookingId) {
+        Booking booking = mainQueue.processBookingById(bookingId);
 
-            LOGGER.info("Booking " + booking.getBookingId() + " processed for photographer " + photographerId);
+        if (booking != null) {
+            recordWait(MANUAL_STATS, booking);
+            LOGGER.info("Booking " + booking.getBookingId() + " processed from queue");
         }
 
         return booking;
     }
 
+    /**
+     * Get a queued booking without processing it
+     * @param bookingId The booking ID
+     * @return The queued booking, or null if it is not in the queue
+     */
+    public Booking getQueuedBooking(String bookingId) {
+        return mainQueue.getQueuedBooking(bookingId);
+    }
+
     /**
      * Get all bookings in the queue
      * @return List of all queued bookings
@@ -169,11 +302,7 @@ public class BookingQueueManager {
      * @return List of queued bookings for the photographer
      */
     public List<Booking> getQueuedBookingsForPhotographer(String photographerId) {
-        if (photographerId == null || !photographerQueues.containsKey(photographerId)) {
-            return new ArrayList<>();
-        }
-
-        return photographerQueues.get(photographerId).getAllQueuedBookings();
+        return mainQueue.getQueuedBookingsForPhotographer(photographerId);
     }
 
     /**
@@ -199,11 +328,7 @@ public class BookingQueueManager {
      * @return The queue size for the photographer
      */
     public int getQueueSizeForPhotographer(String photographerId) {
-        if (photographerId == null || !photographerQueues.containsKey(photographerId)) {
-            return 0;
-        }
-
-        return photographerQueues.get(photographerId).size();
+        return mainQueue.sizeForPhotographer(photographerId);
     }
 
     /**
@@ -211,31 +336,35 @@ public class BookingQueueManager {
      * @return Number of bookings processed
      */
     public int processAllQueuedBookings() {
-        return mainQueue.processAllBookings();
+        int processed = 0;
+        int count;
+        while ((count = processBatch(DRAIN_BATCH_SIZE).size()) > 0) {
+            processed += count;
+        }
+        return processed;
     }
 
     /**
-     * Batch process bookings for a specific photographer
+     * Batch process bookings for a specific photographer, saving them with a single write
      * @param photographerId The photographer ID
      * @param limit Maximum number of bookings to process
      * @return Number of bookings processed
      */
     public int processBatchForPhotographer(String photographerId, int limit) {
-        if (photographerId == null || !photographerQueues.containsKey(photographerId)) {
-            return 0;
-        }
-
-        BookingQueue photographerQueue = photographerQueues.get(photographerId);
-        int processed = 0;
-
-        while (!photographerQueue.isEmpty() && processed < limit) {
-            Booking booking = processNextBookingForPhotographer(photographerId);
+        List<Booking> batch = new ArrayList<>();
+        Booking next;
+        while (batch.size() < limit && (next = mainQueue.peekForPhotographer(photographerId)) != null) {
+            Booking booking = mainQueue.takeForProcessing(next.getBookingId());
             if (booking != null) {
-                processed++;
+                batch.add(booking);
             }
         }
 
-        return processed;
+        List<Booking> processed = reserveBatch(batch);
+        for (Booking booking : processed) {
+            recordWait(MANUAL_STATS, booking);
+        }
+        return processed.size();
     }
 
     /**
@@ -243,17 +372,29 @@ public class BookingQueueManager {
      */
     public void clearAllQueues() {
         mainQueue.clear();
-        for (BookingQueue queue : photographerQueues.values()) {
-            queue.clear();
-        }
 
         LOGGER.info("All booking queues cleared");
     }
 
+    /**
+     * Stop checkpointing the queue journal; called when the application is stopped.
+     * The journal stays on disk and the queue is restored by the next instance.
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.checkpointer.shutdown();
+            instance.checkpointer.runOnce();
+        }
+        instance = null;
+    }
+
     /**
      * Reset the singleton instance (useful for testing)
      */
-    public static void resetInstance() {
+    public static synchronized void resetInstance() {
+        if (instance != null) {
+            instance.checkpointer.shutdown();
+        }
         instance = null;
         LOGGER.info("BookingQueueManager instance reset");
     }
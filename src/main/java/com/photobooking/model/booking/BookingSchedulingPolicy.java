@@ -0,0 +1,50 @@
+package com.photobooking.model.booking;
+
+/**
+ * Decides which queued booking BookingQueueManager processes next.
+ * Policies keep their own ordering of the queued bookings and are told about every enqueued
+ * booking; bookings removed from the queue by other means are skipped when they are selected.
+ */
+public interface BookingSchedulingPolicy {
+
+    /**
+     * Get the policy's name, as selected in the configuration and shown in the queue statistics
+     * @return The name, e.g. FIFO
+     */
+    String getName();
+
+    /**
+     * Record a booking that was added to the queue
+     * @param booking The queued booking
+     */
+    void onEnqueue(Booking booking);
+
+    /**
+     * Choose the next booking to process
+     * @param queue The booking queue
+     * @return ID of a queued booking, or null if the queue is empty
+     */
+    String selectNext(BookingQueue queue);
+
+    /**
+     * Create a policy by name
+     * @param name FIFO, EARLIEST_EVENT_FIRST or ROUND_ROBIN
+     * @return The policy, or null if the name is unknown
+     */
+    static BookingSchedulingPolicy forName(String name) {
+        if (name == null) {
+            return null;
+        }
+
+        switch (name.trim().toUpperCase()) {
+            case FifoSchedulingPolicy.NAME:
+                return new FifoSchedulingPolicy();
+            case EarliestEventSchedulingPolicy.NAME:
+                return new EarliestEventSchedulingPolicy();
+            case RoundRobinSchedulingPolicy.NAME:
+                return new RoundRobinSchedulingPolicy();
+            default:
+                return null;
+        }
+    }
+}
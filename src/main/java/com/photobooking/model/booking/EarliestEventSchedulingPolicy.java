@@ -0,0 +1,95 @@
+package com.photobooking.model.booking;
+
+import com.photobooking.util.FileHandler;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.PriorityQueue;
+
+/**
+ * Processes the booking with the nearest event date first, using a heap.
+ * Waiting in the queue ages a booking: every hour it waits counts as its event being
+ * booking.queue.agingFactor hours earlier, so far-future events are not starved by a stream of
+ * near-date ones. Bookings without an event date go after every dated booking.
+ */
+public class EarliestEventSchedulingPolicy implements BookingSchedulingPolicy {
+    public static final String NAME = "EARLIEST_EVENT_FIRST";
+    public static final String AGING_FACTOR_PARAM = "booking.queue.agingFactor";
+    private static final long DEFAULT_AGING_FACTOR = 24;
+
+    // Priority of bookings with no event date, in minutes; later than any real event
+    private static final long UNDATED_PRIORITY = Long.MAX_VALUE / 4;
+
+    private static final class Entry implements Comparable<Entry> {
+        final long priority;
+        final long sequence;
+        final String bookingId;
+
+        Entry(long priority, long sequence, String bookingId) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.bookingId = bookingId;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int result = Long.compare(priority, other.priority);
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private final long agingFactor;
+    private final PriorityQueue<Entry> heap = new PriorityQueue<>();
+    private long sequence;
+
+    public EarliestEventSchedulingPolicy() {
+        this(FileHandler.getConfigParameter(AGING_FACTOR_PARAM, DEFAULT_AGING_FACTOR));
+    }
+
+    /**
+     * @param agingFactor Hours of event-date priority gained per hour waited, 0 for no aging
+     */
+    public EarliestEventSchedulingPolicy(long agingFactor) {
+        this.agingFactor = Math.max(0, agingFactor);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public synchronized void onEnqueue(Booking booking) {
+        // event - agingFactor * (now - queued) orders bookings the same as event + agingFactor * queued,
+        // since "now" is the same for all of them, so the priority never has to be updated
+        LocalDateTime queuedAt = booking.getBookingDateTime() != null ? booking.getBookingDateTime() : LocalDateTime.now();
+        long priority = booking.getEventDateTime() != null ? minutes(booking.getEventDateTime()) : UNDATED_PRIORITY;
+        priority += agingFactor * minutes(queuedAt);
+        heap.add(new Entry(priority, sequence++, booking.getBookingId()));
+    }
+
+    @Override
+    public synchronized String selectNext(BookingQueue queue) {
+        // Bookings processed by other means leave entries behind; drop them once they outnumber the live ones
+        if (heap.size() > 2 * queue.size() + 64) {
+            heap.removeIf(entry -> queue.getQueuedBooking(entry.bookingId) == null);
+        }
+
+        // Entries of bookings already removed from the queue are discarded lazily
+        while (!heap.isEmpty()) {
+            String bookingId = heap.peek().bookingId;
+            if (queue.getQueuedBooking(bookingId) != null) {
+                heap.poll();
+                return bookingId;
+            }
+            heap.poll();
+        }
+
+        // Bookings queued before the policy was selected and not yet seen by it
+        Booking next = queue.peek();
+        return next != null ? next.getBookingId() : null;
+    }
+
+    private static long minutes(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+}
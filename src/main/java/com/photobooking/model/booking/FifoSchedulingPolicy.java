@@ -0,0 +1,24 @@
+package com.photobooking.model.booking;
+
+/**
+ * Processes bookings in the order they were queued, across all photographers.
+ */
+public class FifoSchedulingPolicy implements BookingSchedulingPolicy {
+    public static final String NAME = "FIFO";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void onEnqueue(Booking booking) {
+        // The queue itself keeps arrival order
+    }
+
+    @Override
+    public String selectNext(BookingQueue queue) {
+        Booking next = queue.peek();
+        return next != null ? next.getBookingId() : null;
+    }
+}
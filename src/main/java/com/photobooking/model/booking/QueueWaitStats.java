@@ -0,0 +1,59 @@
+package com.photobooking.model.booking;
+
+/**
+ * Time bookings spent in the queue before being processed, for one scheduling policy or for the
+ * bookings processed by hand.
+ */
+public class QueueWaitStats {
+    private final String policyName;
+    private long count;
+    private long totalMillis;
+    private long maxMillis;
+
+    public QueueWaitStats(String policyName) {
+        this.policyName = policyName;
+    }
+
+    /**
+     * Record the wait of one processed booking
+     * @param waitMillis Milliseconds between queueing and processing
+     */
+    public synchronized void record(long waitMillis) {
+        long wait = Math.max(0, waitMillis);
+        count++;
+        totalMillis += wait;
+        maxMillis = Math.max(maxMillis, wait);
+    }
+
+    public String getPolicyName() {
+        return policyName;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getAverageMillis() {
+        return count > 0 ? totalMillis / count : 0;
+    }
+
+    public synchronized long getMaxMillis() {
+        return maxMillis;
+    }
+
+    /**
+     * Get the average wait in whole minutes, for display
+     * @return Average wait in minutes
+     */
+    public long getAverageMinutes() {
+        return getAverageMillis() / 60_000;
+    }
+
+    /**
+     * Get the longest wait in whole minutes, for display
+     * @return Longest wait in minutes
+     */
+    public long getMaxMinutes() {
+        return getMaxMillis() / 60_000;
+    }
+}
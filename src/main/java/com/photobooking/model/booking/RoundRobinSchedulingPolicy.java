@@ -0,0 +1,48 @@
+package com.photobooking.model.booking;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Takes turns between photographers, processing the oldest queued booking of each in turn,
+ * so one photographer's burst of requests does not hold up everyone else's.
+ */
+public class RoundRobinSchedulingPolicy implements BookingSchedulingPolicy {
+    public static final String NAME = "ROUND_ROBIN";
+
+    private final ArrayDeque<String> rotation = new ArrayDeque<>();
+    private final Set<String> inRotation = new HashSet<>();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public synchronized void onEnqueue(Booking booking) {
+        String photographerId = booking.getPhotographerId();
+        if (photographerId != null && inRotation.add(photographerId)) {
+            rotation.addLast(photographerId);
+        }
+    }
+
+    @Override
+    public synchronized String selectNext(BookingQueue queue) {
+        while (!rotation.isEmpty()) {
+            String photographerId = rotation.pollFirst();
+            Booking next = queue.peekForPhotographer(photographerId);
+            if (next == null) {
+                // Nothing left for this photographer; they rejoin when they are queued again
+                inRotation.remove(photographerId);
+                continue;
+            }
+            rotation.addLast(photographerId);
+            return next.getBookingId();
+        }
+
+        // Bookings queued before the policy was selected and not yet seen by it
+        Booking next = queue.peek();
+        return next != null ? next.getBookingId() : null;
+    }
+}
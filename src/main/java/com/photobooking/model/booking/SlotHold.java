@@ -0,0 +1,65 @@
+package com.photobooking.model.booking;
+
+import com.photobooking.util.HashedTimingWheel;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A short-lived, in-memory hold on a photographer's time slot, placed while a client fills in
+ * the booking form. Holds are never written to disk and are released when they expire.
+ */
+public class SlotHold {
+    private final String holdId;
+    private final String photographerId;
+    private final String clientId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final LocalDateTime expiresAt;
+
+    // Expiry timer, cancelled when the hold is released early
+    HashedTimingWheel.Timeout expiry;
+
+    SlotHold(String photographerId, String clientId, LocalDateTime start, LocalDateTime end,
+             LocalDateTime expiresAt) {
+        this.holdId = UUID.randomUUID().toString();
+        this.photographerId = photographerId;
+        this.clientId = clientId;
+        this.start = start;
+        this.end = end;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getHoldId() {
+        return holdId;
+    }
+
+    public String getPhotographerId() {
+        return photographerId;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Check whether the hold overlaps a time range
+     * @param rangeStart Start of the range
+     * @param rangeEnd End of the range (exclusive)
+     * @return true if they overlap
+     */
+    public boolean overlaps(LocalDateTime rangeStart, LocalDateTime rangeEnd) {
+        return start.isBefore(rangeEnd) && end.isAfter(rangeStart);
+    }
+}
@@ -1,6 +1,7 @@
 // Gallery.java
 package com.photobooking.model.gallery;
 
+import com.photobooking.util.RecordTokenizer;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -176,15 +177,15 @@ public class Gallery implements Serializable {
         sb.append(photographerId).append(",");
         sb.append(clientId != null ? clientId : "").append(",");
         sb.append(bookingId != null ? bookingId : "").append(",");
-        sb.append(title.replace(",", ";;")).append(",");
-        sb.append(description != null ? description.replace(",", ";;") : "").append(",");
-        sb.append(category != null ? category : "").append(",");
+        sb.append(RecordTokenizer.field(title)).append(",");
+        sb.append(RecordTokenizer.field(description)).append(",");
+        sb.append(RecordTokenizer.field(category)).append(",");
         sb.append(createdDate.toString()).append(",");
         sb.append(lastUpdatedDate.toString()).append(",");
         sb.append(status.name()).append(",");
 
         // Join photoIds with |
-        sb.append(String.join("|", photoIds)).append(",");
+        sb.append(RecordTokenizer.listField(photoIds)).append(",");
 
         sb.append(coverPhotoId != null ? coverPhotoId : "");
 
@@ -193,57 +194,55 @@ public class Gallery implements Serializable {
 
     // Create gallery from file string
     public static Gallery fromFileString(String fileString) {
-        String[] parts = fileString.split(",");
-        if (parts.length < 10) {
+        RecordTokenizer tokenizer = new RecordTokenizer(fileString);
+        if (tokenizer.countFields() < 10) {
             return null; // Not enough parts for a valid gallery
         }
 
         Gallery gallery = new Gallery();
-        int index = 0;
 
-        gallery.setGalleryId(parts[index++]);
-        gallery.setPhotographerId(parts[index++]);
+        gallery.setGalleryId(tokenizer.next());
+        gallery.setPhotographerId(tokenizer.next());
 
-        String clientId = parts[index++];
+        String clientId = tokenizer.next();
         if (!clientId.isEmpty()) {
             gallery.setClientId(clientId);
         }
 
-        String bookingId = parts[index++];
+        String bookingId = tokenizer.next();
         if (!bookingId.isEmpty()) {
             gallery.setBookingId(bookingId);
         }
 
-        gallery.setTitle(parts[index++].replace(";;", ","));
+        gallery.setTitle(tokenizer.nextText());
 
-        String description = parts[index++];
+        String description = tokenizer.nextText();
         if (!description.isEmpty()) {
-            gallery.setDescription(description.replace(";;", ","));
+            gallery.setDescription(description);
         }
 
-        String category = parts[index++];
+        String category = tokenizer.next();
         if (!category.isEmpty()) {
             gallery.setCategory(category);
         }
 
-        gallery.setCreatedDate(LocalDateTime.parse(parts[index++]));
-        gallery.setLastUpdatedDate(LocalDateTime.parse(parts[index++]));
-        gallery.setStatus(GalleryStatus.valueOf(parts[index++]));
+        gallery.setCreatedDate(tokenizer.nextDateTime());
+        gallery.setLastUpdatedDate(tokenizer.nextDateTime());
+        gallery.setStatus(tokenizer.nextEnum(GalleryStatus.class));
 
         // Parse photoIds
-        if (index < parts.length) {
-            String photoIdsStr = parts[index++];
-            if (!photoIdsStr.isEmpty()) {
-                String[] photoIdsArray = photoIdsStr.split("\\|");
-                for (String photoId : photoIdsArray) {
-                    gallery.addPhotoId(photoId);
-                }
+        if (tokenizer.hasNext()) {
+            for (String photoId : tokenizer.nextList()) {
+                gallery.addPhotoId(photoId);
             }
         }
 
         // Check if there's a cover photo ID
-        if (index < parts.length && !parts[index].isEmpty()) {
-            gallery.setCoverPhotoId(parts[index]);
+        if (tokenizer.hasNext()) {
+            String coverPhotoId = tokenizer.next();
+            if (!coverPhotoId.isEmpty()) {
+                gallery.setCoverPhotoId(coverPhotoId);
+            }
         }
 
         return gallery;
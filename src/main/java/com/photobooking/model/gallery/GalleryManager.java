@@ -1,12 +1,14 @@
 // GalleryManager.java
 package com.photobooking.model.gallery;
 
+import com.photobooking.model.photographer.AutocompleteIndex;
 import com.photobooking.util.FileHandler;
+import com.photobooking.util.MappedRecordReader;
+import com.photobooking.util.RecordLog;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.logging.Logger;
-import java.util.logging.Level;
 import javax.servlet.ServletContext;
 import java.time.LocalDateTime;
 
@@ -18,6 +20,8 @@ public class GalleryManager {
     private static final String GALLERY_FILE = "galleries.txt";
     private List<Gallery> galleries;
     private ServletContext servletContext;
+    private RecordLog recordLog;
+    private AutocompleteIndex autocomplete;
 
     // Constructors
     public GalleryManager() {
@@ -32,6 +36,11 @@ public class GalleryManager {
             FileHandler.setServletContext(servletContext);
         }
 
+        // Use the append-only record log when log-structured storage is enabled
+        if (RecordLog.isEnabled()) {
+            this.recordLog = new RecordLog(GALLERY_FILE);
+        }
+
         this.galleries = loadGalleries();
     }
 
@@ -43,16 +52,12 @@ public class GalleryManager {
         // Ensure file exists
         FileHandler.ensureFileExists(GALLERY_FILE);
 
-        List<String> lines = FileHandler.readLines(GALLERY_FILE);
-        List<Gallery> loadedGalleries = new ArrayList<>();
+        // Parse records straight out of the memory-mapped file
+        List<Gallery> loadedGalleries = MappedRecordReader.load(GALLERY_FILE, Gallery::fromFileString);
 
-        for (String line : lines) {
-            if (!line.trim().isEmpty()) {
-                Gallery gallery = Gallery.fromFileString(line);
-                if (gallery != null) {
-                    loadedGalleries.add(gallery);
-                }
-            }
+        // Apply changes appended to the record log since the last snapshot
+        if (recordLog != null) {
+            loadedGalleries = recordLog.replay(loadedGalleries, Gallery::fromFileString, Gallery::getGalleryId);
         }
 
         LOGGER.info("Loaded " + loadedGalleries.size() + " galleries from file");
@@ -64,41 +69,62 @@ public class GalleryManager {
      * @return true if successful, false otherwise
      */
     private boolean saveGalleries() {
-        try {
-            // Create a backup first
-            if (FileHandler.fileExists(GALLERY_FILE)) {
-                FileHandler.copyFile(GALLERY_FILE, GALLERY_FILE + ".bak");
-            }
+        // Atomically replace the file: stream to a temp file, force it to disk and rename
+        boolean result = FileHandler.commitRecords(GALLERY_FILE, galleries, Gallery::toFileString);
 
-            // Delete existing file content
-            FileHandler.deleteFile(GALLERY_FILE);
+        if (result) {
+            LOGGER.info("Successfully saved " + galleries.size() + " galleries");
+        } else {
+            LOGGER.warning("Failed to save galleries");
+        }
 
-            // Ensure file exists
-            FileHandler.ensureFileExists(GALLERY_FILE);
+        return result;
+    }
 
-            // Write all galleries at once
-            StringBuilder contentToWrite = new StringBuilder();
-            for (Gallery gallery : galleries) {
-                contentToWrite.append(gallery.toFileString()).append(System.lineSeparator());
-            }
+    /**
+     * Persist a created or updated gallery
+     * @param gallery The gallery that changed
+     * @return true if successful, false otherwise
+     */
+    private boolean persistGallery(Gallery gallery) {
+        if (recordLog != null) {
+            return recordLog.appendPut(gallery.toFileString());
+        }
+        return saveGalleries();
+    }
 
-            boolean result = FileHandler.writeToFile(GALLERY_FILE, contentToWrite.toString(), false);
+    /**
+     * Persist the removal of a gallery
+     * @param galleryId The ID of the removed gallery
+     * @return true if successful, false otherwise
+     */
+    private boolean persistGalleryRemoval(String galleryId) {
+        if (recordLog != null) {
+            return recordLog.appendDelete(galleryId);
+        }
+        return saveGalleries();
+    }
 
-            if (result) {
-                LOGGER.info("Successfully saved " + galleries.size() + " galleries");
-            } else {
-                LOGGER.warning("Failed to save galleries");
-                // Restore from backup
-                if (FileHandler.fileExists(GALLERY_FILE + ".bak")) {
-                    FileHandler.copyFile(GALLERY_FILE + ".bak", GALLERY_FILE);
-                }
-            }
+    /**
+     * Keep the search box suggestions in step with the published galleries
+     * @param autocomplete The autocomplete index
+     */
+    public synchronized void attachAutocomplete(AutocompleteIndex autocomplete) {
+        this.autocomplete = autocomplete;
+        for (Gallery gallery : galleries) {
+            autocomplete.putGallery(gallery);
+        }
+    }
 
-            return result;
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error saving galleries: " + e.getMessage(), e);
+    /**
+     * Write a fresh snapshot of all galleries and truncate the record log
+     * @return true if the log was compacted, false if there was nothing to do
+     */
+    public synchronized boolean compactLog() {
+        if (recordLog == null || !recordLog.needsCompaction()) {
             return false;
         }
+        return saveGalleries() && recordLog.truncate();
     }
 
     /**
@@ -106,7 +132,7 @@ public class GalleryManager {
      * @param gallery The gallery to create
      * @return true if successful, false otherwise
      */
-    public boolean createGallery(Gallery gallery) {
+    public synchronized boolean createGallery(Gallery gallery) {
         // Basic validation
         if (gallery == null || gallery.getPhotographerId() == null || gallery.getTitle() == null) {
             return false;
@@ -114,7 +140,10 @@ public class GalleryManager {
 
         // Add to list and save
         galleries.add(gallery);
-        return saveGalleries();
+        if (autocomplete != null) {
+            autocomplete.putGallery(gallery);
+        }
+        return persistGallery(gallery);
     }
 
     /**
@@ -122,7 +151,7 @@ public class GalleryManager {
      * @param galleryId The gallery ID
      * @return The gallery or null if not found
      */
-    public Gallery getGalleryById(String galleryId) {
+    public synchronized Gallery getGalleryById(String galleryId) {
         if (galleryId == null) return null;
 
         return galleries.stream()
@@ -137,7 +166,7 @@ public class GalleryManager {
      * @return List of galleries for the photographer
      */
     // Update to GalleryManager.java - getGalleriesByPhotographer method
-    public List<Gallery> getGalleriesByPhotographer(String photographerId) {
+    public synchronized List<Gallery> getGalleriesByPhotographer(String photographerId) {
         if (photographerId == null) {
             LOGGER.warning("Attempting to get galleries with null photographerId");
             return new ArrayList<>();
@@ -162,7 +191,7 @@ public class GalleryManager {
      * @param photographerId The photographer ID
      * @return List of public galleries for the photographer
      */
-    public List<Gallery> getPublicGalleriesByPhotographer(String photographerId) {
+    public synchronized List<Gallery> getPublicGalleriesByPhotographer(String photographerId) {
         if (photographerId == null) return new ArrayList<>();
 
         return galleries.stream()
@@ -176,7 +205,7 @@ public class GalleryManager {
      * @param clientId The client ID
      * @return List of galleries for the client
      */
-    public List<Gallery> getGalleriesByClient(String clientId) {
+    public synchronized List<Gallery> getGalleriesByClient(String clientId) {
         if (clientId == null) return new ArrayList<>();
 
         return galleries.stream()
@@ -190,7 +219,7 @@ public class GalleryManager {
      * @param bookingId The booking ID
      * @return List of galleries for the booking
      */
-    public List<Gallery> getGalleriesByBooking(String bookingId) {
+    public synchronized List<Gallery> getGalleriesByBooking(String bookingId) {
         if (bookingId == null) return new ArrayList<>();
 
         return galleries.stream()
@@ -203,7 +232,7 @@ public class GalleryManager {
      * @param category The category
      * @return List of galleries in the category
      */
-    public List<Gallery> getGalleriesByCategory(String category) {
+    public synchronized List<Gallery> getGalleriesByCategory(String category) {
         if (category == null) return new ArrayList<>();
 
         return galleries.stream()
@@ -217,7 +246,7 @@ public class GalleryManager {
      * @param updatedGallery The updated gallery
      * @return true if successful, false otherwise
      */
-    public boolean updateGallery(Gallery updatedGallery) {
+    public synchronized boolean updateGallery(Gallery updatedGallery) {
         if (updatedGallery == null || updatedGallery.getGalleryId() == null) {
             return false;
         }
@@ -228,7 +257,10 @@ public class GalleryManager {
         for (int i = 0; i < galleries.size(); i++) {
             if (galleries.get(i).getGalleryId().equals(updatedGallery.getGalleryId())) {
                 galleries.set(i, updatedGallery);
-                return saveGalleries();
+                if (autocomplete != null) {
+                    autocomplete.putGallery(updatedGallery);
+                }
+                return persistGallery(updatedGallery);
             }
         }
 
@@ -240,14 +272,17 @@ public class GalleryManager {
      * @param galleryId The gallery ID
      * @return true if successful, false otherwise
      */
-    public boolean deleteGallery(String galleryId) {
+    public synchronized boolean deleteGallery(String galleryId) {
         if (galleryId == null) {
             return false;
         }
 
         boolean removed = galleries.removeIf(g -> g.getGalleryId().equals(galleryId));
         if (removed) {
-            return saveGalleries();
+            if (autocomplete != null) {
+                autocomplete.removeGallery(galleryId);
+            }
+            return persistGalleryRemoval(galleryId);
         }
 
         return false; // Gallery not found
@@ -259,7 +294,7 @@ public class GalleryManager {
      * @param photoId The photo ID
      * @return true if successful, false otherwise
      */
-    public boolean addPhotoToGallery(String galleryId, String photoId) {
+    public synchronized boolean addPhotoToGallery(String galleryId, String photoId) {
         Gallery gallery = getGalleryById(galleryId);
         if (gallery == null || photoId == null) {
             return false;
@@ -281,7 +316,7 @@ public class GalleryManager {
      * @param photoId The photo ID
      * @return true if successful, false otherwise
      */
-    public boolean removePhotoFromGallery(String galleryId, String photoId) {
+    public synchronized boolean removePhotoFromGallery(String galleryId, String photoId) {
         Gallery gallery = getGalleryById(galleryId);
         if (gallery == null || photoId == null) {
             return false;
@@ -297,7 +332,7 @@ public class GalleryManager {
      * @param photoId The photo ID to set as cover
      * @return true if successful, false otherwise
      */
-    public boolean setCoverPhoto(String galleryId, String photoId) {
+    public synchronized boolean setCoverPhoto(String galleryId, String photoId) {
         Gallery gallery = getGalleryById(galleryId);
         if (gallery == null || photoId == null || !gallery.getPhotoIds().contains(photoId)) {
             return false;
@@ -313,7 +348,7 @@ public class GalleryManager {
      * @param status The new status
      * @return true if successful, false otherwise
      */
-    public boolean setGalleryStatus(String galleryId, Gallery.GalleryStatus status) {
+    public synchronized boolean setGalleryStatus(String galleryId, Gallery.GalleryStatus status) {
         Gallery gallery = getGalleryById(galleryId);
         if (gallery == null || status == null) {
             return false;
@@ -328,7 +363,7 @@ public class GalleryManager {
      * @param keyword The keyword to search for
      * @return List of matching galleries
      */
-    public List<Gallery> searchGalleries(String keyword) {
+    public synchronized List<Gallery> searchGalleries(String keyword) {
         if (keyword == null || keyword.trim().isEmpty()) {
             return new ArrayList<>(galleries);
         }
@@ -1,6 +1,7 @@
 // Photo.java
 package com.photobooking.model.gallery;
 
+import com.photobooking.util.RecordTokenizer;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -160,61 +161,63 @@ public class Photo implements Serializable {
         sb.append(photoId).append(",");
         sb.append(galleryId).append(",");
         sb.append(photographerId).append(",");
-        sb.append(fileName).append(",");
-        sb.append(originalFileName.replace(",", ";;")).append(",");
-        sb.append(title != null ? title.replace(",", ";;") : "").append(",");
-        sb.append(description != null ? description.replace(",", ";;") : "").append(",");
-        sb.append(filePath).append(",");
-        sb.append(thumbnailPath != null ? thumbnailPath : "").append(",");
+        sb.append(RecordTokenizer.field(fileName)).append(",");
+        sb.append(RecordTokenizer.field(originalFileName)).append(",");
+        sb.append(RecordTokenizer.field(title)).append(",");
+        sb.append(RecordTokenizer.field(description)).append(",");
+        sb.append(RecordTokenizer.field(filePath)).append(",");
+        sb.append(RecordTokenizer.field(thumbnailPath)).append(",");
         sb.append(uploadDate.toString()).append(",");
         sb.append(width).append(",");
         sb.append(height).append(",");
         sb.append(fileSize).append(",");
-        sb.append(contentType != null ? contentType : "");
+        sb.append(RecordTokenizer.field(contentType));
 
         return sb.toString();
     }
 
     // Create photo from file string
     public static Photo fromFileString(String fileString) {
-        String[] parts = fileString.split(",");
-        if (parts.length < 10) {
+        RecordTokenizer tokenizer = new RecordTokenizer(fileString);
+        if (tokenizer.countFields() < 13) {
             return null; // Not enough parts for a valid photo
         }
 
         Photo photo = new Photo();
-        int index = 0;
 
-        photo.setPhotoId(parts[index++]);
-        photo.setGalleryId(parts[index++]);
-        photo.setPhotographerId(parts[index++]);
-        photo.setFileName(parts[index++]);
-        photo.setOriginalFileName(parts[index++].replace(";;", ","));
+        photo.setPhotoId(tokenizer.next());
+        photo.setGalleryId(tokenizer.next());
+        photo.setPhotographerId(tokenizer.next());
+        photo.setFileName(tokenizer.next());
+        photo.setOriginalFileName(tokenizer.nextText());
 
-        String title = parts[index++];
+        String title = tokenizer.nextText();
         if (!title.isEmpty()) {
-            photo.setTitle(title.replace(";;", ","));
+            photo.setTitle(title);
         }
 
-        String description = parts[index++];
+        String description = tokenizer.nextText();
         if (!description.isEmpty()) {
-            photo.setDescription(description.replace(";;", ","));
+            photo.setDescription(description);
         }
 
-        photo.setFilePath(parts[index++]);
+        photo.setFilePath(tokenizer.next());
 
-        String thumbnailPath = parts[index++];
+        String thumbnailPath = tokenizer.next();
         if (!thumbnailPath.isEmpty()) {
             photo.setThumbnailPath(thumbnailPath);
         }
 
-        photo.setUploadDate(LocalDateTime.parse(parts[index++]));
-        photo.setWidth(Integer.parseInt(parts[index++]));
-        photo.setHeight(Integer.parseInt(parts[index++]));
-        photo.setFileSize(Long.parseLong(parts[index++]));
+        photo.setUploadDate(tokenizer.nextDateTime());
+        photo.setWidth(tokenizer.nextInt());
+        photo.setHeight(tokenizer.nextInt());
+        photo.setFileSize(tokenizer.nextLong());
 
-        if (index < parts.length) {
-            photo.setContentType(parts[index]);
+        if (tokenizer.hasNext()) {
+            String contentType = tokenizer.next();
+            if (!contentType.isEmpty()) {
+                photo.setContentType(contentType);
+            }
         }
 
         return photo;
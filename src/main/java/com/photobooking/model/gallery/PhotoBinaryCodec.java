@@ -0,0 +1,60 @@
+package com.photobooking.model.gallery;
+
+import com.photobooking.util.BinaryCodec;
+import com.photobooking.util.BinaryFields;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Binary codec for photo metadata.
+ * Schema version 1: IDs as UUIDs, upload date as epoch seconds.
+ */
+public class PhotoBinaryCodec implements BinaryCodec<Photo> {
+    public static final PhotoBinaryCodec INSTANCE = new PhotoBinaryCodec();
+
+    private static final int SCHEMA_VERSION = 1;
+
+    @Override
+    public int getSchemaVersion() {
+        return SCHEMA_VERSION;
+    }
+
+    @Override
+    public void write(Photo photo, DataOutput out) throws IOException {
+        BinaryFields.writeId(out, photo.getPhotoId());
+        BinaryFields.writeId(out, photo.getGalleryId());
+        BinaryFields.writeId(out, photo.getPhotographerId());
+        BinaryFields.writeString(out, photo.getFileName());
+        BinaryFields.writeString(out, photo.getOriginalFileName());
+        BinaryFields.writeString(out, photo.getTitle());
+        BinaryFields.writeString(out, photo.getDescription());
+        BinaryFields.writeString(out, photo.getFilePath());
+        BinaryFields.writeString(out, photo.getThumbnailPath());
+        BinaryFields.writeDateTime(out, photo.getUploadDate());
+        out.writeInt(photo.getWidth());
+        out.writeInt(photo.getHeight());
+        out.writeLong(photo.getFileSize());
+        BinaryFields.writeString(out, photo.getContentType());
+    }
+
+    @Override
+    public Photo read(ByteBuffer in, int schemaVersion) {
+        Photo photo = new Photo();
+        photo.setPhotoId(BinaryFields.readId(in));
+        photo.setGalleryId(BinaryFields.readId(in));
+        photo.setPhotographerId(BinaryFields.readId(in));
+        photo.setFileName(BinaryFields.readString(in));
+        photo.setOriginalFileName(BinaryFields.readString(in));
+        photo.setTitle(BinaryFields.readString(in));
+        photo.setDescription(BinaryFields.readString(in));
+        photo.setFilePath(BinaryFields.readString(in));
+        photo.setThumbnailPath(BinaryFields.readString(in));
+        photo.setUploadDate(BinaryFields.readDateTime(in));
+        photo.setWidth(in.getInt());
+        photo.setHeight(in.getInt());
+        photo.setFileSize(in.getLong());
+        photo.setContentType(BinaryFields.readString(in));
+        return photo;
+    }
+}
@@ -1,7 +1,12 @@
 package com.photobooking.model.gallery;
 
+import com.photobooking.util.BinaryRecordFile;
 import com.photobooking.util.FileHandler;
+import com.photobooking.util.MappedRecordReader;
+import com.photobooking.util.GroupCommitter;
+import com.photobooking.util.RecordLog;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.logging.Logger;
@@ -31,6 +36,9 @@ public class PhotoManager {
 
     private List<Photo> photos;
     private ServletContext servletContext;
+    private RecordLog recordLog;
+    private BinaryRecordFile<Photo> binaryFile;
+    private GroupCommitter committer;
 
     // Constructors
     public PhotoManager() {
@@ -49,6 +57,17 @@ public class PhotoManager {
         FileHandler.createDirectory(PHOTOS_DIRECTORY);
         FileHandler.createDirectory(THUMBNAILS_DIRECTORY);
 
+        // Store the snapshot in the compact binary format when it is selected for this file
+        this.binaryFile = BinaryRecordFile.forDataFile(PHOTOS_FILE, PhotoBinaryCodec.INSTANCE);
+
+        // Use the append-only record log when log-structured storage is enabled
+        if (RecordLog.isEnabled()) {
+            this.recordLog = new RecordLog(PHOTOS_FILE);
+        }
+
+        // Coalesce concurrent writes into a single flush
+        this.committer = new GroupCommitter(PHOTOS_FILE, this::flushPhotos);
+
         this.photos = loadPhotos();
     }
 
@@ -60,16 +79,16 @@ public class PhotoManager {
         // Ensure file exists
         FileHandler.ensureFileExists(PHOTOS_FILE);
 
-        List<String> lines = FileHandler.readLines(PHOTOS_FILE);
-        List<Photo> loadedPhotos = new ArrayList<>();
+        // Read the binary snapshot if there is one, otherwise parse the memory-mapped text file.
+        // An unreadable snapshot throws instead, so the stale text file never replaces it.
+        List<Photo> loadedPhotos = binaryFile != null ? binaryFile.load() : null;
+        if (loadedPhotos == null) {
+            loadedPhotos = MappedRecordReader.load(PHOTOS_FILE, Photo::fromFileString);
+        }
 
-        for (String line : lines) {
-            if (!line.trim().isEmpty()) {
-                Photo photo = Photo.fromFileString(line);
-                if (photo != null) {
-                    loadedPhotos.add(photo);
-                }
-            }
+        // Apply changes appended to the record log since the last snapshot
+        if (recordLog != null) {
+            loadedPhotos = recordLog.replay(loadedPhotos, Photo::fromFileString, Photo::getPhotoId);
         }
 
         LOGGER.info("Loaded " + loadedPhotos.size() + " photos from file");
@@ -81,41 +100,68 @@ public class PhotoManager {
      * @return true if successful, false otherwise
      */
     private boolean savePhotos() {
-        try {
-            // Create a backup first
-            if (FileHandler.fileExists(PHOTOS_FILE)) {
-                FileHandler.copyFile(PHOTOS_FILE, PHOTOS_FILE + ".bak");
-            }
+        // Atomically replace the file: stream to a temp file, force it to disk and rename
+        boolean result = binaryFile != null
+                ? binaryFile.commit(photos)
+                : FileHandler.commitRecords(PHOTOS_FILE, photos, Photo::toFileString);
 
-            // Delete existing file content
-            FileHandler.deleteFile(PHOTOS_FILE);
-
-            // Ensure file exists
-            FileHandler.ensureFileExists(PHOTOS_FILE);
+        if (result) {
+            LOGGER.info("Successfully saved " + photos.size() + " photos");
+        } else {
+            LOGGER.warning("Failed to save photos");
+        }
 
-            // Write all photos at once
-            StringBuilder contentToWrite = new StringBuilder();
-            for (Photo photo : photos) {
-                contentToWrite.append(photo.toFileString()).append(System.lineSeparator());
-            }
+        return result;
+    }
 
-            boolean result = FileHandler.writeToFile(PHOTOS_FILE, contentToWrite.toString(), false);
+    /**
+     * Queue a created or updated photo for the next group commit; call under the manager's lock
+     * and await the batch after releasing it, so concurrent changes share one write
+     * @param photo The photo that changed
+     * @return The batch to await
+     */
+    private GroupCommitter.Batch enqueuePhoto(Photo photo) {
+        return committer.enqueue(recordLog != null ? RecordLog.putEntry(photo.toFileString()) : null);
+    }
 
-            if (result) {
-                LOGGER.info("Successfully saved " + photos.size() + " photos");
-            } else {
-                LOGGER.warning("Failed to save photos");
-                // Restore from backup
-                if (FileHandler.fileExists(PHOTOS_FILE + ".bak")) {
-                    FileHandler.copyFile(PHOTOS_FILE + ".bak", PHOTOS_FILE);
-                }
+    /**
+     * Queue the removal of one or more photos for the next group commit, like {@link #enqueuePhoto(Photo)}
+     * @param photoIds The IDs of the removed photos
+     * @return The batch to await
+     */
+    private GroupCommitter.Batch enqueuePhotoRemovals(List<String> photoIds) {
+        List<String> entries = new ArrayList<>();
+        if (recordLog != null) {
+            for (String photoId : photoIds) {
+                entries.add(RecordLog.deleteEntry(photoId));
             }
+        }
+        return committer.enqueueAll(entries);
+    }
 
-            return result;
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error saving photos: " + e.getMessage(), e);
+    /**
+     * Write one group commit batch to disk
+     * @param entries Record log entries in the batch, empty when the snapshot is rewritten
+     * @return true if successful, false otherwise
+     */
+    private boolean flushPhotos(List<String> entries) {
+        if (recordLog != null) {
+            return recordLog.appendEntries(entries);
+        }
+        synchronized (this) {
+            return savePhotos();
+        }
+    }
+
+    /**
+     * Write a fresh snapshot of all photos and truncate the record log
+     * @return true if the log was compacted, false if there was nothing to do
+     */
+    public synchronized boolean compactLog() {
+        if (recordLog == null || !recordLog.needsCompaction()) {
             return false;
         }
+        return savePhotos() && recordLog.truncate();
     }
 
     /**
@@ -191,9 +237,13 @@ public class PhotoManager {
             // Set file size
             photo.setFileSize(fileData.length);
 
-            // Add to list and save
-            photos.add(photo);
-            boolean saved = savePhotos();
+            // Add to list, then wait for the save outside the lock so concurrent uploads share one write
+            GroupCommitter.Batch batch;
+            synchronized (this) {
+                photos.add(photo);
+                batch = enqueuePhoto(photo);
+            }
+            boolean saved = committer.await(batch);
             LOGGER.info("Photo metadata " + (saved ? "saved" : "failed to save"));
             return saved;
 
@@ -299,7 +349,7 @@ public class PhotoManager {
      * @param photoId The photo ID
      * @return The photo or null if not found
      */
-    public Photo getPhotoById(String photoId) {
+    public synchronized Photo getPhotoById(String photoId) {
         if (photoId == null) return null;
 
         return photos.stream()
@@ -313,7 +363,7 @@ public class PhotoManager {
      * @param galleryId The gallery ID
      * @return List of photos in the gallery
      */
-    public List<Photo> getPhotosByGallery(String galleryId) {
+    public synchronized List<Photo> getPhotosByGallery(String galleryId) {
         if (galleryId == null) return new ArrayList<>();
 
         return photos.stream()
@@ -326,7 +376,7 @@ public class PhotoManager {
      * @param photographerId The photographer ID
      * @return List of photos by the photographer
      */
-    public List<Photo> getPhotosByPhotographer(String photographerId) {
+    public synchronized List<Photo> getPhotosByPhotographer(String photographerId) {
         if (photographerId == null) return new ArrayList<>();
 
         return photos.stream()
@@ -344,6 +394,16 @@ public class PhotoManager {
             return false;
         }
 
+        // Replace the photo under the lock, then wait for the save outside it
+        GroupCommitter.Batch batch = replacePhoto(updatedPhoto);
+        return batch != null && committer.await(batch);
+    }
+
+    /**
+     * Replace a stored photo, keeping its file paths and dimensions, and queue the change
+     * @return The batch to await, or null if the photo was not found
+     */
+    private synchronized GroupCommitter.Batch replacePhoto(Photo updatedPhoto) {
         for (int i = 0; i < photos.size(); i++) {
             if (photos.get(i).getPhotoId().equals(updatedPhoto.getPhotoId())) {
                 // Keep original file paths and dimensions
@@ -354,11 +414,11 @@ public class PhotoManager {
                 updatedPhoto.setFileSize(photos.get(i).getFileSize());
 
                 photos.set(i, updatedPhoto);
-                return savePhotos();
+                return enqueuePhoto(updatedPhoto);
             }
         }
 
-        return false; // Photo not found
+        return null; // Photo not found
     }
 
     /**
@@ -395,13 +455,15 @@ public class PhotoManager {
             LOGGER.log(Level.WARNING, "Error deleting photo files: " + e.getMessage(), e);
         }
 
-        // Remove from list
-        boolean removed = photos.removeIf(p -> p.getPhotoId().equals(photoId));
-        if (removed) {
-            return savePhotos();
+        // Remove from list, then wait for the save outside the lock
+        GroupCommitter.Batch batch = null;
+        synchronized (this) {
+            if (photos.removeIf(p -> p.getPhotoId().equals(photoId))) {
+                batch = enqueuePhotoRemovals(Collections.singletonList(photoId));
+            }
         }
 
-        return false; // Photo not found
+        return batch != null && committer.await(batch); // False if the photo was not found
     }
 
     /**
@@ -437,12 +499,22 @@ public class PhotoManager {
             }
         }
 
-        // Remove all gallery photos from list
-        boolean removed = photos.removeIf(p -> galleryId.equals(p.getGalleryId()));
-        if (removed) {
-            return savePhotos();
+        // Remove all gallery photos from list, then wait for the save outside the lock
+        GroupCommitter.Batch batch = null;
+        synchronized (this) {
+            List<String> photoIds = photos.stream()
+                    .filter(p -> galleryId.equals(p.getGalleryId()))
+                    .map(Photo::getPhotoId)
+                    .collect(Collectors.toList());
+
+            if (photos.removeIf(p -> galleryId.equals(p.getGalleryId()))) {
+                batch = enqueuePhotoRemovals(photoIds);
+            }
         }
 
+        if (batch != null) {
+            return committer.await(batch);
+        }
         return !galleryPhotos.isEmpty(); // Return true if there were photos to delete
     }
 }
@@ -0,0 +1,229 @@
+package com.photobooking.model.photographer;
+
+import com.photobooking.model.gallery.Gallery;
+import com.photobooking.util.PrefixTrie;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Search box suggestions: photographer business names, locations, specialties and published
+ * gallery titles, kept in a prefix trie and matched on the start of any word.
+ *
+ * PhotographerManager and GalleryManager push photographers and galleries in as they change.
+ * A photographer counts for 1 + rating x ln(1 + reviews), so well-reviewed photographers come
+ * first; a location or specialty counts for the sum over the photographers offering it.
+ */
+public class AutocompleteIndex {
+
+    public enum SuggestionType {
+        PHOTOGRAPHER, LOCATION, SPECIALTY, GALLERY
+    }
+
+    /**
+     * One suggestion. Photographers and galleries are identified by their ID; locations and
+     * specialties by their text, so photographers sharing one share a suggestion.
+     */
+    public static final class Suggestion {
+        private final SuggestionType type;
+        private final String text;
+        private final String id;
+
+        Suggestion(SuggestionType type, String text, String id) {
+            this.type = type;
+            this.text = text;
+            this.id = id;
+        }
+
+        public SuggestionType getType() {
+            return type;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * Get the photographer or gallery ID
+         * @return The ID, or null for a location or specialty
+         */
+        public String getId() {
+            return id;
+        }
+
+        private Object identity() {
+            return id != null ? id : text.toLowerCase(Locale.ROOT);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Suggestion)) return false;
+            Suggestion other = (Suggestion) o;
+            return type == other.type && identity().equals(other.identity());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, identity());
+        }
+    }
+
+    /**
+     * Combined weight of a suggestion and the number of photographers or galleries behind it
+     */
+    private static final class Aggregate {
+        double weight;
+        int sources;
+    }
+
+    private static final class Contribution {
+        final Suggestion suggestion;
+        final double weight;
+
+        Contribution(Suggestion suggestion, double weight) {
+            this.suggestion = suggestion;
+            this.weight = weight;
+        }
+    }
+
+    private final PrefixTrie<Suggestion> trie = new PrefixTrie<>();
+    private final Map<Suggestion, Aggregate> aggregates = new HashMap<>();
+    // Photographer or gallery -> what it contributed, to withdraw it when it changes
+    private final Map<String, List<Contribution>> contributions = new HashMap<>();
+
+    /**
+     * Add or update a photographer's suggestions
+     * @param photographer The photographer
+     */
+    public synchronized void putPhotographer(Photographer photographer) {
+        String source = photographerSource(photographer.getPhotographerId());
+        withdraw(source);
+
+        double weight = 1 + photographer.getRating() * Math.log1p(photographer.getReviewCount());
+        List<Contribution> added = new ArrayList<>();
+        contribute(added, new Suggestion(SuggestionType.PHOTOGRAPHER, photographer.getBusinessName(),
+                photographer.getPhotographerId()), weight);
+        contribute(added, new Suggestion(SuggestionType.LOCATION, photographer.getLocation(), null), weight);
+        for (String specialty : photographer.getSpecialties()) {
+            contribute(added, new Suggestion(SuggestionType.SPECIALTY, specialty, null), weight);
+        }
+        contributions.put(source, added);
+    }
+
+    /**
+     * Remove a photographer's suggestions
+     * @param photographerId The photographer ID
+     */
+    public synchronized void removePhotographer(String photographerId) {
+        withdraw(photographerSource(photographerId));
+    }
+
+    /**
+     * Add or update a gallery's title; only published galleries are suggested
+     * @param gallery The gallery
+     */
+    public synchronized void putGallery(Gallery gallery) {
+        String source = gallerySource(gallery.getGalleryId());
+        withdraw(source);
+        if (gallery.getStatus() != Gallery.GalleryStatus.PUBLISHED) {
+            return;
+        }
+
+        // Larger galleries first
+        int photos = gallery.getPhotoIds() != null ? gallery.getPhotoIds().size() : 0;
+        List<Contribution> added = new ArrayList<>();
+        contribute(added, new Suggestion(SuggestionType.GALLERY, gallery.getTitle(), gallery.getGalleryId()),
+                1 + Math.log1p(photos));
+        contributions.put(source, added);
+    }
+
+    /**
+     * Remove a gallery's title
+     * @param galleryId The gallery ID
+     */
+    public synchronized void removeGallery(String galleryId) {
+        withdraw(gallerySource(galleryId));
+    }
+
+    /**
+     * Suggest completions for what has been typed so far
+     * @param prefix The text typed; matched case-insensitively against the start of any word
+     * @param limit Maximum number of suggestions
+     * @return Suggestions, heaviest first
+     */
+    public synchronized List<Suggestion> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return trie.top(prefix.trim().toLowerCase(Locale.ROOT), limit);
+    }
+
+    private void contribute(List<Contribution> added, Suggestion suggestion, double weight) {
+        if (suggestion.getText() == null || suggestion.getText().trim().isEmpty()) {
+            return;
+        }
+
+        Aggregate aggregate = aggregates.computeIfAbsent(suggestion, s -> new Aggregate());
+        aggregate.weight += weight;
+        aggregate.sources++;
+        store(suggestion, aggregate.weight);
+        added.add(new Contribution(suggestion, weight));
+    }
+
+    private void withdraw(String source) {
+        List<Contribution> removed = contributions.remove(source);
+        if (removed == null) {
+            return;
+        }
+
+        for (Contribution contribution : removed) {
+            Aggregate aggregate = aggregates.get(contribution.suggestion);
+            if (aggregate == null) {
+                continue;
+            }
+            aggregate.weight -= contribution.weight;
+            if (--aggregate.sources == 0) {
+                aggregates.remove(contribution.suggestion);
+                for (String key : keys(contribution.suggestion.getText())) {
+                    trie.remove(key, contribution.suggestion);
+                }
+            } else {
+                store(contribution.suggestion, aggregate.weight);
+            }
+        }
+    }
+
+    /**
+     * Store a suggestion under the rest of its text from the start of each word
+     */
+    private void store(Suggestion suggestion, double weight) {
+        for (String key : keys(suggestion.getText())) {
+            trie.put(key, suggestion, weight);
+        }
+    }
+
+    private static List<String> keys(String text) {
+        String folded = text.trim().toLowerCase(Locale.ROOT);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < folded.length(); i++) {
+            boolean wordStart = Character.isLetterOrDigit(folded.charAt(i))
+                    && (i == 0 || !Character.isLetterOrDigit(folded.charAt(i - 1)));
+            if (wordStart) {
+                keys.add(folded.substring(i));
+            }
+        }
+        return keys;
+    }
+
+    private static String photographerSource(String photographerId) {
+        return "photographer:" + photographerId;
+    }
+
+    private static String gallerySource(String galleryId) {
+        return "gallery:" + galleryId;
+    }
+}
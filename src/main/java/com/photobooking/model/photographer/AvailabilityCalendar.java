@@ -0,0 +1,395 @@
+package com.photobooking.model.photographer;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Per-photographer, per-day bitmaps of occupied hourly slots.
+ * Bit h of a day's mask is set when a booking or a blocked period overlaps the hour starting
+ * at h:00, so a day is one int and a month is one int per day.
+ *
+ * Bookings and blocked dates are pushed in by BookingManager and UnavailableDateManager as they
+ * change; only the days a changed entry covers are updated. Recurring unavailability rules are
+ * kept per photographer and merged into a day's blocked hours when the day is read.
+ */
+public class AvailabilityCalendar {
+    public static final int HOURS_PER_DAY = 24;
+    public static final int ALL_DAY = (1 << HOURS_PER_DAY) - 1;
+
+    // Slots offered for booking: 09:00 to 20:00
+    public static final int FIRST_BOOKABLE_HOUR = 9;
+    public static final int LAST_BOOKABLE_HOUR = 20;
+    public static final int BOOKABLE_HOURS = hourRange(FIRST_BOOKABLE_HOUR, LAST_BOOKABLE_HOUR + 1);
+
+    private final Map<String, NavigableMap<LocalDate, Day>> byPhotographer = new HashMap<>();
+
+    // Days each booking or blocked date was recorded on, by entry ID
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    // Recurring rules of each photographer, with the hours they block on the days they apply to
+    private final Map<String, Map<String, RuleEntry>> rulesByPhotographer = new HashMap<>();
+    private final Map<String, String> rulePhotographers = new HashMap<>();
+
+    private static final class RuleEntry {
+        private final UnavailabilityRule rule;
+        private final int mask;
+
+        RuleEntry(UnavailabilityRule rule, int mask) {
+            this.rule = rule;
+            this.mask = mask;
+        }
+    }
+
+    /**
+     * Occupied slots of one photographer on one day
+     */
+    private static final class Day {
+        private int booked;
+        private int blocked;
+        private final Map<String, Integer> bookedBy = new HashMap<>(2);
+        private final Map<String, Integer> blockedBy = new HashMap<>(1);
+
+        boolean isEmpty() {
+            return bookedBy.isEmpty() && blockedBy.isEmpty();
+        }
+    }
+
+    private static final class Entry {
+        private final String photographerId;
+        private final boolean blocked;
+        private final LocalDate firstDay;
+        private final int[] masks;
+
+        Entry(String photographerId, boolean blocked, LocalDate firstDay, int[] masks) {
+            this.photographerId = photographerId;
+            this.blocked = blocked;
+            this.firstDay = firstDay;
+            this.masks = masks;
+        }
+    }
+
+    /**
+     * Occupied slots of one photographer over one month
+     */
+    public static final class Month {
+        private final YearMonth month;
+        private final int[] booked;
+        private final int[] blocked;
+
+        Month(YearMonth month) {
+            this.month = month;
+            this.booked = new int[month.lengthOfMonth()];
+            this.blocked = new int[month.lengthOfMonth()];
+        }
+
+        public YearMonth getMonth() {
+            return month;
+        }
+
+        public int getBookedMask(int dayOfMonth) {
+            return booked[dayOfMonth - 1];
+        }
+
+        public int getBlockedMask(int dayOfMonth) {
+            return blocked[dayOfMonth - 1];
+        }
+
+        /**
+         * Get the bookable hours still free on a day
+         * @param dayOfMonth Day of the month, from 1
+         * @return Mask of free bookable hours
+         */
+        public int getFreeMask(int dayOfMonth) {
+            return BOOKABLE_HOURS & ~(booked[dayOfMonth - 1] | blocked[dayOfMonth - 1]);
+        }
+    }
+
+    /**
+     * Record or replace the slots occupied by a booking
+     * @param bookingId Booking ID
+     * @param photographerId Photographer user ID
+     * @param start Event start
+     * @param end Event end (exclusive)
+     */
+    public synchronized void putBooking(String bookingId, String photographerId, LocalDateTime start,
+                                        LocalDateTime end) {
+        remove(bookingId);
+        if (photographerId == null || start == null || end == null || !end.isAfter(start)) {
+            return;
+        }
+
+        record(bookingId, new Entry(photographerId, false, start.toLocalDate(), hourMasks(start, end)));
+    }
+
+    /**
+     * Record or replace the slots blocked by an unavailable date
+     * @param date The unavailable date
+     */
+    public synchronized void putBlock(UnavailableDate date) {
+        remove(date.getId());
+        if (date.getPhotographerId() == null || date.getDate() == null) {
+            return;
+        }
+
+        int mask = ALL_DAY;
+        if (!date.isAllDay()) {
+            LocalTime start = parseTime(date.getStartTime());
+            LocalTime end = parseTime(date.getEndTime());
+            if (start == null || end == null) {
+                return;
+            }
+            mask = hoursBetween(start, end);
+        }
+        record(date.getId(), new Entry(date.getPhotographerId(), true, date.getDate(), new int[] {mask}));
+    }
+
+    /**
+     * Record or replace a recurring unavailability rule
+     * @param rule The rule
+     */
+    public synchronized void putRule(UnavailabilityRule rule) {
+        remove(rule.getId());
+        if (rule.getPhotographerId() == null) {
+            return;
+        }
+
+        int mask = ALL_DAY;
+        if (!rule.isAllDay()) {
+            LocalTime start = parseTime(rule.getStartTime());
+            LocalTime end = parseTime(rule.getEndTime());
+            if (start == null || end == null) {
+                return;
+            }
+            mask = hoursBetween(start, end);
+        }
+        rulePhotographers.put(rule.getId(), rule.getPhotographerId());
+        rulesByPhotographer.computeIfAbsent(rule.getPhotographerId(), k -> new HashMap<>())
+                .put(rule.getId(), new RuleEntry(rule, mask));
+    }
+
+    /**
+     * Forget a booking, an unavailable date or a recurring rule
+     * @param id Booking ID, unavailable date ID or rule ID
+     */
+    public synchronized void remove(String id) {
+        String rulePhotographer = rulePhotographers.remove(id);
+        if (rulePhotographer != null) {
+            Map<String, RuleEntry> photographerRules = rulesByPhotographer.get(rulePhotographer);
+            photographerRules.remove(id);
+            if (photographerRules.isEmpty()) {
+                rulesByPhotographer.remove(rulePhotographer);
+            }
+            return;
+        }
+
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+
+        NavigableMap<LocalDate, Day> days = byPhotographer.get(entry.photographerId);
+        for (int i = 0; i < entry.masks.length; i++) {
+            LocalDate date = entry.firstDay.plusDays(i);
+            Day day = days.get(date);
+            if (entry.blocked) {
+                day.blockedBy.remove(id);
+                day.blocked = union(day.blockedBy);
+            } else {
+                day.bookedBy.remove(id);
+                day.booked = union(day.bookedBy);
+            }
+            if (day.isEmpty()) {
+                days.remove(date);
+            }
+        }
+        if (days.isEmpty()) {
+            byPhotographer.remove(entry.photographerId);
+        }
+    }
+
+    /**
+     * Get the hours a photographer is booked or blocked on a day
+     * @param photographerId Photographer user ID
+     * @param date The day
+     * @return Mask of occupied hours
+     */
+    public synchronized int getOccupiedMask(String photographerId, LocalDate date) {
+        NavigableMap<LocalDate, Day> days = byPhotographer.get(photographerId);
+        Day day = days != null ? days.get(date) : null;
+        int mask = day != null ? day.booked | day.blocked : 0;
+        return mask | ruleMask(photographerId, date);
+    }
+
+    /**
+     * Check whether a photographer has nothing booked or blocked in a time range
+     * @param photographerId Photographer user ID
+     * @param start Start of the range
+     * @param end End of the range (exclusive)
+     * @return true if every hour the range overlaps is free
+     */
+    public synchronized boolean isFree(String photographerId, LocalDateTime start, LocalDateTime end) {
+        int[] masks = hourMasks(start, end);
+        LocalDate firstDay = start.toLocalDate();
+        for (int i = 0; i < masks.length; i++) {
+            if ((getOccupiedMask(photographerId, firstDay.plusDays(i)) & masks[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check whether a photographer has any bookable hour free on a day
+     * @param photographerId Photographer user ID
+     * @param date The day
+     * @return true if at least one bookable hour is free
+     */
+    public synchronized boolean hasFreeSlot(String photographerId, LocalDate date) {
+        return (BOOKABLE_HOURS & ~getOccupiedMask(photographerId, date)) != 0;
+    }
+
+    /**
+     * Get the occupied hours of every day of a month
+     * @param photographerId Photographer user ID
+     * @param month The month
+     * @return The month's slot masks
+     */
+    public synchronized Month getMonth(String photographerId, YearMonth month) {
+        Month result = new Month(month);
+        NavigableMap<LocalDate, Day> days = byPhotographer.get(photographerId);
+        if (days != null) {
+            for (Map.Entry<LocalDate, Day> day : days.subMap(month.atDay(1), true, month.atEndOfMonth(), true)
+                    .entrySet()) {
+                int index = day.getKey().getDayOfMonth() - 1;
+                result.booked[index] = day.getValue().booked;
+                result.blocked[index] = day.getValue().blocked;
+            }
+        }
+        if (rulesByPhotographer.containsKey(photographerId)) {
+            for (int day = 1; day <= month.lengthOfMonth(); day++) {
+                result.blocked[day - 1] |= ruleMask(photographerId, month.atDay(day));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the mask of hours from one hour up to, but not including, another
+     * @param fromHour First hour, 0-23
+     * @param toHour Hour after the last one, 1-24
+     * @return The mask
+     */
+    public static int hourRange(int fromHour, int toHour) {
+        if (toHour <= fromHour) {
+            return 0;
+        }
+        return (ALL_DAY >>> (HOURS_PER_DAY - (toHour - fromHour))) << fromHour;
+    }
+
+    /**
+     * Check whether an hour is set in a mask
+     * @param mask Slot mask
+     * @param hour Hour, 0-23
+     * @return true if the hour is set
+     */
+    public static boolean isSet(int mask, int hour) {
+        return (mask & (1 << hour)) != 0;
+    }
+
+    /**
+     * Hours blocked by a photographer's recurring rules on a day
+     */
+    private int ruleMask(String photographerId, LocalDate date) {
+        Map<String, RuleEntry> photographerRules = rulesByPhotographer.get(photographerId);
+        if (photographerRules == null) {
+            return 0;
+        }
+
+        int mask = 0;
+        for (RuleEntry entry : photographerRules.values()) {
+            if (entry.rule.appliesTo(date)) {
+                mask |= entry.mask;
+            }
+        }
+        return mask;
+    }
+
+    private void record(String id, Entry entry) {
+        entries.put(id, entry);
+        NavigableMap<LocalDate, Day> days = byPhotographer.computeIfAbsent(entry.photographerId, k -> new TreeMap<>());
+        for (int i = 0; i < entry.masks.length; i++) {
+            Day day = days.computeIfAbsent(entry.firstDay.plusDays(i), k -> new Day());
+            if (entry.blocked) {
+                day.blockedBy.put(id, entry.masks[i]);
+                day.blocked |= entry.masks[i];
+            } else {
+                day.bookedBy.put(id, entry.masks[i]);
+                day.booked |= entry.masks[i];
+            }
+        }
+    }
+
+    /**
+     * Hours overlapped by a time range on each day it covers, starting with the day of its start
+     */
+    private static int[] hourMasks(LocalDateTime start, LocalDateTime end) {
+        if (!end.isAfter(start)) {
+            return new int[0];
+        }
+
+        LocalDate firstDay = start.toLocalDate();
+        LocalDate lastDay = end.minusNanos(1).toLocalDate();
+        int[] masks = new int[(int) (lastDay.toEpochDay() - firstDay.toEpochDay()) + 1];
+        for (int i = 0; i < masks.length; i++) {
+            LocalTime from = i == 0 ? start.toLocalTime() : LocalTime.MIDNIGHT;
+            masks[i] = i == masks.length - 1 ? hoursBetween(from, end.toLocalTime()) : hoursFrom(from);
+        }
+        return masks;
+    }
+
+    private static int union(Map<String, Integer> masks) {
+        int result = 0;
+        for (int mask : masks.values()) {
+            result |= mask;
+        }
+        return result;
+    }
+
+    /**
+     * Hours overlapped by the period from a time to midnight
+     */
+    private static int hoursFrom(LocalTime start) {
+        return hourRange(start.getHour(), HOURS_PER_DAY);
+    }
+
+    /**
+     * Hours overlapped by the period between two times of the same day
+     */
+    private static int hoursBetween(LocalTime start, LocalTime end) {
+        if (LocalTime.MIDNIGHT.equals(end)) {
+            return hoursFrom(start);
+        }
+        // An hour is overlapped when the period ends after it starts
+        int endHour = end.getMinute() > 0 || end.getSecond() > 0 || end.getNano() > 0
+                ? end.getHour() + 1 : end.getHour();
+        return hourRange(start.getHour(), endHour);
+    }
+
+    private static LocalTime parseTime(String time) {
+        if (time == null || time.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalTime.parse(time);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
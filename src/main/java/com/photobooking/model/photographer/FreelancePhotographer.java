@@ -1,5 +1,6 @@
 package com.photobooking.model.photographer;
 
+import com.photobooking.util.RecordTokenizer;
 import java.util.List;
 
 /**
@@ -8,6 +9,9 @@ import java.util.List;
 public class FreelancePhotographer extends Photographer {
     private static final long serialVersionUID = 1L;
 
+    // Field that separates the base photographer fields from the freelance fields in a record
+    public static final String FREELANCE_MARKER = "FREELANCE";
+
     // Additional attributes specific to freelance photographers
     private boolean providesOwnEquipment;
     private double travelFeePerMile;
@@ -120,7 +124,7 @@ public class FreelancePhotographer extends Photographer {
 
         // Append freelance-specific attributes
         return baseString + "," +
-                "FREELANCE" + "," +
+                FREELANCE_MARKER + "," +
                 providesOwnEquipment + "," +
                 travelFeePerMile + "," +
                 maxTravelDistance + "," +
@@ -133,43 +137,24 @@ public class FreelancePhotographer extends Photographer {
      * @return FreelancePhotographer object
      */
     public static FreelancePhotographer fromFileString(String fileString) {
-        // Split the string into base part and freelance part
-        String[] parts = fileString.split(",FREELANCE,");
-        if (parts.length < 2) {
+        RecordTokenizer tokenizer = new RecordTokenizer(fileString);
+        if (tokenizer.countFields() < 19) {
             return null; // Not a valid freelance photographer string
         }
 
-        // Parse the base photographer first
-        Photographer basePhotographer = Photographer.fromFileString(parts[0]);
-        if (basePhotographer == null) {
+        // Parse the base photographer fields straight into the freelancer
+        FreelancePhotographer freelancer = new FreelancePhotographer();
+        readFields(tokenizer, freelancer);
+
+        if (!FREELANCE_MARKER.equals(tokenizer.next())) {
             return null;
         }
 
-        // Create a new FreelancePhotographer and copy properties from base
-        FreelancePhotographer freelancer = new FreelancePhotographer();
-        freelancer.setPhotographerId(basePhotographer.getPhotographerId());
-        freelancer.setUserId(basePhotographer.getUserId());
-        freelancer.setBusinessName(basePhotographer.getBusinessName());
-        freelancer.setBiography(basePhotographer.getBiography());
-        freelancer.setSpecialties(basePhotographer.getSpecialties());
-        freelancer.setLocation(basePhotographer.getLocation());
-        freelancer.setBasePrice(basePhotographer.getBasePrice());
-        freelancer.setRating(basePhotographer.getRating());
-        freelancer.setReviewCount(basePhotographer.getReviewCount());
-        freelancer.setVerified(basePhotographer.isVerified());
-        freelancer.setContactPhone(basePhotographer.getContactPhone());
-        freelancer.setWebsiteUrl(basePhotographer.getWebsiteUrl());
-        freelancer.setYearsOfExperience(basePhotographer.getYearsOfExperience());
-        freelancer.setEmail(basePhotographer.getEmail());
-
         // Parse freelance-specific properties
-        String[] freelanceParts = parts[1].split(",");
-        if (freelanceParts.length >= 4) {
-            freelancer.setProvidesOwnEquipment(Boolean.parseBoolean(freelanceParts[0]));
-            freelancer.setTravelFeePerMile(Double.parseDouble(freelanceParts[1]));
-            freelancer.setMaxTravelDistance(Integer.parseInt(freelanceParts[2]));
-            freelancer.setOffersDiscounts(Boolean.parseBoolean(freelanceParts[3]));
-        }
+        freelancer.setProvidesOwnEquipment(tokenizer.nextBoolean());
+        freelancer.setTravelFeePerMile(tokenizer.nextDouble());
+        freelancer.setMaxTravelDistance(tokenizer.nextInt());
+        freelancer.setOffersDiscounts(tokenizer.nextBoolean());
 
         return freelancer;
     }
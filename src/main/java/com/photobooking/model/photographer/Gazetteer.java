@@ -0,0 +1,79 @@
+package com.photobooking.model.photographer;
+
+import com.photobooking.util.FileHandler;
+import com.photobooking.util.RecordTokenizer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Offline lookup of place names to coordinates, read from gazetteer.txt in the data directory.
+ * Each line is "name,latitude,longitude"; blank lines and lines starting with # are ignored.
+ */
+public class Gazetteer {
+    private static final Logger LOGGER = Logger.getLogger(Gazetteer.class.getName());
+    public static final String GAZETTEER_FILE = "gazetteer.txt";
+
+    // Longest place name, in words, tried when resolving free text
+    private static final int MAX_NAME_WORDS = 4;
+
+    private final Map<String, GeoPoint> places = new HashMap<>();
+
+    /**
+     * Load the gazetteer from the data directory
+     * @return The gazetteer, empty if the file is missing
+     */
+    public static Gazetteer load() {
+        Gazetteer gazetteer = new Gazetteer();
+        for (String line : FileHandler.readLines(GAZETTEER_FILE)) {
+            if (line.trim().isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                RecordTokenizer tokenizer = new RecordTokenizer(line);
+                String name = tokenizer.next();
+                double latitude = tokenizer.nextDouble();
+                double longitude = tokenizer.nextDouble();
+                gazetteer.put(name, new GeoPoint(latitude, longitude));
+            } catch (RuntimeException e) {
+                LOGGER.warning("Skipping invalid gazetteer line: " + line);
+            }
+        }
+        LOGGER.info("Loaded " + gazetteer.places.size() + " gazetteer places");
+        return gazetteer;
+    }
+
+    /**
+     * Add a place
+     * @param name The place name
+     * @param point Its coordinates
+     */
+    public void put(String name, GeoPoint point) {
+        places.put(String.join(" ", PhotographerSearchIndex.tokenize(name)), point);
+    }
+
+    /**
+     * Resolve free text such as "Colombo 7" or "Kandy, Sri Lanka" to coordinates, using the longest
+     * place name that occurs in it as whole words, earliest first
+     * @param location The location text
+     * @return The coordinates, or null if no known place occurs in it
+     */
+    public GeoPoint resolve(String location) {
+        List<String> words = PhotographerSearchIndex.tokenize(location);
+        for (int length = Math.min(MAX_NAME_WORDS, words.size()); length >= 1; length--) {
+            for (int start = 0; start + length <= words.size(); start++) {
+                GeoPoint point = places.get(String.join(" ", words.subList(start, start + length)));
+                if (point != null) {
+                    return point;
+                }
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return places.size();
+    }
+}
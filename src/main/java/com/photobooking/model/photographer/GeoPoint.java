@@ -0,0 +1,43 @@
+package com.photobooking.model.photographer;
+
+/**
+ * A position on the earth's surface, in degrees
+ */
+public final class GeoPoint {
+    private static final double EARTH_RADIUS_MILES = 3958.8;
+
+    private final double latitude;
+    private final double longitude;
+
+    public GeoPoint(double latitude, double longitude) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * Get the great-circle distance to another point
+     * @param other The other point
+     * @return Distance in miles
+     */
+    public double distanceMiles(GeoPoint other) {
+        double dLat = Math.toRadians(other.latitude - latitude);
+        double dLon = Math.toRadians(other.longitude - longitude);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(latitude)) * Math.cos(Math.toRadians(other.latitude))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_MILES * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    @Override
+    public String toString() {
+        return latitude + "," + longitude;
+    }
+}
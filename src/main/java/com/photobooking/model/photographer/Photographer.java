@@ -1,5 +1,6 @@
 package com.photobooking.model.photographer;
 
+import com.photobooking.util.RecordTokenizer;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -209,21 +210,21 @@ public class Photographer implements Serializable {
         StringBuilder sb = new StringBuilder();
         sb.append(photographerId).append(",");
         sb.append(userId).append(",");
-        sb.append(businessName != null ? businessName.replace(",", ";;") : "").append(",");
-        sb.append(biography != null ? biography.replace(",", ";;") : "").append(",");
+        sb.append(RecordTokenizer.field(businessName)).append(",");
+        sb.append(RecordTokenizer.field(biography)).append(",");
 
         // Join specialties with |
-        sb.append(String.join("|", specialties)).append(",");
+        sb.append(RecordTokenizer.listField(specialties)).append(",");
 
-        sb.append(location != null ? location : "").append(",");
+        sb.append(RecordTokenizer.field(location)).append(",");
         sb.append(basePrice).append(",");
         sb.append(rating).append(",");
         sb.append(reviewCount).append(",");
         sb.append(isVerified).append(",");
-        sb.append(contactPhone != null ? contactPhone : "").append(",");
-        sb.append(websiteUrl != null ? websiteUrl : "").append(",");
+        sb.append(RecordTokenizer.field(contactPhone)).append(",");
+        sb.append(RecordTokenizer.field(websiteUrl)).append(",");
         sb.append(yearsOfExperience).append(",");
-        sb.append(email != null ? email : "");
+        sb.append(RecordTokenizer.field(email));
 
         return sb.toString();
     }
@@ -234,42 +235,45 @@ public class Photographer implements Serializable {
      * @return Photographer object
      */
     public static Photographer fromFileString(String fileString) {
-        String[] parts = fileString.split(",");
-        if (parts.length < 13) {
+        RecordTokenizer tokenizer = new RecordTokenizer(fileString);
+        if (tokenizer.countFields() < 13) {
             return null; // Not enough parts for a valid photographer
         }
 
         Photographer photographer = new Photographer();
-        int index = 0;
+        readFields(tokenizer, photographer);
+        return photographer;
+    }
 
-        photographer.setPhotographerId(parts[index++]);
-        photographer.setUserId(parts[index++]);
-        photographer.setBusinessName(parts[index++].replace(";;", ","));
-        photographer.setBiography(parts[index++].replace(";;", ","));
+    /**
+     * Read the common photographer fields from a record
+     * @param tokenizer Tokenizer positioned at the start of the record
+     * @param photographer Photographer to fill in
+     */
+    static void readFields(RecordTokenizer tokenizer, Photographer photographer) {
+        photographer.setPhotographerId(tokenizer.next());
+        photographer.setUserId(tokenizer.next());
+        photographer.setBusinessName(tokenizer.nextText());
+        photographer.setBiography(tokenizer.nextText());
 
         // Parse specialties
-        String specialtiesStr = parts[index++];
-        if (!specialtiesStr.isEmpty()) {
-            String[] specialtiesArr = specialtiesStr.split("\\|");
-            for (String specialty : specialtiesArr) {
-                photographer.getSpecialties().add(specialty);
+        photographer.getSpecialties().addAll(tokenizer.nextList());
+
+        photographer.setLocation(tokenizer.nextText());
+        photographer.setBasePrice(tokenizer.nextDouble());
+        photographer.setRating(tokenizer.nextDouble());
+        photographer.setReviewCount(tokenizer.nextInt());
+        photographer.setVerified(tokenizer.nextBoolean());
+        photographer.setContactPhone(tokenizer.next());
+        photographer.setWebsiteUrl(tokenizer.next());
+        photographer.setYearsOfExperience(tokenizer.nextInt());
+
+        if (tokenizer.hasNext()) {
+            String email = tokenizer.next();
+            if (!email.isEmpty()) {
+                photographer.setEmail(email);
             }
         }
-
-        photographer.setLocation(parts[index++]);
-        photographer.setBasePrice(Double.parseDouble(parts[index++]));
-        photographer.setRating(Double.parseDouble(parts[index++]));
-        photographer.setReviewCount(Integer.parseInt(parts[index++]));
-        photographer.setVerified(Boolean.parseBoolean(parts[index++]));
-        photographer.setContactPhone(parts[index++]);
-        photographer.setWebsiteUrl(parts[index++]);
-        photographer.setYearsOfExperience(Integer.parseInt(parts[index++]));
-
-        if (index < parts.length) {
-            photographer.setEmail(parts[index]);
-        }
-
-        return photographer;
     }
 
     @Override
@@ -0,0 +1,74 @@
+package com.photobooking.model.photographer;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Finds the photographers who are free at a given date and time.
+ * Candidates come from the category index of PhotographerServiceManager, and each one is
+ * checked against the slot bitmaps of AvailabilityCalendar, which already merge bookings and
+ * blocked dates, so the cost grows with the photographers offering the category rather than
+ * with the number of bookings.
+ */
+public class PhotographerAvailabilitySearch {
+    private final PhotographerManager photographerManager;
+    private final PhotographerServiceManager serviceManager;
+    private final AvailabilityCalendar calendar;
+
+    public PhotographerAvailabilitySearch(PhotographerManager photographerManager,
+                                          PhotographerServiceManager serviceManager,
+                                          AvailabilityCalendar calendar) {
+        this.photographerManager = photographerManager;
+        this.serviceManager = serviceManager;
+        this.calendar = calendar;
+    }
+
+    /**
+     * Find photographers available at a date and time
+     * @param category Service category the photographer must offer, or null for any
+     * @param date The event date
+     * @param time The event start time, or null for any free bookable hour on the date
+     * @param durationHours The event duration in hours, used when a time is given
+     * @return The available photographers
+     */
+    public List<Photographer> findAvailable(String category, LocalDate date, LocalTime time, int durationHours) {
+        List<Photographer> result = new ArrayList<>();
+        if (date == null) {
+            return result;
+        }
+
+        LocalDateTime start = time != null ? LocalDateTime.of(date, time) : null;
+        LocalDateTime end = start != null ? start.plusHours(Math.max(durationHours, 1)) : null;
+
+        for (Photographer photographer : getCandidates(category)) {
+            // Bookings and blocked dates are stored under the photographer's user ID
+            String userId = photographer.getUserId();
+            boolean available = start != null
+                    ? calendar.isFree(userId, start, end)
+                    : calendar.hasFreeSlot(userId, date);
+            if (available) {
+                result.add(photographer);
+            }
+        }
+        return result;
+    }
+
+    private Collection<Photographer> getCandidates(String category) {
+        if (category == null || category.isEmpty()) {
+            return photographerManager.getAllPhotographers();
+        }
+
+        List<Photographer> candidates = new ArrayList<>();
+        for (String photographerId : serviceManager.getPhotographerIdsByCategory(category)) {
+            Photographer photographer = photographerManager.getPhotographerById(photographerId);
+            if (photographer != null) {
+                candidates.add(photographer);
+            }
+        }
+        return candidates;
+    }
+}
@@ -0,0 +1,141 @@
+package com.photobooking.model.photographer;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Grid of photographers' positions for radius searches.
+ * The world is cut into cells of a fixed number of degrees; a search visits only the cells
+ * overlapping the bounding box of its circle, and measures the distance to the photographers
+ * in them. Not thread-safe; PhotographerManager uses it under its own lock.
+ */
+class PhotographerGeoIndex {
+    // About 17 miles of latitude: a typical search radius spans a handful of cells
+    private static final double CELL_DEGREES = 0.25;
+    private static final double MILES_PER_DEGREE = 69.0;
+
+    private final Map<Long, Set<String>> cells = new HashMap<>();
+    private final Map<String, GeoPoint> points = new HashMap<>();
+
+    /**
+     * Place a photographer, replacing any earlier position
+     * @param photographerId The photographer ID
+     * @param point The position
+     */
+    void put(String photographerId, GeoPoint point) {
+        remove(photographerId);
+        points.put(photographerId, point);
+        cells.computeIfAbsent(cellOf(point), c -> new HashSet<>()).add(photographerId);
+    }
+
+    void remove(String photographerId) {
+        GeoPoint point = points.remove(photographerId);
+        if (point == null) {
+            return;
+        }
+
+        long cell = cellOf(point);
+        Set<String> ids = cells.get(cell);
+        if (ids != null && ids.remove(photographerId) && ids.isEmpty()) {
+            cells.remove(cell);
+        }
+    }
+
+    void clear() {
+        cells.clear();
+        points.clear();
+    }
+
+    /**
+     * Find the photographers within a distance of a point
+     * @param center The point
+     * @param radiusMiles The distance in miles
+     * @return Distance in miles by photographer ID
+     */
+    Map<String, Double> within(GeoPoint center, double radiusMiles) {
+        Map<String, Double> found = new HashMap<>();
+        if (radiusMiles < 0 || cells.isEmpty()) {
+            return found;
+        }
+
+        double latSpan = radiusMiles / MILES_PER_DEGREE;
+        double cosLat = Math.cos(Math.toRadians(Math.min(89.0, Math.abs(center.getLatitude()) + latSpan)));
+        double lonSpan = Math.min(180.0, radiusMiles / (MILES_PER_DEGREE * Math.max(cosLat, 0.01)));
+
+        int minRow = row(center.getLatitude() - latSpan);
+        int maxRow = row(center.getLatitude() + latSpan);
+        int minColumn = column(center.getLongitude() - lonSpan);
+        int maxColumn = column(center.getLongitude() + lonSpan);
+
+        // A circle wider than the occupied cells is cheaper to answer from the occupied cells
+        long boxCells = (long) (maxRow - minRow + 1) * (maxColumn - minColumn + 1);
+        if (boxCells > cells.size()) {
+            for (Map.Entry<Long, Set<String>> cell : cells.entrySet()) {
+                int row = (int) (cell.getKey() >> 32);
+                int column = (int) (long) cell.getKey();
+                if (row >= minRow && row <= maxRow && inColumns(column, minColumn, maxColumn)) {
+                    collect(cell.getValue(), center, radiusMiles, found);
+                }
+            }
+            return found;
+        }
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                Set<String> ids = cells.get(key(row, wrapColumn(column)));
+                if (ids != null) {
+                    collect(ids, center, radiusMiles, found);
+                }
+            }
+        }
+        return found;
+    }
+
+    private void collect(Set<String> ids, GeoPoint center, double radiusMiles, Map<String, Double> found) {
+        for (String photographerId : ids) {
+            double distance = center.distanceMiles(points.get(photographerId));
+            if (distance <= radiusMiles) {
+                found.put(photographerId, distance);
+            }
+        }
+    }
+
+    private static long cellOf(GeoPoint point) {
+        return key(row(point.getLatitude()), wrapColumn(column(point.getLongitude())));
+    }
+
+    private static long key(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    private static int row(double latitude) {
+        return (int) Math.floor(latitude / CELL_DEGREES);
+    }
+
+    private static int column(double longitude) {
+        return (int) Math.floor(longitude / CELL_DEGREES);
+    }
+
+    /**
+     * Bring a column index back into the range of -180 to 180 degrees, for boxes crossing the antimeridian
+     */
+    private static int wrapColumn(int column) {
+        int columns = (int) Math.round(360 / CELL_DEGREES);
+        int offset = (int) Math.round(180 / CELL_DEGREES);
+        return Math.floorMod(column + offset, columns) - offset;
+    }
+
+    private static boolean inColumns(int column, int minColumn, int maxColumn) {
+        int columns = (int) Math.round(360 / CELL_DEGREES);
+        if (maxColumn - minColumn + 1 >= columns) {
+            return true;
+        }
+        int wrappedMin = wrapColumn(minColumn);
+        int wrappedMax = wrapColumn(maxColumn);
+        return wrappedMin <= wrappedMax
+                ? column >= wrappedMin && column <= wrappedMax
+                : column >= wrappedMin || column <= wrappedMax;
+    }
+}
@@ -1,24 +1,31 @@
 package com.photobooking.model.photographer;
 
 import com.photobooking.util.FileHandler;
-import com.photobooking.util.EnhancedSortingUtility;
+import com.photobooking.util.MappedRecordReader;
+import com.photobooking.util.RecordLog;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.logging.Logger;
-import java.util.logging.Level;
 import javax.servlet.ServletContext;
 
 /**
  * Manages photographer-related operations for the Event Photography System
- * Updated to use the enhanced bubble sort implementation
+ * Sorted views of the photographers are kept up to date as they change, so listing them in order
+ * does not sort them on every request
  */
 public class PhotographerManager {
     private static final Logger LOGGER = Logger.getLogger(PhotographerManager.class.getName());
     private static final String PHOTOGRAPHER_FILE = "photographers.txt";
     private List<Photographer> photographers;
+    private final Map<String, Photographer> byId = new HashMap<>();
+    private final Map<String, Photographer> byUserId = new HashMap<>();
+    private final PhotographerQueryEngine queryEngine = new PhotographerQueryEngine();
+    private AutocompleteIndex autocomplete;
     private ServletContext servletContext;
+    private RecordLog recordLog;
 
     /**
      * Constructor initializes the manager and loads photographers
@@ -39,7 +46,64 @@ public class PhotographerManager {
             FileHandler.setServletContext(servletContext);
         }
 
+        // Use the append-only record log when log-structured storage is enabled
+        if (RecordLog.isEnabled()) {
+            this.recordLog = new RecordLog(PHOTOGRAPHER_FILE);
+        }
+
         this.photographers = loadPhotographers();
+        queryEngine.setGazetteer(Gazetteer.load());
+        indexPhotographers();
+    }
+
+    /**
+     * Rebuild the lookups by photographer ID and user ID
+     */
+    private void indexPhotographers() {
+        if (autocomplete != null) {
+            for (String photographerId : byId.keySet()) {
+                autocomplete.removePhotographer(photographerId);
+            }
+        }
+        byId.clear();
+        byUserId.clear();
+        for (Photographer photographer : photographers) {
+            byId.put(photographer.getPhotographerId(), photographer);
+            byUserId.put(photographer.getUserId(), photographer);
+            if (autocomplete != null) {
+                autocomplete.putPhotographer(photographer);
+            }
+        }
+        queryEngine.rebuild(photographers);
+    }
+
+    private void index(Photographer photographer) {
+        byId.put(photographer.getPhotographerId(), photographer);
+        byUserId.put(photographer.getUserId(), photographer);
+        queryEngine.add(photographer);
+        if (autocomplete != null) {
+            autocomplete.putPhotographer(photographer);
+        }
+    }
+
+    private void unindex(Photographer photographer) {
+        byId.remove(photographer.getPhotographerId());
+        byUserId.remove(photographer.getUserId());
+        queryEngine.remove(photographer.getPhotographerId());
+        if (autocomplete != null) {
+            autocomplete.removePhotographer(photographer.getPhotographerId());
+        }
+    }
+
+    /**
+     * Keep the search box suggestions in step with the photographers
+     * @param autocomplete The autocomplete index
+     */
+    public synchronized void attachAutocomplete(AutocompleteIndex autocomplete) {
+        this.autocomplete = autocomplete;
+        for (Photographer photographer : photographers) {
+            autocomplete.putPhotographer(photographer);
+        }
     }
 
     /**
@@ -50,71 +114,84 @@ public class PhotographerManager {
         // Ensure file exists before loading
         FileHandler.ensureFileExists(PHOTOGRAPHER_FILE);
 
-        List<String> lines = FileHandler.readLines(PHOTOGRAPHER_FILE);
-        List<Photographer> loadedPhotographers = new ArrayList<>();
-
-        for (String line : lines) {
-            if (!line.trim().isEmpty()) {
-                // Determine the type of photographer based on the line content
-                Photographer photographer = null;
+        // Parse records straight out of the memory-mapped file
+        List<Photographer> loadedPhotographers = MappedRecordReader.load(PHOTOGRAPHER_FILE, PhotographerManager::parsePhotographer);
 
-                if (line.contains("FREELANCE,")) {
-                    photographer = FreelancePhotographer.fromFileString(line);
-                } else {
-                    photographer = Photographer.fromFileString(line);
-                }
-
-                if (photographer != null) {
-                    loadedPhotographers.add(photographer);
-                }
-            }
+        // Apply changes appended to the record log since the last snapshot
+        if (recordLog != null) {
+            loadedPhotographers = recordLog.replay(loadedPhotographers,
+                    PhotographerManager::parsePhotographer, Photographer::getPhotographerId);
         }
 
         LOGGER.info("Loaded " + loadedPhotographers.size() + " photographers from file");
         return loadedPhotographers;
     }
 
+    /**
+     * Parse a photographer line, determining the type of photographer from its content
+     * @param line Line from the photographers file
+     * @return The photographer, or null if the line is invalid
+     */
+    private static Photographer parsePhotographer(String line) {
+        if (line.contains("," + FreelancePhotographer.FREELANCE_MARKER + ",")) {
+            FreelancePhotographer freelancer = FreelancePhotographer.fromFileString(line);
+            if (freelancer != null) {
+                return freelancer;
+            }
+        }
+        return Photographer.fromFileString(line);
+    }
+
     /**
      * Save all photographers to file
      * @return true if successful, false otherwise
      */
     private boolean savePhotographers() {
-        try {
-            // First create a backup of the existing file
-            String backupFile = PHOTOGRAPHER_FILE + ".bak";
-            if (FileHandler.fileExists(PHOTOGRAPHER_FILE)) {
-                FileHandler.copyFile(PHOTOGRAPHER_FILE, backupFile);
-            }
-
-            // Delete existing file content
-            FileHandler.deleteFile(PHOTOGRAPHER_FILE);
+        // Atomically replace the file: stream to a temp file, force it to disk and rename
+        boolean result = FileHandler.commitRecords(PHOTOGRAPHER_FILE, photographers, Photographer::toFileString);
 
-            // Ensure file exists after deletion
-            FileHandler.ensureFileExists(PHOTOGRAPHER_FILE);
+        if (result) {
+            LOGGER.info("Successfully saved " + photographers.size() + " photographers to file");
+        } else {
+            LOGGER.warning("Failed to save photographers to file");
+        }
 
-            // Write all content at once
-            StringBuilder contentToWrite = new StringBuilder();
-            for (Photographer photographer : photographers) {
-                contentToWrite.append(photographer.toFileString()).append(System.lineSeparator());
-            }
+        return result;
+    }
 
-            boolean result = FileHandler.writeToFile(PHOTOGRAPHER_FILE, contentToWrite.toString(), false);
+    /**
+     * Persist a created or updated photographer
+     * @param photographer The photographer that changed
+     * @return true if successful, false otherwise
+     */
+    private boolean persistPhotographer(Photographer photographer) {
+        if (recordLog != null) {
+            return recordLog.appendPut(photographer.toFileString());
+        }
+        return savePhotographers();
+    }
 
-            if (result) {
-                LOGGER.info("Successfully saved " + photographers.size() + " photographers to file");
-            } else {
-                LOGGER.warning("Failed to save photographers to file");
-                // Restore from backup if save failed
-                if (FileHandler.fileExists(backupFile)) {
-                    FileHandler.copyFile(backupFile, PHOTOGRAPHER_FILE);
-                }
-            }
+    /**
+     * Persist the removal of a photographer
+     * @param photographerId The ID of the removed photographer
+     * @return true if successful, false otherwise
+     */
+    private boolean persistPhotographerRemoval(String photographerId) {
+        if (recordLog != null) {
+            return recordLog.appendDelete(photographerId);
+        }
+        return savePhotographers();
+    }
 
-            return result;
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error saving photographers: " + e.getMessage(), e);
+    /**
+     * Write a fresh snapshot of all photographers and truncate the record log
+     * @return true if the log was compacted, false if there was nothing to do
+     */
+    public synchronized boolean compactLog() {
+        if (recordLog == null || !recordLog.needsCompaction()) {
             return false;
         }
+        return savePhotographers() && recordLog.truncate();
     }
 
     /**
@@ -122,7 +199,7 @@ public class PhotographerManager {
      * @param photographer The photographer to add
      * @return true if successful, false otherwise
      */
-    public boolean addPhotographer(Photographer photographer) {
+    public synchronized boolean addPhotographer(Photographer photographer) {
         if (photographer == null || photographer.getUserId() == null) {
             return false;
         }
@@ -133,7 +210,8 @@ public class PhotographerManager {
         }
 
         photographers.add(photographer);
-        return savePhotographers();
+        index(photographer);
+        return persistPhotographer(photographer);
     }
 
     /**
@@ -141,13 +219,10 @@ public class PhotographerManager {
      * @param photographerId The photographer ID
      * @return The photographer or null if not found
      */
-    public Photographer getPhotographerById(String photographerId) {
+    public synchronized Photographer getPhotographerById(String photographerId) {
         if (photographerId == null) return null;
 
-        return photographers.stream()
-                .filter(p -> p.getPhotographerId().equals(photographerId))
-                .findFirst()
-                .orElse(null);
+        return byId.get(photographerId);
     }
 
     /**
@@ -155,13 +230,10 @@ public class PhotographerManager {
      * @param userId The user ID
      * @return The photographer or null if not found
      */
-    public Photographer getPhotographerByUserId(String userId) {
+    public synchronized Photographer getPhotographerByUserId(String userId) {
         if (userId == null) return null;
 
-        return photographers.stream()
-                .filter(p -> p.getUserId().equals(userId))
-                .findFirst()
-                .orElse(null);
+        return byUserId.get(userId);
     }
 
     /**
@@ -169,15 +241,17 @@ public class PhotographerManager {
      * @param updatedPhotographer The updated photographer
      * @return true if successful, false otherwise
      */
-    public boolean updatePhotographer(Photographer updatedPhotographer) {
+    public synchronized boolean updatePhotographer(Photographer updatedPhotographer) {
         if (updatedPhotographer == null || updatedPhotographer.getPhotographerId() == null) {
             return false;
         }
 
         for (int i = 0; i < photographers.size(); i++) {
             if (photographers.get(i).getPhotographerId().equals(updatedPhotographer.getPhotographerId())) {
+                unindex(photographers.get(i));
                 photographers.set(i, updatedPhotographer);
-                return savePhotographers();
+                index(updatedPhotographer);
+                return persistPhotographer(updatedPhotographer);
             }
         }
 
@@ -189,14 +263,18 @@ public class PhotographerManager {
      * @param photographerId The photographer ID
      * @return true if successful, false otherwise
      */
-    public boolean deletePhotographer(String photographerId) {
+    public synchronized boolean deletePhotographer(String photographerId) {
         if (photographerId == null) {
             return false;
         }
 
+        Photographer existing = byId.get(photographerId);
         boolean removed = photographers.removeIf(p -> p.getPhotographerId().equals(photographerId));
         if (removed) {
-            return savePhotographers();
+            if (existing != null) {
+                unindex(existing);
+            }
+            return persistPhotographerRemoval(photographerId);
         }
 
         return false; // Photographer not found
@@ -206,7 +284,7 @@ public class PhotographerManager {
      * Get all photographers
      * @return List of all photographers
      */
-    public List<Photographer> getAllPhotographers() {
+    public synchronized List<Photographer> getAllPhotographers() {
         return new ArrayList<>(photographers);
     }
 
@@ -215,7 +293,7 @@ public class PhotographerManager {
      * @param specialty The specialty to filter by
      * @return List of photographers with the given specialty
      */
-    public List<Photographer> getPhotographersBySpecialty(String specialty) {
+    public synchronized List<Photographer> getPhotographersBySpecialty(String specialty) {
         if (specialty == null) return new ArrayList<>();
 
         return photographers.stream()
@@ -228,7 +306,7 @@ public class PhotographerManager {
      * @param location The location to filter by
      * @return List of photographers in the given location
      */
-    public List<Photographer> getPhotographersByLocation(String location) {
+    public synchronized List<Photographer> getPhotographersByLocation(String location) {
         if (location == null) return new ArrayList<>();
 
         return photographers.stream()
@@ -237,97 +315,42 @@ public class PhotographerManager {
     }
 
     /**
-     * Sort photographers by rating using enhanced bubble sort
-     * @param photographerList List of photographers to sort
-     * @param ascending If true, sort in ascending order; otherwise, sort in descending order
-     * @return Sorted list of photographers
+     * Resolve a location to coordinates through the gazetteer
+     * @param location The location text, e.g. an event location
+     * @return The coordinates, or null if no known place occurs in it
      */
-    public List<Photographer> sortPhotographersByRating(List<Photographer> photographerList, boolean ascending) {
-        // Use the enhanced bubble sort implementation
-        return EnhancedSortingUtility.bubbleSortByRating(photographerList, ascending);
+    public synchronized GeoPoint resolveLocation(String location) {
+        return queryEngine.resolve(location);
     }
 
     /**
-     * Search photographers by keyword (in name, biography, or specialties)
+     * Search photographers by keyword (in name, specialties, location, or biography)
+     * Every word of the keyword must match a word in one of those fields, in full or in part.
      * @param keyword The keyword to search for
-     * @return List of photographers matching the keyword
+     * @return List of photographers matching the keyword, most relevant first
      */
-    public List<Photographer> searchPhotographers(String keyword) {
+    public synchronized List<Photographer> searchPhotographers(String keyword) {
         if (keyword == null || keyword.trim().isEmpty()) {
             return new ArrayList<>(photographers);
         }
 
-        String searchTerm = keyword.toLowerCase().trim();
-
-        return photographers.stream()
-                .filter(p -> {
-                    // Search in business name
-                    if (p.getBusinessName() != null &&
-                            p.getBusinessName().toLowerCase().contains(searchTerm)) {
-                        return true;
-                    }
-
-                    // Search in biography
-                    if (p.getBiography() != null &&
-                            p.getBiography().toLowerCase().contains(searchTerm)) {
-                        return true;
-                    }
-
-                    // Search in specialties
-                    for (String specialty : p.getSpecialties()) {
-                        if (specialty.toLowerCase().contains(searchTerm)) {
-                            return true;
-                        }
-                    }
-
-                    // Search in location
-                    if (p.getLocation() != null &&
-                            p.getLocation().toLowerCase().contains(searchTerm)) {
-                        return true;
-                    }
-
-                    return false;
-                })
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * Sort photographers by price using enhanced bubble sort
-     * @param ascending If true, sort in ascending order; otherwise, sort in descending order
-     * @return Sorted list of photographers
-     */
-    public List<Photographer> sortPhotographersByPrice(boolean ascending) {
-        // Use the enhanced bubble sort implementation
-        return EnhancedSortingUtility.bubbleSortByPrice(photographers, ascending);
-    }
-
-    /**
-     * Sort photographers by experience using enhanced bubble sort with generic implementation
-     * @param ascending If true, sort in ascending order; otherwise, sort in descending order
-     * @return Sorted list of photographers
-     */
-    public List<Photographer> sortPhotographersByExperience(boolean ascending) {
-        // Create a comparator for years of experience
-        Comparator<Photographer> comparator = (p1, p2) -> {
-            if (ascending) {
-                return Integer.compare(p1.getYearsOfExperience(), p2.getYearsOfExperience());
-            } else {
-                return Integer.compare(p2.getYearsOfExperience(), p1.getYearsOfExperience());
+        List<Photographer> result = new ArrayList<>();
+        for (String photographerId : queryEngine.search(keyword)) {
+            Photographer photographer = byId.get(photographerId);
+            if (photographer != null) {
+                result.add(photographer);
             }
-        };
-
-        // Use the generic bubble sort implementation
-        return EnhancedSortingUtility.bubbleSort(photographers, comparator);
+        }
+        return result;
     }
 
     /**
-     * Sort photographers by name using enhanced bubble sort
-     * @param ascending If true, sort in ascending order; otherwise, sort in descending order
-     * @return Sorted list of photographers
+     * Find a page of the photographers matching all of a query's filters
+     * @param query The query
+     * @return The page of matching photographers, their total count, and specialty and rating facet counts
      */
-    public List<Photographer> sortPhotographersByName(boolean ascending) {
-        // Use the enhanced bubble sort implementation for names
-        return EnhancedSortingUtility.bubbleSortByName(photographers, ascending);
+    public synchronized PhotographerQueryResult findPhotographers(PhotographerQuery query) {
+        return queryEngine.evaluate(query != null ? query : new PhotographerQuery());
     }
 
     /**
@@ -341,7 +364,7 @@ public class PhotographerManager {
      * @param photographerType Type of photographer (freelance or other)
      * @return The created photographer, or null if creation failed
      */
-    public Photographer createPhotographerProfile(String userId, String businessName, String biography,
+    public synchronized Photographer createPhotographerProfile(String userId, String businessName, String biography,
                                                   List<String> specialtiesList, String location,
                                                   double basePrice, String photographerType,
                                                   String email) {
@@ -372,7 +395,7 @@ public class PhotographerManager {
      * Set ServletContext (can be used to update the context after initialization)
      * @param servletContext the servlet context
      */
-    public void setServletContext(ServletContext servletContext) {
+    public synchronized void setServletContext(ServletContext servletContext) {
         this.servletContext = servletContext;
 
         // Update FileHandler with the new ServletContext
@@ -381,5 +404,7 @@ public class PhotographerManager {
         // Reload photographers with the new file path
         photographers.clear();
         photographers = loadPhotographers();
+        queryEngine.setGazetteer(Gazetteer.load());
+        indexPhotographers();
     }
 }
\ No newline at end of file
@@ -0,0 +1,159 @@
+package com.photobooking.model.photographer;
+
+import java.util.Set;
+
+/**
+ * Filters for finding photographers. Every filter that is set must match; unset filters match everyone.
+ * The query also selects the order of the results and the page of them to return.
+ */
+public class PhotographerQuery {
+    private String keyword;     // Words in the name, specialties, location or biography
+    private String specialty;   // Exact specialty
+    private String location;    // Words in the location
+    private Double minPrice;    // Inclusive lower bound on the base price
+    private Double maxPrice;    // Inclusive upper bound on the base price
+    private Double minRating;   // Inclusive lower bound on the rating
+    private Set<String> photographerIds; // Only these photographers, e.g. those available on a date
+    private String nearLocation;   // Event location; only photographers who travel there match
+    private double radiusMiles;
+
+    private PhotographerSortKey sortKey; // Null for distance, relevance to the keyword, or rating
+    private boolean ascending;
+    private int offset;
+    private int limit = Integer.MAX_VALUE;
+
+    public PhotographerQuery() {
+    }
+
+    public PhotographerQuery(String keyword, String specialty, String location) {
+        this.keyword = keyword;
+        this.specialty = specialty;
+        this.location = location;
+    }
+
+    /**
+     * Check whether any filter is set
+     * @return true if the query narrows the photographers down
+     */
+    public boolean hasFilters() {
+        return isSet(keyword) || isSet(specialty) || isSet(location)
+                || minPrice != null || maxPrice != null || minRating != null || photographerIds != null
+                || isSet(nearLocation);
+    }
+
+    /**
+     * Keep only the photographers within a distance of an event location who travel that far,
+     * nearest first unless another order is set
+     * @param eventLocation The event location, resolved through the gazetteer
+     * @param radiusMiles The distance in miles
+     */
+    public void setNear(String eventLocation, double radiusMiles) {
+        this.nearLocation = eventLocation;
+        this.radiusMiles = radiusMiles;
+    }
+
+    /**
+     * Set the order of the results
+     * @param sortKey The sort key, or null for the default order
+     * @param ascending If true, sort in ascending order; otherwise, sort in descending order
+     */
+    public void setSort(PhotographerSortKey sortKey, boolean ascending) {
+        this.sortKey = sortKey;
+        this.ascending = ascending;
+    }
+
+    /**
+     * Set the page of results to return
+     * @param offset Number of results to skip
+     * @param limit Maximum number of results to return
+     */
+    public void setPage(int offset, int limit) {
+        this.offset = Math.max(0, offset);
+        this.limit = Math.max(0, limit);
+    }
+
+    static boolean isSet(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
+    // Getters and Setters
+    public String getKeyword() {
+        return keyword;
+    }
+
+    public void setKeyword(String keyword) {
+        this.keyword = keyword;
+    }
+
+    public String getSpecialty() {
+        return specialty;
+    }
+
+    public void setSpecialty(String specialty) {
+        this.specialty = specialty;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Double maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public Double getMinRating() {
+        return minRating;
+    }
+
+    public void setMinRating(Double minRating) {
+        this.minRating = minRating;
+    }
+
+    public Set<String> getPhotographerIds() {
+        return photographerIds;
+    }
+
+    public void setPhotographerIds(Set<String> photographerIds) {
+        this.photographerIds = photographerIds;
+    }
+
+    public String getNearLocation() {
+        return nearLocation;
+    }
+
+    public double getRadiusMiles() {
+        return radiusMiles;
+    }
+
+    public PhotographerSortKey getSortKey() {
+        return sortKey;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
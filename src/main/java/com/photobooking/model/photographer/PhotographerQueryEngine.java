@@ -0,0 +1,507 @@
+package com.photobooking.model.photographer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Indexes photographers by text, specialty, location, price and rating, and evaluates
+ * PhotographerQuery objects against those indexes.
+ * The filter with the shortest posting list drives the evaluation and the others are checked
+ * against each of its candidates, so a selective filter keeps the whole query cheap. The
+ * specialty and rating facets are counted in the same pass.
+ * A sorted view per sort key is kept up to date as photographers change, so an unfiltered page is
+ * read straight from its view; a filtered page is selected from the matches with a bounded heap.
+ * Locations found in the gazetteer are kept in a grid, so a search near an event location only
+ * measures the distance to photographers in the surrounding cells.
+ * Not thread-safe; PhotographerManager uses it under its own lock.
+ */
+class PhotographerQueryEngine {
+    private static final int MAX_STARS = 5;
+
+    /**
+     * The values a photographer was indexed with, so it can be removed after it has changed
+     */
+    private static final class Entry {
+        final Photographer photographer;
+        final String photographerId;
+        final String name;
+        final double price;
+        final double rating;
+        final int experience;
+        final List<String> specialties;
+        final GeoPoint point;       // Null if the location is not in the gazetteer
+        final Double reachMiles;    // How far a freelancer travels; null for no limit
+
+        Entry(Photographer photographer, GeoPoint point) {
+            this.photographer = photographer;
+            this.photographerId = photographer.getPhotographerId();
+            this.name = photographer.getBusinessName() != null ? photographer.getBusinessName().toLowerCase() : "";
+            this.price = photographer.getBasePrice();
+            this.rating = photographer.getRating();
+            this.experience = photographer.getYearsOfExperience();
+            this.specialties = new ArrayList<>(photographer.getSpecialties());
+            this.point = point;
+            this.reachMiles = photographer instanceof FreelancePhotographer
+                    ? Double.valueOf(((FreelancePhotographer) photographer).getMaxTravelDistance()) : null;
+        }
+
+        int stars() {
+            return Math.max(0, Math.min(MAX_STARS, (int) Math.floor(rating)));
+        }
+    }
+
+    /**
+     * One filter of a query: its posting list, and a check for a single photographer
+     */
+    private interface Filter {
+        int estimate();
+
+        Collection<String> candidates();
+
+        boolean matches(String photographerId, Entry entry);
+    }
+
+    private final PhotographerSearchIndex textIndex = new PhotographerSearchIndex();
+    private final PhotographerSearchIndex locationIndex = new PhotographerSearchIndex();
+    private final Map<String, Set<String>> bySpecialty = new HashMap<>();
+    private final TreeMap<Double, Set<String>> byPrice = new TreeMap<>();
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final PhotographerGeoIndex geoIndex = new PhotographerGeoIndex();
+    private Gazetteer gazetteer = new Gazetteer();
+    // Every entry in ascending order of each sort key, ties broken by photographer ID
+    private final Map<PhotographerSortKey, List<Entry>> sortedViews = new EnumMap<>(PhotographerSortKey.class);
+    // Number of photographers by whole stars, for the rating facet of an unfiltered query
+    private final int[] starCounts = new int[MAX_STARS + 1];
+
+    PhotographerQueryEngine() {
+        for (PhotographerSortKey sortKey : PhotographerSortKey.values()) {
+            sortedViews.put(sortKey, new ArrayList<>());
+        }
+    }
+
+    /**
+     * Get the ascending order of a sort key, ties broken by photographer ID so every entry has
+     * exactly one position
+     */
+    private static Comparator<Entry> comparator(PhotographerSortKey sortKey) {
+        Comparator<Entry> comparator;
+        switch (sortKey) {
+            case PRICE:
+                comparator = Comparator.comparingDouble(entry -> entry.price);
+                break;
+            case EXPERIENCE:
+                comparator = Comparator.comparingInt(entry -> entry.experience);
+                break;
+            case NAME:
+                comparator = Comparator.comparing(entry -> entry.name);
+                break;
+            case RATING:
+            default:
+                comparator = Comparator.comparingDouble(entry -> entry.rating);
+                break;
+        }
+        return comparator.thenComparing(entry -> entry.photographerId);
+    }
+
+    /**
+     * Set the place names photographers' locations are resolved with; takes effect for photographers
+     * indexed afterwards
+     * @param gazetteer The gazetteer
+     */
+    void setGazetteer(Gazetteer gazetteer) {
+        this.gazetteer = gazetteer;
+    }
+
+    /**
+     * Resolve a location to coordinates
+     * @param location The location text
+     * @return The coordinates, or null if no known place occurs in it
+     */
+    GeoPoint resolve(String location) {
+        return gazetteer.resolve(location);
+    }
+
+    /**
+     * Index a photographer, replacing any earlier entry with the same ID
+     * @param photographer The photographer
+     */
+    void add(Photographer photographer) {
+        remove(photographer.getPhotographerId());
+
+        Entry entry = put(photographer);
+        for (Map.Entry<PhotographerSortKey, List<Entry>> view : sortedViews.entrySet()) {
+            List<Entry> sorted = view.getValue();
+            int position = Collections.binarySearch(sorted, entry, comparator(view.getKey()));
+            sorted.add(-position - 1, entry);
+        }
+    }
+
+    /**
+     * Index all photographers afresh, sorting each view once rather than inserting into it
+     * @param photographers The photographers
+     */
+    void rebuild(Collection<Photographer> photographers) {
+        clear();
+        for (Photographer photographer : photographers) {
+            remove(photographer.getPhotographerId());
+            put(photographer);
+        }
+        for (Map.Entry<PhotographerSortKey, List<Entry>> view : sortedViews.entrySet()) {
+            view.getValue().addAll(entries.values());
+            view.getValue().sort(comparator(view.getKey()));
+        }
+    }
+
+    /**
+     * Index a photographer everywhere but in the sorted views
+     */
+    private Entry put(Photographer photographer) {
+        String photographerId = photographer.getPhotographerId();
+        Entry entry = new Entry(photographer, gazetteer.resolve(photographer.getLocation()));
+        entries.put(photographerId, entry);
+        if (entry.point != null) {
+            geoIndex.put(photographerId, entry.point);
+        }
+        starCounts[entry.stars()]++;
+        textIndex.add(photographer);
+        locationIndex.add(photographerId, photographer.getLocation());
+        for (String specialty : entry.specialties) {
+            bySpecialty.computeIfAbsent(specialty, s -> new HashSet<>()).add(photographerId);
+        }
+        byPrice.computeIfAbsent(entry.price, p -> new HashSet<>()).add(photographerId);
+        return entry;
+    }
+
+    /**
+     * Remove a photographer from the indexes
+     * @param photographerId The photographer ID
+     */
+    void remove(String photographerId) {
+        Entry entry = entries.remove(photographerId);
+        if (entry == null) {
+            return;
+        }
+
+        textIndex.remove(photographerId);
+        locationIndex.remove(photographerId);
+        geoIndex.remove(photographerId);
+        for (String specialty : entry.specialties) {
+            removePosting(bySpecialty, specialty, photographerId);
+        }
+        removePosting(byPrice, entry.price, photographerId);
+        starCounts[entry.stars()]--;
+        for (Map.Entry<PhotographerSortKey, List<Entry>> view : sortedViews.entrySet()) {
+            List<Entry> sorted = view.getValue();
+            int position = Collections.binarySearch(sorted, entry, comparator(view.getKey()));
+            if (position >= 0) {
+                sorted.remove(position);
+            }
+        }
+    }
+
+    void clear() {
+        textIndex.clear();
+        locationIndex.clear();
+        bySpecialty.clear();
+        byPrice.clear();
+        entries.clear();
+        geoIndex.clear();
+        for (List<Entry> sorted : sortedViews.values()) {
+            sorted.clear();
+        }
+        Arrays.fill(starCounts, 0);
+    }
+
+    /**
+     * Find photographers by keyword alone
+     * @param keyword The keyword
+     * @return Photographer IDs, most relevant first
+     */
+    List<String> search(String keyword) {
+        return textIndex.search(keyword);
+    }
+
+    /**
+     * Evaluate a query
+     * @param query The query
+     * @return The matching photographers and facet counts
+     */
+    PhotographerQueryResult evaluate(PhotographerQuery query) {
+        if (!query.hasFilters()) {
+            return evaluateUnfiltered(query);
+        }
+
+        // The specialty and rating filters are also facets, so they are checked per photographer
+        // instead of narrowing the candidates; all other filters narrow them
+        List<Filter> filters = new ArrayList<>();
+        Map<String, Integer> keywordRanks = null;
+        if (PhotographerQuery.isSet(query.getKeyword())) {
+            keywordRanks = new HashMap<>();
+            for (String photographerId : textIndex.search(query.getKeyword())) {
+                keywordRanks.put(photographerId, keywordRanks.size());
+            }
+            filters.add(setFilter(keywordRanks.keySet()));
+        }
+        if (PhotographerQuery.isSet(query.getLocation())) {
+            filters.add(setFilter(new HashSet<>(locationIndex.search(query.getLocation()))));
+        }
+        if (query.getMinPrice() != null || query.getMaxPrice() != null) {
+            filters.add(priceFilter(query.getMinPrice(), query.getMaxPrice()));
+        }
+        if (query.getPhotographerIds() != null) {
+            filters.add(setFilter(query.getPhotographerIds()));
+        }
+        Map<String, Double> distances = null;
+        if (PhotographerQuery.isSet(query.getNearLocation())) {
+            distances = reachableFrom(query.getNearLocation(), query.getRadiusMiles());
+            filters.add(setFilter(distances.keySet()));
+        }
+
+        // Drive the evaluation from the shortest posting list
+        Filter driver = null;
+        for (Filter filter : filters) {
+            if (driver == null || filter.estimate() < driver.estimate()) {
+                driver = filter;
+            }
+        }
+        Collection<String> candidates = driver != null ? driver.candidates() : entries.keySet();
+
+        String specialty = PhotographerQuery.isSet(query.getSpecialty()) ? query.getSpecialty() : null;
+        Double minRating = query.getMinRating();
+        Map<String, Integer> specialtyCounts = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        int[] matchedStars = new int[MAX_STARS + 1];
+        List<Entry> matches = new ArrayList<>();
+
+        for (String photographerId : candidates) {
+            Entry entry = entries.get(photographerId);
+            if (entry == null || !matchesAll(filters, driver, photographerId, entry)) {
+                continue;
+            }
+
+            boolean specialtyMatches = specialty == null || entry.specialties.contains(specialty);
+            boolean ratingMatches = minRating == null || entry.rating >= minRating;
+            if (ratingMatches) {
+                for (String offered : entry.specialties) {
+                    specialtyCounts.merge(offered, 1, Integer::sum);
+                }
+            }
+            if (specialtyMatches) {
+                matchedStars[entry.stars()]++;
+            }
+            if (specialtyMatches && ratingMatches) {
+                matches.add(entry);
+            }
+        }
+
+        // Nearest first near an event location, keyword results by relevance, others highest rated
+        // first, unless another order is asked for
+        Comparator<Entry> order;
+        if (query.getSortKey() == null && distances != null) {
+            Map<String, Double> byDistance = distances;
+            order = Comparator.<Entry>comparingDouble(entry -> byDistance.get(entry.photographerId))
+                    .thenComparing(entry -> entry.photographerId);
+        } else if (query.getSortKey() == null && keywordRanks != null) {
+            Map<String, Integer> ranks = keywordRanks;
+            order = Comparator.comparingInt(entry -> ranks.get(entry.photographerId));
+        } else if (query.getSortKey() == null) {
+            order = comparator(PhotographerSortKey.RATING).reversed();
+        } else {
+            order = query.isAscending() ? comparator(query.getSortKey()) : comparator(query.getSortKey()).reversed();
+        }
+
+        List<Photographer> photographers = new ArrayList<>();
+        Map<String, Double> pageDistances = new HashMap<>();
+        Map<String, Double> travelFees = new HashMap<>();
+        for (Entry entry : firstInOrder(matches, order, query.getOffset(), query.getLimit())) {
+            photographers.add(entry.photographer);
+            if (distances != null) {
+                double distance = distances.get(entry.photographerId);
+                pageDistances.put(entry.photographerId, distance);
+                travelFees.put(entry.photographerId, travelFee(entry.photographer, distance));
+            }
+        }
+        return new PhotographerQueryResult(photographers, matches.size(), specialtyCounts, cumulative(matchedStars),
+                pageDistances, travelFees);
+    }
+
+    /**
+     * Find the photographers within a radius of an event location who travel that far
+     * @return Distance in miles by photographer ID, empty if the location is not in the gazetteer
+     */
+    private Map<String, Double> reachableFrom(String eventLocation, double radiusMiles) {
+        Map<String, Double> reachable = new HashMap<>();
+        GeoPoint origin = gazetteer.resolve(eventLocation);
+        if (origin == null) {
+            return reachable;
+        }
+
+        for (Map.Entry<String, Double> found : geoIndex.within(origin, radiusMiles).entrySet()) {
+            Entry entry = entries.get(found.getKey());
+            if (entry != null && (entry.reachMiles == null || found.getValue() <= entry.reachMiles)) {
+                reachable.put(found.getKey(), found.getValue());
+            }
+        }
+        return reachable;
+    }
+
+    /**
+     * Get what a photographer charges to travel a distance; only freelancers charge for travel
+     */
+    private static double travelFee(Photographer photographer, double distanceMiles) {
+        if (!(photographer instanceof FreelancePhotographer)) {
+            return 0.0;
+        }
+        double fee = ((FreelancePhotographer) photographer).calculateTravelFee((int) Math.ceil(distanceMiles));
+        return Math.max(0.0, fee);
+    }
+
+    /**
+     * Evaluate a query without filters: the page comes straight from a sorted view and the facet
+     * counts from the indexes
+     */
+    private PhotographerQueryResult evaluateUnfiltered(PhotographerQuery query) {
+        PhotographerSortKey sortKey = query.getSortKey() != null ? query.getSortKey() : PhotographerSortKey.RATING;
+        boolean ascending = query.getSortKey() != null && query.isAscending();
+        List<Photographer> photographers = slice(sortedViews.get(sortKey), ascending, query.getOffset(), query.getLimit());
+
+        Map<String, Integer> specialtyCounts = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, Set<String>> specialty : bySpecialty.entrySet()) {
+            specialtyCounts.merge(specialty.getKey(), specialty.getValue().size(), Integer::sum);
+        }
+        return new PhotographerQueryResult(photographers, entries.size(), specialtyCounts, cumulative(starCounts),
+                new HashMap<>(), new HashMap<>());
+    }
+
+    /**
+     * Read a page of a sorted view, from either end
+     */
+    private static List<Photographer> slice(List<Entry> sorted, boolean ascending, int offset, int limit) {
+        int size = sorted.size();
+        int end = (int) Math.min(size, (long) offset + limit);
+        List<Photographer> photographers = new ArrayList<>(Math.max(0, end - offset));
+        for (int i = offset; i < end; i++) {
+            photographers.add(sorted.get(ascending ? i : size - 1 - i).photographer);
+        }
+        return photographers;
+    }
+
+    /**
+     * Select a page of entries in an order, keeping only the first offset + limit in a bounded heap
+     * rather than sorting them all
+     */
+    private static List<Entry> firstInOrder(List<Entry> matches, Comparator<Entry> order, int offset, int limit) {
+        long wanted = Math.min(matches.size(), (long) offset + limit);
+        if (wanted >= matches.size()) {
+            matches.sort(order);
+            return matches.subList(Math.min(offset, matches.size()), matches.size());
+        }
+
+        // Max-heap on the order: its head is the last of the entries kept so far
+        int capacity = (int) wanted;
+        PriorityQueue<Entry> heap = new PriorityQueue<>(Math.max(1, capacity), order.reversed());
+        for (Entry entry : matches) {
+            if (heap.size() < capacity) {
+                heap.add(entry);
+            } else if (capacity > 0 && order.compare(entry, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+
+        List<Entry> first = new ArrayList<>(heap);
+        first.sort(order);
+        return first.subList(Math.min(offset, first.size()), first.size());
+    }
+
+    /**
+     * Turn counts by whole stars into counts of photographers rated at least N stars, for N = 5 down to 1
+     */
+    private static Map<Integer, Integer> cumulative(int[] starCounts) {
+        Map<Integer, Integer> ratingCounts = new TreeMap<>(Collections.reverseOrder());
+        int atLeast = 0;
+        for (int stars = MAX_STARS; stars >= 1; stars--) {
+            atLeast += starCounts[stars];
+            ratingCounts.put(stars, atLeast);
+        }
+        return ratingCounts;
+    }
+
+    private static boolean matchesAll(List<Filter> filters, Filter driver, String photographerId, Entry entry) {
+        for (Filter filter : filters) {
+            if (filter != driver && !filter.matches(photographerId, entry)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Filter setFilter(Set<String> photographerIds) {
+        return new Filter() {
+            @Override
+            public int estimate() {
+                return photographerIds.size();
+            }
+
+            @Override
+            public Collection<String> candidates() {
+                return photographerIds;
+            }
+
+            @Override
+            public boolean matches(String photographerId, Entry entry) {
+                return photographerIds.contains(photographerId);
+            }
+        };
+    }
+
+    private Filter priceFilter(Double minPrice, Double maxPrice) {
+        double low = minPrice != null ? minPrice : Double.NEGATIVE_INFINITY;
+        double high = maxPrice != null ? maxPrice : Double.POSITIVE_INFINITY;
+        NavigableMap<Double, Set<String>> range = low <= high
+                ? byPrice.subMap(low, true, high, true) : Collections.<Double, Set<String>>emptyNavigableMap();
+
+        return new Filter() {
+            @Override
+            public int estimate() {
+                int size = 0;
+                for (Set<String> ids : range.values()) {
+                    size += ids.size();
+                }
+                return size;
+            }
+
+            @Override
+            public Collection<String> candidates() {
+                List<String> ids = new ArrayList<>();
+                for (Set<String> priced : range.values()) {
+                    ids.addAll(priced);
+                }
+                return ids;
+            }
+
+            @Override
+            public boolean matches(String photographerId, Entry entry) {
+                return entry.price >= low && entry.price <= high;
+            }
+        };
+    }
+
+    private static <K> void removePosting(Map<K, Set<String>> postings, K key, String photographerId) {
+        Set<String> ids = postings.get(key);
+        if (ids != null && ids.remove(photographerId) && ids.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+}
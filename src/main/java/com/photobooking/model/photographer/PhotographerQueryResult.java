@@ -0,0 +1,79 @@
+package com.photobooking.model.photographer;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Photographers matching a query, with facet counts for the filter dropdowns.
+ * Each facet is counted with every other filter applied but its own, so the counts show how many
+ * photographers choosing that option instead would find.
+ */
+public class PhotographerQueryResult {
+    private final List<Photographer> photographers;
+    private final int totalCount;
+    private final Map<String, Integer> specialtyCounts;
+    private final Map<Integer, Integer> ratingCounts;
+    private final Map<String, Double> distances;
+    private final Map<String, Double> travelFees;
+
+    PhotographerQueryResult(List<Photographer> photographers, int totalCount, Map<String, Integer> specialtyCounts,
+                            Map<Integer, Integer> ratingCounts, Map<String, Double> distances,
+                            Map<String, Double> travelFees) {
+        this.photographers = photographers;
+        this.totalCount = totalCount;
+        this.specialtyCounts = specialtyCounts;
+        this.ratingCounts = ratingCounts;
+        this.distances = distances;
+        this.travelFees = travelFees;
+    }
+
+    /**
+     * Get the requested page of matching photographers, in the query's sort order. Without a sort key
+     * they are nearest first for a search near a location, most relevant first for a keyword query,
+     * otherwise highest rated first.
+     * @return The photographers
+     */
+    public List<Photographer> getPhotographers() {
+        return photographers;
+    }
+
+    /**
+     * Get the number of matching photographers on all pages
+     * @return The total count
+     */
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Get the number of matching photographers offering each specialty, ignoring the specialty filter
+     * @return Counts by specialty, in name order
+     */
+    public Map<String, Integer> getSpecialtyCounts() {
+        return specialtyCounts;
+    }
+
+    /**
+     * Get the number of matching photographers rated at least 1 to 5 stars, ignoring the rating filter
+     * @return Counts by minimum star rating
+     */
+    public Map<Integer, Integer> getRatingCounts() {
+        return ratingCounts;
+    }
+
+    /**
+     * Get the distance from the event location to each photographer on the page
+     * @return Miles by photographer ID, empty unless the query searched near a location
+     */
+    public Map<String, Double> getDistances() {
+        return distances;
+    }
+
+    /**
+     * Get the travel fee each photographer on the page charges to reach the event location
+     * @return Fee by photographer ID, empty unless the query searched near a location
+     */
+    public Map<String, Double> getTravelFees() {
+        return travelFees;
+    }
+}
@@ -0,0 +1,243 @@
+package com.photobooking.model.photographer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Inverted full-text index over photographers' business names, specialties, locations and biographies.
+ * Text is split into case-folded terms, each mapped to the photographers it occurs for, weighted
+ * by the field it occurs in. Terms are also indexed by their trigrams, so a partial word finds
+ * every term containing it without scanning the photographers.
+ * Not thread-safe; PhotographerManager uses it under its own lock.
+ */
+class PhotographerSearchIndex {
+    // Field weights: a match in the business name counts more than one in the biography
+    private static final int NAME_WEIGHT = 8;
+    private static final int SPECIALTY_WEIGHT = 4;
+    private static final int LOCATION_WEIGHT = 2;
+    private static final int BIOGRAPHY_WEIGHT = 1;
+
+    // Share of a term's weight credited when a query word is only a prefix of it, or occurs inside it
+    private static final double PREFIX_MATCH = 0.6;
+    private static final double INFIX_MATCH = 0.3;
+
+    private static final int GRAM_LENGTH = 3;
+
+    // term -> photographer ID -> summed field weights
+    private final TreeMap<String, Map<String, Integer>> postings = new TreeMap<>();
+    // trigram -> terms containing it
+    private final Map<String, Set<String>> termsByGram = new HashMap<>();
+    // photographer ID -> its terms, to remove them without re-reading the photographer
+    private final Map<String, Set<String>> termsById = new HashMap<>();
+
+    /**
+     * Index a photographer, replacing any earlier entry with the same ID
+     * @param photographer The photographer
+     */
+    void add(Photographer photographer) {
+        Map<String, Integer> weights = new HashMap<>();
+        addTerms(weights, photographer.getBusinessName(), NAME_WEIGHT);
+        for (String specialty : photographer.getSpecialties()) {
+            addTerms(weights, specialty, SPECIALTY_WEIGHT);
+        }
+        addTerms(weights, photographer.getLocation(), LOCATION_WEIGHT);
+        addTerms(weights, photographer.getBiography(), BIOGRAPHY_WEIGHT);
+        put(photographer.getPhotographerId(), weights);
+    }
+
+    /**
+     * Index a single piece of text for a photographer, replacing any earlier entry with the same ID
+     * @param photographerId The photographer ID
+     * @param text The text, e.g. the location
+     */
+    void add(String photographerId, String text) {
+        Map<String, Integer> weights = new HashMap<>();
+        addTerms(weights, text, BIOGRAPHY_WEIGHT);
+        put(photographerId, weights);
+    }
+
+    private void put(String photographerId, Map<String, Integer> weights) {
+        remove(photographerId);
+
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            String term = entry.getKey();
+            Map<String, Integer> posting = postings.get(term);
+            if (posting == null) {
+                posting = new HashMap<>();
+                postings.put(term, posting);
+                for (String gram : grams(term)) {
+                    termsByGram.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+                }
+            }
+            posting.put(photographerId, entry.getValue());
+        }
+        termsById.put(photographerId, weights.keySet());
+    }
+
+    /**
+     * Remove a photographer from the index
+     * @param photographerId The photographer ID
+     */
+    void remove(String photographerId) {
+        Set<String> terms = termsById.remove(photographerId);
+        if (terms == null) {
+            return;
+        }
+
+        for (String term : terms) {
+            Map<String, Integer> posting = postings.get(term);
+            if (posting == null) {
+                continue;
+            }
+            posting.remove(photographerId);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+                for (String gram : grams(term)) {
+                    Set<String> gramTerms = termsByGram.get(gram);
+                    if (gramTerms != null && gramTerms.remove(term) && gramTerms.isEmpty()) {
+                        termsByGram.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    void clear() {
+        postings.clear();
+        termsByGram.clear();
+        termsById.clear();
+    }
+
+    /**
+     * Find the photographers matching every word of a query, best match first
+     * @param query The query text
+     * @return Photographer IDs ranked by relevance, ties in ID order
+     */
+    List<String> search(String query) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<String, Double> scores = null;
+        for (String word : words) {
+            Map<String, Double> wordScores = scoreWord(word);
+
+            // Every word must match; keep only photographers matched by all of them so far
+            if (scores == null) {
+                scores = wordScores;
+            } else {
+                Map<String, Double> combined = new HashMap<>();
+                for (Map.Entry<String, Double> entry : scores.entrySet()) {
+                    Double wordScore = wordScores.get(entry.getKey());
+                    if (wordScore != null) {
+                        combined.put(entry.getKey(), entry.getValue() + wordScore);
+                    }
+                }
+                scores = combined;
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+
+        List<Map.Entry<String, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<String, Double>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        List<String> result = new ArrayList<>(ranked.size());
+        for (Map.Entry<String, Double> entry : ranked) {
+            result.add(entry.getKey());
+        }
+        return result;
+    }
+
+    /**
+     * Score every photographer having a term equal to, starting with or containing a query word,
+     * counting the best-matching term of each photographer
+     */
+    private Map<String, Double> scoreWord(String word) {
+        Map<String, Double> scores = new HashMap<>();
+        for (String term : candidateTerms(word)) {
+            double match = term.equals(word) ? 1.0 : term.startsWith(word) ? PREFIX_MATCH : INFIX_MATCH;
+            for (Map.Entry<String, Integer> entry : postings.get(term).entrySet()) {
+                scores.merge(entry.getKey(), match * entry.getValue(), Math::max);
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Get the indexed terms containing a word
+     */
+    private Set<String> candidateTerms(String word) {
+        if (word.length() < GRAM_LENGTH) {
+            // Too short for a trigram: only whole terms and terms starting with the word match
+            return postings.subMap(word, true, word + Character.MAX_VALUE, false).keySet();
+        }
+
+        // A term containing the word contains all of its trigrams; intersect, smallest set first
+        List<Set<String>> gramSets = new ArrayList<>();
+        for (String gram : grams(word)) {
+            Set<String> terms = termsByGram.get(gram);
+            if (terms == null) {
+                return Collections.emptySet();
+            }
+            gramSets.add(terms);
+        }
+        gramSets.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+        Set<String> candidates = new HashSet<>();
+        for (String term : gramSets.get(0)) {
+            if (term.contains(word)) {
+                candidates.add(term);
+            }
+        }
+        return candidates;
+    }
+
+    private static void addTerms(Map<String, Integer> weights, String text, int weight) {
+        for (String term : tokenize(text)) {
+            weights.merge(term, weight, Integer::sum);
+        }
+    }
+
+    /**
+     * Split text into lower-case words of letters and digits
+     * @param text The text, may be null
+     * @return The words, in order
+     */
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+
+        String folded = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static Set<String> grams(String term) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= term.length(); i++) {
+            grams.add(term.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+}
@@ -1,5 +1,6 @@
 package com.photobooking.model.photographer;
 
+import com.photobooking.util.RecordTokenizer;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -188,17 +189,17 @@ public class PhotographerService implements Serializable {
         StringBuilder sb = new StringBuilder();
         sb.append(serviceId).append(",");
         sb.append(photographerId != null ? photographerId : "").append(",");
-        sb.append(name != null ? name.replace(",", ";;") : "").append(",");
-        sb.append(description != null ? description.replace(",", ";;") : "").append(",");
+        sb.append(RecordTokenizer.field(name)).append(",");
+        sb.append(RecordTokenizer.field(description)).append(",");
         sb.append(price).append(",");
-        sb.append(category != null ? category : "").append(",");
+        sb.append(RecordTokenizer.field(category)).append(",");
         sb.append(durationHours).append(",");
         sb.append(photographersCount).append(",");
 
         // Join features with |
-        sb.append(String.join("|", features)).append(",");
+        sb.append(RecordTokenizer.listField(features)).append(",");
 
-        sb.append(deliverables != null ? deliverables.replace(",", ";;") : "").append(",");
+        sb.append(RecordTokenizer.field(deliverables)).append(",");
         sb.append(isActive).append(",");
         sb.append(bookingCount);
 
@@ -211,35 +212,30 @@ public class PhotographerService implements Serializable {
      * @return PhotographerService object
      */
     public static PhotographerService fromFileString(String fileString) {
-        String[] parts = fileString.split(",");
-        if (parts.length < 11) {
+        RecordTokenizer tokenizer = new RecordTokenizer(fileString);
+        if (tokenizer.countFields() < 12) {
             return null; // Not enough parts for a valid service
         }
 
         PhotographerService service = new PhotographerService();
-        int index = 0;
 
-        service.setServiceId(parts[index++]);
-        service.setPhotographerId(parts[index++]);
-        service.setName(parts[index++].replace(";;", ","));
-        service.setDescription(parts[index++].replace(";;", ","));
-        service.setPrice(Double.parseDouble(parts[index++]));
-        service.setCategory(parts[index++]);
-        service.setDurationHours(Integer.parseInt(parts[index++]));
-        service.setPhotographersCount(Integer.parseInt(parts[index++]));
+        service.setServiceId(tokenizer.next());
+        service.setPhotographerId(tokenizer.next());
+        service.setName(tokenizer.nextText());
+        service.setDescription(tokenizer.nextText());
+        service.setPrice(tokenizer.nextDouble());
+        service.setCategory(tokenizer.next());
+        service.setDurationHours(tokenizer.nextInt());
+        service.setPhotographersCount(tokenizer.nextInt());
 
         // Parse features
-        String featuresStr = parts[index++];
-        if (!featuresStr.isEmpty()) {
-            String[] featuresArr = featuresStr.split("\\|");
-            for (String feature : featuresArr) {
-                service.addFeature(feature);
-            }
+        for (String feature : tokenizer.nextList()) {
+            service.addFeature(feature);
         }
 
-        service.setDeliverables(parts[index++].replace(";;", ","));
-        service.setActive(Boolean.parseBoolean(parts[index++]));
-        service.setBookingCount(Integer.parseInt(parts[index]));
+        service.setDeliverables(tokenizer.nextText());
+        service.setActive(tokenizer.nextBoolean());
+        service.setBookingCount(tokenizer.nextInt());
 
         return service;
     }
@@ -1,11 +1,17 @@
 package com.photobooking.model.photographer;
 
 import com.photobooking.util.FileHandler;
+import com.photobooking.util.MappedRecordReader;
+import com.photobooking.util.RecordLog;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.logging.Logger;
-import java.util.logging.Level;
 import javax.servlet.ServletContext;
 
 /**
@@ -17,6 +23,13 @@ public class PhotographerServiceManager {
     private List<PhotographerService> services;
     private ServletContext servletContext;
 
+    // Photographers offering an active service in each category, with their number of such services
+    private final Map<String, Map<String, Integer>> activeByCategory = new HashMap<>();
+
+    // Category key and photographer each active service was indexed under, by service ID
+    private final Map<String, String[]> indexedServices = new HashMap<>();
+    private RecordLog recordLog;
+
     /**
      * Constructor initializes the manager and loads services
      */
@@ -36,27 +49,67 @@ public class PhotographerServiceManager {
             FileHandler.setServletContext(servletContext);
         }
 
+        // Use the append-only record log when log-structured storage is enabled
+        if (RecordLog.isEnabled()) {
+            this.recordLog = new RecordLog(SERVICE_FILE);
+        }
+
         this.services = loadServices();
+        indexServices();
+    }
+
+    /**
+     * Rebuild the category index from the loaded services
+     */
+    private void indexServices() {
+        activeByCategory.clear();
+        indexedServices.clear();
+        for (PhotographerService service : services) {
+            index(service);
+        }
+    }
+
+    private void index(PhotographerService service) {
+        if (!service.isActive() || service.getCategory() == null || service.getPhotographerId() == null) {
+            return;
+        }
+
+        String categoryKey = service.getCategory().toUpperCase(Locale.ROOT);
+        indexedServices.put(service.getServiceId(), new String[] {categoryKey, service.getPhotographerId()});
+        activeByCategory.computeIfAbsent(categoryKey, k -> new HashMap<>())
+                .merge(service.getPhotographerId(), 1, Integer::sum);
+    }
+
+    private void unindex(String serviceId) {
+        String[] keys = indexedServices.remove(serviceId);
+        if (keys == null) {
+            return;
+        }
+
+        Map<String, Integer> photographers = activeByCategory.get(keys[0]);
+        if (photographers.merge(keys[1], -1, Integer::sum) <= 0) {
+            photographers.remove(keys[1]);
+            if (photographers.isEmpty()) {
+                activeByCategory.remove(keys[0]);
+            }
+        }
     }
 
     /**
      * Load services from file
      * @return List of services
      */
-    public List<PhotographerService> loadServices() {
+    private List<PhotographerService> loadServices() {
         // Ensure file exists before loading
         FileHandler.ensureFileExists(SERVICE_FILE);
 
-        List<String> lines = FileHandler.readLines(SERVICE_FILE);
-        List<PhotographerService> loadedServices = new ArrayList<>();
+        // Parse records straight out of the memory-mapped file
+        List<PhotographerService> loadedServices = MappedRecordReader.load(SERVICE_FILE, PhotographerService::fromFileString);
 
-        for (String line : lines) {
-            if (!line.trim().isEmpty()) {
-                PhotographerService service = PhotographerService.fromFileString(line);
-                if (service != null) {
-                    loadedServices.add(service);
-                }
-            }
+        // Apply changes appended to the record log since the last snapshot
+        if (recordLog != null) {
+            loadedServices = recordLog.replay(loadedServices,
+                    PhotographerService::fromFileString, PhotographerService::getServiceId);
         }
 
         LOGGER.info("Loaded " + loadedServices.size() + " services from file");
@@ -68,43 +121,51 @@ public class PhotographerServiceManager {
      * @return true if successful, false otherwise
      */
     private boolean saveServices() {
-        try {
-            // First create a backup of the existing file
-            String backupFile = SERVICE_FILE + ".bak";
-            if (FileHandler.fileExists(SERVICE_FILE)) {
-                FileHandler.copyFile(SERVICE_FILE, backupFile);
-            }
+        // Atomically replace the file: stream to a temp file, force it to disk and rename
+        boolean result = FileHandler.commitRecords(SERVICE_FILE, services, PhotographerService::toFileString);
 
-            // Delete existing file content
-            FileHandler.deleteFile(SERVICE_FILE);
+        if (result) {
+            LOGGER.info("Successfully saved " + services.size() + " services to file");
+        } else {
+            LOGGER.warning("Failed to save services to file");
+        }
 
-            // Ensure file exists after deletion
-            FileHandler.ensureFileExists(SERVICE_FILE);
+        return result;
+    }
 
-            // Write all services at once for better performance
-            StringBuilder contentToWrite = new StringBuilder();
-            for (PhotographerService service : services) {
-                contentToWrite.append(service.toFileString()).append(System.lineSeparator());
-            }
+    /**
+     * Persist a created or updated service
+     * @param service The service that changed
+     * @return true if successful, false otherwise
+     */
+    private boolean persistService(PhotographerService service) {
+        if (recordLog != null) {
+            return recordLog.appendPut(service.toFileString());
+        }
+        return saveServices();
+    }
 
-            // Write all content at once
-            boolean result = FileHandler.writeToFile(SERVICE_FILE, contentToWrite.toString(), false);
-
-            if (result) {
-                LOGGER.info("Successfully saved " + services.size() + " services to file");
-            } else {
-                LOGGER.warning("Failed to save services to file");
-                // Restore from backup if save failed
-                if (FileHandler.fileExists(backupFile)) {
-                    FileHandler.copyFile(backupFile, SERVICE_FILE);
-                }
-            }
+    /**
+     * Persist the removal of a service
+     * @param serviceId The ID of the removed service
+     * @return true if successful, false otherwise
+     */
+    private boolean persistServiceRemoval(String serviceId) {
+        if (recordLog != null) {
+            return recordLog.appendDelete(serviceId);
+        }
+        return saveServices();
+    }
 
-            return result;
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error saving services: " + e.getMessage(), e);
+    /**
+     * Write a fresh snapshot of all services and truncate the record log
+     * @return true if the log was compacted, false if there was nothing to do
+     */
+    public synchronized boolean compactLog() {
+        if (recordLog == null || !recordLog.needsCompaction()) {
             return false;
         }
+        return saveServices() && recordLog.truncate();
     }
 
     /**
@@ -112,13 +173,22 @@ public class PhotographerServiceManager {
      * @param service The service to add
      * @return true if successful, false otherwise
      */
-    public boolean addService(PhotographerService service) {
+    public synchronized boolean addService(PhotographerService service) {
         if (service == null || service.getPhotographerId() == null) {
             return false;
         }
 
         services.add(service);
-        return saveServices();
+        index(service);
+        return persistService(service);
+    }
+
+    /**
+     * Get all services
+     * @return List of all services
+     */
+    public synchronized List<PhotographerService> getAllServices() {
+        return new ArrayList<>(services);
     }
 
     /**
@@ -126,7 +196,7 @@ public class PhotographerServiceManager {
      * @param serviceId The service ID
      * @return The service or null if not found
      */
-    public PhotographerService getServiceById(String serviceId) {
+    public synchronized PhotographerService getServiceById(String serviceId) {
         if (serviceId == null) return null;
 
         return services.stream()
@@ -140,7 +210,7 @@ public class PhotographerServiceManager {
      * @param photographerId The photographer ID
      * @return List of services for the photographer
      */
-    public List<PhotographerService> getServicesByPhotographer(String photographerId) {
+    public synchronized List<PhotographerService> getServicesByPhotographer(String photographerId) {
         if (photographerId == null) return new ArrayList<>();
 
         return services.stream()
@@ -153,7 +223,7 @@ public class PhotographerServiceManager {
      * @param photographerId The photographer ID
      * @return List of active services for the photographer
      */
-    public List<PhotographerService> getActiveServicesByPhotographer(String photographerId) {
+    public synchronized List<PhotographerService> getActiveServicesByPhotographer(String photographerId) {
         if (photographerId == null) return new ArrayList<>();
 
         return services.stream()
@@ -167,7 +237,7 @@ public class PhotographerServiceManager {
      * @param category The service category
      * @return List of services in the given category
      */
-    public List<PhotographerService> getServicesByCategory(String category) {
+    public synchronized List<PhotographerService> getServicesByCategory(String category) {
         if (category == null) return new ArrayList<>();
 
         return services.stream()
@@ -176,20 +246,34 @@ public class PhotographerServiceManager {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get the photographers offering an active service in a category
+     * @param category The service category, in any case
+     * @return Photographer IDs
+     */
+    public synchronized Set<String> getPhotographerIdsByCategory(String category) {
+        if (category == null) return new HashSet<>();
+
+        Map<String, Integer> photographers = activeByCategory.get(category.toUpperCase(Locale.ROOT));
+        return photographers != null ? new HashSet<>(photographers.keySet()) : new HashSet<>();
+    }
+
     /**
      * Update an existing service
      * @param updatedService The updated service
      * @return true if successful, false otherwise
      */
-    public boolean updateService(PhotographerService updatedService) {
+    public synchronized boolean updateService(PhotographerService updatedService) {
         if (updatedService == null || updatedService.getServiceId() == null) {
             return false;
         }
 
         for (int i = 0; i < services.size(); i++) {
             if (services.get(i).getServiceId().equals(updatedService.getServiceId())) {
+                unindex(updatedService.getServiceId());
                 services.set(i, updatedService);
-                return saveServices();
+                index(updatedService);
+                return persistService(updatedService);
             }
         }
 
@@ -201,14 +285,15 @@ public class PhotographerServiceManager {
      * @param serviceId The service ID
      * @return true if successful, false otherwise
      */
-    public boolean deleteService(String serviceId) {
+    public synchronized boolean deleteService(String serviceId) {
         if (serviceId == null) {
             return false;
         }
 
         boolean removed = services.removeIf(s -> s.getServiceId().equals(serviceId));
         if (removed) {
-            return saveServices();
+            unindex(serviceId);
+            return persistServiceRemoval(serviceId);
         }
 
         return false; // Service not found
@@ -219,7 +304,7 @@ public class PhotographerServiceManager {
      * @param serviceId The service ID
      * @return true if successful, false otherwise
      */
-    public boolean toggleServiceActiveStatus(String serviceId) {
+    public synchronized boolean toggleServiceActiveStatus(String serviceId) {
         if (serviceId == null) {
             return false;
         }
@@ -238,7 +323,7 @@ public class PhotographerServiceManager {
      * @param photographerId The photographer ID
      * @return true if successful, false otherwise
      */
-    public boolean createDefaultServices(String photographerId) {
+    public synchronized boolean createDefaultServices(String photographerId) {
         if (photographerId == null) {
             return false;
         }
@@ -312,7 +397,7 @@ public class PhotographerServiceManager {
      * Set ServletContext (can be used to update the context after initialization)
      * @param servletContext the servlet context
      */
-    public void setServletContext(ServletContext servletContext) {
+    public synchronized void setServletContext(ServletContext servletContext) {
         this.servletContext = servletContext;
 
         // Update FileHandler with the new ServletContext
@@ -321,5 +406,6 @@ public class PhotographerServiceManager {
         // Reload services with the new file path
         services.clear();
         services = loadServices();
+        indexServices();
     }
 }
@@ -0,0 +1,12 @@
+package com.photobooking.model.photographer;
+
+/**
+ * Orders in which photographers can be listed. PhotographerManager keeps each of them sorted as
+ * photographers are added, updated and removed.
+ */
+public enum PhotographerSortKey {
+    RATING,
+    PRICE,
+    EXPERIENCE,
+    NAME
+}
@@ -0,0 +1,226 @@
+package com.photobooking.model.photographer;
+
+import com.photobooking.util.RecordTokenizer;
+import java.io.Serializable;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A recurring block in a photographer's calendar, e.g. every Sunday or every day of a date range.
+ * Rules are stored once and expanded into UnavailableDate occurrences only when a date is queried.
+ */
+public class UnavailabilityRule implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // Separates the rule ID from the date in the ID of an occurrence
+    public static final char OCCURRENCE_SEPARATOR = '@';
+
+    public enum RuleType {
+        WEEKLY,     // One day of the week, between the start and end dates
+        DATE_RANGE  // Every day between the start and end dates
+    }
+
+    private String id;
+    private String photographerId;
+    private RuleType type;
+    private LocalDate startDate;
+    private LocalDate endDate;   // null for a weekly rule with no end
+    private DayOfWeek dayOfWeek; // WEEKLY only
+    private boolean allDay;
+    private String startTime;
+    private String endTime;
+    private String reason;
+
+    public UnavailabilityRule() {
+        this.id = UUID.randomUUID().toString();
+        this.allDay = true;
+    }
+
+    /**
+     * Create a rule blocking one day of every week
+     * @param photographerId Photographer user ID
+     * @param dayOfWeek The blocked day of the week
+     * @param startDate First date the rule applies to
+     * @param endDate Last date the rule applies to, or null for no end
+     * @param reason Reason shown in the calendar
+     * @return The rule
+     */
+    public static UnavailabilityRule weekly(String photographerId, DayOfWeek dayOfWeek, LocalDate startDate,
+                                            LocalDate endDate, String reason) {
+        UnavailabilityRule rule = new UnavailabilityRule();
+        rule.setPhotographerId(photographerId);
+        rule.setType(RuleType.WEEKLY);
+        rule.setDayOfWeek(dayOfWeek);
+        rule.setStartDate(startDate);
+        rule.setEndDate(endDate);
+        rule.setReason(reason);
+        return rule;
+    }
+
+    /**
+     * Create a rule blocking every day of a date range
+     * @param photographerId Photographer user ID
+     * @param startDate First blocked date
+     * @param endDate Last blocked date
+     * @param reason Reason shown in the calendar
+     * @return The rule
+     */
+    public static UnavailabilityRule dateRange(String photographerId, LocalDate startDate, LocalDate endDate,
+                                               String reason) {
+        UnavailabilityRule rule = new UnavailabilityRule();
+        rule.setPhotographerId(photographerId);
+        rule.setType(RuleType.DATE_RANGE);
+        rule.setStartDate(startDate);
+        rule.setEndDate(endDate);
+        rule.setReason(reason);
+        return rule;
+    }
+
+    /**
+     * Check whether the rule blocks a date
+     * @param date The date
+     * @return true if the date is blocked by this rule
+     */
+    public boolean appliesTo(LocalDate date) {
+        if (date == null || startDate == null || date.isBefore(startDate)
+                || (endDate != null && date.isAfter(endDate))) {
+            return false;
+        }
+        return type != RuleType.WEEKLY || date.getDayOfWeek() == dayOfWeek;
+    }
+
+    /**
+     * Expand the rule into the unavailable date it produces on one date
+     * @param date A date the rule applies to
+     * @return The occurrence, with an ID of the form ruleId@date
+     */
+    public UnavailableDate toOccurrence(LocalDate date) {
+        UnavailableDate occurrence = new UnavailableDate(photographerId, date, allDay, reason);
+        occurrence.setId(id + OCCURRENCE_SEPARATOR + date);
+        occurrence.setStartTime(startTime);
+        occurrence.setEndTime(endTime);
+        return occurrence;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getPhotographerId() {
+        return photographerId;
+    }
+
+    public void setPhotographerId(String photographerId) {
+        this.photographerId = photographerId;
+    }
+
+    public RuleType getType() {
+        return type;
+    }
+
+    public void setType(RuleType type) {
+        this.type = type;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public DayOfWeek getDayOfWeek() {
+        return dayOfWeek;
+    }
+
+    public void setDayOfWeek(DayOfWeek dayOfWeek) {
+        this.dayOfWeek = dayOfWeek;
+    }
+
+    public boolean isAllDay() {
+        return allDay;
+    }
+
+    public void setAllDay(boolean allDay) {
+        this.allDay = allDay;
+    }
+
+    public String getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(String startTime) {
+        this.startTime = startTime;
+    }
+
+    public String getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(String endTime) {
+        this.endTime = endTime;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public String toFileString() {
+        return String.join(",",
+                id,
+                photographerId,
+                type.name(),
+                startDate.toString(),
+                endDate != null ? endDate.toString() : "",
+                dayOfWeek != null ? dayOfWeek.name() : "",
+                String.valueOf(allDay),
+                startTime != null ? startTime : "",
+                endTime != null ? endTime : "",
+                RecordTokenizer.field(reason)
+        );
+    }
+
+    public static UnavailabilityRule fromFileString(String fileString) {
+        RecordTokenizer tokenizer = new RecordTokenizer(fileString);
+        int fieldCount = tokenizer.countFields();
+        if (fieldCount >= 7) {
+            UnavailabilityRule rule = new UnavailabilityRule();
+            rule.setId(tokenizer.next());
+            rule.setPhotographerId(tokenizer.next());
+            rule.setType(tokenizer.nextEnum(RuleType.class));
+            rule.setStartDate(tokenizer.nextDate());
+
+            String endDate = tokenizer.nextOrNull();
+            rule.setEndDate(endDate != null ? LocalDate.parse(endDate) : null);
+            String dayOfWeek = tokenizer.nextOrNull();
+            rule.setDayOfWeek(dayOfWeek != null ? DayOfWeek.valueOf(dayOfWeek) : null);
+            rule.setAllDay(tokenizer.nextBoolean());
+
+            if (fieldCount > 7) rule.setStartTime(tokenizer.nextOrNull());
+            if (fieldCount > 8) rule.setEndTime(tokenizer.nextOrNull());
+            if (fieldCount > 9) rule.setReason(tokenizer.nextOrNull());
+
+            return rule;
+        }
+        return null;
+    }
+}
@@ -1,5 +1,6 @@
 package com.photobooking.model.photographer;
 
+import com.photobooking.util.RecordTokenizer;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.UUID;
@@ -95,22 +96,23 @@ public class UnavailableDate implements Serializable {
                 String.valueOf(allDay),
                 startTime != null ? startTime : "",
                 endTime != null ? endTime : "",
-                reason != null ? reason : ""
+                RecordTokenizer.field(reason)
         );
     }
 
     public static UnavailableDate fromFileString(String fileString) {
-        String[] parts = fileString.split(",");
-        if (parts.length >= 4) {
+        RecordTokenizer tokenizer = new RecordTokenizer(fileString);
+        int fieldCount = tokenizer.countFields();
+        if (fieldCount >= 4) {
             UnavailableDate date = new UnavailableDate();
-            date.setId(parts[0]);
-            date.setPhotographerId(parts[1]);
-            date.setDate(LocalDate.parse(parts[2]));
-            date.setAllDay(Boolean.parseBoolean(parts[3]));
-
-            if (parts.length > 4) date.setStartTime(parts[4].isEmpty() ? null : parts[4]);
-            if (parts.length > 5) date.setEndTime(parts[5].isEmpty() ? null : parts[5]);
-            if (parts.length > 6) date.setReason(parts[6].isEmpty() ? null : parts[6]);
+            date.setId(tokenizer.next());
+            date.setPhotographerId(tokenizer.next());
+            date.setDate(tokenizer.nextDate());
+            date.setAllDay(tokenizer.nextBoolean());
+
+            if (fieldCount > 4) date.setStartTime(tokenizer.nextOrNull());
+            if (fieldCount > 5) date.setEndTime(tokenizer.nextOrNull());
+            if (fieldCount > 6) date.setReason(tokenizer.nextOrNull());
 
             return date;
         }
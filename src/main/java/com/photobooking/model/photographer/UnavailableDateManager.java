@@ -1,23 +1,63 @@
 package com.photobooking.model.photographer;
 
 import com.photobooking.util.FileHandler;
+import com.photobooking.util.MappedRecordReader;
+import com.photobooking.util.RecordLog;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 import java.util.logging.Logger;
 import java.util.logging.Level;
-import java.util.stream.Collectors;
 
 /*
  * Manages photographer unavailable dates
+ *
+ * Single blocked dates are indexed per photographer in a TreeMap keyed by date. Recurring blocks
+ * (every Sunday, every day of a date range) are stored once as UnavailabilityRule records in their
+ * own file and expanded into dates only when a date or a date range is queried.
  */
 public class UnavailableDateManager {
     private static final Logger LOGGER = Logger.getLogger(UnavailableDateManager.class.getName());
     private static final String UNAVAILABLE_DATES_FILE = "unavailable_dates.txt";
-    private List<UnavailableDate> unavailableDates;
+    private static final String UNAVAILABLE_RULES_FILE = "unavailable_rules.txt";
+
+    // Unavailable dates by ID, in file order
+    private final Map<String, UnavailableDate> unavailableDates = new LinkedHashMap<>();
+
+    // Unavailable dates of each photographer by date
+    private final Map<String, NavigableMap<LocalDate, List<UnavailableDate>>> byPhotographer = new HashMap<>();
+
+    // Recurring rules by ID, in file order
+    private final Map<String, UnavailabilityRule> rules = new LinkedHashMap<>();
+
+    // Recurring rules of each photographer
+    private final Map<String, List<UnavailabilityRule>> rulesByPhotographer = new HashMap<>();
+
+    private RecordLog recordLog;
+    private RecordLog rulesLog;
+
+    // Slot bitmaps kept in step with the unavailable dates, null until attached
+    private AvailabilityCalendar calendar;
 
     public UnavailableDateManager() {
-        this.unavailableDates = loadUnavailableDates();
+        // Use the append-only record log when log-structured storage is enabled
+        if (RecordLog.isEnabled()) {
+            this.recordLog = new RecordLog(UNAVAILABLE_DATES_FILE);
+            this.rulesLog = new RecordLog(UNAVAILABLE_RULES_FILE);
+        }
+
+        for (UnavailableDate date : loadUnavailableDates()) {
+            index(date);
+        }
+        for (UnavailabilityRule rule : loadRules()) {
+            indexRule(rule);
+        }
     }
 
     /**
@@ -29,21 +69,13 @@ public class UnavailableDateManager {
             // Ensure file exists
             FileHandler.ensureFileExists(UNAVAILABLE_DATES_FILE);
 
-            // Read lines from file
-            List<String> lines = FileHandler.readLines(UNAVAILABLE_DATES_FILE);
-            List<UnavailableDate> dates = new ArrayList<>();
-
-            for (String line : lines) {
-                if (!line.trim().isEmpty()) {
-                    try {
-                        UnavailableDate date = UnavailableDate.fromFileString(line);
-                        if (date != null) {
-                            dates.add(date);
-                        }
-                    } catch (Exception e) {
-                        LOGGER.log(Level.WARNING, "Error parsing unavailable date: " + line, e);
-                    }
-                }
+            // Parse records straight out of the memory-mapped file; unreadable records are logged and skipped
+            List<UnavailableDate> dates = MappedRecordReader.load(UNAVAILABLE_DATES_FILE,
+                    UnavailableDate::fromFileString);
+
+            // Apply changes appended to the record log since the last snapshot
+            if (recordLog != null) {
+                dates = recordLog.replay(dates, UnavailableDate::fromFileString, UnavailableDate::getId);
             }
 
             LOGGER.info("Loaded " + dates.size() + " unavailable dates");
@@ -54,25 +86,144 @@ public class UnavailableDateManager {
         }
     }
 
+    /**
+     * Load recurring unavailability rules from file
+     * @return List of rules
+     */
+    private List<UnavailabilityRule> loadRules() {
+        try {
+            FileHandler.ensureFileExists(UNAVAILABLE_RULES_FILE);
+
+            List<UnavailabilityRule> loadedRules = MappedRecordReader.load(UNAVAILABLE_RULES_FILE,
+                    UnavailabilityRule::fromFileString);
+
+            if (rulesLog != null) {
+                loadedRules = rulesLog.replay(loadedRules, UnavailabilityRule::fromFileString,
+                        UnavailabilityRule::getId);
+            }
+
+            LOGGER.info("Loaded " + loadedRules.size() + " unavailability rules");
+            return loadedRules;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error loading unavailability rules", e);
+            return new ArrayList<>();
+        }
+    }
+
     /**
      * Save unavailable dates to file
      * @return true if save was successful, false otherwise
      */
     private boolean saveUnavailableDates() {
-        try {
-            // Delete existing file
-            FileHandler.deleteFile(UNAVAILABLE_DATES_FILE);
+        // Atomically replace the file: stream to a temp file, force it to disk and rename
+        boolean result = FileHandler.commitRecords(UNAVAILABLE_DATES_FILE, unavailableDates.values(),
+                UnavailableDate::toFileString);
 
-            // Write each unavailable date
-            for (UnavailableDate date : unavailableDates) {
-                FileHandler.appendLine(UNAVAILABLE_DATES_FILE, date.toFileString());
-            }
+        if (result) {
             LOGGER.info("Successfully saved " + unavailableDates.size() + " unavailable dates");
-            return true;
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error saving unavailable dates", e);
-            return false;
+        } else {
+            LOGGER.warning("Failed to save unavailable dates");
+        }
+
+        return result;
+    }
+
+    /**
+     * Save unavailability rules to file
+     * @return true if save was successful, false otherwise
+     */
+    private boolean saveRules() {
+        boolean result = FileHandler.commitRecords(UNAVAILABLE_RULES_FILE, rules.values(),
+                UnavailabilityRule::toFileString);
+
+        if (result) {
+            LOGGER.info("Successfully saved " + rules.size() + " unavailability rules");
+        } else {
+            LOGGER.warning("Failed to save unavailability rules");
+        }
+
+        return result;
+    }
+
+    /**
+     * Persist created unavailable dates
+     * @param dates The unavailable dates that were added
+     * @return true if successful, false otherwise
+     */
+    private boolean persistUnavailableDates(List<UnavailableDate> dates) {
+        if (recordLog != null) {
+            List<String> entries = new ArrayList<>(dates.size());
+            for (UnavailableDate date : dates) {
+                entries.add(RecordLog.putEntry(date.toFileString()));
+            }
+            return recordLog.appendEntries(entries);
+        }
+        return saveUnavailableDates();
+    }
+
+    /**
+     * Persist the removal of an unavailable date
+     * @param dateId The ID of the removed unavailable date
+     * @return true if successful, false otherwise
+     */
+    private boolean persistUnavailableDateRemoval(String dateId) {
+        if (recordLog != null) {
+            return recordLog.appendDelete(dateId);
+        }
+        return saveUnavailableDates();
+    }
+
+    /**
+     * Persist a created rule
+     * @param rule The rule that was added
+     * @return true if successful, false otherwise
+     */
+    private boolean persistRule(UnavailabilityRule rule) {
+        if (rulesLog != null) {
+            return rulesLog.appendPut(rule.toFileString());
+        }
+        return saveRules();
+    }
+
+    /**
+     * Persist the removal of a rule
+     * @param ruleId The ID of the removed rule
+     * @return true if successful, false otherwise
+     */
+    private boolean persistRuleRemoval(String ruleId) {
+        if (rulesLog != null) {
+            return rulesLog.appendDelete(ruleId);
         }
+        return saveRules();
+    }
+
+    /**
+     * Keep the shared slot bitmaps in step with the unavailable dates and rules
+     * @param calendar The availability calendar
+     */
+    public synchronized void attachCalendar(AvailabilityCalendar calendar) {
+        this.calendar = calendar;
+        for (UnavailableDate date : unavailableDates.values()) {
+            calendar.putBlock(date);
+        }
+        for (UnavailabilityRule rule : rules.values()) {
+            calendar.putRule(rule);
+        }
+    }
+
+    /**
+     * Write a fresh snapshot of all unavailable dates and rules and truncate the record logs
+     * @return true if a log was compacted, false if there was nothing to do
+     */
+    public synchronized boolean compactLog() {
+        boolean compacted = false;
+        if (recordLog != null && recordLog.needsCompaction()) {
+            compacted = saveUnavailableDates() && recordLog.truncate();
+        }
+        if (rulesLog != null && rulesLog.needsCompaction()) {
+            compacted = (saveRules() && rulesLog.truncate()) || compacted;
+        }
+        return compacted;
     }
 
     /**
@@ -80,45 +231,152 @@ public class UnavailableDateManager {
      * @param date UnavailableDate to add
      * @return true if added successfully, false otherwise
      */
-    public boolean addUnavailableDate(UnavailableDate date) {
-        // Check for duplicates
-        boolean exists = unavailableDates.stream()
-                .anyMatch(existingDate ->
-                        existingDate.getPhotographerId().equals(date.getPhotographerId()) &&
-                                existingDate.getDate().equals(date.getDate()) &&
-                                existingDate.isAllDay() == date.isAllDay()
-                );
-
-        if (exists) {
+    public synchronized boolean addUnavailableDate(UnavailableDate date) {
+        if (isDuplicate(date)) {
             LOGGER.info("Duplicate unavailable date not added");
             return false;
         }
 
-        unavailableDates.add(date);
-        return saveUnavailableDates();
+        addToIndexes(date);
+        if (!persistUnavailableDates(Collections.singletonList(date))) {
+            LOGGER.warning("Failed to persist unavailable date " + date.getId());
+            removeFromIndexes(date.getId());
+            return false;
+        }
+        return true;
     }
 
     /**
-     * Get all unavailable dates for a photographer
+     * Add several unavailable dates, e.g. every day of a blocked range, committed with a single write.
+     * Dates that duplicate an existing entry are skipped.
+     * @param dates Unavailable dates to add
+     * @return The dates that were added, empty if none were or the write failed
+     */
+    public synchronized List<UnavailableDate> addUnavailableDates(List<UnavailableDate> dates) {
+        List<UnavailableDate> added = new ArrayList<>();
+        for (UnavailableDate date : dates) {
+            if (!isDuplicate(date)) {
+                addToIndexes(date);
+                added.add(date);
+            }
+        }
+
+        if (added.isEmpty()) {
+            return added;
+        }
+        if (!persistUnavailableDates(added)) {
+            LOGGER.warning("Failed to persist " + added.size() + " unavailable dates");
+            for (UnavailableDate date : added) {
+                removeFromIndexes(date.getId());
+            }
+            return new ArrayList<>();
+        }
+
+        LOGGER.info("Blocked " + added.size() + " dates in one commit");
+        return added;
+    }
+
+    /**
+     * Add a recurring unavailability rule
+     * @param rule The rule to add
+     * @return true if added successfully, false otherwise
+     */
+    public synchronized boolean addRule(UnavailabilityRule rule) {
+        if (rule == null || rule.getPhotographerId() == null || rule.getType() == null
+                || rule.getStartDate() == null) {
+            return false;
+        }
+        if (rule.getType() == UnavailabilityRule.RuleType.WEEKLY && rule.getDayOfWeek() == null) {
+            return false;
+        }
+        if (rule.getType() == UnavailabilityRule.RuleType.DATE_RANGE && rule.getEndDate() == null) {
+            return false;
+        }
+
+        indexRule(rule);
+        if (calendar != null) {
+            calendar.putRule(rule);
+        }
+        if (!persistRule(rule)) {
+            LOGGER.warning("Failed to persist unavailability rule " + rule.getId());
+            removeRule(rule.getId());
+            if (calendar != null) {
+                calendar.remove(rule.getId());
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Get the recurring unavailability rules of a photographer
+     * @param photographerId Photographer's ID
+     * @return List of rules
+     */
+    public synchronized List<UnavailabilityRule> getRulesForPhotographer(String photographerId) {
+        List<UnavailabilityRule> photographerRules = rulesByPhotographer.get(photographerId);
+        return photographerRules != null ? new ArrayList<>(photographerRules) : new ArrayList<>();
+    }
+
+    /**
+     * Get all unavailable dates for a photographer, in date order.
+     * Recurring rules are not expanded; see getRulesForPhotographer.
      * @param photographerId Photographer's ID
      * @return List of unavailable dates
      */
-    public List<UnavailableDate> getUnavailableDatesForPhotographer(String photographerId) {
-        return unavailableDates.stream()
-                .filter(date -> date.getPhotographerId().equals(photographerId))
-                .collect(Collectors.toList());
+    public synchronized List<UnavailableDate> getUnavailableDatesForPhotographer(String photographerId) {
+        List<UnavailableDate> result = new ArrayList<>();
+        NavigableMap<LocalDate, List<UnavailableDate>> dates = byPhotographer.get(photographerId);
+        if (dates != null) {
+            for (List<UnavailableDate> onDate : dates.values()) {
+                result.addAll(onDate);
+            }
+        }
+        return result;
     }
 
     /**
-     * Remove an unavailable date by its ID
-     * @param dateId ID of the unavailable date to remove
+     * Get the unavailable dates of a photographer in a date range, with recurring rules expanded
+     * @param photographerId Photographer's ID
+     * @param from First date of the range
+     * @param to Last date of the range
+     * @return List of unavailable dates in date order
+     */
+    public synchronized List<UnavailableDate> getUnavailableDatesForPhotographer(String photographerId,
+                                                                                 LocalDate from, LocalDate to) {
+        List<UnavailableDate> result = new ArrayList<>();
+        NavigableMap<LocalDate, List<UnavailableDate>> dates = byPhotographer.get(photographerId);
+        List<UnavailabilityRule> photographerRules = getRulesForPhotographer(photographerId);
+
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            List<UnavailableDate> onDate = dates != null ? dates.get(date) : null;
+            if (onDate != null) {
+                result.addAll(onDate);
+            }
+            for (UnavailabilityRule rule : photographerRules) {
+                if (rule.appliesTo(date)) {
+                    result.add(rule.toOccurrence(date));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Remove an unavailable date or a recurring rule by its ID
+     * @param dateId ID of the unavailable date or rule to remove
      * @return true if removed successfully, false otherwise
      */
-    public boolean removeUnavailableDate(String dateId) {
-        boolean removed = unavailableDates.removeIf(date -> date.getId().equals(dateId));
+    public synchronized boolean removeUnavailableDate(String dateId) {
+        if (removeRule(dateId) != null) {
+            if (calendar != null) {
+                calendar.remove(dateId);
+            }
+            return persistRuleRemoval(dateId);
+        }
 
-        if (removed) {
-            return saveUnavailableDates();
+        if (removeFromIndexes(dateId) != null) {
+            return persistUnavailableDateRemoval(dateId);
         }
 
         return false;
@@ -130,12 +388,97 @@ public class UnavailableDateManager {
      * @param date Date to check
      * @return true if date is unavailable, false otherwise
      */
-    public boolean isDateUnavailable(String photographerId, LocalDate date) {
-        return unavailableDates.stream()
-                .anyMatch(ud ->
-                        ud.getPhotographerId().equals(photographerId) &&
-                                ud.getDate().equals(date) &&
-                                ud.isAllDay()
-                );
+    public synchronized boolean isDateUnavailable(String photographerId, LocalDate date) {
+        NavigableMap<LocalDate, List<UnavailableDate>> dates = byPhotographer.get(photographerId);
+        List<UnavailableDate> onDate = dates != null ? dates.get(date) : null;
+        if (onDate != null) {
+            for (UnavailableDate ud : onDate) {
+                if (ud.isAllDay()) {
+                    return true;
+                }
+            }
+        }
+
+        List<UnavailabilityRule> photographerRules = rulesByPhotographer.get(photographerId);
+        if (photographerRules != null) {
+            for (UnavailabilityRule rule : photographerRules) {
+                if (rule.isAllDay() && rule.appliesTo(date)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check for an existing entry on the same date with the same all-day flag
+     */
+    private boolean isDuplicate(UnavailableDate date) {
+        NavigableMap<LocalDate, List<UnavailableDate>> dates = byPhotographer.get(date.getPhotographerId());
+        List<UnavailableDate> onDate = dates != null ? dates.get(date.getDate()) : null;
+        if (onDate != null) {
+            for (UnavailableDate existingDate : onDate) {
+                if (existingDate.isAllDay() == date.isAllDay()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void addToIndexes(UnavailableDate date) {
+        index(date);
+        if (calendar != null) {
+            calendar.putBlock(date);
+        }
+    }
+
+    private void index(UnavailableDate date) {
+        unavailableDates.put(date.getId(), date);
+        byPhotographer.computeIfAbsent(date.getPhotographerId(), k -> new TreeMap<>())
+                .computeIfAbsent(date.getDate(), k -> new ArrayList<>(1))
+                .add(date);
+    }
+
+    private void indexRule(UnavailabilityRule rule) {
+        removeRule(rule.getId());
+        rules.put(rule.getId(), rule);
+        rulesByPhotographer.computeIfAbsent(rule.getPhotographerId(), k -> new ArrayList<>(1)).add(rule);
+    }
+
+    private UnavailabilityRule removeRule(String ruleId) {
+        UnavailabilityRule rule = rules.remove(ruleId);
+        if (rule == null) {
+            return null;
+        }
+
+        List<UnavailabilityRule> photographerRules = rulesByPhotographer.get(rule.getPhotographerId());
+        photographerRules.remove(rule);
+        if (photographerRules.isEmpty()) {
+            rulesByPhotographer.remove(rule.getPhotographerId());
+        }
+        return rule;
+    }
+
+    private UnavailableDate removeFromIndexes(String dateId) {
+        UnavailableDate date = unavailableDates.remove(dateId);
+        if (date == null) {
+            return null;
+        }
+
+        NavigableMap<LocalDate, List<UnavailableDate>> dates = byPhotographer.get(date.getPhotographerId());
+        List<UnavailableDate> onDate = dates.get(date.getDate());
+        onDate.remove(date);
+        if (onDate.isEmpty()) {
+            dates.remove(date.getDate());
+            if (dates.isEmpty()) {
+                byPhotographer.remove(date.getPhotographerId());
+            }
+        }
+
+        if (calendar != null) {
+            calendar.remove(dateId);
+        }
+        return date;
     }
-}
\ No newline at end of file
+}
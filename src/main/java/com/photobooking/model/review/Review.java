@@ -1,5 +1,6 @@
 package com.photobooking.model.review;
 
+import com.photobooking.util.RecordTokenizer;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -134,33 +135,37 @@ public class Review implements Serializable {
                 clientId,
                 bookingId != null ? bookingId : "",
                 String.valueOf(rating),
-                comment.replace(",", ";;"),
+                RecordTokenizer.field(comment),
                 reviewDate.toString(),
-                serviceType,
+                RecordTokenizer.field(serviceType),
                 String.valueOf(verified),
                 String.valueOf(hasResponse),
-                responseText != null ? responseText.replace(",", ";;") : "",
+                RecordTokenizer.field(responseText),
                 responseDate != null ? responseDate.toString() : ""
         );
     }
 
     public static Review fromFileString(String fileString) {
-        String[] parts = fileString.split(",");
-        if (parts.length >= 9) {
+        RecordTokenizer tokenizer = new RecordTokenizer(fileString);
+        int fieldCount = tokenizer.countFields();
+        if (fieldCount >= 9) {
             Review review = new Review();
-            review.setReviewId(parts[0]);
-            review.setPhotographerId(parts[1]);
-            review.setClientId(parts[2]);
-            review.setBookingId(parts[3].isEmpty() ? null : parts[3]);
-            review.setRating(Integer.parseInt(parts[4]));
-            review.setComment(parts[5].replace(";;", ","));
-            review.setReviewDate(LocalDateTime.parse(parts[6]));
-            review.setServiceType(parts[7]);
-            review.setVerified(Boolean.parseBoolean(parts[8]));
-
-            if (parts.length > 9) review.setHasResponse(Boolean.parseBoolean(parts[9]));
-            if (parts.length > 10) review.setResponseText(parts[10].replace(";;", ","));
-            if (parts.length > 11 && !parts[11].isEmpty()) review.setResponseDate(LocalDateTime.parse(parts[11]));
+            review.setReviewId(tokenizer.next());
+            review.setPhotographerId(tokenizer.next());
+            review.setClientId(tokenizer.next());
+            review.setBookingId(tokenizer.nextOrNull());
+            review.setRating(tokenizer.nextInt());
+            review.setComment(tokenizer.nextText());
+            review.setReviewDate(tokenizer.nextDateTime());
+            review.setServiceType(tokenizer.next());
+            review.setVerified(tokenizer.nextBoolean());
+
+            if (fieldCount > 9) review.setHasResponse(tokenizer.nextBoolean());
+            if (fieldCount > 10) review.setResponseText(tokenizer.nextTextOrNull());
+            if (fieldCount > 11) {
+                String responseDate = tokenizer.next();
+                if (!responseDate.isEmpty()) review.setResponseDate(LocalDateTime.parse(responseDate));
+            }
 
             return review;
         }
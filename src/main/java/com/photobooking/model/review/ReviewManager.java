@@ -1,12 +1,13 @@
 package com.photobooking.model.review;
 
 import com.photobooking.util.FileHandler;
+import com.photobooking.util.MappedRecordReader;
+import com.photobooking.util.RecordLog;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.time.LocalDateTime;
 import java.util.logging.Logger;
-import java.util.logging.Level;
 
 /**
  * Manages reviews for photographers
@@ -15,26 +16,27 @@ public class ReviewManager {
     private static final Logger LOGGER = Logger.getLogger(ReviewManager.class.getName());
     private static final String REVIEWS_FILE = "reviews.txt";
     private List<Review> reviews;
+    private RecordLog recordLog;
 
     public ReviewManager() {
+        // Use the append-only record log when log-structured storage is enabled
+        if (RecordLog.isEnabled()) {
+            this.recordLog = new RecordLog(REVIEWS_FILE);
+        }
+
         this.reviews = loadReviews();
     }
 
-    // Changed from private to public to allow access from ViewReviewsServlet
-    public List<Review> loadReviews() {
+    private List<Review> loadReviews() {
         // Ensure file exists
         FileHandler.ensureFileExists(REVIEWS_FILE);
 
-        List<String> lines = FileHandler.readLines(REVIEWS_FILE);
-        List<Review> loadedReviews = new ArrayList<>();
+        // Parse records straight out of the memory-mapped file
+        List<Review> loadedReviews = MappedRecordReader.load(REVIEWS_FILE, Review::fromFileString);
 
-        for (String line : lines) {
-            if (!line.trim().isEmpty()) {
-                Review review = Review.fromFileString(line);
-                if (review != null) {
-                    loadedReviews.add(review);
-                }
-            }
+        // Apply changes appended to the record log since the last snapshot
+        if (recordLog != null) {
+            loadedReviews = recordLog.replay(loadedReviews, Review::fromFileString, Review::getReviewId);
         }
 
         LOGGER.info("Loaded " + loadedReviews.size() + " reviews from file");
@@ -42,41 +44,51 @@ public class ReviewManager {
     }
 
     private boolean saveReviews() {
-        try {
-            // Create a backup first
-            if (FileHandler.fileExists(REVIEWS_FILE)) {
-                FileHandler.copyFile(REVIEWS_FILE, REVIEWS_FILE + ".bak");
-            }
+        // Atomically replace the file: stream to a temp file, force it to disk and rename
+        boolean result = FileHandler.commitRecords(REVIEWS_FILE, reviews, Review::toFileString);
 
-            // Delete existing file content
-            FileHandler.deleteFile(REVIEWS_FILE);
-
-            // Ensure file exists after deletion
-            FileHandler.ensureFileExists(REVIEWS_FILE);
+        if (result) {
+            LOGGER.info("Successfully saved " + reviews.size() + " reviews");
+        } else {
+            LOGGER.warning("Failed to save reviews");
+        }
 
-            // Write all reviews at once
-            StringBuilder contentToWrite = new StringBuilder();
-            for (Review review : reviews) {
-                contentToWrite.append(review.toFileString()).append(System.lineSeparator());
-            }
+        return result;
+    }
 
-            boolean result = FileHandler.writeToFile(REVIEWS_FILE, contentToWrite.toString(), false);
+    /**
+     * Persist a created or updated review
+     * @param review The review that changed
+     * @return true if successful, false otherwise
+     */
+    private boolean persistReview(Review review) {
+        if (recordLog != null) {
+            return recordLog.appendPut(review.toFileString());
+        }
+        return saveReviews();
+    }
 
-            if (result) {
-                LOGGER.info("Successfully saved " + reviews.size() + " reviews");
-            } else {
-                LOGGER.warning("Failed to save reviews");
-                // Restore from backup
-                if (FileHandler.fileExists(REVIEWS_FILE + ".bak")) {
-                    FileHandler.copyFile(REVIEWS_FILE + ".bak", REVIEWS_FILE);
-                }
-            }
+    /**
+     * Persist the removal of a review
+     * @param reviewId The ID of the removed review
+     * @return true if successful, false otherwise
+     */
+    private boolean persistReviewRemoval(String reviewId) {
+        if (recordLog != null) {
+            return recordLog.appendDelete(reviewId);
+        }
+        return saveReviews();
+    }
 
-            return result;
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error saving reviews: " + e.getMessage(), e);
+    /**
+     * Write a fresh snapshot of all reviews and truncate the record log
+     * @return true if the log was compacted, false if there was nothing to do
+     */
+    public synchronized boolean compactLog() {
+        if (recordLog == null || !recordLog.needsCompaction()) {
             return false;
         }
+        return saveReviews() && recordLog.truncate();
     }
 
     /**
@@ -84,7 +96,7 @@ public class ReviewManager {
      * @param review The review to add
      * @return true if successful, false otherwise
      */
-    public boolean addReview(Review review) {
+    public synchronized boolean addReview(Review review) {
         // Check if user already has a review for this photographer
         Review existingReview = getReviewByClientAndPhotographer(review.getClientId(), review.getPhotographerId());
         if (existingReview != null) {
@@ -92,7 +104,17 @@ public class ReviewManager {
         }
 
         reviews.add(review);
-        return saveReviews();
+        return persistReview(review);
+    }
+
+    /**
+     * Get all reviews
+     * @return List of all reviews, sorted by date (newest first)
+     */
+    public synchronized List<Review> getAllReviews() {
+        return reviews.stream()
+                .sorted((r1, r2) -> r2.getReviewDate().compareTo(r1.getReviewDate()))
+                .collect(Collectors.toList());
     }
 
     /**
@@ -100,7 +122,7 @@ public class ReviewManager {
      * @param reviewId The review ID
      * @return The review, or null if not found
      */
-    public Review getReviewById(String reviewId) {
+    public synchronized Review getReviewById(String reviewId) {
         if (reviewId == null) return null;
 
         return reviews.stream()
@@ -115,7 +137,7 @@ public class ReviewManager {
      * @param photographerId The photographer ID
      * @return The review, or null if not found
      */
-    public Review getReviewByClientAndPhotographer(String clientId, String photographerId) {
+    public synchronized Review getReviewByClientAndPhotographer(String clientId, String photographerId) {
         if (clientId == null || photographerId == null) return null;
 
         return reviews.stream()
@@ -129,7 +151,7 @@ public class ReviewManager {
      * @param photographerId The photographer ID
      * @return List of reviews, sorted by date (newest first)
      */
-    public List<Review> getPhotographerReviews(String photographerId) {
+    public synchronized List<Review> getPhotographerReviews(String photographerId) {
         if (photographerId == null) return new ArrayList<>();
 
         return reviews.stream()
@@ -143,7 +165,7 @@ public class ReviewManager {
      * @param clientId The client ID
      * @return List of reviews, sorted by date (newest first)
      */
-    public List<Review> getClientReviews(String clientId) {
+    public synchronized List<Review> getClientReviews(String clientId) {
         if (clientId == null) return new ArrayList<>();
 
         return reviews.stream()
@@ -157,7 +179,7 @@ public class ReviewManager {
      * @param updatedReview The updated review
      * @return true if successful, false otherwise
      */
-    public boolean updateReview(Review updatedReview) {
+    public synchronized boolean updateReview(Review updatedReview) {
         if (updatedReview == null || updatedReview.getReviewId() == null) {
             return false;
         }
@@ -165,7 +187,7 @@ public class ReviewManager {
         for (int i = 0; i < reviews.size(); i++) {
             if (reviews.get(i).getReviewId().equals(updatedReview.getReviewId())) {
                 reviews.set(i, updatedReview);
-                return saveReviews();
+                return persistReview(updatedReview);
             }
         }
 
@@ -177,14 +199,14 @@ public class ReviewManager {
      * @param reviewId The review ID
      * @return true if successful, false otherwise
      */
-    public boolean deleteReview(String reviewId) {
+    public synchronized boolean deleteReview(String reviewId) {
         if (reviewId == null) {
             return false;
         }
 
         boolean removed = reviews.removeIf(r -> r.getReviewId().equals(reviewId));
         if (removed) {
-            return saveReviews();
+            return persistReviewRemoval(reviewId);
         }
 
         return false; // Review not found
@@ -195,7 +217,7 @@ public class ReviewManager {
      * @param photographerId The photographer ID
      * @return Average rating (0.0 to 5.0), or 0.0 if no reviews
      */
-    public double getAverageRating(String photographerId) {
+    public synchronized double getAverageRating(String photographerId) {
         List<Review> photographerReviews = getPhotographerReviews(photographerId);
         if (photographerReviews.isEmpty()) {
             return 0.0;
@@ -212,7 +234,7 @@ public class ReviewManager {
      * @param photographerId The photographer ID
      * @return Array with count of ratings [1,2,3,4,5]
      */
-    public int[] getRatingDistribution(String photographerId) {
+    public synchronized int[] getRatingDistribution(String photographerId) {
         int[] distribution = new int[5]; // For ratings 1-5
 
         getPhotographerReviews(photographerId).forEach(review -> {
@@ -229,7 +251,7 @@ public class ReviewManager {
      * @param photographerId The photographer ID
      * @return Total number of reviews
      */
-    public int getReviewCount(String photographerId) {
+    public synchronized int getReviewCount(String photographerId) {
         return getPhotographerReviews(photographerId).size();
     }
 
@@ -239,7 +261,7 @@ public class ReviewManager {
      * @param responseText The response text
      * @return true if successful, false otherwise
      */
-    public boolean addResponseToReview(String reviewId, String responseText) {
+    public synchronized boolean addResponseToReview(String reviewId, String responseText) {
         Review review = getReviewById(reviewId);
         if (review == null) {
             return false;
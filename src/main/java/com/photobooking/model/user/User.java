@@ -1,5 +1,6 @@
 package com.photobooking.model.user;
 
+import com.photobooking.util.RecordTokenizer;
 import java.io.Serializable;
 import java.util.UUID;
 
@@ -105,10 +106,10 @@ public class User implements Serializable {
     public String toFileString() {
         return String.join(",",
                 userId,
-                username,
-                password,
-                email,
-                fullName,
+                RecordTokenizer.field(username),
+                RecordTokenizer.field(password),
+                RecordTokenizer.field(email),
+                RecordTokenizer.field(fullName),
                 userType.name(),
                 String.valueOf(isActive)
         );
@@ -116,16 +117,16 @@ public class User implements Serializable {
 
     // Create user from file string
     public static User fromFileString(String fileString) {
-        String[] parts = fileString.split(",");
-        if (parts.length >= 7) {
+        RecordTokenizer tokenizer = new RecordTokenizer(fileString);
+        if (tokenizer.countFields() >= 7) {
             User user = new User();
-            user.setUserId(parts[0]);
-            user.setUsername(parts[1]);
-            user.setPassword(parts[2]);
-            user.setEmail(parts[3]);
-            user.setFullName(parts[4]);
-            user.setUserType(UserType.valueOf(parts[5]));
-            user.setActive(Boolean.parseBoolean(parts[6]));
+            user.setUserId(tokenizer.next());
+            user.setUsername(tokenizer.next());
+            user.setPassword(tokenizer.next());
+            user.setEmail(tokenizer.next());
+            user.setFullName(tokenizer.next());
+            user.setUserType(tokenizer.nextEnum(UserType.class));
+            user.setActive(tokenizer.nextBoolean());
             return user;
         }
         return null;
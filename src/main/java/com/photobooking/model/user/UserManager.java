@@ -7,6 +7,8 @@ import java.util.stream.Collectors;
 import javax.servlet.ServletContext;
 
 import com.photobooking.util.FileHandler;
+import com.photobooking.util.MappedRecordReader;
+import com.photobooking.util.RecordLog;
 import com.photobooking.util.ValidationUtil;
 
 /**
@@ -16,6 +18,7 @@ public class UserManager {
     private static final String USER_FILE_NAME = "users.txt";
     private List<User> users;
     private ServletContext servletContext;
+    private RecordLog recordLog;
 
     // Constructors
     public UserManager() {
@@ -31,6 +34,11 @@ public class UserManager {
             FileHandler.setServletContext(servletContext);
         }
 
+        // Use the append-only record log when log-structured storage is enabled
+        if (RecordLog.isEnabled()) {
+            this.recordLog = new RecordLog(USER_FILE_NAME);
+        }
+
         loadUsers();
     }
 
@@ -39,16 +47,14 @@ public class UserManager {
         // Ensure file exists
         FileHandler.ensureFileExists(USER_FILE_NAME);
 
-        // Read lines from file
-        List<String> lines = FileHandler.readLines(USER_FILE_NAME);
+        // Parse records straight out of the memory-mapped file
+        users.addAll(MappedRecordReader.load(USER_FILE_NAME, User::fromFileString));
 
-        for (String line : lines) {
-            if (line.trim().isEmpty()) continue;
-
-            User user = User.fromFileString(line);
-            if (user != null) {
-                users.add(user);
-            }
+        // Apply changes appended to the record log since the last snapshot
+        if (recordLog != null) {
+            List<User> replayed = recordLog.replay(users, User::fromFileString, User::getUserId);
+            users.clear();
+            users.addAll(replayed);
         }
 
         System.out.println("Total users loaded: " + users.size());
@@ -56,19 +62,36 @@ public class UserManager {
 
     // Save users to file
     private boolean saveUsers() {
-        // Delete existing file content
-        FileHandler.deleteFile(USER_FILE_NAME);
+        // Atomically replace the file: stream to a temp file, force it to disk and rename
+        return FileHandler.commitRecords(USER_FILE_NAME, users, User::toFileString);
+    }
 
-        // Write each user to file
-        for (User user : users) {
-            FileHandler.appendLine(USER_FILE_NAME, user.toFileString());
+    // Persist a created or updated user
+    private boolean persistUser(User user) {
+        if (recordLog != null) {
+            return recordLog.appendPut(user.toFileString());
+        }
+        return saveUsers();
+    }
+
+    // Persist the removal of a user
+    private boolean persistUserRemoval(String userId) {
+        if (recordLog != null) {
+            return recordLog.appendDelete(userId);
         }
+        return saveUsers();
+    }
 
-        return true;
+    // Write a fresh snapshot of all users and truncate the record log
+    public synchronized boolean compactLog() {
+        if (recordLog == null || !recordLog.needsCompaction()) {
+            return false;
+        }
+        return saveUsers() && recordLog.truncate();
     }
 
     // Add a new user
-    public boolean addUser(User user) {
+    public synchronized boolean addUser(User user) {
         // Validate input
         if (!validateUserInput(user)) {
             return false;
@@ -82,7 +105,7 @@ public class UserManager {
 
         // Add user
         users.add(user);
-        return saveUsers();
+        return persistUser(user);
     }
 
     // Validate user input
@@ -109,7 +132,7 @@ public class UserManager {
     }
 
     // Get user by ID
-    public User getUserById(String userId) {
+    public synchronized User getUserById(String userId) {
         for (User user : users) {
             if (user.getUserId().equals(userId)) {
                 return user;
@@ -119,7 +142,7 @@ public class UserManager {
     }
 
     // Get user by username
-    public User getUserByUsername(String username) {
+    public synchronized User getUserByUsername(String username) {
         for (User user : users) {
             if (user.getUsername().equals(username)) {
                 return user;
@@ -129,7 +152,7 @@ public class UserManager {
     }
 
     // Update user details
-    public boolean updateUser(User updatedUser) {
+    public synchronized boolean updateUser(User updatedUser) {
         // Validate input
         if (!validateUserInput(updatedUser)) {
             return false;
@@ -139,7 +162,7 @@ public class UserManager {
         for (int i = 0; i < users.size(); i++) {
             if (users.get(i).getUserId().equals(updatedUser.getUserId())) {
                 users.set(i, updatedUser);
-                return saveUsers();
+                return persistUser(updatedUser);
             }
         }
 
@@ -147,7 +170,7 @@ public class UserManager {
     }
 
     // Delete user
-    public boolean deleteUser(String userId) {
+    public synchronized boolean deleteUser(String userId) {
         boolean removed = false;
         for (int i = 0; i < users.size(); i++) {
             if (users.get(i).getUserId().equals(userId)) {
@@ -156,11 +179,11 @@ public class UserManager {
                 break;
             }
         }
-        return removed && saveUsers();
+        return removed && persistUserRemoval(userId);
     }
 
     // Authenticate user
-    public User authenticateUser(String username, String password) {
+    public synchronized User authenticateUser(String username, String password) {
         User user = getUserByUsername(username);
         if (user != null && user.authenticate(password) && user.isActive()) {
             return user;
@@ -169,19 +192,19 @@ public class UserManager {
     }
 
     // Get all users
-    public List<User> getAllUsers() {
+    public synchronized List<User> getAllUsers() {
         return new ArrayList<>(users);
     }
 
     // Get users by type
-    public List<User> getUsersByType(User.UserType userType) {
+    public synchronized List<User> getUsersByType(User.UserType userType) {
         return users.stream()
                 .filter(user -> user.getUserType() == userType)
                 .collect(Collectors.toList());
     }
 
     // Set ServletContext (can be used to update the context after initialization)
-    public void setServletContext(ServletContext servletContext) {
+    public synchronized void setServletContext(ServletContext servletContext) {
         this.servletContext = servletContext;
 
         // Update FileHandler with the new ServletContext
@@ -14,6 +14,7 @@ import com.photobooking.model.booking.Booking;
 import com.photobooking.model.booking.BookingManager;
 import com.photobooking.model.user.User;
 import com.photobooking.util.ValidationUtil;
+import com.photobooking.util.ManagerRegistry;
 
 /**
  * Servlet for handling booking cancellations
@@ -48,7 +49,7 @@ public class BookingCancelServlet extends HttpServlet {
             }
 
             // Get booking manager and retrieve booking
-            BookingManager bookingManager = new BookingManager();
+            BookingManager bookingManager = ManagerRegistry.getInstance(getServletContext()).getBookingManager();
             Booking booking = bookingManager.getBookingById(bookingId);
 
             if (booking == null) {
@@ -150,7 +151,7 @@ public class BookingCancelServlet extends HttpServlet {
         }
 
         // Get booking manager and retrieve booking
-        BookingManager bookingManager = new BookingManager();
+        BookingManager bookingManager = ManagerRegistry.getInstance(getServletContext()).getBookingManager();
         Booking booking = bookingManager.getBookingById(bookingId);
 
         if (booking == null) {
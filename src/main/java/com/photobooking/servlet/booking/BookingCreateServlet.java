@@ -21,6 +21,7 @@ import com.photobooking.model.photographer.PhotographerService;
 import com.photobooking.model.photographer.PhotographerServiceManager;
 import com.photobooking.model.user.User;
 import com.photobooking.util.ValidationUtil;
+import com.photobooking.util.ManagerRegistry;
 
 /**
  * Servlet for creating new bookings in the Event Photography System
@@ -103,7 +104,7 @@ public class BookingCreateServlet extends HttpServlet {
             }
 
             // Verify photographer exists
-            PhotographerManager photographerManager = new PhotographerManager(getServletContext());
+            PhotographerManager photographerManager = ManagerRegistry.getInstance(getServletContext()).getPhotographerManager();
             Photographer photographer = photographerManager.getPhotographerById(photographerId);
             if (photographer == null) {
                 session.setAttribute("errorMessage", "Selected photographer does not exist");
@@ -112,7 +113,7 @@ public class BookingCreateServlet extends HttpServlet {
             }
 
             // Verify service exists and belongs to the photographer
-            PhotographerServiceManager serviceManager = new PhotographerServiceManager(getServletContext());
+            PhotographerServiceManager serviceManager = ManagerRegistry.getInstance(getServletContext()).getServiceManager();
             PhotographerService service = serviceManager.getServiceById(serviceId);
             if (service == null || !service.getPhotographerId().equals(photographerId)) {
                 session.setAttribute("errorMessage", "Invalid service selected");
@@ -120,10 +121,10 @@ public class BookingCreateServlet extends HttpServlet {
                 return;
             }
 
-            // Check if photographer is available
-            BookingManager bookingManager = new BookingManager(getServletContext());
+            // Check if photographer is available; the client's own slot hold does not count against them
+            BookingManager bookingManager = ManagerRegistry.getInstance(getServletContext()).getBookingManager();
             boolean isAvailable = bookingManager.isPhotographerAvailable(
-                    photographer.getUserId(), eventDateTime, service.getDurationHours());
+                    photographer.getUserId(), eventDateTime, service.getDurationHours(), currentUser.getUserId());
 
             if (!isAvailable) {
                 session.setAttribute("errorMessage",
@@ -139,6 +140,7 @@ public class BookingCreateServlet extends HttpServlet {
             booking.setPhotographerId(photographer.getUserId());
             booking.setServiceId(serviceId);
             booking.setEventDateTime(eventDateTime);
+            booking.setDurationHours(service.getDurationHours());
             booking.setEventLocation(eventLocation);
             booking.setEventType(eventType);
             booking.setEventNotes(eventNotes);
@@ -12,6 +12,7 @@ import com.photobooking.model.booking.Booking;
 import com.photobooking.model.booking.BookingManager;
 import com.photobooking.model.user.User;
 import com.photobooking.model.user.UserManager;
+import com.photobooking.util.ManagerRegistry;
 
 @WebServlet("/booking/details")
 public class BookingDetailsServlet extends HttpServlet {
@@ -39,7 +40,7 @@ public class BookingDetailsServlet extends HttpServlet {
         User currentUser = (User) session.getAttribute("user");
 
         // Fetch booking details
-        BookingManager bookingManager = new BookingManager();
+        BookingManager bookingManager = ManagerRegistry.getInstance(getServletContext()).getBookingManager();
         Booking booking = bookingManager.getBookingById(bookingId);
 
         if (booking == null) {
@@ -58,7 +59,7 @@ public class BookingDetailsServlet extends HttpServlet {
         }
 
         // Fetch additional details for the booking
-        UserManager userManager = new UserManager(getServletContext());
+        UserManager userManager = ManagerRegistry.getInstance(getServletContext()).getUserManager();
         User client = userManager.getUserById(booking.getClientId());
         User photographer = userManager.getUserById(booking.getPhotographerId());
 
@@ -91,7 +92,7 @@ public class BookingDetailsServlet extends HttpServlet {
 
         try {
             Booking.BookingStatus newStatus = Booking.BookingStatus.valueOf(statusStr);
-            BookingManager bookingManager = new BookingManager();
+            BookingManager bookingManager = ManagerRegistry.getInstance(getServletContext()).getBookingManager();
             Booking booking = bookingManager.getBookingById(bookingId);
 
             // Verify user can update status
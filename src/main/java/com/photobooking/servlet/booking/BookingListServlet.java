@@ -12,6 +12,7 @@ import javax.servlet.http.HttpSession;
 import com.photobooking.model.booking.Booking;
 import com.photobooking.model.booking.BookingManager;
 import com.photobooking.model.user.User;
+import com.photobooking.util.ManagerRegistry;
 
 @WebServlet("/booking/list")
 public class BookingListServlet extends HttpServlet {
@@ -28,7 +29,7 @@ public class BookingListServlet extends HttpServlet {
         }
 
         User user = (User) session.getAttribute("user");
-        BookingManager bookingManager = new BookingManager();
+        BookingManager bookingManager = ManagerRegistry.getInstance(getServletContext()).getBookingManager();
         List<Booking> bookings;
 
         // Get bookings based on user type
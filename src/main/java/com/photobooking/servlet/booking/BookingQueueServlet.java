@@ -13,6 +13,7 @@ import javax.servlet.http.HttpSession;
 
 import com.photobooking.model.booking.Booking;
 import com.photobooking.model.booking.BookingQueueManager;
+import com.photobooking.model.booking.BookingSchedulingPolicy;
 import com.photobooking.model.user.User;
 import com.photobooking.util.ValidationUtil;
 import java.util.logging.Logger;
@@ -67,6 +68,11 @@ public class BookingQueueServlet extends HttpServlet {
 
             // Set attributes for JSP
             request.setAttribute("queuedBookings", queuedBookings);
+            if (currentUser.getUserType() == User.UserType.ADMIN) {
+                request.setAttribute("schedulingPolicy", queueManager.getSchedulingPolicy().getName());
+                request.setAttribute("schedulingPolicies", BookingQueueManager.POLICY_NAMES);
+                request.setAttribute("waitTimeStats", queueManager.getWaitTimeStats().values());
+            }
 
             // Forward to booking queue page
             request.getRequestDispatcher("/booking/booking_queue.jsp").forward(request, response);
@@ -109,14 +115,20 @@ public class BookingQueueServlet extends HttpServlet {
                 // Process next booking (photographers process their own, admins can process any)
                 if (currentUser.getUserType() == User.UserType.PHOTOGRAPHER) {
                     Booking processed = queueManager.processNextBookingForPhotographer(currentUser.getUserId());
-                    if (processed != null) {
+                    if (processed != null && processed.getStatus() == Booking.BookingStatus.CANCELLED) {
+                        session.setAttribute("errorMessage", "Booking " + processed.getBookingId()
+                                + " was cancelled: the time slot is no longer available");
+                    } else if (processed != null) {
                         session.setAttribute("successMessage", "Booking processed successfully: " + processed.getBookingId());
                     } else {
                         session.setAttribute("infoMessage", "No bookings in your queue");
                     }
                 } else if (currentUser.getUserType() == User.UserType.ADMIN) {
                     Booking processed = queueManager.processNextBooking();
-                    if (processed != null) {
+                    if (processed != null && processed.getStatus() == Booking.BookingStatus.CANCELLED) {
+                        session.setAttribute("errorMessage", "Booking " + processed.getBookingId()
+                                + " was cancelled: the time slot is no longer available");
+                    } else if (processed != null) {
                         session.setAttribute("successMessage", "Booking processed successfully: " + processed.getBookingId());
                     } else {
                         session.setAttribute("infoMessage", "No bookings in the queue");
@@ -141,14 +153,8 @@ public class BookingQueueServlet extends HttpServlet {
                     int processed = queueManager.processBatchForPhotographer(currentUser.getUserId(), limit);
                     session.setAttribute("successMessage", processed + " bookings processed successfully");
                 } else if (currentUser.getUserType() == User.UserType.ADMIN) {
-                    // For admins, just process the next N bookings
-                    int processed = 0;
-                    for (int i = 0; i < limit && queueManager.getQueueSize() > 0; i++) {
-                        Booking booking = queueManager.processNextBooking();
-                        if (booking != null) {
-                            processed++;
-                        }
-                    }
+                    // For admins, process the next N bookings chosen by the scheduling policy
+                    int processed = queueManager.processBatch(limit).size();
                     session.setAttribute("successMessage", processed + " bookings processed successfully");
                 } else {
                     session.setAttribute("errorMessage", "You don't have permission to process bookings");
@@ -163,66 +169,40 @@ public class BookingQueueServlet extends HttpServlet {
                     return;
                 }
 
-                // Get all queued bookings
-                List<Booking> queuedBookings = queueManager.getAllQueuedBookings();
-
                 // Find the booking and check permissions
-                boolean bookingFound = false;
-                boolean hasPermission = false;
-
-                for (Booking booking : queuedBookings) {
-                    if (booking.getBookingId().equals(bookingId)) {
-                        bookingFound = true;
-
-                        // Check if user has permission to process this booking
-                        if (currentUser.getUserType() == User.UserType.ADMIN ||
-                                (currentUser.getUserType() == User.UserType.PHOTOGRAPHER &&
-                                        currentUser.getUserId().equals(booking.getPhotographerId()))) {
-                            hasPermission = true;
-                        }
-
-                        break;
-                    }
-                }
+                Booking booking = queueManager.getQueuedBooking(bookingId);
+                boolean bookingFound = booking != null;
+                boolean hasPermission = bookingFound && (currentUser.getUserType() == User.UserType.ADMIN ||
+                        (currentUser.getUserType() == User.UserType.PHOTOGRAPHER &&
+                                currentUser.getUserId().equals(booking.getPhotographerId())));
 
                 if (!bookingFound) {
                     session.setAttribute("errorMessage", "Booking not found in queue");
                 } else if (!hasPermission) {
                     session.setAttribute("errorMessage", "You don't have permission to process this booking");
                 } else {
-                    // Process the booking
-                    // For a client, this would be the main queue removal
-                    // For a photographer, this would be both queues
-
-                    if (currentUser.getUserType() == User.UserType.PHOTOGRAPHER) {
-                        Booking processed = queueManager.processNextBookingForPhotographer(currentUser.getUserId());
-                        if (processed != null && processed.getBookingId().equals(bookingId)) {
-                            session.setAttribute("successMessage", "Booking processed successfully: " + processed.getBookingId());
-                        } else {
-                            session.setAttribute("errorMessage", "Failed to process booking");
-                        }
+                    // Process the booking, removing it from the queue by ID
+                    Booking processed = queueManager.processBookingById(bookingId);
+                    if (processed != null && processed.getStatus() == Booking.BookingStatus.CANCELLED) {
+                        session.setAttribute("errorMessage", "Booking " + processed.getBookingId()
+                                + " was cancelled: the time slot is no longer available");
+                    } else if (processed != null) {
+                        session.setAttribute("successMessage", "Booking processed successfully: " + processed.getBookingId());
                     } else {
-                        // Admin can process any booking
-                        boolean processed = false;
-
-                        // Find and remove the booking from all queues
-                        List<Booking> allBookings = queueManager.getAllQueuedBookings();
-                        for (int i = 0; i < allBookings.size(); i++) {
-                            if (allBookings.get(i).getBookingId().equals(bookingId)) {
-                                // Found the booking, process it
-                                queueManager.processNextBooking(); // This will remove it from both queues
-                                processed = true;
-                                break;
-                            }
-                        }
-
-                        if (processed) {
-                            session.setAttribute("successMessage", "Booking processed successfully: " + bookingId);
-                        } else {
-                            session.setAttribute("errorMessage", "Failed to process booking");
-                        }
+                        session.setAttribute("errorMessage", "Failed to process booking");
                     }
                 }
+            } else if ("setPolicy".equals(action)) {
+                // Only admins can change how the queue is drained
+                BookingSchedulingPolicy policy = BookingSchedulingPolicy.forName(request.getParameter("policy"));
+                if (currentUser.getUserType() != User.UserType.ADMIN) {
+                    session.setAttribute("errorMessage", "You don't have permission to change the queue policy");
+                } else if (policy == null) {
+                    session.setAttribute("errorMessage", "Unknown scheduling policy");
+                } else {
+                    queueManager.setSchedulingPolicy(policy);
+                    session.setAttribute("successMessage", "Queue scheduling policy set to " + policy.getName());
+                }
             } else if ("clear".equals(action)) {
                 // Only admins can clear the queue
                 if (currentUser.getUserType() != User.UserType.ADMIN) {
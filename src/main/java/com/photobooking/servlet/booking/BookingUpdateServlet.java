@@ -14,6 +14,7 @@ import com.photobooking.model.booking.Booking;
 import com.photobooking.model.booking.BookingManager;
 import com.photobooking.model.user.User;
 import com.photobooking.util.ValidationUtil;
+import com.photobooking.util.ManagerRegistry;
 
 /**
  * Servlet for handling updates to bookings
@@ -48,7 +49,7 @@ public class BookingUpdateServlet extends HttpServlet {
             }
 
             // Get booking manager and retrieve booking
-            BookingManager bookingManager = new BookingManager();
+            BookingManager bookingManager = ManagerRegistry.getInstance(getServletContext()).getBookingManager();
             Booking booking = bookingManager.getBookingById(bookingId);
 
             if (booking == null) {
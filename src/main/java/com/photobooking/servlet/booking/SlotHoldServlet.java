@@ -0,0 +1,111 @@
+package com.photobooking.servlet.booking;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import com.photobooking.model.booking.BookingManager;
+import com.photobooking.model.booking.SlotHold;
+import com.photobooking.model.photographer.Photographer;
+import com.photobooking.model.photographer.PhotographerService;
+import com.photobooking.model.user.User;
+import com.photobooking.util.ManagerRegistry;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+/**
+ * Servlet for holding a time slot while the client fills in the booking form.
+ * POST with photographerId, serviceId, eventDate and eventTime to place a hold,
+ * or with action=release and holdId to release one.
+ */
+@WebServlet("/booking/hold")
+public class SlotHoldServlet extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        // Set response type
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        PrintWriter out = response.getWriter();
+        Gson gson = new Gson();
+
+        // Check if user is logged in
+        HttpSession session = request.getSession(false);
+        if (session == null || session.getAttribute("user") == null) {
+            out.print(gson.toJson(error("Not logged in")));
+            return;
+        }
+
+        User currentUser = (User) session.getAttribute("user");
+        ManagerRegistry registry = ManagerRegistry.getInstance(getServletContext());
+        BookingManager bookingManager = registry.getBookingManager();
+
+        // Release a hold the client placed earlier
+        if ("release".equals(request.getParameter("action"))) {
+            SlotHold hold = bookingManager.getHold(request.getParameter("holdId"));
+            boolean released = hold != null && hold.getClientId().equals(currentUser.getUserId())
+                    && bookingManager.releaseHold(hold.getHoldId());
+
+            JsonObject jsonResponse = new JsonObject();
+            jsonResponse.addProperty("success", released);
+            out.print(gson.toJson(jsonResponse));
+            return;
+        }
+
+        String photographerId = request.getParameter("photographerId");
+        String serviceId = request.getParameter("serviceId");
+        String eventDateStr = request.getParameter("eventDate");
+        String eventTimeStr = request.getParameter("eventTime");
+
+        if (photographerId == null || serviceId == null || eventDateStr == null || eventTimeStr == null) {
+            out.print(gson.toJson(error("Photographer, package, date and time are required")));
+            return;
+        }
+
+        LocalDateTime eventDateTime;
+        try {
+            eventDateTime = LocalDateTime.of(LocalDate.parse(eventDateStr), LocalTime.parse(eventTimeStr));
+        } catch (DateTimeParseException e) {
+            out.print(gson.toJson(error("Invalid date or time")));
+            return;
+        }
+
+        Photographer photographer = registry.getPhotographerManager().getPhotographerById(photographerId);
+        PhotographerService service = registry.getServiceManager().getServiceById(serviceId);
+        if (photographer == null || service == null || !service.getPhotographerId().equals(photographerId)) {
+            out.print(gson.toJson(error("Invalid photographer or package")));
+            return;
+        }
+
+        SlotHold hold = bookingManager.holdSlot(photographer.getUserId(), currentUser.getUserId(),
+                eventDateTime, service.getDurationHours());
+        if (hold == null) {
+            out.print(gson.toJson(error("The photographer is not available at the selected date and time")));
+            return;
+        }
+
+        JsonObject jsonResponse = new JsonObject();
+        jsonResponse.addProperty("success", true);
+        jsonResponse.addProperty("holdId", hold.getHoldId());
+        jsonResponse.addProperty("expiresAt", hold.getExpiresAt().toString());
+        out.print(gson.toJson(jsonResponse));
+    }
+
+    private static JsonObject error(String message) {
+        JsonObject errorResponse = new JsonObject();
+        errorResponse.addProperty("success", false);
+        errorResponse.addProperty("message", message);
+        return errorResponse;
+    }
+}
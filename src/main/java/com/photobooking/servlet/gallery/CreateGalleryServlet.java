@@ -13,6 +13,7 @@ import com.photobooking.model.gallery.Gallery;
 import com.photobooking.model.gallery.GalleryManager;
 import com.photobooking.model.user.User;
 import com.photobooking.util.ValidationUtil;
+import com.photobooking.util.ManagerRegistry;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -86,7 +87,7 @@ public class CreateGalleryServlet extends HttpServlet {
             }
 
             // Save gallery
-            GalleryManager galleryManager = new GalleryManager(getServletContext());
+            GalleryManager galleryManager = ManagerRegistry.getInstance(getServletContext()).getGalleryManager();
             boolean success = galleryManager.createGallery(gallery);
 
             if (success) {
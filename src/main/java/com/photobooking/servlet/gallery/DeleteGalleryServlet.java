@@ -13,6 +13,7 @@ import com.photobooking.model.gallery.Gallery;
 import com.photobooking.model.gallery.GalleryManager;
 import com.photobooking.model.gallery.PhotoManager;
 import com.photobooking.model.user.User;
+import com.photobooking.util.ManagerRegistry;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -52,7 +53,7 @@ public class DeleteGalleryServlet extends HttpServlet {
 
         try {
             // Verify gallery ownership
-            GalleryManager galleryManager = new GalleryManager(getServletContext());
+            GalleryManager galleryManager = ManagerRegistry.getInstance(getServletContext()).getGalleryManager();
             Gallery gallery = galleryManager.getGalleryById(galleryId);
 
             if (gallery == null) {
@@ -68,7 +69,7 @@ public class DeleteGalleryServlet extends HttpServlet {
             }
 
             // Delete all photos in the gallery
-            PhotoManager photoManager = new PhotoManager(getServletContext());
+            PhotoManager photoManager = ManagerRegistry.getInstance(getServletContext()).getPhotoManager();
             photoManager.deleteGalleryPhotos(galleryId);
 
             // Delete gallery
@@ -14,6 +14,7 @@ import com.photobooking.model.gallery.GalleryManager;
 import com.photobooking.model.gallery.Photo;
 import com.photobooking.model.gallery.PhotoManager;
 import com.photobooking.model.user.User;
+import com.photobooking.util.ManagerRegistry;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -53,7 +54,7 @@ public class DeletePhotoServlet extends HttpServlet {
 
         try {
             // Get the photo to get its gallery ID
-            PhotoManager photoManager = new PhotoManager(getServletContext());
+            PhotoManager photoManager = ManagerRegistry.getInstance(getServletContext()).getPhotoManager();
             Photo photo = photoManager.getPhotoById(photoId);
 
             if (photo == null) {
@@ -65,7 +66,7 @@ public class DeletePhotoServlet extends HttpServlet {
             String galleryId = photo.getGalleryId();
 
             // Verify ownership
-            GalleryManager galleryManager = new GalleryManager(getServletContext());
+            GalleryManager galleryManager = ManagerRegistry.getInstance(getServletContext()).getGalleryManager();
             Gallery gallery = galleryManager.getGalleryById(galleryId);
 
             if (gallery == null) {
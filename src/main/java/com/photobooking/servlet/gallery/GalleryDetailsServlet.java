@@ -16,6 +16,7 @@ import com.photobooking.model.gallery.GalleryManager;
 import com.photobooking.model.gallery.Photo;
 import com.photobooking.model.gallery.PhotoManager;
 import com.photobooking.model.user.User;
+import com.photobooking.util.ManagerRegistry;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -39,7 +40,7 @@ public class GalleryDetailsServlet extends HttpServlet {
         }
 
         try {
-            GalleryManager galleryManager = new GalleryManager(getServletContext());
+            GalleryManager galleryManager = ManagerRegistry.getInstance(getServletContext()).getGalleryManager();
             Gallery gallery = galleryManager.getGalleryById(galleryId);
 
             // Gallery not found
@@ -71,7 +72,7 @@ public class GalleryDetailsServlet extends HttpServlet {
             }
 
             // Get photos
-            PhotoManager photoManager = new PhotoManager(getServletContext());
+            PhotoManager photoManager = ManagerRegistry.getInstance(getServletContext()).getPhotoManager();
             List<Photo> photos = new ArrayList<>();
 
             for (String photoId : gallery.getPhotoIds()) {
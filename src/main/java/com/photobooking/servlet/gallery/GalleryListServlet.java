@@ -15,6 +15,7 @@ import com.photobooking.model.gallery.GalleryManager;
 import com.photobooking.model.gallery.PhotoManager;
 import com.photobooking.model.gallery.Photo;
 import com.photobooking.model.user.User;
+import com.photobooking.util.ManagerRegistry;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -41,8 +42,8 @@ public class GalleryListServlet extends HttpServlet {
         }
 
         try {
-            GalleryManager galleryManager = new GalleryManager(getServletContext());
-            PhotoManager photoManager = new PhotoManager(getServletContext());
+            GalleryManager galleryManager = ManagerRegistry.getInstance(getServletContext()).getGalleryManager();
+            PhotoManager photoManager = ManagerRegistry.getInstance(getServletContext()).getPhotoManager();
             List<Gallery> galleries = new ArrayList<>();
 
             // Debug log to see what's happening
@@ -15,6 +15,7 @@ import com.photobooking.model.gallery.Photo;
 import com.photobooking.model.gallery.PhotoManager;
 import com.photobooking.model.user.User;
 import com.photobooking.util.ValidationUtil;
+import com.photobooking.util.ManagerRegistry;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -58,7 +59,7 @@ public class UpdatePhotoServlet extends HttpServlet {
 
         try {
             // Get the photo
-            PhotoManager photoManager = new PhotoManager(getServletContext());
+            PhotoManager photoManager = ManagerRegistry.getInstance(getServletContext()).getPhotoManager();
             Photo photo = photoManager.getPhotoById(photoId);
 
             if (photo == null) {
@@ -70,7 +71,7 @@ public class UpdatePhotoServlet extends HttpServlet {
             String galleryId = photo.getGalleryId();
 
             // Verify ownership
-            GalleryManager galleryManager = new GalleryManager(getServletContext());
+            GalleryManager galleryManager = ManagerRegistry.getInstance(getServletContext()).getGalleryManager();
             Gallery gallery = galleryManager.getGalleryById(galleryId);
 
             if (gallery == null) {
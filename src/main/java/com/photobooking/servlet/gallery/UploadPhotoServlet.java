@@ -25,6 +25,7 @@ import com.photobooking.model.gallery.PhotoManager;
 import com.photobooking.model.user.User;
 import com.photobooking.util.FileHandler;
 import com.photobooking.util.ValidationUtil;
+import com.photobooking.util.ManagerRegistry;
 
 /**
  * Servlet for handling photo uploads
@@ -103,8 +104,8 @@ public class UploadPhotoServlet extends HttpServlet {
         }
 
         try {
-            GalleryManager galleryManager = new GalleryManager(getServletContext());
-            PhotoManager photoManager = new PhotoManager(getServletContext());
+            GalleryManager galleryManager = ManagerRegistry.getInstance(getServletContext()).getGalleryManager();
+            PhotoManager photoManager = ManagerRegistry.getInstance(getServletContext()).getPhotoManager();
 
             // Get photographer ID - directly use user ID
             String photographerId = currentUser.getUserId();
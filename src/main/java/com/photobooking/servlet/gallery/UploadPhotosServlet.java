@@ -15,6 +15,7 @@ import com.photobooking.model.booking.BookingManager;
 import com.photobooking.model.gallery.Gallery;
 import com.photobooking.model.gallery.GalleryManager;
 import com.photobooking.model.user.User;
+import com.photobooking.util.ManagerRegistry;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -53,12 +54,12 @@ public class UploadPhotosServlet extends HttpServlet {
             LOGGER.info("Using photographer ID: " + photographerId);
 
             // Get galleries for the photographer
-            GalleryManager galleryManager = new GalleryManager(getServletContext());
+            GalleryManager galleryManager = ManagerRegistry.getInstance(getServletContext()).getGalleryManager();
             List<Gallery> galleries = galleryManager.getGalleriesByPhotographer(photographerId);
             LOGGER.info("Found " + galleries.size() + " galleries for photographer: " + photographerId);
 
             // Get bookings for the photographer
-            BookingManager bookingManager = new BookingManager(getServletContext());
+            BookingManager bookingManager = ManagerRegistry.getInstance(getServletContext()).getBookingManager();
             List<Booking> bookings = bookingManager.getBookingsByPhotographer(photographerId);
             LOGGER.info("Found " + bookings.size() + " bookings for photographer: " + photographerId);
 
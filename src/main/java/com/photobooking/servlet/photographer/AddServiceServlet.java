@@ -18,6 +18,7 @@ import com.photobooking.model.photographer.PhotographerManager;
 import com.photobooking.model.user.User;
 import com.photobooking.util.ValidationUtil;
 import com.photobooking.util.FileHandler;
+import com.photobooking.util.ManagerRegistry;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -62,7 +63,7 @@ public class AddServiceServlet extends HttpServlet {
         // If photographerId is not in session, try to get it from the database
         if (photographerId == null) {
             try {
-                PhotographerManager photographerManager = new PhotographerManager();
+                PhotographerManager photographerManager = ManagerRegistry.getInstance(getServletContext()).getPhotographerManager();
                 Photographer photographer = photographerManager.getPhotographerByUserId(currentUser.getUserId());
 
                 if (photographer != null) {
@@ -92,7 +93,7 @@ public class AddServiceServlet extends HttpServlet {
 
                         // Create default services
                         try {
-                            PhotographerServiceManager serviceManager = new PhotographerServiceManager();
+                            PhotographerServiceManager serviceManager = ManagerRegistry.getInstance(getServletContext()).getServiceManager();
                             serviceManager.createDefaultServices(photographerId);
                         } catch (Exception e) {
                             LOGGER.log(Level.WARNING, "Error creating default services: " + e.getMessage(), e);
@@ -156,7 +157,7 @@ public class AddServiceServlet extends HttpServlet {
             }
 
             // Save service
-            PhotographerServiceManager serviceManager = new PhotographerServiceManager();
+            PhotographerServiceManager serviceManager = ManagerRegistry.getInstance(getServletContext()).getServiceManager();
             if (serviceManager.addService(newService)) {
                 session.setAttribute("successMessage", "Service package added successfully!");
                 LOGGER.info("Service package added successfully for photographer ID: " + photographerId);
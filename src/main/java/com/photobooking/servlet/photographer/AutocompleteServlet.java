@@ -0,0 +1,62 @@
+package com.photobooking.servlet.photographer;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.photobooking.model.photographer.AutocompleteIndex;
+import com.photobooking.util.ManagerRegistry;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Servlet returning search box suggestions as JSON.
+ * GET with q, the text typed so far, and optionally limit, the number of suggestions.
+ */
+@WebServlet("/photographer/autocomplete")
+public class AutocompleteServlet extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+    private static final int DEFAULT_LIMIT = 8;
+    private static final int MAX_LIMIT = 20;
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        PrintWriter out = response.getWriter();
+
+        int limit = DEFAULT_LIMIT;
+        try {
+            String limitParam = request.getParameter("limit");
+            if (limitParam != null) {
+                limit = Math.max(1, Math.min(MAX_LIMIT, Integer.parseInt(limitParam)));
+            }
+        } catch (NumberFormatException e) {
+            limit = DEFAULT_LIMIT;
+        }
+
+        AutocompleteIndex autocomplete = ManagerRegistry.getInstance(getServletContext()).getAutocompleteIndex();
+
+        JsonArray suggestions = new JsonArray();
+        for (AutocompleteIndex.Suggestion suggestion : autocomplete.suggest(request.getParameter("q"), limit)) {
+            JsonObject item = new JsonObject();
+            item.addProperty("type", suggestion.getType().name().toLowerCase());
+            item.addProperty("text", suggestion.getText());
+            if (suggestion.getId() != null) {
+                item.addProperty("id", suggestion.getId());
+            }
+            suggestions.add(item);
+        }
+
+        JsonObject jsonResponse = new JsonObject();
+        jsonResponse.addProperty("success", true);
+        jsonResponse.add("suggestions", suggestions);
+        out.print(new Gson().toJson(jsonResponse));
+    }
+}
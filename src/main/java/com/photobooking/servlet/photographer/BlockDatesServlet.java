@@ -17,8 +17,10 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
 import com.photobooking.model.user.User;
+import com.photobooking.model.photographer.UnavailabilityRule;
 import com.photobooking.model.photographer.UnavailableDate;
 import com.photobooking.model.photographer.UnavailableDateManager;
+import com.photobooking.util.ManagerRegistry;
 
 /**
  * Servlet for handling blocking dates in photographer's calendar
@@ -62,6 +64,9 @@ public class BlockDatesServlet extends HttpServlet {
             String reason = request.getParameter("reason");
             boolean allDay = request.getParameter("allDay") != null;
 
+            // "weekly" repeats the start date's weekday, "range" blocks the range as one rule
+            String repeat = request.getParameter("repeat");
+
             // Debug log
             System.out.println("BlockDatesServlet - Received parameters:");
             System.out.println("startDate: " + startDateStr);
@@ -100,31 +105,46 @@ public class BlockDatesServlet extends HttpServlet {
             String photographerId = currentUser.getUserId();
 
             // Prepare manager and blocked dates list
-            UnavailableDateManager unavailableDateManager = new UnavailableDateManager();
+            UnavailableDateManager unavailableDateManager = ManagerRegistry.getInstance(getServletContext()).getUnavailableDateManager();
             JsonArray blockedDatesJson = new JsonArray();
-            List<UnavailableDate> blockedDates = new ArrayList<>();
-
-            // Block each date in the range
-            for (LocalDate currentDate = startDate;
-                 !currentDate.isAfter(endDate);
-                 currentDate = currentDate.plusDays(1)) {
-
-                // Create unavailable date object
-                UnavailableDate unavailableDate = new UnavailableDate(
-                        photographerId,
-                        currentDate,
-                        allDay,
-                        reason != null && !reason.trim().isEmpty() ? reason : "Unavailable"
-                );
-
-                // Add to database
-                if (unavailableDateManager.addUnavailableDate(unavailableDate)) {
-                    blockedDates.add(unavailableDate);
+            String blockReason = reason != null && !reason.trim().isEmpty() ? reason : "Unavailable";
+
+            if ("weekly".equals(repeat) || "range".equals(repeat)) {
+                // Store a single rule; it is expanded into dates when the calendar is read
+                boolean weekly = "weekly".equals(repeat);
+                UnavailabilityRule rule = weekly
+                        ? UnavailabilityRule.weekly(photographerId, startDate.getDayOfWeek(), startDate,
+                                endDateStr != null && !endDateStr.isEmpty() ? endDate : null, blockReason)
+                        : UnavailabilityRule.dateRange(photographerId, startDate, endDate, blockReason);
+                rule.setAllDay(allDay);
+
+                if (unavailableDateManager.addRule(rule)) {
+                    JsonObject ruleObj = new JsonObject();
+                    ruleObj.addProperty("id", rule.getId());
+                    ruleObj.addProperty("repeat", rule.getType().name());
+                    ruleObj.addProperty("startDate", rule.getStartDate().toString());
+                    if (rule.getEndDate() != null) {
+                        ruleObj.addProperty("endDate", rule.getEndDate().toString());
+                    }
+                    ruleObj.addProperty("allDay", allDay);
+                    ruleObj.addProperty("reason", rule.getReason());
+
+                    blockedDatesJson.add(ruleObj);
+                }
+            } else {
+                // Block each date in the range, committed with a single write
+                List<UnavailableDate> requestedDates = new ArrayList<>();
+                for (LocalDate currentDate = startDate;
+                     !currentDate.isAfter(endDate);
+                     currentDate = currentDate.plusDays(1)) {
+                    requestedDates.add(new UnavailableDate(photographerId, currentDate, allDay, blockReason));
+                }
 
+                for (UnavailableDate unavailableDate : unavailableDateManager.addUnavailableDates(requestedDates)) {
                     // Prepare JSON for response
                     JsonObject dateObj = new JsonObject();
                     dateObj.addProperty("id", unavailableDate.getId());
-                    dateObj.addProperty("date", currentDate.toString());
+                    dateObj.addProperty("date", unavailableDate.getDate().toString());
                     dateObj.addProperty("allDay", allDay);
                     dateObj.addProperty("reason", unavailableDate.getReason());
 
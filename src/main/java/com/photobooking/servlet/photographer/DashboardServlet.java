@@ -20,6 +20,7 @@ import com.photobooking.model.review.Review;
 import com.photobooking.model.review.ReviewManager;
 import com.photobooking.model.user.User;
 import com.photobooking.util.FileHandler;
+import com.photobooking.util.ManagerRegistry;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.Gson;
@@ -72,7 +73,7 @@ public class DashboardServlet extends HttpServlet {
 
         try {
             // Get photographer profile
-            PhotographerManager photographerManager = new PhotographerManager(getServletContext());
+            PhotographerManager photographerManager = ManagerRegistry.getInstance(getServletContext()).getPhotographerManager();
             Photographer photographer = photographerManager.getPhotographerByUserId(userId);
 
             // If photographer profile doesn't exist, create one
@@ -96,7 +97,7 @@ public class DashboardServlet extends HttpServlet {
 
                         try {
                             // Create default services for the photographer
-                            PhotographerServiceManager serviceManager = new PhotographerServiceManager(getServletContext());
+                            PhotographerServiceManager serviceManager = ManagerRegistry.getInstance(getServletContext()).getServiceManager();
                             serviceManager.createDefaultServices(photographer.getPhotographerId());
                         } catch (Exception e) {
                             LOGGER.log(Level.WARNING, "Error creating default services: " + e.getMessage(), e);
@@ -124,7 +125,7 @@ public class DashboardServlet extends HttpServlet {
             }
 
             // Dashboard data
-            BookingManager bookingManager = new BookingManager(getServletContext());
+            BookingManager bookingManager = ManagerRegistry.getInstance(getServletContext()).getBookingManager();
             List<Booking> upcomingBookings = bookingManager.getUpcomingBookings(userId, true);
             List<Booking> allBookings = bookingManager.getBookingsByPhotographer(userId);
 
@@ -142,7 +143,7 @@ public class DashboardServlet extends HttpServlet {
             }
 
             // Get recent reviews
-           ReviewManager reviewManager = new ReviewManager();
+           ReviewManager reviewManager = ManagerRegistry.getInstance(getServletContext()).getReviewManager();
            List<Review> recentReviews = reviewManager.getPhotographerReviews(photographer.getPhotographerId());
            LOGGER.info("Found " + recentReviews.size() + " reviews");
 
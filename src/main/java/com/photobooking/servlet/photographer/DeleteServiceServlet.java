@@ -12,6 +12,7 @@ import com.photobooking.model.photographer.PhotographerService;
 import com.photobooking.model.photographer.PhotographerServiceManager;
 import com.photobooking.model.user.User;
 import com.photobooking.util.ValidationUtil;
+import com.photobooking.util.ManagerRegistry;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -59,7 +60,7 @@ public class DeleteServiceServlet extends HttpServlet {
             }
 
             // Get service to verify ownership
-            PhotographerServiceManager serviceManager = new PhotographerServiceManager();
+            PhotographerServiceManager serviceManager = ManagerRegistry.getInstance(getServletContext()).getServiceManager();
             PhotographerService service = serviceManager.getServiceById(packageId);
 
             if (service == null) {
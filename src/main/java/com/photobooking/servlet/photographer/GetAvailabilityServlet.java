@@ -2,8 +2,9 @@ package com.photobooking.servlet.photographer;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
-import com.photobooking.model.booking.BookingManager;
+import com.photobooking.model.photographer.AvailabilityCalendar;
 import com.photobooking.model.user.User;
+import com.photobooking.util.ManagerRegistry;
 
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
@@ -14,8 +15,7 @@ import javax.servlet.http.HttpSession;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
@@ -26,14 +26,6 @@ public class GetAvailabilityServlet extends HttpServlet {
     private static final Logger LOGGER = Logger.getLogger(GetAvailabilityServlet.class.getName());
     private static final long serialVersionUID = 1L;
 
-    @Override
-    public void init() throws ServletException {
-        // Initialize BookingManager and store in ServletContext
-        BookingManager bookingManager = new BookingManager(getServletContext());
-        getServletContext().setAttribute("bookingManager", bookingManager);
-        LOGGER.info("BookingManager initialized in GetAvailabilityServlet");
-    }
-
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
@@ -54,43 +46,43 @@ public class GetAvailabilityServlet extends HttpServlet {
         }
 
         String dateStr = request.getParameter("date");
-        if (dateStr == null) {
+        String monthStr = request.getParameter("month");
+        if (dateStr == null && monthStr == null) {
             sendError(out, gson, "Date parameter is required");
             return;
         }
 
         try {
-            LocalDate date = LocalDate.parse(dateStr, DateTimeFormatter.ISO_LOCAL_DATE);
             String photographerId = currentUser.getUserId();
 
-            // Retrieve BookingManager from ServletContext
-            BookingManager bookingManager = (BookingManager) getServletContext().getAttribute("bookingManager");
-            if (bookingManager == null) {
-                LOGGER.severe("BookingManager not found in ServletContext");
-                sendError(out, gson, "Server configuration error");
-                return;
-            }
+            // Occupied slots come from the shared per-day bitmaps of bookings and blocked dates
+            AvailabilityCalendar calendar = ManagerRegistry.getInstance(getServletContext()).getAvailabilityCalendar();
+
+            JsonObject jsonResponse = new JsonObject();
+            jsonResponse.addProperty("success", true);
 
-            List<String> timeSlots = generateTimeSlots();
-            List<String> availableTimeSlots = new ArrayList<>();
+            if (dateStr != null) {
+                LocalDate date = LocalDate.parse(dateStr, DateTimeFormatter.ISO_LOCAL_DATE);
+                int freeSlots = AvailabilityCalendar.BOOKABLE_HOURS & ~calendar.getOccupiedMask(photographerId, date);
 
-            for (String timeSlot : timeSlots) {
-                LocalTime time = LocalTime.parse(timeSlot);
-                LocalDateTime dateTime = LocalDateTime.of(date, time);
-                if (bookingManager.isPhotographerAvailable(photographerId, dateTime, 1)) {
-                    availableTimeSlots.add(timeSlot);
+                jsonResponse.addProperty("date", dateStr);
+                jsonResponse.add("availableTimeSlots", gson.toJsonTree(toTimeSlots(freeSlots)));
+            } else {
+                YearMonth month = YearMonth.parse(monthStr);
+                AvailabilityCalendar.Month slots = calendar.getMonth(photographerId, month);
+
+                JsonObject days = new JsonObject();
+                for (int day = 1; day <= month.lengthOfMonth(); day++) {
+                    days.add(month.atDay(day).toString(), gson.toJsonTree(toTimeSlots(slots.getFreeMask(day))));
                 }
+                jsonResponse.addProperty("month", monthStr);
+                jsonResponse.add("availableTimeSlots", days);
             }
 
-            JsonObject jsonResponse = new JsonObject();
-            jsonResponse.addProperty("success", true);
-            jsonResponse.addProperty("date", dateStr);
-            jsonResponse.add("availableTimeSlots", gson.toJsonTree(availableTimeSlots));
-
             out.print(gson.toJson(jsonResponse));
         } catch (java.time.format.DateTimeParseException e) {
-            LOGGER.warning("Invalid date format: " + dateStr);
-            sendError(out, gson, "Invalid date format. Use YYYY-MM-DD");
+            LOGGER.warning("Invalid date format: " + (dateStr != null ? dateStr : monthStr));
+            sendError(out, gson, "Invalid date format. Use YYYY-MM-DD or YYYY-MM");
         } catch (Exception e) {
             LOGGER.log(java.util.logging.Level.SEVERE, "Error processing availability request", e);
             sendError(out, gson, "Server error");
@@ -99,20 +91,16 @@ public class GetAvailabilityServlet extends HttpServlet {
         }
     }
 
-    private List<String> generateTimeSlots() {
+    /**
+     * Convert a mask of free hours to "HH:00" time slots
+     */
+    private List<String> toTimeSlots(int freeSlots) {
         List<String> timeSlots = new ArrayList<>();
-        timeSlots.add("09:00");
-        timeSlots.add("10:00");
-        timeSlots.add("11:00");
-        timeSlots.add("12:00");
-        timeSlots.add("13:00");
-        timeSlots.add("14:00");
-        timeSlots.add("15:00");
-        timeSlots.add("16:00");
-        timeSlots.add("17:00");
-        timeSlots.add("18:00");
-        timeSlots.add("19:00");
-        timeSlots.add("20:00");
+        for (int hour = AvailabilityCalendar.FIRST_BOOKABLE_HOUR; hour <= AvailabilityCalendar.LAST_BOOKABLE_HOUR; hour++) {
+            if (AvailabilityCalendar.isSet(freeSlots, hour)) {
+                timeSlots.add(String.format("%02d:00", hour));
+            }
+        }
         return timeSlots;
     }
 
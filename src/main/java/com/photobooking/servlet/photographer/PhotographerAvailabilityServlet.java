@@ -1,11 +1,13 @@
 package com.photobooking.servlet.photographer;
 
 import java.io.IOException;
-import java.time.LocalDateTime;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.logging.Logger;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
@@ -20,8 +22,10 @@ import com.google.gson.JsonObject;
 import com.photobooking.model.booking.Booking;
 import com.photobooking.model.booking.BookingManager;
 import com.photobooking.model.user.User;
+import com.photobooking.model.photographer.AvailabilityCalendar;
 import com.photobooking.model.photographer.UnavailableDate;
 import com.photobooking.model.photographer.UnavailableDateManager;
+import com.photobooking.util.ManagerRegistry;
 
 /**
  * Servlet for handling photographer availability calendar
@@ -29,6 +33,7 @@ import com.photobooking.model.photographer.UnavailableDateManager;
 @WebServlet("/photographer/availability")
 public class PhotographerAvailabilityServlet extends HttpServlet {
     private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = Logger.getLogger(PhotographerAvailabilityServlet.class.getName());
 
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
@@ -54,84 +59,104 @@ public class PhotographerAvailabilityServlet extends HttpServlet {
         System.out.println("Loading calendar for photographer ID: " + photographerId);
 
         try {
-            // Get all bookings (both upcoming and past) for the photographer
-            BookingManager bookingManager = new BookingManager(getServletContext());
-            List<Booking> allBookings = bookingManager.getBookingsByPhotographer(photographerId);
-            List<Booking> upcomingBookings = bookingManager.getUpcomingBookings(photographerId, true);
-
-            // Log bookings for debugging
-            System.out.println("Found " + allBookings.size() + " total bookings");
-            System.out.println("Found " + upcomingBookings.size() + " upcoming bookings");
+            ManagerRegistry registry = ManagerRegistry.getInstance(getServletContext());
+            BookingManager bookingManager = registry.getBookingManager();
+            UnavailableDateManager unavailableDateManager = registry.getUnavailableDateManager();
 
-            // Get unavailable dates for photographer
-            UnavailableDateManager unavailableDateManager = new UnavailableDateManager();
+            // The upcoming bookings list and the removable unavailable dates come from their per-photographer indexes
+            List<Booking> upcomingBookings = bookingManager.getUpcomingBookings(photographerId, true);
             List<UnavailableDate> unavailableDates = unavailableDateManager.getUnavailableDatesForPhotographer(photographerId);
-            System.out.println("Found " + unavailableDates.size() + " unavailable dates");
 
-            // Convert bookings and unavailable dates to calendar events
+            // Build the month view from the slot bitmaps; only the days they show as booked or
+            // blocked are looked up for event details
+            YearMonth month = parseMonth(request.getParameter("month"));
+            AvailabilityCalendar.Month slots = registry.getAvailabilityCalendar().getMonth(photographerId, month);
+            LocalDate firstBooked = null;
+            LocalDate lastBooked = null;
+            LocalDate firstBlocked = null;
+            LocalDate lastBlocked = null;
             JsonArray calendarEvents = new JsonArray();
 
-            // Add booked events
-            for (Booking booking : allBookings) {
-                try {
+            for (int day = 1; day <= month.lengthOfMonth(); day++) {
+                LocalDate date = month.atDay(day);
+                if (slots.getBookedMask(day) != 0) {
+                    firstBooked = firstBooked == null ? date : firstBooked;
+                    lastBooked = date;
+                }
+                if (slots.getBlockedMask(day) != 0) {
+                    firstBlocked = firstBlocked == null ? date : firstBlocked;
+                    lastBlocked = date;
+                }
+
+                // Mark the days with no bookable slot left
+                if (slots.getFreeMask(day) == 0) {
                     JsonObject event = new JsonObject();
-                    event.addProperty("id", "booking-" + booking.getBookingId());
-                    event.addProperty("title", getBookingTypeDisplayName(booking.getEventType()));
+                    event.addProperty("id", "full-" + date);
+                    event.addProperty("start", date.toString());
+                    event.addProperty("allDay", true);
+                    event.addProperty("display", "background");
+                    event.addProperty("backgroundColor", "#f8d7da");
+                    calendarEvents.add(event);
+                }
+            }
 
-                    // Make sure we have a valid date
-                    if (booking.getEventDateTime() != null) {
+            // Add booked events, including those that start the day before and run into a booked day
+            if (firstBooked != null) {
+                for (Booking booking : bookingManager.getBookingsByDateRange(photographerId, true,
+                        firstBooked.minusDays(1).atStartOfDay(), lastBooked.atTime(LocalTime.MAX), 0, null)) {
+                    try {
+                        JsonObject event = new JsonObject();
+                        event.addProperty("id", "booking-" + booking.getBookingId());
+                        event.addProperty("title", getBookingTypeDisplayName(booking.getEventType()));
                         event.addProperty("start", booking.getEventDateTime().toString());
+                        event.addProperty("end", booking.getEventEndDateTime().toString());
 
-                        // Calculate end time (assume 3 hours for simplicity, adjust as needed)
-                        LocalDateTime endTime = booking.getEventDateTime().plusHours(3);
-                        event.addProperty("end", endTime.toString());
-                    } else {
-                        System.out.println("Warning: Booking " + booking.getBookingId() + " has null eventDateTime");
-                        continue; // Skip this booking
-                    }
-
-                    // Set color based on booking status
-                    String backgroundColor = getBookingStatusColor(booking.getStatus());
-                    event.addProperty("backgroundColor", backgroundColor);
-                    event.addProperty("borderColor", backgroundColor);
+                        // Set color based on booking status
+                        String backgroundColor = getBookingStatusColor(booking.getStatus());
+                        event.addProperty("backgroundColor", backgroundColor);
+                        event.addProperty("borderColor", backgroundColor);
 
-                    // Add more details
-                    event.addProperty("description", "Location: " + booking.getEventLocation());
-                    event.addProperty("status", booking.getStatus().toString());
+                        // Add more details
+                        event.addProperty("description", "Location: " + booking.getEventLocation());
+                        event.addProperty("status", booking.getStatus().toString());
 
-                    calendarEvents.add(event);
-                } catch (Exception e) {
-                    System.out.println("Error processing booking: " + e.getMessage());
+                        calendarEvents.add(event);
+                    } catch (Exception e) {
+                        LOGGER.warning("Error processing booking " + booking.getBookingId() + ": " + e.getMessage());
+                    }
                 }
             }
 
-            // Add unavailable dates
-            for (UnavailableDate date : unavailableDates) {
-                try {
-                    JsonObject event = new JsonObject();
-                    event.addProperty("id", "unavailable-" + date.getId());
-                    event.addProperty("title", date.getReason() != null ? date.getReason() : "Unavailable");
-
-                    // Format as full day event if allDay is true
-                    if (date.isAllDay()) {
-                        event.addProperty("start", date.getDate().toString());
-                        event.addProperty("allDay", true);
-                    } else {
-                        // Format as time slot if not all day
-                        String startDateTime = date.getDate().toString() + "T" + date.getStartTime() + ":00";
-                        String endDateTime = date.getDate().toString() + "T" + date.getEndTime() + ":00";
-                        event.addProperty("start", startDateTime);
-                        event.addProperty("end", endDateTime);
-                        event.addProperty("allDay", false);
+            // Add unavailable dates, with recurring rules expanded into the blocked days
+            if (firstBlocked != null) {
+                for (UnavailableDate date : unavailableDateManager.getUnavailableDatesForPhotographer(photographerId,
+                        firstBlocked, lastBlocked)) {
+                    try {
+                        JsonObject event = new JsonObject();
+                        event.addProperty("id", "unavailable-" + date.getId());
+                        event.addProperty("title", date.getReason() != null ? date.getReason() : "Unavailable");
+
+                        // Format as full day event if allDay is true
+                        if (date.isAllDay()) {
+                            event.addProperty("start", date.getDate().toString());
+                            event.addProperty("allDay", true);
+                        } else {
+                            // Format as time slot if not all day
+                            String startDateTime = date.getDate().toString() + "T" + date.getStartTime() + ":00";
+                            String endDateTime = date.getDate().toString() + "T" + date.getEndTime() + ":00";
+                            event.addProperty("start", startDateTime);
+                            event.addProperty("end", endDateTime);
+                            event.addProperty("allDay", false);
+                        }
+
+                        // Red color for unavailable dates
+                        event.addProperty("backgroundColor", "#dc3545");
+                        event.addProperty("borderColor", "#dc3545");
+
+                        calendarEvents.add(event);
+                    } catch (Exception e) {
+                        LOGGER.warning("Error processing unavailable date " + date.getId() + ": " + e.getMessage());
                     }
-
-                    // Red color for unavailable dates
-                    event.addProperty("backgroundColor", "#dc3545");
-                    event.addProperty("borderColor", "#dc3545");
-
-                    calendarEvents.add(event);
-                } catch (Exception e) {
-                    System.out.println("Error processing unavailable date: " + e.getMessage());
                 }
             }
 
@@ -139,12 +164,13 @@ public class PhotographerAvailabilityServlet extends HttpServlet {
             request.setAttribute("upcomingBookings", upcomingBookings);
             request.setAttribute("unavailableDates", unavailableDates);
             request.setAttribute("calendarEventsJson", new Gson().toJson(calendarEvents));
+            request.setAttribute("calendarMonth", month.toString());
 
             // Debug log
             System.out.println("Calendar events prepared: " + calendarEvents.size() + " events");
             System.out.println("Calendar JSON: " + new Gson().toJson(calendarEvents));
 
-            request.getRequestDispatcher("/photographer/availability_calendar.jsp").forward(request, response);
+            request.getRequestDispatcher("/photographer/availability_calender.jsp").forward(request, response);
         } catch (Exception e) {
             e.printStackTrace();
             session.setAttribute("errorMessage", "Error loading calendar: " + e.getMessage());
@@ -152,6 +178,20 @@ public class PhotographerAvailabilityServlet extends HttpServlet {
         }
     }
 
+    /**
+     * Parse a "YYYY-MM" month, defaulting to the current month
+     */
+    private YearMonth parseMonth(String month) {
+        if (month != null) {
+            try {
+                return YearMonth.parse(month);
+            } catch (java.time.format.DateTimeParseException e) {
+                LOGGER.warning("Invalid month: " + month);
+            }
+        }
+        return YearMonth.now();
+    }
+
     /**
      * Get booking type display name
      */
@@ -1,8 +1,13 @@
 package com.photobooking.servlet.photographer;
 
 import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
@@ -11,20 +16,24 @@ import javax.servlet.http.HttpServletResponse;
 
 import com.photobooking.model.photographer.Photographer;
 import com.photobooking.model.photographer.PhotographerManager;
+import com.photobooking.model.photographer.PhotographerQuery;
+import com.photobooking.model.photographer.PhotographerQueryResult;
+import com.photobooking.model.photographer.PhotographerSortKey;
 import com.photobooking.util.ValidationUtil;
 import com.photobooking.util.FileHandler;
-import com.photobooking.util.EnhancedSortingUtility;
+import com.photobooking.util.ManagerRegistry;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 /**
  * Servlet for handling the photographer list display and search functionality
- * Updated to use enhanced sorting functionality
+ * Each request selects only the page it shows, in the requested order
  */
 @WebServlet("/photographer/list")
 public class PhotographerListServlet extends HttpServlet {
     private static final long serialVersionUID = 1L;
     private static final Logger LOGGER = Logger.getLogger(PhotographerListServlet.class.getName());
+    private static final double DEFAULT_RADIUS_MILES = 25;
 
     @Override
     public void init() throws ServletException {
@@ -46,6 +55,19 @@ public class PhotographerListServlet extends HttpServlet {
             String specialty = request.getParameter("specialty");
             String location = ValidationUtil.cleanInput(request.getParameter("location"));
             String sortBy = request.getParameter("sortBy");
+            Double minPrice = parseDouble(request.getParameter("minPrice"));
+            Double maxPrice = parseDouble(request.getParameter("maxPrice"));
+            Double minRating = parseDouble(request.getParameter("minRating"));
+
+            // Proximity filter: photographers who travel to the event location, within a radius
+            String near = ValidationUtil.cleanInput(request.getParameter("near"));
+            Double radius = parseDouble(request.getParameter("radius"));
+
+            // Availability filter: free on a date, optionally at a time, for a service category
+            String availableDate = request.getParameter("availableDate");
+            String availableTime = request.getParameter("availableTime");
+            String category = request.getParameter("category");
+            String duration = request.getParameter("duration");
 
             // Get page number
             int page = 1;
@@ -59,58 +81,61 @@ public class PhotographerListServlet extends HttpServlet {
             }
 
             // Initialize PhotographerManager with servlet context
-            PhotographerManager photographerManager = new PhotographerManager(getServletContext());
-
-            // Output the total number of photographers for debugging
-            List<Photographer> allPhotos = photographerManager.getAllPhotographers();
-            LOGGER.info("Total photographers in system: " + allPhotos.size());
-
-            for (Photographer p : allPhotos) {
-                LOGGER.info("Photographer found: " + p.getBusinessName() + ", ID: " + p.getPhotographerId());
+            PhotographerManager photographerManager = ManagerRegistry.getInstance(getServletContext()).getPhotographerManager();
+
+            // Evaluate all filters as one query, counting the filter dropdown options in the same pass
+            PhotographerQuery query = new PhotographerQuery(search, specialty, location);
+            query.setMinPrice(minPrice);
+            query.setMaxPrice(maxPrice);
+            query.setMinRating(minRating);
+            if (!ValidationUtil.isNullOrEmpty(near)) {
+                query.setNear(near, radius != null ? radius : DEFAULT_RADIUS_MILES);
+                if (photographerManager.resolveLocation(near) == null) {
+                    request.setAttribute("errorMessage", "Unknown event location: " + near
+                            + ". Try the nearest town or city.");
+                }
             }
+            applySorting(query, sortBy);
 
-            List<Photographer> photographers;
-
-            // Get photographers based on search criteria
-            if (ValidationUtil.isNullOrEmpty(search) &&
-                    ValidationUtil.isNullOrEmpty(specialty) &&
-                    ValidationUtil.isNullOrEmpty(location) &&
-                    ValidationUtil.isNullOrEmpty(sortBy)) {
-                // No filters - get all photographers
-                photographers = allPhotos;
-                LOGGER.info("PhotographerListServlet: Got all photographers: " + photographers.size());
-            } else {
-                // Apply search filters
-                photographers = searchPhotographers(photographerManager, search, specialty, location);
-                LOGGER.info("PhotographerListServlet: Got filtered photographers: " + photographers.size());
+            // Keep only the photographers who are free when requested
+            if (!ValidationUtil.isNullOrEmpty(availableDate)) {
+                query.setPhotographerIds(findAvailable(availableDate, availableTime, category, duration));
             }
 
-            // Apply sorting - Now using the enhanced sorting methods
-            photographers = applySorting(photographerManager, photographers, sortBy);
-
-            // Apply pagination
+            // Only the requested page is selected, from a sorted view or with a bounded heap
             int itemsPerPage = 9;
-            int totalPhotographers = photographers.size();
+            page = Math.max(1, page);
+            query.setPage((page - 1) * itemsPerPage, itemsPerPage);
+            PhotographerQueryResult queryResult = photographerManager.findPhotographers(query);
+
+            List<Photographer> pagedPhotographers = queryResult.getPhotographers();
+            int totalPhotographers = queryResult.getTotalCount();
             int totalPages = (int) Math.ceil((double) totalPhotographers / itemsPerPage);
 
             if (totalPages == 0) totalPages = 1; // At least one page even if empty
+            LOGGER.info("PhotographerListServlet: Got filtered photographers: " + totalPhotographers);
 
-            int startIndex = (page - 1) * itemsPerPage;
-            int endIndex = Math.min(startIndex + itemsPerPage, totalPhotographers);
-
-            List<Photographer> pagedPhotographers = new ArrayList<>();
-            if (totalPhotographers > 0 && startIndex < totalPhotographers) {
-                pagedPhotographers = photographers.subList(startIndex, endIndex);
+            // Specialties for filter dropdown, keeping the selected one even when nothing matches it
+            List<String> specialties = new ArrayList<>(queryResult.getSpecialtyCounts().keySet());
+            if (!ValidationUtil.isNullOrEmpty(specialty) && !specialties.contains(specialty)) {
+                specialties.add(specialty);
             }
 
-            // Get all specialties for filter dropdown
-            List<String> specialties = getAllSpecialties(photographerManager);
-
             // Set attributes for JSP
             request.setAttribute("photographers", pagedPhotographers);
             request.setAttribute("currentPage", page);
             request.setAttribute("totalPages", totalPages);
             request.setAttribute("specialties", specialties);
+            request.setAttribute("specialtyCounts", queryResult.getSpecialtyCounts());
+            request.setAttribute("ratingCounts", queryResult.getRatingCounts());
+            request.setAttribute("minPrice", minPrice);
+            request.setAttribute("maxPrice", maxPrice);
+            request.setAttribute("minRating", minRating);
+            request.setAttribute("distances", queryResult.getDistances());
+            request.setAttribute("travelFees", queryResult.getTravelFees());
+            request.setAttribute("availableDate", availableDate);
+            request.setAttribute("availableTime", availableTime);
+            request.setAttribute("category", category);
             request.setAttribute("debugInfo", "Total photographers: " + totalPhotographers
                     + ", Page: " + page + ", Items per page: " + itemsPerPage);
 
@@ -131,65 +156,93 @@ public class PhotographerListServlet extends HttpServlet {
     }
 
     /**
-     * Search photographers based on criteria
+     * Parse an optional numeric filter
+     * @return The value, or null if it is missing or not a number
      */
-    private List<Photographer> searchPhotographers(PhotographerManager manager,
-                                                   String search, String specialty, String location) {
-        List<Photographer> result = manager.getAllPhotographers();
-
-        if (!ValidationUtil.isNullOrEmpty(search)) {
-            result = manager.searchPhotographers(search);
+    private Double parseDouble(String value) {
+        if (ValidationUtil.isNullOrEmpty(value)) {
+            return null;
         }
+        try {
+            return Double.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Invalid numeric filter: " + value);
+            return null;
+        }
+    }
 
-        if (!ValidationUtil.isNullOrEmpty(specialty)) {
-            result = manager.getPhotographersBySpecialty(specialty);
+    /**
+     * Get the IDs of the photographers who are available at the requested date and time
+     * @return The photographer IDs, or null if the date or time is invalid
+     */
+    private Set<String> findAvailable(String dateParam, String timeParam, String category, String durationParam) {
+        LocalDate date;
+        LocalTime time = null;
+        try {
+            date = LocalDate.parse(dateParam);
+            if (!ValidationUtil.isNullOrEmpty(timeParam)) {
+                time = LocalTime.parse(timeParam);
+            }
+        } catch (DateTimeParseException e) {
+            LOGGER.warning("Invalid availability filter: " + dateParam + " " + timeParam);
+            return null;
         }
 
-        if (!ValidationUtil.isNullOrEmpty(location)) {
-            result = manager.getPhotographersByLocation(location);
+        int durationHours = 1;
+        try {
+            if (durationParam != null) {
+                durationHours = Integer.parseInt(durationParam);
+            }
+        } catch (NumberFormatException e) {
+            durationHours = 1;
         }
 
-        return result;
+        Set<String> availableIds = new HashSet<>();
+        for (Photographer photographer : ManagerRegistry.getInstance(getServletContext()).getAvailabilitySearch()
+                .findAvailable(category, date, time, durationHours)) {
+            availableIds.add(photographer.getPhotographerId());
+        }
+        return availableIds;
     }
 
     /**
-     * Apply sorting to photographer list using enhanced sorting utilities
+     * Set the order of the query results from the sortBy parameter; by default nearest first when
+     * searching near an event location, best match first when searching by keyword, otherwise
+     * highest rating first
      */
-    private List<Photographer> applySorting(PhotographerManager manager,
-                                            List<Photographer> photographers, String sortBy) {
-        if (ValidationUtil.isNullOrEmpty(sortBy) || "rating-desc".equals(sortBy)) {
-            return manager.sortPhotographersByRating(photographers, false);
+    private void applySorting(PhotographerQuery query, String sortBy) {
+        String order = sortBy;
+        if (ValidationUtil.isNullOrEmpty(order)) {
+            if (query.getNearLocation() != null) {
+                order = "distance";
+            } else if (!ValidationUtil.isNullOrEmpty(query.getKeyword())) {
+                order = "relevance";
+            } else {
+                order = "rating-desc";
+            }
         }
 
-        switch (sortBy) {
+        switch (order) {
+            case "distance":
+            case "relevance":
+                query.setSort(null, true);
+                break;
             case "price-asc":
-                return manager.sortPhotographersByPrice(true);
+                query.setSort(PhotographerSortKey.PRICE, true);
+                break;
             case "price-desc":
-                return manager.sortPhotographersByPrice(false);
+                query.setSort(PhotographerSortKey.PRICE, false);
+                break;
             case "experience-desc":
-                return manager.sortPhotographersByExperience(false);
+                query.setSort(PhotographerSortKey.EXPERIENCE, false);
+                break;
             case "name-asc":
-                return manager.sortPhotographersByName(true);
+                query.setSort(PhotographerSortKey.NAME, true);
+                break;
+            case "rating-desc":
             default:
-                return photographers;
+                query.setSort(PhotographerSortKey.RATING, false);
+                break;
         }
     }
-
-    /**
-     * Get all unique specialties from photographers
-     */
-    private List<String> getAllSpecialties(PhotographerManager manager) {
-        List<String> specialties = new ArrayList<>();
-        List<Photographer> allPhotographers = manager.getAllPhotographers();
-
-        for (Photographer photographer : allPhotographers) {
-            for (String specialty : photographer.getSpecialties()) {
-                if (!specialties.contains(specialty)) {
-                    specialties.add(specialty);
-                }
-            }
-        }
-
-        return specialties;
-    }
 }
@@ -18,6 +18,7 @@ import com.photobooking.model.review.ReviewManager;
 import com.photobooking.model.user.User;
 import com.photobooking.model.user.UserManager;
 import com.photobooking.util.ValidationUtil;
+import com.photobooking.util.ManagerRegistry;
 
 /**
  * Servlet for handling photographer profile display
@@ -41,7 +42,7 @@ public class PhotographerProfileServlet extends HttpServlet {
 
             if (!ValidationUtil.isNullOrEmpty(userId)) {
                 // Look up photographer by user ID
-                PhotographerManager photographerManager = new PhotographerManager();
+                PhotographerManager photographerManager = ManagerRegistry.getInstance(getServletContext()).getPhotographerManager();
                 Photographer photographer = photographerManager.getPhotographerByUserId(userId);
 
                 if (photographer != null) {
@@ -59,7 +60,7 @@ public class PhotographerProfileServlet extends HttpServlet {
 
                 if (currentUser.getUserType() == User.UserType.PHOTOGRAPHER) {
                     // Look up photographer by user ID
-                    PhotographerManager photographerManager = new PhotographerManager();
+                    PhotographerManager photographerManager = ManagerRegistry.getInstance(getServletContext()).getPhotographerManager();
                     Photographer photographer = photographerManager.getPhotographerByUserId(currentUser.getUserId());
 
                     if (photographer != null) {
@@ -76,7 +77,7 @@ public class PhotographerProfileServlet extends HttpServlet {
         }
 
         // Get photographer details
-        PhotographerManager photographerManager = new PhotographerManager();
+        PhotographerManager photographerManager = ManagerRegistry.getInstance(getServletContext()).getPhotographerManager();
         Photographer photographer = photographerManager.getPhotographerById(photographerId);
 
         if (photographer == null) {
@@ -88,17 +89,17 @@ public class PhotographerProfileServlet extends HttpServlet {
         }
 
         // Get photographer's services
-        PhotographerServiceManager serviceManager = new PhotographerServiceManager();
+        PhotographerServiceManager serviceManager = ManagerRegistry.getInstance(getServletContext()).getServiceManager();
         List<PhotographerService> services = serviceManager.getActiveServicesByPhotographer(photographerId);
 
         // Load reviews for this photographer
-        ReviewManager reviewManager = new ReviewManager();
+        ReviewManager reviewManager = ManagerRegistry.getInstance(getServletContext()).getReviewManager();
         List<Review> reviews = reviewManager.getPhotographerReviews(photographerId);
         double averageRating = reviewManager.getAverageRating(photographerId);
         int[] ratingDistribution = reviewManager.getRatingDistribution(photographerId);
 
         // Get UserManager for displaying client names
-        UserManager userManager = new UserManager();
+        UserManager userManager = ManagerRegistry.getInstance(getServletContext()).getUserManager();
 
         // Set attributes for the view
         request.setAttribute("photographer", photographer);
@@ -16,6 +16,7 @@ import com.photobooking.model.photographer.PhotographerManager;
 import com.photobooking.model.photographer.PhotographerServiceManager;
 import com.photobooking.model.user.User;
 import com.photobooking.util.ValidationUtil;
+import com.photobooking.util.ManagerRegistry;
 
 /**
  * Servlet for handling photographer registration and profile creation
@@ -41,7 +42,7 @@ public class PhotographerRegistrationServlet extends HttpServlet {
         User currentUser = (User) session.getAttribute("user");
 
         // Check if user is already registered as a photographer
-        PhotographerManager photographerManager = new PhotographerManager();
+        PhotographerManager photographerManager = ManagerRegistry.getInstance(getServletContext()).getPhotographerManager();
         Photographer existingPhotographer = photographerManager.getPhotographerByUserId(currentUser.getUserId());
 
         if (existingPhotographer != null) {
@@ -72,7 +73,7 @@ public class PhotographerRegistrationServlet extends HttpServlet {
         User currentUser = (User) session.getAttribute("user");
 
         // Check if user is already registered as a photographer
-        PhotographerManager photographerManager = new PhotographerManager();
+        PhotographerManager photographerManager = ManagerRegistry.getInstance(getServletContext()).getPhotographerManager();
         Photographer existingPhotographer = photographerManager.getPhotographerByUserId(currentUser.getUserId());
 
         if (existingPhotographer != null) {
@@ -169,7 +170,7 @@ public class PhotographerRegistrationServlet extends HttpServlet {
         }
 
         // Create default services
-        PhotographerServiceManager serviceManager = new PhotographerServiceManager();
+        PhotographerServiceManager serviceManager = ManagerRegistry.getInstance(getServletContext()).getServiceManager();
         serviceManager.createDefaultServices(newPhotographer.getPhotographerId());
 
         // Set success message and redirect to dashboard
@@ -11,6 +11,7 @@ import javax.servlet.http.HttpSession;
 
 import com.photobooking.model.user.User;
 import com.photobooking.model.photographer.UnavailableDateManager;
+import com.photobooking.util.ManagerRegistry;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 
@@ -64,7 +65,7 @@ public class RemoveUnavailableDateServlet extends HttpServlet {
         }
 
         try {
-            UnavailableDateManager unavailableDateManager = new UnavailableDateManager();
+            UnavailableDateManager unavailableDateManager = ManagerRegistry.getInstance(getServletContext()).getUnavailableDateManager();
             boolean removed = unavailableDateManager.removeUnavailableDate(dateId);
 
             // Prepare JSON response
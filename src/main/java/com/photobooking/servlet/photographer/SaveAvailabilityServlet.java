@@ -15,6 +15,7 @@ import javax.servlet.http.HttpSession;
 import com.photobooking.model.photographer.UnavailableDate;
 import com.photobooking.model.photographer.UnavailableDateManager;
 import com.photobooking.model.user.User;
+import com.photobooking.util.ManagerRegistry;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonArray;
@@ -88,7 +89,7 @@ public class SaveAvailabilityServlet extends HttpServlet {
             }
 
             String photographerId = currentUser.getUserId();
-            UnavailableDateManager unavailableDateManager = new UnavailableDateManager();
+            UnavailableDateManager unavailableDateManager = ManagerRegistry.getInstance(getServletContext()).getUnavailableDateManager();
 
             // If all time slots (12) are blocked, create an all-day unavailable date
             if (unavailableTimeSlots.size() == 12) {
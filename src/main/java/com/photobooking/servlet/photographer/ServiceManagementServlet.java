@@ -16,6 +16,7 @@ import com.photobooking.model.photographer.PhotographerService;
 import com.photobooking.model.photographer.PhotographerServiceManager;
 import com.photobooking.model.user.User;
 import com.photobooking.util.FileHandler;
+import com.photobooking.util.ManagerRegistry;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -65,7 +66,7 @@ public class ServiceManagementServlet extends HttpServlet {
         // If photographerId is not in session, try to get it from the database
         if (photographerId == null) {
             try {
-                PhotographerManager photographerManager = new PhotographerManager(getServletContext());
+                PhotographerManager photographerManager = ManagerRegistry.getInstance(getServletContext()).getPhotographerManager();
                 Photographer photographer = photographerManager.getPhotographerByUserId(currentUser.getUserId());
 
                 if (photographer != null) {
@@ -95,7 +96,7 @@ public class ServiceManagementServlet extends HttpServlet {
 
                         // Create default services for the photographer
                         try {
-                            PhotographerServiceManager serviceManager = new PhotographerServiceManager(getServletContext());
+                            PhotographerServiceManager serviceManager = ManagerRegistry.getInstance(getServletContext()).getServiceManager();
                             serviceManager.createDefaultServices(photographerId);
                             LOGGER.info("Created default services for new photographer profile");
                         } catch (Exception e) {
@@ -125,10 +126,10 @@ public class ServiceManagementServlet extends HttpServlet {
 
         // Get photographer services
         try {
-            PhotographerServiceManager serviceManager = new PhotographerServiceManager(getServletContext());
+            PhotographerServiceManager serviceManager = ManagerRegistry.getInstance(getServletContext()).getServiceManager();
 
             // Debug: Load all services first to see what's available
-            List<PhotographerService> allServices = serviceManager.loadServices();
+            List<PhotographerService> allServices = serviceManager.getAllServices();
             LOGGER.info("Total services loaded: " + allServices.size());
             for (PhotographerService service : allServices) {
                 LOGGER.info("Service: ID=" + service.getServiceId() + ", Name=" + service.getName() + ", PhotographerId=" + service.getPhotographerId());
@@ -15,6 +15,7 @@ import com.photobooking.model.photographer.PhotographerService;
 import com.photobooking.model.photographer.PhotographerServiceManager;
 import com.photobooking.model.user.User;
 import com.photobooking.util.ValidationUtil;
+import com.photobooking.util.ManagerRegistry;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -92,7 +93,7 @@ public class UpdateServiceServlet extends HttpServlet {
             }
 
             // Get current service
-            PhotographerServiceManager serviceManager = new PhotographerServiceManager();
+            PhotographerServiceManager serviceManager = ManagerRegistry.getInstance(getServletContext()).getServiceManager();
             PhotographerService service = serviceManager.getServiceById(packageId);
 
             if (service == null) {
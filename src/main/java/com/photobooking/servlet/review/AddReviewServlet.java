@@ -15,6 +15,7 @@ import com.photobooking.model.user.User;
 import com.photobooking.model.photographer.Photographer;
 import com.photobooking.model.photographer.PhotographerManager;
 import com.photobooking.util.ValidationUtil;
+import com.photobooking.util.ManagerRegistry;
 
 /**
  * Servlet for handling adding reviews
@@ -50,7 +51,7 @@ public class AddReviewServlet extends HttpServlet {
         }
 
         // Check if user already has a review for this photographer
-        ReviewManager reviewManager = new ReviewManager();
+        ReviewManager reviewManager = ManagerRegistry.getInstance(getServletContext()).getReviewManager();
         Review existingReview = reviewManager.getReviewByClientAndPhotographer(
                 currentUser.getUserId(), photographerId);
 
@@ -62,7 +63,7 @@ public class AddReviewServlet extends HttpServlet {
         }
 
         // Get photographer details
-        PhotographerManager photographerManager = new PhotographerManager();
+        PhotographerManager photographerManager = ManagerRegistry.getInstance(getServletContext()).getPhotographerManager();
         Photographer photographer = photographerManager.getPhotographerById(photographerId);
 
         if (photographer == null) {
@@ -127,7 +128,7 @@ public class AddReviewServlet extends HttpServlet {
         }
 
         // Check if user already has a review for this photographer
-        ReviewManager reviewManager = new ReviewManager();
+        ReviewManager reviewManager = ManagerRegistry.getInstance(getServletContext()).getReviewManager();
         Review existingReview = reviewManager.getReviewByClientAndPhotographer(
                 currentUser.getUserId(), photographerId);
 
@@ -156,7 +157,7 @@ public class AddReviewServlet extends HttpServlet {
 
             // Also update photographer's average rating
             try {
-                PhotographerManager photographerManager = new PhotographerManager();
+                PhotographerManager photographerManager = ManagerRegistry.getInstance(getServletContext()).getPhotographerManager();
                 Photographer photographer = photographerManager.getPhotographerById(photographerId);
                 if (photographer != null) {
                     photographer.addReview(rating);
@@ -14,6 +14,7 @@ import com.photobooking.model.user.User;
 import com.photobooking.model.photographer.Photographer;
 import com.photobooking.model.photographer.PhotographerManager;
 import com.photobooking.util.ValidationUtil;
+import com.photobooking.util.ManagerRegistry;
 
 /**
  * Servlet for handling deleting reviews
@@ -44,7 +45,7 @@ public class DeleteReviewServlet extends HttpServlet {
         }
 
         // Get review
-        ReviewManager reviewManager = new ReviewManager();
+        ReviewManager reviewManager = ManagerRegistry.getInstance(getServletContext()).getReviewManager();
         Review review = reviewManager.getReviewById(reviewId);
 
         if (review == null) {
@@ -72,7 +73,7 @@ public class DeleteReviewServlet extends HttpServlet {
 
             // Update photographer's average rating
             try {
-                PhotographerManager photographerManager = new PhotographerManager();
+                PhotographerManager photographerManager = ManagerRegistry.getInstance(getServletContext()).getPhotographerManager();
                 Photographer photographer = photographerManager.getPhotographerById(photographerId);
                 if (photographer != null) {
                     double avgRating = reviewManager.getAverageRating(photographerId);
@@ -16,6 +16,7 @@ import com.photobooking.model.user.UserManager;
 import com.photobooking.model.photographer.Photographer;
 import com.photobooking.model.photographer.PhotographerManager;
 import com.photobooking.util.ValidationUtil;
+import com.photobooking.util.ManagerRegistry;
 
 /**
  * Servlet for viewing all reviews for a photographer
@@ -35,7 +36,7 @@ public class PhotographerReviewsServlet extends HttpServlet {
         }
 
         // Get photographer details
-        PhotographerManager photographerManager = new PhotographerManager();
+        PhotographerManager photographerManager = ManagerRegistry.getInstance(getServletContext()).getPhotographerManager();
         Photographer photographer = photographerManager.getPhotographerById(photographerId);
 
         if (photographer == null) {
@@ -46,13 +47,13 @@ public class PhotographerReviewsServlet extends HttpServlet {
         }
 
         // Get reviews for this photographer
-        ReviewManager reviewManager = new ReviewManager();
+        ReviewManager reviewManager = ManagerRegistry.getInstance(getServletContext()).getReviewManager();
         List<Review> reviews = reviewManager.getPhotographerReviews(photographerId);
         double averageRating = reviewManager.getAverageRating(photographerId);
         int[] ratingDistribution = reviewManager.getRatingDistribution(photographerId);
 
         // Get UserManager for displaying client names
-        UserManager userManager = new UserManager();
+        UserManager userManager = ManagerRegistry.getInstance(getServletContext()).getUserManager();
 
         // Set attributes for JSP
         request.setAttribute("photographer", photographer);
@@ -14,6 +14,7 @@ import com.photobooking.model.user.User;
 import com.photobooking.model.photographer.Photographer;
 import com.photobooking.model.photographer.PhotographerManager;
 import com.photobooking.util.ValidationUtil;
+import com.photobooking.util.ManagerRegistry;
 
 /**
  * Servlet for handling photographer responses to reviews
@@ -52,7 +53,7 @@ public class RespondToReviewServlet extends HttpServlet {
         }
 
         // Get the review
-        ReviewManager reviewManager = new ReviewManager();
+        ReviewManager reviewManager = ManagerRegistry.getInstance(getServletContext()).getReviewManager();
         Review review = reviewManager.getReviewById(reviewId);
 
         if (review == null) {
@@ -62,7 +63,7 @@ public class RespondToReviewServlet extends HttpServlet {
         }
 
         // Verify the review is for this photographer
-        PhotographerManager photographerManager = new PhotographerManager();
+        PhotographerManager photographerManager = ManagerRegistry.getInstance(getServletContext()).getPhotographerManager();
         Photographer photographer = photographerManager.getPhotographerByUserId(currentUser.getUserId());
 
         if (photographer == null) {
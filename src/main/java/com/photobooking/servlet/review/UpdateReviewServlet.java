@@ -15,6 +15,7 @@ import com.photobooking.model.user.User;
 import com.photobooking.model.photographer.Photographer;
 import com.photobooking.model.photographer.PhotographerManager;
 import com.photobooking.util.ValidationUtil;
+import com.photobooking.util.ManagerRegistry;
 
 /**
  * Servlet for handling updating reviews
@@ -45,7 +46,7 @@ public class UpdateReviewServlet extends HttpServlet {
         }
 
         // Get review
-        ReviewManager reviewManager = new ReviewManager();
+        ReviewManager reviewManager = ManagerRegistry.getInstance(getServletContext()).getReviewManager();
         Review review = reviewManager.getReviewById(reviewId);
 
         if (review == null) {
@@ -63,7 +64,7 @@ public class UpdateReviewServlet extends HttpServlet {
         }
 
         // Get photographer details
-        PhotographerManager photographerManager = new PhotographerManager();
+        PhotographerManager photographerManager = ManagerRegistry.getInstance(getServletContext()).getPhotographerManager();
         Photographer photographer = photographerManager.getPhotographerById(review.getPhotographerId());
 
         // Set attributes for JSP
@@ -116,7 +117,7 @@ public class UpdateReviewServlet extends HttpServlet {
         }
 
         // Get existing review
-        ReviewManager reviewManager = new ReviewManager();
+        ReviewManager reviewManager = ManagerRegistry.getInstance(getServletContext()).getReviewManager();
         Review review = reviewManager.getReviewById(reviewId);
 
         if (review == null) {
@@ -152,7 +153,7 @@ public class UpdateReviewServlet extends HttpServlet {
             // Update photographer's average rating if rating changed
             if (oldRating != rating) {
                 try {
-                    PhotographerManager photographerManager = new PhotographerManager();
+                    PhotographerManager photographerManager = ManagerRegistry.getInstance(getServletContext()).getPhotographerManager();
                     Photographer photographer = photographerManager.getPhotographerById(photographerId);
                     if (photographer != null) {
                         // Recalculate average rating
@@ -16,6 +16,7 @@ import com.photobooking.model.user.UserManager;
 import com.photobooking.model.photographer.Photographer;
 import com.photobooking.model.photographer.PhotographerManager;
 import com.photobooking.util.ValidationUtil;
+import com.photobooking.util.ManagerRegistry;
 
 /**
  * Servlet for handling viewing reviews
@@ -39,7 +40,7 @@ public class ViewReviewsServlet extends HttpServlet {
         System.out.println("ViewReviewsServlet: User type = " + currentUser.getUserType());
 
         // Get reviews based on user type
-        ReviewManager reviewManager = new ReviewManager();
+        ReviewManager reviewManager = ManagerRegistry.getInstance(getServletContext()).getReviewManager();
         List<Review> reviews = null;
 
         if (currentUser.getUserType() == User.UserType.CLIENT) {
@@ -48,7 +49,7 @@ public class ViewReviewsServlet extends HttpServlet {
             System.out.println("Found " + reviews.size() + " reviews for client: " + currentUser.getUserId());
         } else if (currentUser.getUserType() == User.UserType.PHOTOGRAPHER) {
             // Get photographer ID
-            PhotographerManager photographerManager = new PhotographerManager();
+            PhotographerManager photographerManager = ManagerRegistry.getInstance(getServletContext()).getPhotographerManager();
             Photographer photographer = photographerManager.getPhotographerByUserId(currentUser.getUserId());
 
             if (photographer == null) {
@@ -62,7 +63,7 @@ public class ViewReviewsServlet extends HttpServlet {
             System.out.println("Found " + reviews.size() + " reviews for photographer: " + photographer.getPhotographerId());
         } else if (currentUser.getUserType() == User.UserType.ADMIN) {
             // Admin can see all reviews
-            reviews = reviewManager.loadReviews();
+            reviews = reviewManager.getAllReviews();
             System.out.println("Admin viewing all reviews: " + reviews.size());
         } else {
             session.setAttribute("errorMessage", "Invalid user type");
@@ -71,8 +72,8 @@ public class ViewReviewsServlet extends HttpServlet {
         }
 
         // Get user and photographer details for each review
-        UserManager userManager = new UserManager();
-        PhotographerManager photographerManager = new PhotographerManager();
+        UserManager userManager = ManagerRegistry.getInstance(getServletContext()).getUserManager();
+        PhotographerManager photographerManager = ManagerRegistry.getInstance(getServletContext()).getPhotographerManager();
 
         // Set attributes for JSP
         request.setAttribute("reviews", reviews);
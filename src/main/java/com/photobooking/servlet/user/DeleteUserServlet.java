@@ -10,6 +10,7 @@ import javax.servlet.http.HttpSession;
 
 import com.photobooking.model.user.User;
 import com.photobooking.model.user.UserManager;
+import com.photobooking.util.ManagerRegistry;
 
 /**
  * Servlet for handling user account deletion in the Event Photography System
@@ -67,7 +68,7 @@ public class DeleteUserServlet extends HttpServlet {
         }
 
         // Create UserManager
-        UserManager userManager = new UserManager(getServletContext());
+        UserManager userManager = ManagerRegistry.getInstance(getServletContext()).getUserManager();
 
         // Get the current user
         User user = userManager.getUserById(userId);
@@ -13,6 +13,7 @@ import com.photobooking.model.user.UserManager;
 import com.photobooking.model.photographer.Photographer;
 import com.photobooking.model.photographer.PhotographerManager;
 import com.photobooking.util.ValidationUtil;
+import com.photobooking.util.ManagerRegistry;
 
 /**
  * Servlet for handling user login in the Event Photography System
@@ -54,7 +55,7 @@ public class LoginServlet extends HttpServlet {
         }
 
         // Create UserManager
-        UserManager userManager = new UserManager(getServletContext());
+        UserManager userManager = ManagerRegistry.getInstance(getServletContext()).getUserManager();
 
         try {
             // Attempt authentication
@@ -72,7 +73,7 @@ public class LoginServlet extends HttpServlet {
 
                 // If user is a photographer, get and store their photographer profile ID
                 if (user.getUserType() == User.UserType.PHOTOGRAPHER) {
-                    PhotographerManager photographerManager = new PhotographerManager();
+                    PhotographerManager photographerManager = ManagerRegistry.getInstance(getServletContext()).getPhotographerManager();
                     Photographer photographer = photographerManager.getPhotographerByUserId(user.getUserId());
 
                     if (photographer != null) {
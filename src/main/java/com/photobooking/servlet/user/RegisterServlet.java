@@ -15,6 +15,7 @@ import com.photobooking.model.photographer.PhotographerManager;
 import com.photobooking.model.photographer.PhotographerServiceManager;
 import com.photobooking.util.ValidationUtil;
 import com.photobooking.util.FileHandler;
+import com.photobooking.util.ManagerRegistry;
 import java.util.ArrayList;
 import java.util.logging.Logger;
 import java.util.logging.Level;
@@ -128,7 +129,7 @@ public class RegisterServlet extends HttpServlet {
         }
 
         // Create UserManager
-        UserManager userManager = new UserManager(getServletContext());
+        UserManager userManager = ManagerRegistry.getInstance(getServletContext()).getUserManager();
 
         // Check if username already exists
         if (userManager.getUserByUsername(username) != null) {
@@ -161,7 +162,7 @@ public class RegisterServlet extends HttpServlet {
                         // Ensure photographers.txt file exists
                         FileHandler.ensureFileExists("photographers.txt");
 
-                        PhotographerManager photographerManager = new PhotographerManager();
+                        PhotographerManager photographerManager = ManagerRegistry.getInstance(getServletContext()).getPhotographerManager();
 
                         // Create a simple photographer profile with default values
                         Photographer photographer = new Photographer();
@@ -186,7 +187,7 @@ public class RegisterServlet extends HttpServlet {
                                 // Ensure services.txt file exists
                                 FileHandler.ensureFileExists("services.txt");
 
-                                PhotographerServiceManager serviceManager = new PhotographerServiceManager();
+                                PhotographerServiceManager serviceManager = ManagerRegistry.getInstance(getServletContext()).getServiceManager();
                                 serviceManager.createDefaultServices(photographer.getPhotographerId());
                                 LOGGER.info("Default services created for photographer: " + username);
                             } catch (Exception e) {
@@ -11,6 +11,7 @@ import javax.servlet.http.HttpSession;
 import com.photobooking.model.user.User;
 import com.photobooking.model.user.UserManager;
 import com.photobooking.util.ValidationUtil;
+import com.photobooking.util.ManagerRegistry;
 
 /**
  * Servlet for handling user profile updates in the Event Photography System
@@ -37,7 +38,7 @@ public class UpdateProfileServlet extends HttpServlet {
         String userId = (String) session.getAttribute("userId");
 
         // Create UserManager and get user
-        UserManager userManager = new UserManager(getServletContext());
+        UserManager userManager = ManagerRegistry.getInstance(getServletContext()).getUserManager();
         User user = userManager.getUserById(userId);
 
         if (user == null) {
@@ -72,7 +73,7 @@ public class UpdateProfileServlet extends HttpServlet {
         String userId = (String) session.getAttribute("userId");
 
         // Create UserManager and get user
-        UserManager userManager = new UserManager(getServletContext());
+        UserManager userManager = ManagerRegistry.getInstance(getServletContext()).getUserManager();
         User user = userManager.getUserById(userId);
 
         if (user == null) {
@@ -1,5 +1,6 @@
 package com.photobooking.util;
 
+import com.photobooking.model.booking.BookingQueueManager;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletContextEvent;
 import javax.servlet.ServletContextListener;
@@ -22,10 +23,16 @@ public class ApplicationContextListener implements ServletContextListener {
         FileHandler.setServletContext(context);
 
         LOGGER.info("File system configured successfully.");
+
+        // Load the shared data managers once for the whole application
+        ManagerRegistry.initialize(context);
     }
 
     @Override
     public void contextDestroyed(ServletContextEvent sce) {
+        // Stop the queue before the managers it saves bookings through
+        BookingQueueManager.shutdown();
+        ManagerRegistry.destroy(sce.getServletContext());
         LOGGER.info("Application context destroyed");
     }
 }
\ No newline at end of file
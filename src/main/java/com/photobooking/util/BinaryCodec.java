@@ -0,0 +1,34 @@
+package com.photobooking.util;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Converts records of one type to and from the compact binary data file format.
+ * @param <T> Record type
+ */
+public interface BinaryCodec<T> {
+
+    /**
+     * Get the schema version written by this codec
+     * @return Schema version, stored in the header of every binary data file
+     */
+    int getSchemaVersion();
+
+    /**
+     * Write one record
+     * @param record The record
+     * @param out Destination for the record's fields
+     * @throws IOException if the record cannot be written
+     */
+    void write(T record, DataOutput out) throws IOException;
+
+    /**
+     * Read one record
+     * @param in Buffer positioned at the start of the record's fields
+     * @param schemaVersion Schema version from the file header, at most getSchemaVersion()
+     * @return The record
+     */
+    T read(ByteBuffer in, int schemaVersion);
+}
@@ -0,0 +1,187 @@
+package com.photobooking.util;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Field encodings shared by the binary codecs.
+ * Fields are big-endian, matching DataOutput on the write side and ByteBuffer on the read side.
+ */
+public final class BinaryFields {
+    // Tags written in front of an ID
+    private static final byte ID_NULL = 0;
+    private static final byte ID_UUID = 1;
+    private static final byte ID_TEXT = 2;
+
+    // Length written for a null string
+    private static final int NULL_LENGTH = -1;
+
+    // Epoch second written for a null date-time
+    private static final long NULL_DATE_TIME = Long.MIN_VALUE;
+
+    private BinaryFields() {
+    }
+
+    /**
+     * Write an ID, as two longs when it is a UUID
+     * @param out Destination
+     * @param id The ID, may be null
+     * @throws IOException if writing fails
+     */
+    public static void writeId(DataOutput out, String id) throws IOException {
+        if (id == null) {
+            out.writeByte(ID_NULL);
+            return;
+        }
+
+        UUID uuid = parseUuid(id);
+        if (uuid != null) {
+            out.writeByte(ID_UUID);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else {
+            // IDs that are not in canonical UUID form are kept verbatim
+            out.writeByte(ID_TEXT);
+            writeString(out, id);
+        }
+    }
+
+    /**
+     * Read an ID written by writeId
+     * @param in Source
+     * @return The ID, may be null
+     */
+    public static String readId(ByteBuffer in) {
+        byte tag = in.get();
+        switch (tag) {
+            case ID_NULL:
+                return null;
+            case ID_UUID:
+                return new UUID(in.getLong(), in.getLong()).toString();
+            case ID_TEXT:
+                return readString(in);
+            default:
+                throw new IllegalStateException("Unknown ID tag: " + tag);
+        }
+    }
+
+    /**
+     * Write a length-prefixed UTF-8 string
+     * @param out Destination
+     * @param value The value, may be null
+     * @throws IOException if writing fails
+     */
+    public static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Read a string written by writeString
+     * @param in Source
+     * @return The value, may be null
+     */
+    public static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+
+        String value;
+        if (in.hasArray()) {
+            value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            in.duplicate().get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        skip(in, length);
+        return value;
+    }
+
+    /**
+     * Write a date-time as UTC epoch seconds and nanoseconds
+     * @param out Destination
+     * @param value The value, may be null
+     * @throws IOException if writing fails
+     */
+    public static void writeDateTime(DataOutput out, LocalDateTime value) throws IOException {
+        if (value == null) {
+            out.writeLong(NULL_DATE_TIME);
+            return;
+        }
+        out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(value.getNano());
+    }
+
+    /**
+     * Read a date-time written by writeDateTime
+     * @param in Source
+     * @return The value, may be null
+     */
+    public static LocalDateTime readDateTime(ByteBuffer in) {
+        long epochSecond = in.getLong();
+        if (epochSecond == NULL_DATE_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(epochSecond, in.getInt(), ZoneOffset.UTC);
+    }
+
+    /**
+     * Write an enum constant by ordinal
+     * @param out Destination
+     * @param value The value, may be null
+     * @throws IOException if writing fails
+     */
+    public static void writeEnum(DataOutput out, Enum<?> value) throws IOException {
+        out.writeByte(value != null ? value.ordinal() : -1);
+    }
+
+    /**
+     * Read an enum constant written by writeEnum
+     * @param in Source
+     * @param values The constants of the enum, as returned by values()
+     * @param <E> Enum type
+     * @return The constant, may be null
+     */
+    public static <E extends Enum<E>> E readEnum(ByteBuffer in, E[] values) {
+        byte ordinal = in.get();
+        if (ordinal < 0) {
+            return null;
+        }
+        if (ordinal >= values.length) {
+            throw new IllegalStateException("Unknown enum ordinal: " + ordinal);
+        }
+        return values[ordinal];
+    }
+
+    private static void skip(ByteBuffer in, int length) {
+        // Cast to Buffer so the call links on Java 8 runtimes as well
+        ((Buffer) in).position(in.position() + length);
+    }
+
+    private static UUID parseUuid(String id) {
+        if (id.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(id);
+            // Only accept the canonical form so the ID reads back unchanged
+            return uuid.toString().equals(id) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.photobooking.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Data file in the compact binary record format.
+ *
+ * Layout: a header of the magic number "PBRF" and the codec's schema version (both ints),
+ * followed by one record per entry, each prefixed with its length in bytes. The length prefix
+ * lets a reader skip fields appended by newer schema versions.
+ *
+ * The binary format is selected per data file with the "storage.format.&lt;name&gt;" parameter,
+ * e.g. storage.format.bookings=binary stores bookings.txt as bookings.bin.
+ *
+ * @param <T> Record type
+ */
+public class BinaryRecordFile<T> {
+    private static final Logger LOGGER = Logger.getLogger(BinaryRecordFile.class.getName());
+
+    public static final String FORMAT_PARAM_PREFIX = "storage.format.";
+    public static final String BINARY_FORMAT = "binary";
+    public static final String BINARY_SUFFIX = ".bin";
+
+    private static final int MAGIC = 0x50425246; // "PBRF"
+    private static final int HEADER_SIZE = 8;
+
+    private final String filePath;
+    private final BinaryCodec<T> codec;
+
+    /**
+     * Create a binary data file
+     * @param filePath The binary data file, e.g. bookings.bin
+     * @param codec Codec for the records
+     */
+    public BinaryRecordFile(String filePath, BinaryCodec<T> codec) {
+        this.filePath = filePath;
+        this.codec = codec;
+    }
+
+    /**
+     * Create the binary data file for a text data file if the binary format is selected for it
+     * @param textFile The text data file, e.g. bookings.txt
+     * @param codec Codec for the records
+     * @param <T> Record type
+     * @return The binary data file, or null if the file is stored as text
+     */
+    public static <T> BinaryRecordFile<T> forDataFile(String textFile, BinaryCodec<T> codec) {
+        String format = FileHandler.getConfigParameter(FORMAT_PARAM_PREFIX + baseName(textFile), "text");
+        if (!BINARY_FORMAT.equalsIgnoreCase(format)) {
+            return null;
+        }
+        return new BinaryRecordFile<>(binaryPath(textFile), codec);
+    }
+
+    /**
+     * Get the binary file name for a text data file
+     * @param textFile The text data file, e.g. bookings.txt
+     * @return The binary file name, e.g. bookings.bin
+     */
+    public static String binaryPath(String textFile) {
+        int dot = textFile.lastIndexOf('.');
+        int separator = Math.max(textFile.lastIndexOf('/'), textFile.lastIndexOf(File.separatorChar));
+        String base = dot > separator ? textFile.substring(0, dot) : textFile;
+        return base + BINARY_SUFFIX;
+    }
+
+    private static String baseName(String textFile) {
+        String name = new File(textFile).getName();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Load every record in the file.
+     * A file that exists but cannot be read is an error rather than a missing file: falling back to
+     * the text file would reload data from before the conversion, and the next commit would
+     * overwrite this file with it.
+     * @return Records in file order, or null if the file does not exist
+     * @throws IllegalStateException if the file exists but cannot be read
+     */
+    public List<T> load() {
+        FileHandler.initialize();
+        File file = new File(FileHandler.getFullPath(filePath));
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File is too large to map");
+            }
+            if (size == 0) {
+                return new ArrayList<>();
+            }
+            if (size < HEADER_SIZE) {
+                throw new IOException("Truncated header");
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a binary data file");
+            }
+
+            int schemaVersion = buffer.getInt();
+            if (schemaVersion > codec.getSchemaVersion()) {
+                throw new IOException("Schema version " + schemaVersion
+                        + " is newer than the supported version " + codec.getSchemaVersion());
+            }
+
+            List<T> records = new ArrayList<>();
+            while (buffer.remaining() >= 4) {
+                int length = buffer.getInt();
+                int start = buffer.position();
+                if (length < 0 || length > buffer.remaining()) {
+                    throw new IOException("Truncated record at offset " + start);
+                }
+
+                T record = codec.read(buffer, schemaVersion);
+                if (record != null) {
+                    records.add(record);
+                }
+
+                // Skip any fields written by a newer schema
+                ((Buffer) buffer).position(start + length);
+            }
+
+            LOGGER.info("Loaded " + records.size() + " records from binary file " + filePath
+                    + " (schema version " + schemaVersion + ")");
+            return records;
+        } catch (IOException | RuntimeException e) {
+            String message = "Cannot read binary data file " + filePath + ": " + e.getMessage();
+            LOGGER.log(Level.SEVERE, message, e);
+            throw new IllegalStateException(message, e);
+        }
+    }
+
+    /**
+     * Atomically replace the file with the given records
+     * @param records Records to write, in order
+     * @return true if successful, false otherwise
+     */
+    public boolean commit(Collection<? extends T> records) {
+        return FileHandler.commitStream(filePath, stream -> {
+            DataOutputStream out = new DataOutputStream(stream);
+            out.writeInt(MAGIC);
+            out.writeInt(codec.getSchemaVersion());
+
+            ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(256);
+            DataOutputStream recordOut = new DataOutputStream(recordBytes);
+
+            for (T record : records) {
+                recordBytes.reset();
+                codec.write(record, recordOut);
+                recordOut.flush();
+
+                out.writeInt(recordBytes.size());
+                recordBytes.writeTo(out);
+            }
+            out.flush();
+        });
+    }
+}
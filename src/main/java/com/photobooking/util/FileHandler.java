@@ -1,9 +1,17 @@
 package com.photobooking.util;
 
 import java.io.*;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
+import java.util.function.Function;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 import javax.servlet.ServletContext;
@@ -15,6 +23,8 @@ import javax.servlet.ServletContext;
 public class FileHandler {
     private static final Logger LOGGER = Logger.getLogger(FileHandler.class.getName());
     private static String DATA_DIRECTORY = "WEB-INF/data";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int COMMIT_BUFFER_SIZE = 256 * 1024;
     private static boolean initialized = false;
     private static ServletContext servletContext = null;
 
@@ -113,6 +123,44 @@ public class FileHandler {
         LOGGER.info("FileHandler initialized with data directory: " + DATA_DIRECTORY);
     }
 
+    /**
+     * Read a configuration value from the web.xml context parameters,
+     * falling back to a system property of the same name and then to the default
+     * @param name Parameter name
+     * @param defaultValue Value used when the parameter is not set
+     * @return The configured value
+     */
+    public static String getConfigParameter(String name, String defaultValue) {
+        String value = null;
+        if (servletContext != null) {
+            value = servletContext.getInitParameter(name);
+        }
+        if (value == null || value.trim().isEmpty()) {
+            value = System.getProperty(name);
+        }
+        return (value == null || value.trim().isEmpty()) ? defaultValue : value.trim();
+    }
+
+    /**
+     * Read a numeric configuration value
+     * @param name Parameter name
+     * @param defaultValue Value used when the parameter is not set or not a number
+     * @return The configured value
+     */
+    public static long getConfigParameter(String name, long defaultValue) {
+        String value = getConfigParameter(name, (String) null);
+        if (value == null) {
+            return defaultValue;
+        }
+
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Invalid value for " + name + ": " + value + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
     /**
      * Creates a directory if it doesn't exist
      * @param directoryPath Path of the directory to create
@@ -377,12 +425,178 @@ public class FileHandler {
         }
     }
 
+    /**
+     * Atomically replaces the content of a file.
+     * The content is written to a sibling temp file, forced to disk and then moved over
+     * the target, so readers see either the old or the new file but never a partial one.
+     * @param filePath Path to the file
+     * @param content New content of the file
+     * @return true if the commit was successful
+     */
+    public static boolean commitFile(String filePath, String content) {
+        return commit(filePath, Collections.singletonList(content), Function.identity(), false);
+    }
+
+    /**
+     * Atomically replaces the content of a file with one line per record.
+     * Records are encoded straight into a large buffer on the temp file's channel,
+     * without first building the whole file content in memory.
+     * @param filePath Path to the file
+     * @param records Records to write, in order
+     * @param encoder Converts a record to its line
+     * @param <T> Record type
+     * @return true if the commit was successful
+     */
+    public static <T> boolean commitRecords(String filePath, Collection<? extends T> records,
+                                            Function<? super T, String> encoder) {
+        return commit(filePath, records, encoder, true);
+    }
+
+    /**
+     * Writes the content of a file to a stream
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Atomically replaces the content of a file with bytes produced by a writer.
+     * Used for binary data files; the same temp file, fsync and rename steps as commitFile apply.
+     * @param filePath Path to the file
+     * @param writer Writes the new content to the stream it is given
+     * @return true if the commit was successful
+     */
+    public static boolean commitStream(String filePath, ContentWriter writer) {
+        initialize();
+
+        Path target = Paths.get(getFullPath(filePath));
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+
+        try {
+            if (target.getParent() != null) {
+                Files.createDirectories(target.getParent());
+            }
+
+            try (FileOutputStream fileOut = new FileOutputStream(temp.toFile())) {
+                BufferedOutputStream out = new BufferedOutputStream(fileOut, COMMIT_BUFFER_SIZE);
+                writer.write(out);
+                out.flush();
+
+                // Make sure the data is on disk before it becomes visible under the real name
+                fileOut.getChannel().force(true);
+            }
+
+            moveIntoPlace(temp, target);
+            return true;
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error committing file: " + filePath, e);
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // The stale temp file is overwritten by the next commit
+            }
+            return false;
+        }
+    }
+
+    private static <T> boolean commit(String filePath, Collection<? extends T> records,
+                                      Function<? super T, String> encoder, boolean lines) {
+        initialize();
+
+        Path target = Paths.get(getFullPath(filePath));
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+
+        try {
+            if (target.getParent() != null) {
+                Files.createDirectories(target.getParent());
+            }
+
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                CharsetEncoder charsetEncoder = StandardCharsets.UTF_8.newEncoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+                ByteBuffer buffer = ByteBuffer.allocateDirect(COMMIT_BUFFER_SIZE);
+                CharBuffer separator = CharBuffer.wrap(System.lineSeparator());
+
+                for (T record : records) {
+                    encode(channel, buffer, charsetEncoder, CharBuffer.wrap(encoder.apply(record)));
+                    if (lines) {
+                        encode(channel, buffer, charsetEncoder, separator.duplicate());
+                    }
+                }
+
+                encode(channel, buffer, charsetEncoder, CharBuffer.allocate(0), true);
+                while (charsetEncoder.flush(buffer).isOverflow()) {
+                    drain(channel, buffer);
+                }
+                drain(channel, buffer);
+
+                // Make sure the data is on disk before it becomes visible under the real name
+                channel.force(true);
+            }
+
+            moveIntoPlace(temp, target);
+            return true;
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error committing file: " + filePath, e);
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // The stale temp file is overwritten by the next commit
+            }
+            return false;
+        }
+    }
+
+    private static void encode(FileChannel channel, ByteBuffer buffer, CharsetEncoder encoder,
+                               CharBuffer chars) throws IOException {
+        encode(channel, buffer, encoder, chars, false);
+    }
+
+    private static void encode(FileChannel channel, ByteBuffer buffer, CharsetEncoder encoder,
+                               CharBuffer chars, boolean endOfInput) throws IOException {
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, endOfInput);
+            if (!result.isOverflow()) {
+                return;
+            }
+            drain(channel, buffer);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        ((Buffer) buffer).flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        ((Buffer) buffer).clear();
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        // Persist the rename itself; not supported on every platform
+        if (target.getParent() != null) {
+            try (FileChannel directory = FileChannel.open(target.getParent(), StandardOpenOption.READ)) {
+                directory.force(true);
+            } catch (IOException e) {
+                // Directory sync is best effort
+            }
+        }
+    }
+
     /**
      * Get the full absolute path for a file
      * @param filePath The relative or base filename
      * @return Full path including data directory if needed
      */
-    private static String getFullPath(String filePath) {
+    static String getFullPath(String filePath) {
         // If it's already absolute, return as is
         if (new File(filePath).isAbsolute()) {
             return filePath;
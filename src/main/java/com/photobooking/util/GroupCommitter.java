@@ -0,0 +1,226 @@
+package com.photobooking.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Group commit for concurrent mutations.
+ * Mutations that arrive within a short window (or until the batch is full) are collected into
+ * one batch and flushed to disk with a single write; every caller waiting on the batch is then
+ * released together with the result of that write.
+ *
+ * Usage: call {@link #enqueue(String)} while holding the owner's lock, so that records are
+ * batched in the order the mutations were applied, then release the lock and call
+ * {@link #await(Batch)}. The first caller to await a batch becomes its leader and runs the flush.
+ */
+public class GroupCommitter {
+    private static final Logger LOGGER = Logger.getLogger(GroupCommitter.class.getName());
+
+    // Configuration parameters (web.xml context-param or system property)
+    public static final String WINDOW_PARAM = "storage.groupCommitWindowMillis";
+    public static final String BATCH_SIZE_PARAM = "storage.groupCommitBatchSize";
+
+    private static final long DEFAULT_WINDOW_MILLIS = 2;
+    private static final long DEFAULT_BATCH_SIZE = 64;
+
+    private final String name;
+    private final Predicate<List<String>> flushAction;
+    private final long windowMillis;
+    private final int batchSize;
+
+    private final Object lock = new Object();
+    private Batch current;
+    private boolean flushing;
+
+    /**
+     * A group of mutations that are written to disk together
+     */
+    public static final class Batch {
+        private final List<String> records = new ArrayList<>();
+        private int size;
+        private boolean leaderAssigned;
+        private boolean done;
+        private boolean result;
+
+        private Batch() {
+        }
+    }
+
+    /**
+     * Create a group committer using the configured window and batch size
+     * @param name Name used in log messages, e.g. the data file
+     * @param flushAction Writes one batch to disk; receives the batched records and returns true on success
+     */
+    public GroupCommitter(String name, Predicate<List<String>> flushAction) {
+        this(name, flushAction,
+                FileHandler.getConfigParameter(WINDOW_PARAM, DEFAULT_WINDOW_MILLIS),
+                (int) FileHandler.getConfigParameter(BATCH_SIZE_PARAM, DEFAULT_BATCH_SIZE));
+    }
+
+    /**
+     * Create a group committer
+     * @param name Name used in log messages, e.g. the data file
+     * @param flushAction Writes one batch to disk; receives the batched records and returns true on success
+     * @param windowMillis How long the leader waits for more mutations before flushing, 0 to flush at once
+     * @param batchSize Maximum number of mutations in one batch
+     */
+    public GroupCommitter(String name, Predicate<List<String>> flushAction, long windowMillis, int batchSize) {
+        this.name = name;
+        this.flushAction = flushAction;
+        this.windowMillis = Math.max(0, windowMillis);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Add a mutation to the open batch
+     * @param record Record to write with the batch, or null if the flush rewrites the whole file
+     * @return The batch to wait on
+     */
+    public Batch enqueue(String record) {
+        synchronized (lock) {
+            if (current == null) {
+                current = new Batch();
+            }
+
+            Batch batch = current;
+            if (record != null) {
+                batch.records.add(record);
+            }
+            batch.size++;
+
+            if (batch.size >= batchSize) {
+                // Wake the leader so a full batch is flushed without waiting out the window
+                lock.notifyAll();
+            }
+            return batch;
+        }
+    }
+
+    /**
+     * Add several mutations to the open batch, so they are written together
+     * @param records Records to write with the batch, in order
+     * @return The batch to wait on
+     */
+    public Batch enqueueAll(Collection<String> records) {
+        synchronized (lock) {
+            if (current == null) {
+                current = new Batch();
+            }
+
+            Batch batch = current;
+            batch.records.addAll(records);
+            batch.size += Math.max(1, records.size());
+
+            if (batch.size >= batchSize) {
+                lock.notifyAll();
+            }
+            return batch;
+        }
+    }
+
+    /**
+     * Wait until a batch has been written to disk
+     * @param batch The batch returned by enqueue
+     * @return true if the batch was written successfully, false otherwise
+     */
+    public boolean await(Batch batch) {
+        boolean leader;
+        synchronized (lock) {
+            leader = !batch.leaderAssigned;
+            batch.leaderAssigned = true;
+        }
+
+        return leader ? lead(batch) : follow(batch);
+    }
+
+    /**
+     * Enqueue a mutation and wait for it to be written
+     * @param record Record to write with the batch, or null if the flush rewrites the whole file
+     * @return true if the mutation was written successfully, false otherwise
+     */
+    public boolean commit(String record) {
+        return await(enqueue(record));
+    }
+
+    private boolean lead(Batch batch) {
+        boolean interrupted = false;
+        List<String> records;
+
+        synchronized (lock) {
+            // Collect more mutations until the window closes or the batch is full
+            long deadline = System.currentTimeMillis() + windowMillis;
+            long remaining = windowMillis;
+            while (current == batch && batch.size < batchSize && remaining > 0 && !interrupted) {
+                try {
+                    lock.wait(remaining);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+                remaining = deadline - System.currentTimeMillis();
+            }
+
+            // Flushes are serialized; mutations keep joining this batch while the previous one is written
+            while (flushing) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+
+            if (current == batch) {
+                current = null;
+            }
+            flushing = true;
+            records = Collections.unmodifiableList(new ArrayList<>(batch.records));
+        }
+
+        boolean result;
+        try {
+            result = flushAction.test(records);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error flushing group commit for " + name + ": " + e.getMessage(), e);
+            result = false;
+        }
+
+        synchronized (lock) {
+            flushing = false;
+            batch.done = true;
+            batch.result = result;
+            lock.notifyAll();
+
+            if (batch.size > 1) {
+                LOGGER.fine("Group commit for " + name + " flushed " + batch.size + " mutations in one write");
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+
+    private boolean follow(Batch batch) {
+        boolean interrupted = false;
+
+        synchronized (lock) {
+            while (!batch.done) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return batch.result;
+    }
+}
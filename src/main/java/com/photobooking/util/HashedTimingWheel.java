@@ -0,0 +1,147 @@
+package com.photobooking.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hashed timing wheel for large numbers of short-lived timeouts.
+ * Timeouts are hashed into a ring of buckets by their expiry tick. A background thread advances
+ * one bucket per tick and runs the timeouts that are due, so scheduling and cancelling take
+ * constant time and expiry precision is one tick.
+ */
+public class HashedTimingWheel {
+    private static final Logger LOGGER = Logger.getLogger(HashedTimingWheel.class.getName());
+
+    private final String name;
+    private final long tickMillis;
+    private final List<Set<Timeout>> buckets;
+    private long currentTick;
+    private ScheduledExecutorService ticker;
+
+    /**
+     * A scheduled task that can be cancelled until it runs
+     */
+    public final class Timeout {
+        private final Runnable task;
+        private final int bucket;
+        private long remainingRounds;
+        private boolean done;
+
+        private Timeout(Runnable task, int bucket, long remainingRounds) {
+            this.task = task;
+            this.bucket = bucket;
+            this.remainingRounds = remainingRounds;
+        }
+
+        /**
+         * Cancel the timeout
+         * @return true if it was cancelled, false if it had already run or been cancelled
+         */
+        public boolean cancel() {
+            synchronized (HashedTimingWheel.this) {
+                if (done) {
+                    return false;
+                }
+                done = true;
+                return buckets.get(bucket).remove(this);
+            }
+        }
+    }
+
+    /**
+     * Create a timing wheel
+     * @param name Name of the ticker thread
+     * @param tickMillis Milliseconds per tick
+     * @param wheelSize Number of buckets; timeouts further out than one turn wait extra rounds
+     */
+    public HashedTimingWheel(String name, long tickMillis, int wheelSize) {
+        this.name = name;
+        this.tickMillis = Math.max(1, tickMillis);
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new LinkedHashSet<>());
+        }
+    }
+
+    /**
+     * Run a task after a delay
+     * @param task The task, run on the ticker thread; it should be short
+     * @param delayMillis Delay in milliseconds
+     * @return Handle for cancelling the task
+     */
+    public synchronized Timeout schedule(Runnable task, long delayMillis) {
+        start();
+
+        // Round up so a timeout never fires early
+        long ticks = Math.max(1, (delayMillis + tickMillis - 1) / tickMillis);
+        long expiryTick = currentTick + ticks;
+        int bucket = (int) (expiryTick % buckets.size());
+        Timeout timeout = new Timeout(task, bucket, (ticks - 1) / buckets.size());
+        buckets.get(bucket).add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Stop the ticker thread; pending timeouts are dropped
+     */
+    public synchronized void shutdown() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+        for (Set<Timeout> bucket : buckets) {
+            bucket.clear();
+        }
+    }
+
+    private void start() {
+        if (ticker != null) {
+            return;
+        }
+
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Advance one bucket and run the timeouts that are due
+     */
+    private void tick() {
+        List<Timeout> due = new ArrayList<>();
+        synchronized (this) {
+            currentTick++;
+            Iterator<Timeout> iterator = buckets.get((int) (currentTick % buckets.size())).iterator();
+            while (iterator.hasNext()) {
+                Timeout timeout = iterator.next();
+                if (timeout.remainingRounds > 0) {
+                    timeout.remainingRounds--;
+                } else {
+                    iterator.remove();
+                    timeout.done = true;
+                    due.add(timeout);
+                }
+            }
+        }
+
+        // Run outside the lock so tasks may schedule or cancel other timeouts
+        for (Timeout timeout : due) {
+            try {
+                timeout.task.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Error running timeout on " + name, e);
+            }
+        }
+    }
+}
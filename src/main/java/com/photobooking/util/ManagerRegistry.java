@@ -0,0 +1,195 @@
+package com.photobooking.util;
+
+import com.photobooking.model.booking.BookingManager;
+import com.photobooking.model.gallery.GalleryManager;
+import com.photobooking.model.gallery.PhotoManager;
+import com.photobooking.model.photographer.AutocompleteIndex;
+import com.photobooking.model.photographer.AvailabilityCalendar;
+import com.photobooking.model.photographer.PhotographerAvailabilitySearch;
+import com.photobooking.model.photographer.PhotographerManager;
+import com.photobooking.model.photographer.PhotographerServiceManager;
+import com.photobooking.model.photographer.UnavailableDateManager;
+import com.photobooking.model.review.ReviewManager;
+import com.photobooking.model.user.UserManager;
+
+import javax.servlet.ServletContext;
+import java.util.logging.Logger;
+
+/**
+ * Application-scoped registry that owns a single shared instance of every data manager.
+ * The managers are loaded once at startup by ApplicationContextListener and reused by all
+ * servlets and JSPs, so a request no longer re-reads and re-parses the data files.
+ */
+public class ManagerRegistry {
+    private static final Logger LOGGER = Logger.getLogger(ManagerRegistry.class.getName());
+
+    // Name of the ServletContext attribute the registry is published under
+    public static final String CONTEXT_ATTRIBUTE = "managerRegistry";
+
+    // Singleton instance
+    private static volatile ManagerRegistry instance;
+
+    private final UserManager userManager;
+    private final PhotographerManager photographerManager;
+    private final PhotographerServiceManager serviceManager;
+    private final UnavailableDateManager unavailableDateManager;
+    private final BookingManager bookingManager;
+    private final GalleryManager galleryManager;
+    private final PhotoManager photoManager;
+    private final ReviewManager reviewManager;
+
+    // Per-day slot bitmaps fed by the booking and unavailable date managers
+    private final AvailabilityCalendar availabilityCalendar;
+    private final PhotographerAvailabilitySearch availabilitySearch;
+    private final AutocompleteIndex autocompleteIndex;
+
+    // Background compaction of the record logs, null unless log-structured storage is enabled
+    private RecordLogCompactor compactor;
+
+    /**
+     * Private constructor loads every manager from its data file
+     * @param servletContext The servlet context
+     */
+    private ManagerRegistry(ServletContext servletContext) {
+        LOGGER.info("Loading shared data managers");
+
+        if (servletContext != null) {
+            FileHandler.setServletContext(servletContext);
+        }
+
+        this.userManager = new UserManager(servletContext);
+        this.photographerManager = new PhotographerManager(servletContext);
+        this.serviceManager = new PhotographerServiceManager(servletContext);
+        this.unavailableDateManager = new UnavailableDateManager();
+        this.bookingManager = new BookingManager(servletContext);
+        this.galleryManager = new GalleryManager(servletContext);
+        this.photoManager = new PhotoManager(servletContext);
+        this.reviewManager = new ReviewManager();
+
+        this.availabilityCalendar = new AvailabilityCalendar();
+        bookingManager.attachCalendar(availabilityCalendar);
+        unavailableDateManager.attachCalendar(availabilityCalendar);
+        this.availabilitySearch = new PhotographerAvailabilitySearch(photographerManager, serviceManager,
+                availabilityCalendar);
+
+        this.autocompleteIndex = new AutocompleteIndex();
+        photographerManager.attachAutocomplete(autocompleteIndex);
+        galleryManager.attachAutocomplete(autocompleteIndex);
+
+        if (RecordLog.isEnabled()) {
+            startCompactor();
+        }
+
+        LOGGER.info("Shared data managers loaded successfully");
+    }
+
+    /**
+     * Start compacting the managers' record logs in the background
+     */
+    private void startCompactor() {
+        compactor = new RecordLogCompactor(RecordLog.getCompactionIntervalSeconds());
+        compactor.register(userManager::compactLog);
+        compactor.register(photographerManager::compactLog);
+        compactor.register(serviceManager::compactLog);
+        compactor.register(unavailableDateManager::compactLog);
+        compactor.register(bookingManager::compactLog);
+        compactor.register(galleryManager::compactLog);
+        compactor.register(photoManager::compactLog);
+        compactor.register(reviewManager::compactLog);
+        compactor.start();
+    }
+
+    /**
+     * Create the registry and publish it in the ServletContext.
+     * Called once from ApplicationContextListener at startup.
+     * @param servletContext The servlet context
+     * @return The registry instance
+     */
+    public static synchronized ManagerRegistry initialize(ServletContext servletContext) {
+        if (instance == null) {
+            instance = new ManagerRegistry(servletContext);
+        }
+
+        if (servletContext != null) {
+            servletContext.setAttribute(CONTEXT_ATTRIBUTE, instance);
+        }
+        return instance;
+    }
+
+    /**
+     * Get the shared registry, creating it on first use if the listener has not run yet
+     * @param servletContext The servlet context
+     * @return The registry instance
+     */
+    public static ManagerRegistry getInstance(ServletContext servletContext) {
+        ManagerRegistry registry = instance;
+        if (registry != null) {
+            return registry;
+        }
+        return initialize(servletContext);
+    }
+
+    /**
+     * Release the registry when the application is stopped
+     * @param servletContext The servlet context
+     */
+    public static synchronized void destroy(ServletContext servletContext) {
+        if (servletContext != null) {
+            servletContext.removeAttribute(CONTEXT_ATTRIBUTE);
+        }
+
+        if (instance != null && instance.compactor != null) {
+            instance.compactor.shutdown();
+            instance.compactor.runOnce();
+        }
+        if (instance != null) {
+            instance.bookingManager.shutdown();
+        }
+        instance = null;
+        LOGGER.info("Shared data managers released");
+    }
+
+    public UserManager getUserManager() {
+        return userManager;
+    }
+
+    public PhotographerManager getPhotographerManager() {
+        return photographerManager;
+    }
+
+    public PhotographerServiceManager getServiceManager() {
+        return serviceManager;
+    }
+
+    public UnavailableDateManager getUnavailableDateManager() {
+        return unavailableDateManager;
+    }
+
+    public BookingManager getBookingManager() {
+        return bookingManager;
+    }
+
+    public GalleryManager getGalleryManager() {
+        return galleryManager;
+    }
+
+    public PhotoManager getPhotoManager() {
+        return photoManager;
+    }
+
+    public ReviewManager getReviewManager() {
+        return reviewManager;
+    }
+
+    public AvailabilityCalendar getAvailabilityCalendar() {
+        return availabilityCalendar;
+    }
+
+    public PhotographerAvailabilitySearch getAvailabilitySearch() {
+        return availabilitySearch;
+    }
+
+    public AutocompleteIndex getAutocompleteIndex() {
+        return autocompleteIndex;
+    }
+}
@@ -0,0 +1,297 @@
+package com.photobooking.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Memory-mapped reader for line-based data files.
+ * The file is mapped read-only and newline boundaries are found directly in the mapped buffer;
+ * each record is decoded and handed to the parser as soon as it is found, so loading a data file
+ * never builds an intermediate list of every line.
+ *
+ * Files at or above the parallel load threshold are split into newline-aligned chunks that are
+ * parsed concurrently on the fork-join pool; the results are merged back in file order.
+ */
+public class MappedRecordReader {
+    private static final Logger LOGGER = Logger.getLogger(MappedRecordReader.class.getName());
+
+    // Files are mapped in regions so that files larger than 2 GB can be read
+    private static final long MAP_REGION_SIZE = 64L * 1024 * 1024;
+    private static final int INITIAL_RECORD_BUFFER_SIZE = 512;
+
+    // Files smaller than this many bytes are parsed on the calling thread
+    public static final String PARALLEL_THRESHOLD_PARAM = "storage.parallelLoadThreshold";
+    private static final long DEFAULT_PARALLEL_THRESHOLD = 8L * 1024 * 1024;
+
+    // Chunks smaller than this are not split any further
+    private static final int MIN_CHUNK_SIZE = 512 * 1024;
+
+    private MappedRecordReader() {
+    }
+
+    /**
+     * Load and parse every record in a data file
+     * @param filePath The data file, e.g. bookings.txt
+     * @param parser Parses a record line, returning null for invalid lines
+     * @param <T> Record type
+     * @return Parsed records in file order
+     */
+    public static <T> List<T> load(String filePath, Function<String, ? extends T> parser) {
+        long threshold = FileHandler.getConfigParameter(PARALLEL_THRESHOLD_PARAM, DEFAULT_PARALLEL_THRESHOLD);
+        File file = resolve(filePath);
+        if (file != null && file.length() >= threshold) {
+            return loadParallel(filePath, file, parser);
+        }
+
+        List<T> records = new ArrayList<>();
+        forEachRecord(filePath, line -> {
+            T record = parse(parser, line, filePath);
+            if (record != null) {
+                records.add(record);
+            }
+        });
+        return records;
+    }
+
+    /**
+     * Pass every non-blank record in a data file to a consumer, in file order
+     * @param filePath The data file, e.g. bookings.txt
+     * @param consumer Receives each record line without its line terminator
+     */
+    public static void forEachRecord(String filePath, Consumer<String> consumer) {
+        File file = resolve(filePath);
+        if (file == null) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            long regionSize = MAP_REGION_SIZE;
+            RecordBuffer recordBuffer = new RecordBuffer();
+
+            while (position < size) {
+                long length = Math.min(regionSize, size - position);
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                boolean lastRegion = position + length == size;
+
+                int consumed = scan(region, 0, (int) length, lastRegion, recordBuffer, consumer);
+
+                if (consumed == 0 && !lastRegion) {
+                    // A single record is longer than the region; map a larger one
+                    regionSize = Math.min(regionSize * 2, Integer.MAX_VALUE);
+                    continue;
+                }
+                position += consumed;
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error reading file: " + filePath, e);
+        }
+    }
+
+    /**
+     * Parse a large data file in newline-aligned chunks on the fork-join pool
+     */
+    private static <T> List<T> loadParallel(String filePath, File file, Function<String, ? extends T> parser) {
+        List<T> records = new ArrayList<>();
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            long regionSize = MAP_REGION_SIZE;
+
+            while (position < size) {
+                long length = Math.min(regionSize, size - position);
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                boolean lastRegion = position + length == size;
+
+                // Only hand complete records to the chunks; the rest is mapped again with the next region
+                int end = lastRegion ? (int) length : lastNewline(region, (int) length) + 1;
+                if (end == 0) {
+                    regionSize = Math.min(regionSize * 2, Integer.MAX_VALUE);
+                    continue;
+                }
+
+                records.addAll(ForkJoinPool.commonPool().invoke(new ParseTask<T>(region, 0, end, parser, filePath)));
+                position += end;
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error reading file: " + filePath, e);
+        }
+
+        LOGGER.fine("Parsed " + records.size() + " records from " + filePath + " in parallel");
+        return records;
+    }
+
+    /**
+     * Resolve a data file, creating it if it does not exist yet
+     * @return The file, or null if it was just created and is empty
+     */
+    private static File resolve(String filePath) {
+        FileHandler.initialize();
+        File file = new File(FileHandler.getFullPath(filePath));
+
+        if (!file.exists()) {
+            FileHandler.ensureFileExists(filePath);
+            return null;
+        }
+        return file;
+    }
+
+    private static int lastNewline(ByteBuffer buffer, int to) {
+        for (int i = to - 1; i >= 0; i--) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Pass the records in a range of a buffer to a consumer
+     * @param buffer Buffer holding the file contents
+     * @param from Index of the first byte of the range
+     * @param to Index after the last byte of the range
+     * @param endOfInput true if a record without a trailing newline at the end of the range is complete
+     * @param recordBuffer Scratch buffer for decoding
+     * @param consumer Receives each record line
+     * @return Number of bytes consumed; bytes of an incomplete trailing record are not consumed
+     */
+    static int scan(ByteBuffer buffer, int from, int to, boolean endOfInput,
+                    RecordBuffer recordBuffer, Consumer<String> consumer) {
+        int start = from;
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == '\n') {
+                emit(buffer, start, i, recordBuffer, consumer);
+                start = i + 1;
+            }
+        }
+
+        if (endOfInput && start < to) {
+            emit(buffer, start, to, recordBuffer, consumer);
+            start = to;
+        }
+        return start - from;
+    }
+
+    /**
+     * Decode one record and pass it on, skipping blank lines
+     */
+    private static void emit(ByteBuffer buffer, int start, int end, RecordBuffer recordBuffer,
+                             Consumer<String> consumer) {
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+
+        boolean blank = true;
+        for (int i = start; i < end && blank; i++) {
+            if ((buffer.get(i) & 0xFF) > ' ') {
+                blank = false;
+            }
+        }
+        if (blank) {
+            return;
+        }
+
+        consumer.accept(recordBuffer.decode(buffer, start, end - start));
+    }
+
+    /**
+     * Parse one record, logging and skipping records the parser rejects
+     */
+    static <T> T parse(Function<String, ? extends T> parser, String line, String filePath) {
+        try {
+            return parser.apply(line);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Skipping unreadable record in " + filePath + ": " + line, e);
+            return null;
+        }
+    }
+
+    /**
+     * Parses a range of complete records, splitting it in two at a newline while it is large
+     */
+    private static final class ParseTask<T> extends RecursiveTask<List<T>> {
+        private static final long serialVersionUID = 1L;
+
+        private final ByteBuffer buffer;
+        private final int from;
+        private final int to;
+        private final Function<String, ? extends T> parser;
+        private final String filePath;
+
+        ParseTask(ByteBuffer buffer, int from, int to, Function<String, ? extends T> parser, String filePath) {
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.parser = parser;
+            this.filePath = filePath;
+        }
+
+        @Override
+        protected List<T> compute() {
+            int split = to - from > MIN_CHUNK_SIZE ? nextRecordStart(from + (to - from) / 2) : to;
+
+            if (split >= to) {
+                List<T> records = new ArrayList<>();
+                scan(buffer, from, to, true, new RecordBuffer(), line -> {
+                    T record = parse(parser, line, filePath);
+                    if (record != null) {
+                        records.add(record);
+                    }
+                });
+                return records;
+            }
+
+            ParseTask<T> left = new ParseTask<>(buffer, from, split, parser, filePath);
+            ParseTask<T> right = new ParseTask<>(buffer, split, to, parser, filePath);
+            left.fork();
+            List<T> rightRecords = right.compute();
+            List<T> records = left.join();
+            records.addAll(rightRecords);
+            return records;
+        }
+
+        private int nextRecordStart(int index) {
+            for (int i = index; i < to; i++) {
+                if (buffer.get(i) == '\n') {
+                    return i + 1;
+                }
+            }
+            return to;
+        }
+    }
+
+    /**
+     * Reusable byte array a record is copied into before it is decoded
+     */
+    static final class RecordBuffer {
+        private byte[] bytes = new byte[INITIAL_RECORD_BUFFER_SIZE];
+
+        String decode(ByteBuffer buffer, int start, int length) {
+            if (bytes.length < length) {
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+            }
+
+            // Cast to Buffer so the call links on Java 8 runtimes as well
+            ByteBuffer view = buffer.duplicate();
+            ((Buffer) view).position(start);
+            view.get(bytes, 0, length);
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.photobooking.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Compressed prefix trie mapping string keys to weighted values, for autocompletion.
+ * Each edge holds a run of characters rather than a single one, and each node records the heaviest
+ * value below it, so the heaviest values under a prefix are found best-first without visiting the
+ * rest of the subtree. A value may be stored under several keys; it is returned once.
+ * Not thread-safe.
+ *
+ * @param <T> Type of the values; equal values are the same suggestion
+ */
+public class PrefixTrie<T> {
+
+    private static final class Node<T> {
+        String label;                                          // Characters on the edge into this node
+        final Map<Character, Node<T>> children = new HashMap<>();
+        final Map<T, Double> values = new HashMap<>();         // Values whose key ends here
+        double best = Double.NEGATIVE_INFINITY;                // Heaviest value in this subtree
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        void updateBest() {
+            double max = Double.NEGATIVE_INFINITY;
+            for (double weight : values.values()) {
+                max = Math.max(max, weight);
+            }
+            for (Node<T> child : children.values()) {
+                max = Math.max(max, child.best);
+            }
+            best = max;
+        }
+    }
+
+    /**
+     * A node still to be expanded, or a value ready to be returned, during a best-first search
+     */
+    private static final class Candidate<T> {
+        final double weight;
+        final Node<T> node;
+        final T value;
+
+        Candidate(double weight, Node<T> node, T value) {
+            this.weight = weight;
+            this.node = node;
+            this.value = value;
+        }
+    }
+
+    private final Node<T> root = new Node<>("");
+
+    /**
+     * Store a value under a key, replacing its weight if it is already stored there
+     * @param key The key
+     * @param value The value
+     * @param weight The weight; heavier values are suggested first
+     */
+    public void put(String key, T value, double weight) {
+        insert(root, key, 0, value, weight);
+    }
+
+    private void insert(Node<T> node, String key, int depth, T value, double weight) {
+        if (depth == key.length()) {
+            node.values.put(value, weight);
+        } else {
+            char first = key.charAt(depth);
+            Node<T> child = node.children.get(first);
+            if (child == null) {
+                child = new Node<>(key.substring(depth));
+                child.values.put(value, weight);
+                child.best = weight;
+                node.children.put(first, child);
+            } else {
+                int common = commonPrefixLength(child.label, key, depth);
+                if (common < child.label.length()) {
+                    // The key leaves the edge part way along: split it at that point
+                    Node<T> middle = new Node<>(child.label.substring(0, common));
+                    child.label = child.label.substring(common);
+                    middle.children.put(child.label.charAt(0), child);
+                    middle.best = child.best;
+                    node.children.put(first, middle);
+                    child = middle;
+                }
+                insert(child, key, depth + common, value, weight);
+            }
+        }
+        node.updateBest();
+    }
+
+    /**
+     * Remove a value from a key
+     * @param key The key
+     * @param value The value
+     * @return true if the value was stored under the key
+     */
+    public boolean remove(String key, T value) {
+        return delete(root, key, 0, value);
+    }
+
+    private boolean delete(Node<T> node, String key, int depth, T value) {
+        boolean removed;
+        if (depth == key.length()) {
+            removed = node.values.remove(value) != null;
+        } else {
+            Node<T> child = node.children.get(key.charAt(depth));
+            if (child == null || !key.startsWith(child.label, depth)) {
+                return false;
+            }
+            removed = delete(child, key, depth + child.label.length(), value);
+
+            // Drop an emptied node and merge a node left with a single child into it
+            if (child.values.isEmpty() && child.children.isEmpty()) {
+                node.children.remove(key.charAt(depth));
+            } else if (child.values.isEmpty() && child.children.size() == 1) {
+                Node<T> grandchild = child.children.values().iterator().next();
+                grandchild.label = child.label + grandchild.label;
+                node.children.put(key.charAt(depth), grandchild);
+            }
+        }
+        if (removed) {
+            node.updateBest();
+        }
+        return removed;
+    }
+
+    /**
+     * Find the heaviest values stored under keys starting with a prefix
+     * @param prefix The prefix
+     * @param limit Maximum number of values
+     * @return The values, heaviest first
+     */
+    public List<T> top(String prefix, int limit) {
+        List<T> result = new ArrayList<>();
+        Node<T> start = find(prefix);
+        if (start == null || limit <= 0) {
+            return result;
+        }
+
+        PriorityQueue<Candidate<T>> queue = new PriorityQueue<>(
+                (a, b) -> Double.compare(b.weight, a.weight));
+        queue.add(new Candidate<>(start.best, start, null));
+        Set<T> seen = new HashSet<>();
+
+        // No node can hold a value heavier than its recorded best, so values come out in weight order
+        while (!queue.isEmpty() && result.size() < limit) {
+            Candidate<T> candidate = queue.poll();
+            if (candidate.node == null) {
+                if (seen.add(candidate.value)) {
+                    result.add(candidate.value);
+                }
+                continue;
+            }
+            for (Map.Entry<T, Double> entry : candidate.node.values.entrySet()) {
+                queue.add(new Candidate<>(entry.getValue(), null, entry.getKey()));
+            }
+            for (Node<T> child : candidate.node.children.values()) {
+                queue.add(new Candidate<>(child.best, child, null));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find the node whose subtree holds exactly the keys starting with a prefix
+     */
+    private Node<T> find(String prefix) {
+        Node<T> node = root;
+        int depth = 0;
+        while (depth < prefix.length()) {
+            Node<T> child = node.children.get(prefix.charAt(depth));
+            if (child == null) {
+                return null;
+            }
+            int common = commonPrefixLength(child.label, prefix, depth);
+            if (depth + common == prefix.length()) {
+                return child; // The prefix ends on or part way along this edge
+            }
+            if (common < child.label.length()) {
+                return null;
+            }
+            node = child;
+            depth += common;
+        }
+        return node;
+    }
+
+    private static int commonPrefixLength(String label, String key, int depth) {
+        int length = 0;
+        while (length < label.length() && depth + length < key.length()
+                && label.charAt(length) == key.charAt(depth + length)) {
+            length++;
+        }
+        return length;
+    }
+
+    public void clear() {
+        root.children.clear();
+        root.values.clear();
+        root.best = Double.NEGATIVE_INFINITY;
+    }
+}
@@ -0,0 +1,113 @@
+package com.photobooking.util;
+
+import com.photobooking.model.booking.Booking;
+import com.photobooking.model.booking.BookingBinaryCodec;
+import com.photobooking.model.gallery.Photo;
+import com.photobooking.model.gallery.PhotoBinaryCodec;
+
+import java.io.File;
+import java.util.List;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Converts data files between the text and the binary record formats.
+ *
+ * Usage:
+ *   java com.photobooking.util.RecordFileConverter to-binary|to-text bookings|photos &lt;source&gt; [&lt;target&gt;]
+ *
+ * When the target is omitted it is the source with a .bin or .txt extension.
+ */
+public class RecordFileConverter {
+    private static final Logger LOGGER = Logger.getLogger(RecordFileConverter.class.getName());
+
+    private RecordFileConverter() {
+    }
+
+    /**
+     * Convert a text data file to the binary format
+     * @param textFile Source text file
+     * @param binaryFile Target binary file
+     * @param parser Parses a text record
+     * @param codec Binary codec for the records
+     * @param <T> Record type
+     * @return true if successful, false otherwise
+     */
+    public static <T> boolean toBinary(String textFile, String binaryFile, Function<String, T> parser,
+                                       BinaryCodec<T> codec) {
+        List<T> records = MappedRecordReader.load(textFile, parser);
+        boolean result = new BinaryRecordFile<>(binaryFile, codec).commit(records);
+        if (result) {
+            LOGGER.info("Converted " + records.size() + " records from " + textFile + " to " + binaryFile);
+        }
+        return result;
+    }
+
+    /**
+     * Convert a binary data file to the text format
+     * @param binaryFile Source binary file
+     * @param textFile Target text file
+     * @param encoder Converts a record to its text line
+     * @param codec Binary codec for the records
+     * @param <T> Record type
+     * @return true if successful, false otherwise
+     */
+    public static <T> boolean toText(String binaryFile, String textFile, Function<T, String> encoder,
+                                     BinaryCodec<T> codec) {
+        List<T> records = new BinaryRecordFile<>(binaryFile, codec).load();
+        if (records == null) {
+            LOGGER.warning("Could not read binary data file: " + binaryFile);
+            return false;
+        }
+
+        boolean result = FileHandler.commitRecords(textFile, records, encoder);
+        if (result) {
+            LOGGER.info("Converted " + records.size() + " records from " + binaryFile + " to " + textFile);
+        }
+        return result;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Usage: RecordFileConverter to-binary|to-text bookings|photos <source> [<target>]");
+            System.exit(2);
+        }
+
+        String direction = args[0];
+        String type = args[1];
+        String source = new File(args[2]).getAbsolutePath();
+        boolean binary = "to-binary".equals(direction);
+        if (!binary && !"to-text".equals(direction)) {
+            System.err.println("Unknown conversion: " + direction);
+            System.exit(2);
+        }
+
+        String target;
+        if (args.length > 3) {
+            target = new File(args[3]).getAbsolutePath();
+        } else if (binary) {
+            target = BinaryRecordFile.binaryPath(source);
+        } else {
+            int dot = source.lastIndexOf('.');
+            target = (dot > source.lastIndexOf(File.separatorChar) ? source.substring(0, dot) : source) + ".txt";
+        }
+
+        boolean result;
+        if ("bookings".equals(type)) {
+            result = binary
+                    ? toBinary(source, target, Booking::fromFileString, BookingBinaryCodec.INSTANCE)
+                    : toText(source, target, Booking::toFileString, BookingBinaryCodec.INSTANCE);
+        } else if ("photos".equals(type)) {
+            result = binary
+                    ? toBinary(source, target, Photo::fromFileString, PhotoBinaryCodec.INSTANCE)
+                    : toText(source, target, Photo::toFileString, PhotoBinaryCodec.INSTANCE);
+        } else {
+            System.err.println("Unknown record type: " + type);
+            result = false;
+        }
+
+        if (!result) {
+            System.exit(1);
+        }
+    }
+}
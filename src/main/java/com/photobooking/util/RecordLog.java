@@ -0,0 +1,233 @@
+package com.photobooking.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append-only record log for a data file.
+ * Creates, updates and deletes are appended to "&lt;data file&gt;.log" as small records instead of
+ * rewriting the whole data file. The data file itself is the last snapshot: on startup the
+ * snapshot is loaded and the log is replayed on top of it, and compaction writes a fresh
+ * snapshot and truncates the log.
+ *
+ * Log format, one record per line:
+ *   P&lt;TAB&gt;record line   - insert or replace the record with the same key
+ *   D&lt;TAB&gt;key           - delete the record with this key
+ */
+public class RecordLog {
+    private static final Logger LOGGER = Logger.getLogger(RecordLog.class.getName());
+    private static final String LOG_SUFFIX = ".log";
+    private static final String PUT = "P";
+    private static final String DELETE = "D";
+    private static final char SEPARATOR = '\t';
+
+    // Configuration parameters (web.xml context-param or system property)
+    public static final String STORAGE_MODE_PARAM = "storage.mode";
+    public static final String COMPACTION_THRESHOLD_PARAM = "storage.compactionThreshold";
+    public static final String COMPACTION_INTERVAL_PARAM = "storage.compactionIntervalSeconds";
+
+    private static final String LOG_MODE = "log";
+    private static final long DEFAULT_COMPACTION_THRESHOLD = 1000;
+    private static final long DEFAULT_COMPACTION_INTERVAL_SECONDS = 60;
+
+    private final String dataFile;
+    private final String logFile;
+    private final long compactionThreshold;
+    private long pendingRecords;
+
+    /**
+     * Create a record log for a data file
+     * @param dataFile The data file holding the snapshot, e.g. bookings.txt
+     */
+    public RecordLog(String dataFile) {
+        this.dataFile = dataFile;
+        this.logFile = dataFile + LOG_SUFFIX;
+        this.compactionThreshold = Math.max(1,
+                FileHandler.getConfigParameter(COMPACTION_THRESHOLD_PARAM, DEFAULT_COMPACTION_THRESHOLD));
+        this.pendingRecords = 0;
+
+        FileHandler.ensureFileExists(logFile);
+    }
+
+    /**
+     * Check whether managers should use log-structured storage
+     * @return true if storage.mode is set to "log"
+     */
+    public static boolean isEnabled() {
+        return LOG_MODE.equalsIgnoreCase(FileHandler.getConfigParameter(STORAGE_MODE_PARAM, "snapshot"));
+    }
+
+    /**
+     * Get the configured interval between background compaction runs
+     * @return Interval in seconds
+     */
+    public static long getCompactionIntervalSeconds() {
+        return Math.max(1, FileHandler.getConfigParameter(COMPACTION_INTERVAL_PARAM,
+                DEFAULT_COMPACTION_INTERVAL_SECONDS));
+    }
+
+    /**
+     * Rebuild the current state by replaying the log on top of the loaded snapshot
+     * @param snapshot Records loaded from the data file, in file order
+     * @param parser Parses a record line, returning null for invalid lines
+     * @param keyExtractor Returns the unique key of a record
+     * @param <T> Record type
+     * @return Current records, in file order with new records appended at the end
+     */
+    public synchronized <T> List<T> replay(List<T> snapshot, Function<String, T> parser,
+                                           Function<T, String> keyExtractor) {
+        Map<String, T> records = new LinkedHashMap<>();
+        for (T record : snapshot) {
+            records.put(keyExtractor.apply(record), record);
+        }
+
+        int[] applied = new int[1];
+
+        MappedRecordReader.forEachRecord(logFile, line -> {
+            int separator = line.indexOf(SEPARATOR);
+            if (separator <= 0) {
+                return; // Torn line
+            }
+
+            String type = line.substring(0, separator);
+            String payload = line.substring(separator + 1);
+
+            try {
+                if (PUT.equals(type)) {
+                    T record = parser.apply(payload);
+                    if (record != null) {
+                        records.put(keyExtractor.apply(record), record);
+                        applied[0]++;
+                    }
+                } else if (DELETE.equals(type)) {
+                    records.remove(payload);
+                    applied[0]++;
+                }
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Skipping unreadable log record in " + logFile + ": " + line, e);
+            }
+        });
+
+        pendingRecords = applied[0];
+        if (applied[0] > 0) {
+            LOGGER.info("Replayed " + applied[0] + " log records from " + logFile);
+        }
+
+        return new ArrayList<>(records.values());
+    }
+
+    /**
+     * Append a created or updated record
+     * @param record The record line
+     * @return true if successful, false otherwise
+     */
+    public synchronized boolean appendPut(String record) {
+        return append(putEntry(record) + System.lineSeparator(), 1);
+    }
+
+    /**
+     * Append a deleted record
+     * @param key The key of the deleted record
+     * @return true if successful, false otherwise
+     */
+    public synchronized boolean appendDelete(String key) {
+        return append(deleteEntry(key) + System.lineSeparator(), 1);
+    }
+
+    /**
+     * Append several deleted records with a single write
+     * @param keys The keys of the deleted records
+     * @return true if successful, false otherwise
+     */
+    public synchronized boolean appendDeletes(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return true;
+        }
+
+        StringBuilder content = new StringBuilder();
+        for (String key : keys) {
+            content.append(deleteEntry(key)).append(System.lineSeparator());
+        }
+        return append(content.toString(), keys.size());
+    }
+
+    /**
+     * Append several log entries, as built by putEntry and deleteEntry, with a single write
+     * @param entries The log entries in the order they were made
+     * @return true if successful, false otherwise
+     */
+    public synchronized boolean appendEntries(List<String> entries) {
+        if (entries.isEmpty()) {
+            return true;
+        }
+
+        StringBuilder content = new StringBuilder();
+        for (String entry : entries) {
+            content.append(entry).append(System.lineSeparator());
+        }
+        return append(content.toString(), entries.size());
+    }
+
+    /**
+     * Build the log entry for a created or updated record
+     * @param record The record line
+     * @return The log entry
+     */
+    public static String putEntry(String record) {
+        return PUT + SEPARATOR + record;
+    }
+
+    /**
+     * Build the log entry for a deleted record
+     * @param key The key of the deleted record
+     * @return The log entry
+     */
+    public static String deleteEntry(String key) {
+        return DELETE + SEPARATOR + key;
+    }
+
+    private boolean append(String content, int count) {
+        boolean result = FileHandler.writeToFile(logFile, content, true);
+        if (result) {
+            pendingRecords += count;
+        } else {
+            LOGGER.warning("Failed to append to record log: " + logFile);
+        }
+        return result;
+    }
+
+    /**
+     * Check whether enough records have accumulated to make compaction worthwhile
+     * @return true if the log should be compacted
+     */
+    public synchronized boolean needsCompaction() {
+        return pendingRecords >= compactionThreshold;
+    }
+
+    /**
+     * Truncate the log after a fresh snapshot has been written to the data file
+     * @return true if successful, false otherwise
+     */
+    public synchronized boolean truncate() {
+        boolean result = FileHandler.commitFile(logFile, "");
+        if (result) {
+            LOGGER.info("Compacted " + pendingRecords + " log records into " + dataFile);
+            pendingRecords = 0;
+        }
+        return result;
+    }
+
+    /**
+     * Get the number of records appended since the last snapshot
+     * @return Number of pending records
+     */
+    public synchronized long getPendingRecords() {
+        return pendingRecords;
+    }
+}
@@ -0,0 +1,98 @@
+package com.photobooking.util;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Background compactor for record logs.
+ * Periodically runs the registered compaction tasks, each of which writes a fresh snapshot
+ * of its data file and truncates the log when enough records have accumulated.
+ */
+public class RecordLogCompactor {
+    private static final Logger LOGGER = Logger.getLogger(RecordLogCompactor.class.getName());
+
+    private final long intervalSeconds;
+    private final List<BooleanSupplier> tasks;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Create a compactor
+     * @param intervalSeconds Seconds between compaction runs
+     */
+    public RecordLogCompactor(long intervalSeconds) {
+        this.intervalSeconds = intervalSeconds;
+        this.tasks = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Register a compaction task
+     * @param task Returns true if it compacted its log
+     */
+    public void register(BooleanSupplier task) {
+        tasks.add(task);
+    }
+
+    /**
+     * Start running the compaction tasks in the background
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "record-log-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::runOnce, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+
+        LOGGER.info("Record log compactor started with interval " + intervalSeconds + "s");
+    }
+
+    /**
+     * Run every compaction task once
+     * @return Number of logs that were compacted
+     */
+    public int runOnce() {
+        int compacted = 0;
+        for (BooleanSupplier task : tasks) {
+            try {
+                if (task.getAsBoolean()) {
+                    compacted++;
+                }
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Error compacting record log: " + e.getMessage(), e);
+            }
+        }
+        return compacted;
+    }
+
+    /**
+     * Stop the background thread
+     */
+    public synchronized void shutdown() {
+        if (scheduler == null) {
+            return;
+        }
+
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(10, TimeUnit.SECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+
+        LOGGER.info("Record log compactor stopped");
+    }
+}
@@ -0,0 +1,416 @@
+package com.photobooking.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Single-pass tokenizer for the comma-separated records in the data files.
+ * Fields are read in order straight from the record; numbers and booleans are parsed in place
+ * and only text fields allocate a String.
+ *
+ * A field that contains a separator, a quote, a backslash or a line break is written in double
+ * quotes, with \" \\ \n and \r escapes inside the quotes. List fields hold their items separated
+ * by '|', each item quoted the same way. Unquoted text fields written before quoting was
+ * supported encode commas as ";;", which {@link #nextText()} still decodes.
+ */
+public final class RecordTokenizer {
+    public static final char FIELD_SEPARATOR = ',';
+    public static final char LIST_SEPARATOR = '|';
+
+    private static final char QUOTE = '"';
+    private static final char ESCAPE = '\\';
+    private static final String LEGACY_COMMA = ";;";
+
+    private final CharSequence record;
+    private final char separator;
+    private final int length;
+    private int position;
+    private boolean exhausted;
+    private boolean lastQuoted;
+
+    /**
+     * Create a tokenizer for a comma-separated record
+     * @param record The record line
+     */
+    public RecordTokenizer(CharSequence record) {
+        this(record, FIELD_SEPARATOR);
+    }
+
+    /**
+     * Create a tokenizer for a record with a custom separator
+     * @param record The record
+     * @param separator The field separator
+     */
+    public RecordTokenizer(CharSequence record, char separator) {
+        this.record = record;
+        this.separator = separator;
+        this.length = record.length();
+        this.position = 0;
+        this.exhausted = false;
+    }
+
+    /**
+     * Check whether there is another field
+     * @return true if next() will return a field
+     */
+    public boolean hasNext() {
+        return !exhausted;
+    }
+
+    /**
+     * Count the fields in the whole record without allocating them
+     * @return Number of fields
+     */
+    public int countFields() {
+        int count = 1;
+        boolean quoted = false;
+        for (int i = 0; i < length; i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == ESCAPE) {
+                    i++;
+                } else if (c == QUOTE) {
+                    quoted = false;
+                }
+            } else if (c == separator) {
+                count++;
+            } else if (c == QUOTE) {
+                quoted = true;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Read the next field
+     * @return The field value, unquoted and unescaped
+     */
+    public String next() {
+        ensureNext();
+
+        if (position < length && record.charAt(position) == QUOTE) {
+            lastQuoted = true;
+            return readQuoted();
+        }
+
+        lastQuoted = false;
+        int start = position;
+        int end = endOfField(start);
+        advance(end);
+        return record.subSequence(start, end).toString();
+    }
+
+    /**
+     * Read the next free-text field, decoding legacy ";;" comma escapes in unquoted values
+     * @return The field value
+     */
+    public String nextText() {
+        String value = next();
+        if (!lastQuoted && value.contains(LEGACY_COMMA)) {
+            return value.replace(LEGACY_COMMA, ",");
+        }
+        return value;
+    }
+
+    /**
+     * Read the next field, mapping an empty value to null
+     * @return The field value, or null if it is empty
+     */
+    public String nextOrNull() {
+        String value = next();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Read the next free-text field, mapping an empty value to null
+     * @return The field value, or null if it is empty
+     */
+    public String nextTextOrNull() {
+        String value = nextText();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Skip the next field without reading it
+     */
+    public void skip() {
+        ensureNext();
+        if (position < length && record.charAt(position) == QUOTE) {
+            readQuoted();
+        } else {
+            advance(endOfField(position));
+        }
+    }
+
+    /**
+     * Read the next field as an int, parsed in place
+     * @return The value
+     * @throws NumberFormatException if the field is not an integer
+     */
+    public int nextInt() {
+        long value = nextLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Value out of int range: " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Read the next field as a long, parsed in place
+     * @return The value
+     * @throws NumberFormatException if the field is not an integer
+     */
+    public long nextLong() {
+        ensureNext();
+        if (position < length && record.charAt(position) == QUOTE) {
+            return Long.parseLong(next());
+        }
+
+        int start = position;
+        int end = endOfField(start);
+        advance(end);
+
+        int i = start;
+        boolean negative = false;
+        if (i < end && (record.charAt(i) == '-' || record.charAt(i) == '+')) {
+            negative = record.charAt(i) == '-';
+            i++;
+        }
+        if (i == end || end - i > 18) {
+            // Empty, or too long to accumulate safely in a long
+            return Long.parseLong(record.subSequence(start, end).toString());
+        }
+
+        long value = 0;
+        for (; i < end; i++) {
+            char c = record.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("For input string: \"" + record.subSequence(start, end) + "\"");
+            }
+            value = value * 10 + (c - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Read the next field as a double
+     * @return The value
+     * @throws NumberFormatException if the field is not a number
+     */
+    public double nextDouble() {
+        return Double.parseDouble(next());
+    }
+
+    /**
+     * Read the next field as a boolean, parsed in place; anything other than "true" is false
+     * @return The value
+     */
+    public boolean nextBoolean() {
+        ensureNext();
+        if (position < length && record.charAt(position) == QUOTE) {
+            return Boolean.parseBoolean(next());
+        }
+
+        int start = position;
+        int end = endOfField(start);
+        advance(end);
+
+        if (end - start != 4) {
+            return false;
+        }
+        return Character.toLowerCase(record.charAt(start)) == 't'
+                && Character.toLowerCase(record.charAt(start + 1)) == 'r'
+                && Character.toLowerCase(record.charAt(start + 2)) == 'u'
+                && Character.toLowerCase(record.charAt(start + 3)) == 'e';
+    }
+
+    /**
+     * Read the next field as an ISO date-time
+     * @return The value
+     */
+    public LocalDateTime nextDateTime() {
+        return LocalDateTime.parse(next());
+    }
+
+    /**
+     * Read the next field as an ISO date
+     * @return The value
+     */
+    public LocalDate nextDate() {
+        return LocalDate.parse(next());
+    }
+
+    /**
+     * Read the next field as an enum constant
+     * @param type The enum class
+     * @param <E> Enum type
+     * @return The constant with the field's name
+     */
+    public <E extends Enum<E>> E nextEnum(Class<E> type) {
+        return Enum.valueOf(type, next());
+    }
+
+    /**
+     * Read the next field as a '|' separated list
+     * @return The items, empty if the field is empty
+     */
+    public List<String> nextList() {
+        String value = next();
+        List<String> items = new ArrayList<>();
+        if (value.isEmpty()) {
+            return items;
+        }
+
+        RecordTokenizer itemTokenizer = new RecordTokenizer(value, LIST_SEPARATOR);
+        while (itemTokenizer.hasNext()) {
+            items.add(itemTokenizer.next());
+        }
+        return items;
+    }
+
+    private void ensureNext() {
+        if (exhausted) {
+            throw new NoSuchElementException("Record has no more fields");
+        }
+    }
+
+    private int endOfField(int start) {
+        for (int i = start; i < length; i++) {
+            if (record.charAt(i) == separator) {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Move past the field ending at the given index and its separator
+     */
+    private void advance(int end) {
+        if (end >= length) {
+            position = length;
+            exhausted = true;
+        } else {
+            position = end + 1;
+        }
+    }
+
+    private String readQuoted() {
+        int start = position + 1;
+        StringBuilder value = null;
+        int i = start;
+
+        while (i < length) {
+            char c = record.charAt(i);
+            if (c == QUOTE) {
+                break;
+            }
+            if (c == ESCAPE && i + 1 < length) {
+                if (value == null) {
+                    value = new StringBuilder(i - start + 16);
+                    value.append(record, start, i);
+                }
+                value.append(unescape(record.charAt(i + 1)));
+                i += 2;
+                continue;
+            }
+            if (value != null) {
+                value.append(c);
+            }
+            i++;
+        }
+
+        String result = value != null ? value.toString() : record.subSequence(start, Math.min(i, length)).toString();
+
+        // Ignore anything between the closing quote and the next separator
+        advance(endOfField(Math.min(i + 1, length)));
+        return result;
+    }
+
+    private static char unescape(char c) {
+        switch (c) {
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            default:
+                return c;
+        }
+    }
+
+    /**
+     * Encode a value as a record field, quoting it only when needed
+     * @param value The value, null is written as an empty field
+     * @return The encoded field
+     */
+    public static String field(String value) {
+        if (value == null) {
+            return "";
+        }
+        return needsQuoting(value, true) ? quote(value) : value;
+    }
+
+    /**
+     * Encode a collection as a '|' separated list field
+     * @param items The items
+     * @return The encoded field
+     */
+    public static String listField(Collection<String> items) {
+        if (items == null || items.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder joined = new StringBuilder();
+        for (String item : items) {
+            if (joined.length() > 0) {
+                joined.append(LIST_SEPARATOR);
+            }
+            joined.append(field(item));
+        }
+
+        String value = joined.toString();
+        return needsQuoting(value, false) ? quote(value) : value;
+    }
+
+    private static boolean needsQuoting(String value, boolean quoteListSeparator) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == FIELD_SEPARATOR || c == QUOTE || c == ESCAPE || c == '\n' || c == '\r'
+                    || (quoteListSeparator && c == LIST_SEPARATOR)) {
+                return true;
+            }
+        }
+        // A literal ";;" must not be mistaken for a legacy comma escape
+        return value.contains(LEGACY_COMMA);
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 8);
+        quoted.append(QUOTE);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case QUOTE:
+                case ESCAPE:
+                    quoted.append(ESCAPE).append(c);
+                    break;
+                case '\n':
+                    quoted.append(ESCAPE).append('n');
+                    break;
+                case '\r':
+                    quoted.append(ESCAPE).append('r');
+                    break;
+                default:
+                    quoted.append(c);
+            }
+        }
+        return quoted.append(QUOTE).toString();
+    }
+}
@@ -8,6 +8,7 @@
 <%@ page import="com.photobooking.model.photographer.Photographer" %>
 <%@ page import="com.photobooking.model.photographer.PhotographerServiceManager" %>
 <%@ page import="com.photobooking.model.photographer.PhotographerService" %>
+<%@ page import="com.photobooking.util.ManagerRegistry" %>
 
 <%
   String bookingId = request.getParameter("id");
@@ -16,7 +17,7 @@
     return;
   }
 
-  BookingManager bookingManager = new BookingManager();
+  BookingManager bookingManager = ManagerRegistry.getInstance(application).getBookingManager();
   Booking booking = bookingManager.getBookingById(bookingId);
 
   if (booking == null) {
@@ -26,16 +27,16 @@
   }
 
   // Get user details
-  UserManager userManager = new UserManager(getServletContext());
+  UserManager userManager = ManagerRegistry.getInstance(application).getUserManager();
   User client = userManager.getUserById(booking.getClientId());
   User photographer = userManager.getUserById(booking.getPhotographerId());
 
   // Get photographer details
-  PhotographerManager photographerManager = new PhotographerManager();
+  PhotographerManager photographerManager = ManagerRegistry.getInstance(application).getPhotographerManager();
   Photographer photographerDetails = photographerManager.getPhotographerByUserId(booking.getPhotographerId());
 
   // Get service details if available
-  PhotographerServiceManager serviceManager = new PhotographerServiceManager();
+  PhotographerServiceManager serviceManager = ManagerRegistry.getInstance(application).getServiceManager();
   PhotographerService service = null;
   if (booking.getServiceId() != null && photographerDetails != null) {
     service = serviceManager.getServiceById(booking.getServiceId());
@@ -6,6 +6,7 @@
 <%@ page import="com.photobooking.model.photographer.PhotographerServiceManager" %>
 <%@ page import="com.photobooking.model.photographer.PhotographerService" %>
 <%@ page import="com.photobooking.model.user.User" %>
+<%@ page import="com.photobooking.util.ManagerRegistry" %>
 <%@ page import="java.util.List" %>
 <%@ page import="java.time.LocalDate" %>
 
@@ -23,8 +24,8 @@
   String serviceId = request.getParameter("serviceId");
 
   // Initialize managers
-  PhotographerManager photographerManager = new PhotographerManager(application);
-  PhotographerServiceManager serviceManager = new PhotographerServiceManager(application);
+  PhotographerManager photographerManager = ManagerRegistry.getInstance(application).getPhotographerManager();
+  PhotographerServiceManager serviceManager = ManagerRegistry.getInstance(application).getServiceManager();
 
   // Get all photographers for selection dropdown
   List<Photographer> allPhotographers = photographerManager.getAllPhotographers();
@@ -192,6 +193,8 @@
               <label for="eventTime" class="form-label">Start Time</label>
               <input type="time" class="form-control" id="eventTime" name="eventTime" required>
             </div>
+            <input type="hidden" id="holdId" name="holdId">
+            <div class="col-12 form-text" id="holdStatus"></div>
           </div>
 
           <div class="mb-3">
@@ -347,6 +350,34 @@
                 photographerId + '&serviceId=' + this.value;
       }
     });
+
+    // Hold the chosen slot while the form is filled in, so no one else can take it meanwhile
+    function holdSlot() {
+      const params = new URLSearchParams({
+        photographerId: document.getElementById('photographerId').value,
+        serviceId: document.getElementById('serviceId').value,
+        eventDate: document.getElementById('eventDate').value,
+        eventTime: document.getElementById('eventTime').value
+      });
+      if (!params.get('photographerId') || !params.get('serviceId') || !params.get('eventDate') || !params.get('eventTime')) {
+        return;
+      }
+
+      const status = document.getElementById('holdStatus');
+      fetch('${pageContext.request.contextPath}/booking/hold', { method: 'POST', body: params })
+        .then(response => response.json())
+        .then(data => {
+          document.getElementById('holdId').value = data.success ? data.holdId : '';
+          status.className = 'col-12 form-text ' + (data.success ? 'text-success' : 'text-danger');
+          status.textContent = data.success
+                  ? 'This time is held for you until ' + data.expiresAt.substring(11, 16)
+                  : data.message;
+        })
+        .catch(() => { status.textContent = ''; });
+    }
+
+    document.getElementById('eventDate').addEventListener('change', holdSlot);
+    document.getElementById('eventTime').addEventListener('change', holdSlot);
   });
 </script>
 </body>
@@ -3,6 +3,7 @@
 <%@ page import="com.photobooking.model.booking.BookingManager" %>
 <%@ page import="com.photobooking.model.booking.Booking" %>
 <%@ page import="com.photobooking.model.user.User" %>
+<%@ page import="com.photobooking.util.ManagerRegistry" %>
 <%@ page import="java.util.List" %>
 
 <%
@@ -15,7 +16,7 @@
     return;
   }
 
-  BookingManager bookingManager = new BookingManager();
+  BookingManager bookingManager = ManagerRegistry.getInstance(application).getBookingManager();
   List<Booking> bookings;
 
   // Get bookings based on user type
@@ -321,6 +321,41 @@
                   <i class="bi bi-lightning-charge me-1"></i>Process Batch
                 </button>
               </form>
+
+              <form action="${pageContext.request.contextPath}/booking/queue" method="post" class="mb-3">
+                <input type="hidden" name="action" value="setPolicy">
+
+                <div class="mb-3">
+                  <label for="policy" class="form-label">Processing order:</label>
+                  <select class="form-select" id="policy" name="policy">
+                    <c:forEach var="policyName" items="${schedulingPolicies}">
+                      <option value="${policyName}" ${policyName == schedulingPolicy ? 'selected' : ''}>${policyName}</option>
+                    </c:forEach>
+                  </select>
+                </div>
+
+                <button type="submit" class="btn btn-outline-primary w-100">
+                  <i class="bi bi-sliders me-1"></i>Apply Policy
+                </button>
+              </form>
+
+              <c:if test="${not empty waitTimeStats}">
+                <table class="table table-sm mb-0">
+                  <thead>
+                    <tr><th>Policy</th><th>Processed</th><th>Avg wait</th><th>Max wait</th></tr>
+                  </thead>
+                  <tbody>
+                    <c:forEach var="stats" items="${waitTimeStats}">
+                      <tr>
+                        <td>${stats.policyName}</td>
+                        <td>${stats.count}</td>
+                        <td>${stats.averageMinutes} min</td>
+                        <td>${stats.maxMinutes} min</td>
+                      </tr>
+                    </c:forEach>
+                  </tbody>
+                </table>
+              </c:if>
             </div>
           </div>
         </c:if>
@@ -8,6 +8,7 @@
 <%@ page import="com.photobooking.model.gallery.PhotoManager" %>
 <%@ page import="java.util.List" %>
 <%@ page import="com.photobooking.model.user.User" %>
+<%@ page import="com.photobooking.util.ManagerRegistry" %>
 <%@ page import="java.util.HashMap" %>
 <%@ page import="java.util.Map" %>
 
@@ -19,8 +20,8 @@
   boolean userOnly = "true".equals(request.getParameter("userOnly"));
 
   // Initialize gallery manager
-  GalleryManager galleryManager = new GalleryManager(application);
-  PhotoManager photoManager = new PhotoManager(application);
+  GalleryManager galleryManager = ManagerRegistry.getInstance(application).getGalleryManager();
+  PhotoManager photoManager = ManagerRegistry.getInstance(application).getPhotoManager();
 
   // Get appropriate galleries based on parameters
   List<Gallery> galleries = null;
@@ -56,7 +56,8 @@
           <div class="input-group">
             <span class="input-group-text"><i class="bi bi-search"></i></span>
             <input type="text" class="form-control" name="search" placeholder="Search by name, specialty, or location..."
-                   value="${param.search}">
+                   value="${param.search}" list="searchSuggestions" autocomplete="off" id="searchInput">
+            <datalist id="searchSuggestions"></datalist>
           </div>
         </div>
         <div class="col-md-4">
@@ -64,7 +65,7 @@
             <option value="">All Specialties</option>
             <c:forEach var="specialty" items="${specialties}">
               <option value="${specialty}" ${param.specialty == specialty ? 'selected' : ''}>
-                  ${specialty}
+                  ${specialty} (${empty specialtyCounts[specialty] ? 0 : specialtyCounts[specialty]})
               </option>
             </c:forEach>
           </select>
@@ -101,10 +102,82 @@
                    value="${param.location}" onchange="document.getElementById('filterForm').submit()">
           </div>
 
+          <div class="mb-3">
+            <label class="form-label">Event Location</label>
+            <input type="text" class="form-control" name="near" placeholder="Town or city of the event"
+                   value="${param.near}" onchange="document.getElementById('filterForm').submit()">
+            <select class="form-select mt-2" name="radius" onchange="document.getElementById('filterForm').submit()">
+              <c:forTokens var="miles" items="10,25,50,100" delims=",">
+                <option value="${miles}" ${param.radius == miles || (empty param.radius && miles == 25) ? 'selected' : ''}>
+                  Within ${miles} miles
+                </option>
+              </c:forTokens>
+            </select>
+          </div>
+
+          <div class="mb-3">
+            <label class="form-label">Base Price</label>
+            <div class="input-group">
+              <input type="number" class="form-control" name="minPrice" placeholder="Min" min="0" step="any"
+                     value="${param.minPrice}" onchange="document.getElementById('filterForm').submit()">
+              <input type="number" class="form-control" name="maxPrice" placeholder="Max" min="0" step="any"
+                     value="${param.maxPrice}" onchange="document.getElementById('filterForm').submit()">
+            </div>
+          </div>
+
+          <div class="mb-3">
+            <label class="form-label">Minimum Rating</label>
+            <select class="form-select" name="minRating" onchange="document.getElementById('filterForm').submit()">
+              <option value="">Any Rating</option>
+              <c:forEach var="ratingCount" items="${ratingCounts}">
+                <option value="${ratingCount.key}" ${param.minRating == ratingCount.key ? 'selected' : ''}>
+                  ${ratingCount.key}+ Stars (${ratingCount.value})
+                </option>
+              </c:forEach>
+            </select>
+          </div>
+
+          <div class="mb-3">
+            <label class="form-label">Available On</label>
+            <input type="date" class="form-control" name="availableDate"
+                   value="${param.availableDate}" onchange="document.getElementById('filterForm').submit()">
+            <div class="input-group mt-2">
+              <input type="time" class="form-control" name="availableTime"
+                     value="${param.availableTime}" onchange="document.getElementById('filterForm').submit()">
+              <select class="form-select" name="duration" onchange="document.getElementById('filterForm').submit()">
+                <c:forTokens var="hours" items="1,2,3,4,6,8" delims=",">
+                  <option value="${hours}" ${param.duration == hours || (empty param.duration && hours == 1) ? 'selected' : ''}>
+                    ${hours} ${hours == 1 ? 'hour' : 'hours'}
+                  </option>
+                </c:forTokens>
+              </select>
+            </div>
+            <select class="form-select mt-2" name="category" onchange="document.getElementById('filterForm').submit()">
+              <option value="">Any Service</option>
+              <option value="WEDDING" ${param.category == 'WEDDING' ? 'selected' : ''}>Wedding</option>
+              <option value="PORTRAIT" ${param.category == 'PORTRAIT' ? 'selected' : ''}>Portrait</option>
+              <option value="EVENT" ${param.category == 'EVENT' ? 'selected' : ''}>Event</option>
+              <option value="CORPORATE" ${param.category == 'CORPORATE' ? 'selected' : ''}>Corporate</option>
+              <option value="FAMILY" ${param.category == 'FAMILY' ? 'selected' : ''}>Family</option>
+              <option value="PRODUCT" ${param.category == 'PRODUCT' ? 'selected' : ''}>Product</option>
+              <option value="OTHER" ${param.category == 'OTHER' ? 'selected' : ''}>Other</option>
+            </select>
+          </div>
+
           <div class="mb-3">
             <label class="form-label">Sort By</label>
             <select class="form-select" name="sortBy" onchange="document.getElementById('filterForm').submit()">
-              <option value="rating-desc" ${param.sortBy == 'rating-desc' || param.sortBy == null ? 'selected' : ''}>
+              <c:if test="${not empty param.near}">
+                <option value="distance" ${param.sortBy == 'distance' || empty param.sortBy ? 'selected' : ''}>
+                  Nearest First
+                </option>
+              </c:if>
+              <c:if test="${not empty param.search && empty param.near}">
+                <option value="relevance" ${param.sortBy == 'relevance' || empty param.sortBy ? 'selected' : ''}>
+                  Best Match
+                </option>
+              </c:if>
+              <option value="rating-desc" ${param.sortBy == 'rating-desc' || (empty param.sortBy && empty param.near && empty param.search) ? 'selected' : ''}>
                 Highest Rating
               </option>
               <option value="price-asc" ${param.sortBy == 'price-asc' ? 'selected' : ''}>
@@ -177,6 +250,22 @@
                       </small>
                     </p>
 
+                    <!-- Distance and travel fee when searching near an event location -->
+                    <c:if test="${not empty distances[photographer.photographerId]}">
+                      <p class="card-text">
+                        <small class="text-muted">
+                          <i class="bi bi-signpost me-1"></i>
+                          <fmt:formatNumber value="${distances[photographer.photographerId]}" maxFractionDigits="1" /> miles away
+                          <c:choose>
+                            <c:when test="${travelFees[photographer.photographerId] > 0}">
+                              &middot; Travel fee $<fmt:formatNumber value="${travelFees[photographer.photographerId]}" minFractionDigits="2" maxFractionDigits="2" />
+                            </c:when>
+                            <c:otherwise>&middot; No travel fee</c:otherwise>
+                          </c:choose>
+                        </small>
+                      </p>
+                    </c:if>
+
                     <!-- Safely display specialties -->
                     <c:if test="${not empty photographer.specialties}">
                       <div class="mb-3">
@@ -204,7 +293,7 @@
               <ul class="pagination justify-content-center">
                 <!-- Previous page link -->
                 <li class="page-item ${currentPage == 1 ? 'disabled' : ''}">
-                  <a class="page-link" href="${pageContext.request.contextPath}/photographer/list?page=${currentPage - 1}&search=${param.search}&specialty=${param.specialty}&location=${param.location}&sortBy=${param.sortBy}"
+                  <a class="page-link" href="${pageContext.request.contextPath}/photographer/list?page=${currentPage - 1}&search=${param.search}&specialty=${param.specialty}&location=${param.location}&near=${param.near}&radius=${param.radius}&minPrice=${param.minPrice}&maxPrice=${param.maxPrice}&minRating=${param.minRating}&availableDate=${param.availableDate}&availableTime=${param.availableTime}&category=${param.category}&duration=${param.duration}&sortBy=${param.sortBy}"
                      aria-label="Previous">
                     <span aria-hidden="true">&laquo;</span>
                   </a>
@@ -213,7 +302,7 @@
                 <!-- Page number links -->
                 <c:forEach begin="1" end="${totalPages}" var="i">
                   <li class="page-item ${currentPage == i ? 'active' : ''}">
-                    <a class="page-link" href="${pageContext.request.contextPath}/photographer/list?page=${i}&search=${param.search}&specialty=${param.specialty}&location=${param.location}&sortBy=${param.sortBy}">
+                    <a class="page-link" href="${pageContext.request.contextPath}/photographer/list?page=${i}&search=${param.search}&specialty=${param.specialty}&location=${param.location}&near=${param.near}&radius=${param.radius}&minPrice=${param.minPrice}&maxPrice=${param.maxPrice}&minRating=${param.minRating}&availableDate=${param.availableDate}&availableTime=${param.availableTime}&category=${param.category}&duration=${param.duration}&sortBy=${param.sortBy}">
                         ${i}
                     </a>
                   </li>
@@ -221,7 +310,7 @@
 
                 <!-- Next page link -->
                 <li class="page-item ${currentPage == totalPages ? 'disabled' : ''}">
-                  <a class="page-link" href="${pageContext.request.contextPath}/photographer/list?page=${currentPage + 1}&search=${param.search}&specialty=${param.specialty}&location=${param.location}&sortBy=${param.sortBy}"
+                  <a class="page-link" href="${pageContext.request.contextPath}/photographer/list?page=${currentPage + 1}&search=${param.search}&specialty=${param.specialty}&location=${param.location}&near=${param.near}&radius=${param.radius}&minPrice=${param.minPrice}&maxPrice=${param.maxPrice}&minRating=${param.minRating}&availableDate=${param.availableDate}&availableTime=${param.availableTime}&category=${param.category}&duration=${param.duration}&sortBy=${param.sortBy}"
                      aria-label="Next">
                     <span aria-hidden="true">&raquo;</span>
                   </a>
@@ -241,5 +330,40 @@
 </div>
 
 <script src="https://cdn.jsdelivr.net/npm/bootstrap@5.1.3/dist/js/bootstrap.bundle.min.js"></script>
+<script>
+  // Suggest names, locations, specialties and galleries while typing
+  (function() {
+    var input = document.getElementById('searchInput');
+    var list = document.getElementById('searchSuggestions');
+    var timer = null;
+
+    input.addEventListener('input', function() {
+      clearTimeout(timer);
+      var query = input.value.trim();
+      if (query.length === 0) {
+        list.innerHTML = '';
+        return;
+      }
+
+      timer = setTimeout(function() {
+        fetch('${pageContext.request.contextPath}/photographer/autocomplete?q=' + encodeURIComponent(query))
+          .then(function(response) { return response.json(); })
+          .then(function(data) {
+            list.innerHTML = '';
+            if (!data.success || input.value.trim() !== query) {
+              return;
+            }
+            data.suggestions.forEach(function(suggestion) {
+              var option = document.createElement('option');
+              option.value = suggestion.text;
+              option.label = suggestion.type;
+              list.appendChild(option);
+            });
+          })
+          .catch(function() { list.innerHTML = ''; });
+      }, 150);
+    });
+  })();
+</script>
 </body>
 </html>
@@ -6,6 +6,7 @@
 <%@ page import="com.photobooking.model.photographer.PhotographerManager" %>
 <%@ page import="com.photobooking.model.photographer.Photographer" %>
 <%@ page import="com.photobooking.model.user.User" %>
+<%@ page import="com.photobooking.util.ManagerRegistry" %>
 <%@ page import="java.util.List" %>
 
 <%
@@ -27,7 +28,7 @@
   String photographerId = (String) session.getAttribute("photographerId");
   if (photographerId == null) {
     // Try to get photographer ID from database
-    PhotographerManager photographerManager = new PhotographerManager();
+    PhotographerManager photographerManager = ManagerRegistry.getInstance(application).getPhotographerManager();
     Photographer photographer = photographerManager.getPhotographerByUserId(currentUser.getUserId());
 
     if (photographer != null) {
@@ -41,7 +42,7 @@
   }
 
   // Load services for this photographer
-  PhotographerServiceManager serviceManager = new PhotographerServiceManager();
+  PhotographerServiceManager serviceManager = ManagerRegistry.getInstance(application).getServiceManager();
   List<PhotographerService> services = serviceManager.getServicesByPhotographer(photographerId);
 
   // Set services as request attribute to access in JSP
@@ -33,6 +33,15 @@
     if (unavailableDates == null) unavailableDates = new ArrayList<>();
     if (calendarEventsJson == null) calendarEventsJson = "[]";
 
+    // The servlet sends the events of one month; keep the view and date when moving to another month
+    String calendarMonth = (String) request.getAttribute("calendarMonth");
+    String calendarView = request.getParameter("view");
+    if (!"timeGridWeek".equals(calendarView) && !"listWeek".equals(calendarView)) calendarView = "dayGridMonth";
+    String calendarDate = request.getParameter("date");
+    if (calendarDate == null || !calendarDate.matches("\\d{4}-\\d{2}-\\d{2}") || !calendarDate.startsWith(calendarMonth)) {
+        calendarDate = calendarMonth + "-01";
+    }
+
     // Debug logging
     System.out.println("Upcoming Bookings: " + upcomingBookings.size());
     System.out.println("Unavailable Dates: " + unavailableDates.size());
@@ -384,7 +393,8 @@
         // Calendar Initialization
         const calendarEl = document.getElementById('calendar');
         const calendar = new FullCalendar.Calendar(calendarEl, {
-            initialView: 'dayGridMonth',
+            initialView: '<%= calendarView %>',
+            initialDate: '<%= calendarDate %>',
             height: 'auto',
             selectable: true,
             events: <%= calendarEventsJson %>,
@@ -417,6 +427,15 @@
                 hour: 'numeric',
                 minute: '2-digit',
                 meridiem: 'short'
+            },
+            datesSet: function(info) {
+                // Load the events of the month moved to
+                const current = calendar.getDate();
+                const month = current.getFullYear() + '-' + String(current.getMonth() + 1).padStart(2, '0');
+                if (month !== '<%= calendarMonth %>') {
+                    const date = month + '-' + String(current.getDate()).padStart(2, '0');
+                    window.location.search = '?month=' + month + '&view=' + info.view.type + '&date=' + date;
+                }
             }
         });
         calendar.render();
@@ -9,6 +9,7 @@
 <%@ page import="com.photobooking.model.user.UserManager" %>
 <%@ page import="com.photobooking.model.photographer.PhotographerManager" %>
 <%@ page import="com.photobooking.model.photographer.Photographer" %>
+<%@ page import="com.photobooking.util.ManagerRegistry" %>
 <%@ page import="java.util.List" %>
 <%@ page import="java.util.ArrayList" %>
 <%@ page import="java.time.LocalDateTime" %>
@@ -26,9 +27,9 @@
     }
 
     // Initialize managers
-    BookingManager bookingManager = new BookingManager();
-    UserManager userManager = new UserManager(getServletContext());
-    PhotographerManager photographerManager = new PhotographerManager();
+    BookingManager bookingManager = ManagerRegistry.getInstance(application).getBookingManager();
+    UserManager userManager = ManagerRegistry.getInstance(application).getUserManager();
+    PhotographerManager photographerManager = ManagerRegistry.getInstance(application).getPhotographerManager();
 
     // Get user's bookings
     List<Booking> allBookings = bookingManager.getBookingsByClient(currentUserId);
@@ -57,10 +58,10 @@
     }
 
     // Get upcoming bookings (next 5)
-    List<Booking> upcomingBookings = bookingManager.getUpcomingBookings(currentUserId, false);
+    List<Booking> upcomingBookings = bookingManager.getUpcomingBookings(currentUserId, false, 5, null);
     List<Map<String, Object>> upcomingBookingsWithDetails = new ArrayList<>();
 
-    for (Booking booking : upcomingBookings.subList(0, Math.min(5, upcomingBookings.size()))) {
+    for (Booking booking : upcomingBookings) {
         Map<String, Object> bookingDetails = new HashMap<>();
         bookingDetails.put("booking", booking);
 
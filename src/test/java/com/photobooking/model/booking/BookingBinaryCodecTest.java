@@ -0,0 +1,98 @@
+package com.photobooking.model.booking;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for BookingBinaryCodec
+ */
+public class BookingBinaryCodecTest extends TestCase {
+    private final BookingBinaryCodec codec = BookingBinaryCodec.INSTANCE;
+
+    private Booking booking;
+
+    @Override
+    protected void setUp() {
+        booking = new Booking(UUID.randomUUID().toString(), UUID.randomUUID().toString(), "service-1",
+                LocalDateTime.of(2026, 12, 5, 14, 0), "Galle Face Hotel, Colombo",
+                Booking.BookingType.WEDDING, 85000.0);
+        booking.setBookingDateTime(LocalDateTime.of(2026, 10, 1, 9, 15, 30));
+        booking.setEventNotes("Bring a second shooter");
+        booking.setStatus(Booking.BookingStatus.CONFIRMED);
+        booking.setDurationHours(6);
+    }
+
+    public void testCurrentVersionRoundTrip() throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(encode(booking));
+        Booking read = codec.read(in, codec.getSchemaVersion());
+
+        assertSameBooking(booking, read);
+        assertEquals(6, read.getDurationHours());
+        assertFalse(in.hasRemaining());
+    }
+
+    public void testVersionOneRecordReadsWithDefaultDuration() throws IOException {
+        // Version 1 records are the current layout without the trailing duration
+        byte[] current = encode(booking);
+        ByteBuffer in = ByteBuffer.wrap(current, 0, current.length - Integer.BYTES);
+        Booking read = codec.read(in, 1);
+
+        assertSameBooking(booking, read);
+        assertEquals(Booking.DEFAULT_DURATION_HOURS, read.getDurationHours());
+        assertFalse(in.hasRemaining());
+    }
+
+    public void testVersionOneRecordsReadBackToBack() throws IOException {
+        Booking second = new Booking();
+        second.setEventDateTime(LocalDateTime.of(2027, 1, 10, 8, 0));
+        second.setEventType(Booking.BookingType.PORTRAIT);
+
+        byte[] first = encode(booking);
+        byte[] next = encode(second);
+        ByteBuffer in = ByteBuffer.allocate(first.length + next.length - 2 * Integer.BYTES);
+        in.put(first, 0, first.length - Integer.BYTES).put(next, 0, next.length - Integer.BYTES).flip();
+
+        assertSameBooking(booking, codec.read(in, 1));
+        assertSameBooking(second, codec.read(in, 1));
+        assertFalse(in.hasRemaining());
+    }
+
+    public void testNullFieldsRoundTrip() throws IOException {
+        Booking empty = new Booking();
+        empty.setBookingId("legacy-id");
+
+        Booking read = codec.read(ByteBuffer.wrap(encode(empty)), codec.getSchemaVersion());
+
+        assertSameBooking(empty, read);
+        assertNull(read.getClientId());
+        assertNull(read.getEventLocation());
+    }
+
+    private byte[] encode(Booking value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            codec.write(value, out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void assertSameBooking(Booking expected, Booking actual) {
+        assertEquals(expected.getBookingId(), actual.getBookingId());
+        assertEquals(expected.getClientId(), actual.getClientId());
+        assertEquals(expected.getPhotographerId(), actual.getPhotographerId());
+        assertEquals(expected.getServiceId(), actual.getServiceId());
+        assertEquals(expected.getBookingDateTime(), actual.getBookingDateTime());
+        assertEquals(expected.getEventDateTime(), actual.getEventDateTime());
+        assertEquals(expected.getEventLocation(), actual.getEventLocation());
+        assertEquals(expected.getEventNotes(), actual.getEventNotes());
+        assertEquals(expected.getEventType(), actual.getEventType());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getTotalPrice(), actual.getTotalPrice(), 0.0);
+    }
+}
@@ -0,0 +1,128 @@
+package com.photobooking.model.booking;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for BookingIntervalTree
+ */
+public class BookingIntervalTreeTest extends TestCase {
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 12, 5, 0, 0);
+
+    private BookingIntervalTree tree;
+
+    @Override
+    protected void setUp() {
+        tree = new BookingIntervalTree();
+    }
+
+    public void testEmptyTreeHasNoConflicts() {
+        assertTrue(tree.isEmpty());
+        assertFalse(tree.overlaps(at(9), at(17)));
+    }
+
+    public void testOverlappingRangesConflict() {
+        tree.insert(at(10), at(13), booking("b1"));
+
+        assertTrue(tree.overlaps(at(9), at(11)));
+        assertTrue(tree.overlaps(at(12), at(15)));
+        assertTrue(tree.overlaps(at(11), at(12)));
+        assertTrue(tree.overlaps(at(8), at(16)));
+    }
+
+    public void testAdjacentRangesDoNotConflict() {
+        tree.insert(at(10), at(13), booking("b1"));
+
+        assertFalse(tree.overlaps(at(7), at(10)));
+        assertFalse(tree.overlaps(at(13), at(16)));
+    }
+
+    public void testGapBetweenBookingsIsFree() {
+        tree.insert(at(8), at(10), booking("b1"));
+        tree.insert(at(14), at(18), booking("b2"));
+        tree.insert(at(1), at(3), booking("b3"));
+
+        assertFalse(tree.overlaps(at(10), at(14)));
+        assertTrue(tree.overlaps(at(10), at(15)));
+        assertTrue(tree.overlaps(at(2), at(9)));
+    }
+
+    public void testLongBookingOnTheLeftIsFound() {
+        // A long booking starting early must be found from a query well after its start
+        tree.insert(at(1), at(20), booking("long"));
+        for (int hour = 2; hour < 20; hour++) {
+            tree.insert(at(hour), at(hour).plusMinutes(30), booking("short" + hour));
+        }
+
+        assertTrue(tree.overlaps(at(19).plusMinutes(40), at(21)));
+        assertTrue(tree.remove(at(1), "long"));
+        assertFalse(tree.overlaps(at(19).plusMinutes(40), at(21)));
+    }
+
+    public void testRemove() {
+        tree.insert(at(10), at(13), booking("b1"));
+        tree.insert(at(10), at(12), booking("b2"));
+
+        assertTrue(tree.remove(at(10), "b1"));
+        assertTrue(tree.overlaps(at(11), at(12)));
+        assertFalse(tree.overlaps(at(12), at(13)));
+
+        assertTrue(tree.remove(at(10), "b2"));
+        assertTrue(tree.isEmpty());
+    }
+
+    public void testRemoveMissingRange() {
+        tree.insert(at(10), at(13), booking("b1"));
+
+        assertFalse(tree.remove(at(11), "b1"));
+        assertFalse(tree.remove(at(10), "b2"));
+        assertTrue(tree.overlaps(at(10), at(11)));
+    }
+
+    public void testMatchesLinearScan() {
+        Random random = new Random(42);
+        List<LocalDateTime[]> ranges = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+
+        for (int step = 0; step < 2000; step++) {
+            if (!ranges.isEmpty() && random.nextInt(3) == 0) {
+                int index = random.nextInt(ranges.size());
+                assertTrue(tree.remove(ranges.get(index)[0], ids.get(index)));
+                ranges.remove(index);
+                ids.remove(index);
+            } else {
+                LocalDateTime start = DAY.plusMinutes(30L * random.nextInt(500));
+                LocalDateTime end = start.plusMinutes(30L * (1 + random.nextInt(12)));
+                String id = "b" + step;
+                tree.insert(start, end, booking(id));
+                ranges.add(new LocalDateTime[] {start, end});
+                ids.add(id);
+            }
+
+            LocalDateTime queryStart = DAY.plusMinutes(30L * random.nextInt(500));
+            LocalDateTime queryEnd = queryStart.plusMinutes(30L * (1 + random.nextInt(12)));
+            boolean expected = false;
+            for (LocalDateTime[] range : ranges) {
+                if (range[0].isBefore(queryEnd) && range[1].isAfter(queryStart)) {
+                    expected = true;
+                    break;
+                }
+            }
+            assertEquals("step " + step, expected, tree.overlaps(queryStart, queryEnd));
+        }
+    }
+
+    private static LocalDateTime at(int hour) {
+        return DAY.plusHours(hour);
+    }
+
+    private static Booking booking(String bookingId) {
+        Booking booking = new Booking();
+        booking.setBookingId(bookingId);
+        return booking;
+    }
+}
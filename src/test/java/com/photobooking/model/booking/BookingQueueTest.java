@@ -0,0 +1,198 @@
+package com.photobooking.model.booking;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the journaled BookingQueue, restarting the queue from its journal file
+ */
+public class BookingQueueTest extends TestCase {
+    private static final LocalDateTime EVENT = LocalDateTime.of(2026, 12, 5, 10, 0);
+
+    private File journalFile;
+    private InMemoryBookingManager bookingManager;
+
+    /**
+     * Keeps saved bookings in memory, so the tests never write the application's data files
+     */
+    private static class InMemoryBookingManager extends BookingManager {
+        private final Map<String, Booking> saved = new LinkedHashMap<>();
+
+        @Override
+        public synchronized boolean createBooking(Booking booking) {
+            saved.put(booking.getBookingId(), booking);
+            return true;
+        }
+
+        @Override
+        public synchronized boolean reserveSlot(Booking booking) {
+            for (Booking existing : saved.values()) {
+                if (existing.getStatus() != Booking.BookingStatus.CANCELLED
+                        && existing.getPhotographerId().equals(booking.getPhotographerId())
+                        && existing.getEventDateTime().equals(booking.getEventDateTime())) {
+                    return false;
+                }
+            }
+            return createBooking(booking);
+        }
+
+        @Override
+        public synchronized Booking getBookingById(String bookingId) {
+            return saved.get(bookingId);
+        }
+    }
+
+    @Override
+    protected void setUp() throws IOException {
+        journalFile = File.createTempFile("booking_queue", ".txt");
+        bookingManager = new InMemoryBookingManager();
+    }
+
+    @Override
+    protected void tearDown() {
+        File directory = journalFile.getParentFile();
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(journalFile.getName()));
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+    }
+
+    public void testQueuedBookingsSurviveRestart() {
+        BookingQueue queue = newQueue();
+        Booking first = booking("p1", 0);
+        Booking second = booking("p2", 0);
+        assertTrue(queue.enqueue(first));
+        assertTrue(queue.enqueue(second));
+
+        BookingQueue restarted = newQueue();
+
+        assertEquals(ids(first, second), ids(restarted.getAllQueuedBookings()));
+        assertEquals(1, restarted.sizeForPhotographer("p1"));
+    }
+
+    public void testProcessedBookingIsNotReplayed() {
+        BookingQueue queue = newQueue();
+        Booking first = booking("p1", 0);
+        Booking second = booking("p1", 2);
+        queue.enqueue(first);
+        queue.enqueue(second);
+
+        assertSame(first, queue.dequeue());
+
+        BookingQueue restarted = newQueue();
+        assertEquals(ids(second), ids(restarted.getAllQueuedBookings()));
+        assertEquals(Booking.BookingStatus.PENDING, bookingManager.getBookingById(first.getBookingId()).getStatus());
+    }
+
+    public void testCrashBeforeSaveReplaysBooking() {
+        BookingQueue queue = newQueue();
+        Booking booking = booking("p1", 0);
+        queue.enqueue(booking);
+
+        // Taken off the queue, then the process stops before the booking is saved
+        assertSame(booking, queue.takeForProcessing(booking.getBookingId()));
+        assertTrue(queue.isEmpty());
+
+        BookingQueue restarted = newQueue();
+        assertEquals(ids(booking), ids(restarted.getAllQueuedBookings()));
+    }
+
+    public void testCrashAfterSaveBeforeFinishProcessingSkipsSavedBooking() {
+        BookingQueue queue = newQueue();
+        Booking saved = booking("p1", 0);
+        Booking waiting = booking("p1", 2);
+        queue.enqueue(saved);
+        queue.enqueue(waiting);
+
+        // Saved, then the process stops before the removal is journaled
+        queue.takeForProcessing(saved.getBookingId());
+        assertTrue(bookingManager.reserveSlot(saved));
+
+        BookingQueue restarted = newQueue();
+        assertEquals(ids(waiting), ids(restarted.getAllQueuedBookings()));
+        assertNull(restarted.getQueuedBooking(saved.getBookingId()));
+    }
+
+    public void testFinishProcessingJournalsRemoval() {
+        BookingQueue queue = newQueue();
+        Booking booking = booking("p1", 0);
+        queue.enqueue(booking);
+
+        queue.takeForProcessing(booking.getBookingId());
+        queue.finishProcessing(Collections.singletonList(booking));
+
+        // Not saved, but its removal was journaled, so it is gone after a restart
+        assertTrue(newQueue().isEmpty());
+    }
+
+    public void testReturnedBookingStaysQueued() {
+        BookingQueue queue = newQueue();
+        Booking first = booking("p1", 0);
+        Booking second = booking("p1", 2);
+        queue.enqueue(first);
+        queue.enqueue(second);
+
+        queue.takeForProcessing(first.getBookingId());
+        queue.returnToQueue(first);
+
+        assertEquals(ids(second, first), ids(queue.getAllQueuedBookings()));
+        assertEquals(2, queue.sizeForPhotographer("p1"));
+        assertEquals(2, newQueue().size());
+    }
+
+    public void testRemovedWithoutPersistingIsNotReplayed() {
+        BookingQueue queue = newQueue();
+        Booking booking = booking("p1", 0);
+        queue.enqueue(booking);
+
+        assertSame(booking, queue.processBookingById(booking.getBookingId(), false));
+
+        assertTrue(newQueue().isEmpty());
+        assertNull(bookingManager.getBookingById(booking.getBookingId()));
+    }
+
+    public void testBookingForTakenSlotIsSavedCancelled() {
+        BookingQueue queue = newQueue();
+        Booking first = booking("p1", 0);
+        Booking clash = booking("p1", 0);
+        queue.enqueue(first);
+        queue.enqueue(clash);
+
+        queue.processAllBookings();
+
+        assertEquals(Booking.BookingStatus.PENDING, bookingManager.getBookingById(first.getBookingId()).getStatus());
+        assertEquals(Booking.BookingStatus.CANCELLED, bookingManager.getBookingById(clash.getBookingId()).getStatus());
+        assertTrue(newQueue().isEmpty());
+    }
+
+    private BookingQueue newQueue() {
+        return new BookingQueue(bookingManager, journalFile.getAbsolutePath());
+    }
+
+    private static Booking booking(String photographerId, int hoursAfterEvent) {
+        return new Booking("client-1", photographerId, "service-1", EVENT.plusHours(hoursAfterEvent),
+                "Colombo", Booking.BookingType.EVENT, 25000.0);
+    }
+
+    private static List<String> ids(Booking... bookings) {
+        List<String> ids = new ArrayList<>();
+        for (Booking booking : bookings) {
+            ids.add(booking.getBookingId());
+        }
+        return ids;
+    }
+
+    private static List<String> ids(List<Booking> bookings) {
+        return ids(bookings.toArray(new Booking[0]));
+    }
+}
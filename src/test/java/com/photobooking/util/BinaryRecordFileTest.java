@@ -0,0 +1,108 @@
+package com.photobooking.util;
+
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for BinaryRecordFile
+ */
+public class BinaryRecordFileTest extends TestCase {
+
+    /**
+     * Stores each record as a single string field
+     */
+    private static class TextCodec implements BinaryCodec<String> {
+        private final int schemaVersion;
+
+        TextCodec(int schemaVersion) {
+            this.schemaVersion = schemaVersion;
+        }
+
+        @Override
+        public int getSchemaVersion() {
+            return schemaVersion;
+        }
+
+        @Override
+        public void write(String record, DataOutput out) throws IOException {
+            BinaryFields.writeString(out, record);
+        }
+
+        @Override
+        public String read(ByteBuffer in, int schemaVersion) {
+            return BinaryFields.readString(in);
+        }
+    }
+
+    private File file;
+
+    @Override
+    protected void setUp() throws IOException {
+        file = File.createTempFile("records", BinaryRecordFile.BINARY_SUFFIX);
+    }
+
+    @Override
+    protected void tearDown() {
+        file.delete();
+    }
+
+    public void testCommitAndLoad() {
+        BinaryRecordFile<String> records = open(1);
+
+        assertTrue(records.commit(Arrays.asList("first", "second")));
+        assertEquals(Arrays.asList("first", "second"), records.load());
+    }
+
+    public void testMissingFileLoadsAsNull() {
+        file.delete();
+
+        assertNull(open(1).load());
+    }
+
+    public void testEmptyFileLoadsAsEmpty() {
+        List<String> loaded = open(1).load();
+
+        assertNotNull(loaded);
+        assertTrue(loaded.isEmpty());
+    }
+
+    public void testFileWithoutMagicNumberIsUnreadable() throws IOException {
+        Files.write(file.toPath(), "not,a,binary,file\n".getBytes("UTF-8"));
+
+        assertUnreadable(open(1));
+    }
+
+    public void testNewerSchemaIsUnreadable() {
+        assertTrue(open(2).commit(Arrays.asList("first")));
+
+        assertUnreadable(open(1));
+    }
+
+    public void testTruncatedFileIsUnreadable() throws IOException {
+        assertTrue(open(1).commit(Arrays.asList("first", "second")));
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 2));
+
+        assertUnreadable(open(1));
+    }
+
+    private BinaryRecordFile<String> open(int schemaVersion) {
+        return new BinaryRecordFile<>(file.getAbsolutePath(), new TextCodec(schemaVersion));
+    }
+
+    private static void assertUnreadable(BinaryRecordFile<String> records) {
+        try {
+            records.load();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.photobooking.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for PrefixTrie
+ */
+public class PrefixTrieTest extends TestCase {
+    private PrefixTrie<String> trie;
+
+    @Override
+    protected void setUp() {
+        trie = new PrefixTrie<>();
+        trie.put("colombo", "Colombo Studio", 4.0);
+        trie.put("colombo", "Colombo Weddings", 4.5);
+        trie.put("columbia", "Columbia Photo", 3.0);
+        trie.put("kandy", "Kandy Lens", 5.0);
+    }
+
+    public void testTopReturnsHeaviestValuesUnderPrefixFirst() {
+        assertEquals(Arrays.asList("Colombo Weddings", "Colombo Studio", "Columbia Photo"), trie.top("col", 10));
+    }
+
+    public void testTopMatchesPrefixEndingPartWayAlongAnEdge() {
+        assertEquals(Arrays.asList("Colombo Weddings", "Colombo Studio"), trie.top("colom", 10));
+        assertEquals(Collections.singletonList("Kandy Lens"), trie.top("k", 10));
+    }
+
+    public void testTopIsLimited() {
+        assertEquals(Collections.singletonList("Kandy Lens"), trie.top("", 1));
+        assertTrue(trie.top("col", 0).isEmpty());
+    }
+
+    public void testTopWithUnknownPrefixIsEmpty() {
+        assertTrue(trie.top("galle", 10).isEmpty());
+        assertTrue(trie.top("colz", 10).isEmpty());
+    }
+
+    public void testPutReplacesWeightOfStoredValue() {
+        trie.put("colombo", "Colombo Studio", 5.0);
+
+        assertEquals(Arrays.asList("Colombo Studio", "Colombo Weddings"), trie.top("colombo", 10));
+    }
+
+    public void testValueStoredUnderSeveralKeysIsReturnedOnce() {
+        trie.put("weddings", "Colombo Weddings", 4.5);
+        trie.put("wedding photos", "Colombo Weddings", 4.5);
+
+        assertEquals(Collections.singletonList("Colombo Weddings"), trie.top("wed", 10));
+    }
+
+    public void testRemove() {
+        assertTrue(trie.remove("colombo", "Colombo Weddings"));
+
+        assertEquals(Arrays.asList("Colombo Studio", "Columbia Photo"), trie.top("col", 10));
+    }
+
+    public void testRemoveLastValueUnderKeyKeepsSiblingKeys() {
+        assertTrue(trie.remove("colombo", "Colombo Weddings"));
+        assertTrue(trie.remove("colombo", "Colombo Studio"));
+
+        assertEquals(Collections.singletonList("Columbia Photo"), trie.top("col", 10));
+        assertTrue(trie.top("colom", 10).isEmpty());
+
+        // Keys sharing the merged edge can still be added
+        trie.put("colt", "Colt Images", 2.0);
+        assertEquals(Arrays.asList("Columbia Photo", "Colt Images"), trie.top("col", 10));
+    }
+
+    public void testRemoveMissingValueOrKey() {
+        assertFalse(trie.remove("colombo", "Kandy Lens"));
+        assertFalse(trie.remove("colomb", "Colombo Studio"));
+        assertFalse(trie.remove("galle", "Colombo Studio"));
+
+        assertEquals(3, trie.top("col", 10).size());
+    }
+
+    public void testClear() {
+        trie.clear();
+
+        assertTrue(trie.top("", 10).isEmpty());
+    }
+}
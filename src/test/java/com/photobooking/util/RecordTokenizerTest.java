@@ -0,0 +1,115 @@
+package com.photobooking.util;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.NoSuchElementException;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for RecordTokenizer
+ */
+public class RecordTokenizerTest extends TestCase {
+
+    public void testPlainFields() {
+        RecordTokenizer tokenizer = new RecordTokenizer("b1,42,-7,3.5,true,2026-05-01T10:30,");
+
+        assertEquals("b1", tokenizer.next());
+        assertEquals(42, tokenizer.nextInt());
+        assertEquals(-7L, tokenizer.nextLong());
+        assertEquals(3.5, tokenizer.nextDouble(), 0.0);
+        assertTrue(tokenizer.nextBoolean());
+        assertEquals(LocalDateTime.of(2026, 5, 1, 10, 30), tokenizer.nextDateTime());
+        assertNull(tokenizer.nextOrNull());
+        assertFalse(tokenizer.hasNext());
+    }
+
+    public void testReadingPastLastFieldFails() {
+        RecordTokenizer tokenizer = new RecordTokenizer("only");
+        tokenizer.next();
+
+        try {
+            tokenizer.next();
+            fail("Expected NoSuchElementException");
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+    }
+
+    public void testQuotedFieldKeepsSeparatorsAndEscapes() {
+        RecordTokenizer tokenizer = new RecordTokenizer("x,\"a, \\\"b\\\" \\\\ c\\nd\",y");
+
+        assertEquals("x", tokenizer.next());
+        assertEquals("a, \"b\" \\ c\nd", tokenizer.next());
+        assertEquals("y", tokenizer.next());
+        assertFalse(tokenizer.hasNext());
+    }
+
+    public void testCountFieldsIgnoresSeparatorsInQuotes() {
+        assertEquals(3, new RecordTokenizer("x,\"a,b\\\",c\",y").countFields());
+        assertEquals(1, new RecordTokenizer("").countFields());
+    }
+
+    public void testSkipQuotedField() {
+        RecordTokenizer tokenizer = new RecordTokenizer("\"a,b\",c");
+        tokenizer.skip();
+
+        assertEquals("c", tokenizer.next());
+    }
+
+    public void testFieldQuotesOnlyWhenNeeded() {
+        assertEquals("plain", RecordTokenizer.field("plain"));
+        assertEquals("", RecordTokenizer.field(null));
+        assertEquals("\"a,b\"", RecordTokenizer.field("a,b"));
+        assertEquals("\"say \\\"hi\\\"\"", RecordTokenizer.field("say \"hi\""));
+        assertEquals("\"a|b\"", RecordTokenizer.field("a|b"));
+    }
+
+    public void testFieldRoundTrip() {
+        String text = "Line one, \"quoted\"\r\nline two \\ done;; end|";
+        RecordTokenizer tokenizer = new RecordTokenizer(RecordTokenizer.field(text) + ",next");
+
+        assertEquals(text, tokenizer.nextText());
+        assertEquals("next", tokenizer.next());
+    }
+
+    public void testLegacyCommaEscapeInUnquotedText() {
+        RecordTokenizer tokenizer = new RecordTokenizer("Great shots;; very friendly,5");
+
+        assertEquals("Great shots, very friendly", tokenizer.nextText());
+        assertEquals(5, tokenizer.nextInt());
+    }
+
+    public void testLegacyCommaEscapeNotDecodedInQuotedText() {
+        RecordTokenizer tokenizer = new RecordTokenizer(RecordTokenizer.field("a;;b"));
+
+        assertEquals("a;;b", tokenizer.nextText());
+    }
+
+    public void testLegacyCommaEscapeNotDecodedByNext() {
+        assertEquals("a;;b", new RecordTokenizer("a;;b").next());
+    }
+
+    public void testListRoundTrip() {
+        String field = RecordTokenizer.listField(Arrays.asList("Weddings", "Events, Parties", "A|B"));
+        RecordTokenizer tokenizer = new RecordTokenizer(field + ",tail");
+
+        assertEquals(Arrays.asList("Weddings", "Events, Parties", "A|B"), tokenizer.nextList());
+        assertEquals("tail", tokenizer.next());
+    }
+
+    public void testEmptyList() {
+        assertEquals("", RecordTokenizer.listField(Collections.<String>emptyList()));
+        assertTrue(new RecordTokenizer(",x").nextList().isEmpty());
+    }
+
+    public void testNextIntRejectsNonNumbers() {
+        try {
+            new RecordTokenizer("12a").nextInt();
+            fail("Expected NumberFormatException");
+        } catch (NumberFormatException e) {
+            // expected
+        }
+    }
+}